@@ -0,0 +1,64 @@
+package sample.pos.analytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sample.pos.domain.RentalAgreement;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks revenue by tool type over a List of agreement objects, against the {@link ColumnarAgreementStore}
+ * on one thread and on the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AgreementAggregationBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private List<RentalAgreement> agreements;
+
+    private ColumnarAgreementStore singleThreadedStore;
+
+    private ColumnarAgreementStore parallelStore;
+
+    @Setup
+    public void setUp() {
+        agreements = AgreementFixtures.agreements(rows, LocalDate.of(2020, 1, 1));
+
+        singleThreadedStore = new ColumnarAgreementStore(ForkJoinPool.commonPool(), 1);
+        singleThreadedStore.appendAll(agreements);
+        parallelStore = new ColumnarAgreementStore();
+        parallelStore.appendAll(agreements);
+    }
+
+    @Benchmark
+    public Map<String, Long> revenueByToolTypeFromList() {
+        return agreements.stream()
+                .collect(Collectors.groupingBy(RentalAgreement::getToolType, Collectors.summingLong(RentalAgreement::getFinalChargeCents)));
+    }
+
+    @Benchmark
+    public AgreementAggregate aggregateColumnsSingleThreaded() throws InterruptedException, ExecutionException {
+        return singleThreadedStore.aggregate();
+    }
+
+    @Benchmark
+    public AgreementAggregate aggregateColumnsParallel() throws InterruptedException, ExecutionException {
+        return parallelStore.aggregate();
+    }
+}
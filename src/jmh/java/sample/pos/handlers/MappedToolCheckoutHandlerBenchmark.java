@@ -0,0 +1,65 @@
+package sample.pos.handlers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MappedToolCheckoutHandler#handle}, for both a valid request and a request with an
+ * unknown tool code (exception path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappedToolCheckoutHandlerBenchmark {
+
+    private MappedToolCheckoutHandler handler;
+
+    private CheckinRequest validRequest;
+
+    private CheckinRequest invalidCodeRequest;
+
+    @Setup
+    public void setUp() {
+        handler = new MappedToolCheckoutHandler(new MappedToolRepository(), new DefaultRentalAgreementCalculator());
+        validRequest = CheckinRequest.builder()
+                .toolCode("JAKR")
+                .dayCount(9)
+                .discountPercentage(0)
+                .checkoutDate(LocalDate.of(2015, 7, 2))
+                .build();
+        invalidCodeRequest = CheckinRequest.builder()
+                .toolCode("0000")
+                .dayCount(9)
+                .discountPercentage(0)
+                .checkoutDate(LocalDate.of(2015, 7, 2))
+                .build();
+    }
+
+    @Benchmark
+    public RentalAgreement handleValid() throws Exception {
+        return handler.handle(validRequest);
+    }
+
+    @Benchmark
+    public Exception handleInvalidToolCode() throws Exception {
+        try {
+            handler.handle(invalidCodeRequest);
+            throw new IllegalStateException("Expected InvalidToolCodeException");
+        } catch (InvalidToolCodeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package sample.pos.renderers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering a {@link RentalAgreement}, as text and as JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RentalAgreementRendererBenchmark {
+
+    private RentalAgreement rentalAgreement;
+
+    private RentalAgreementTextRenderer textRenderer;
+
+    private StreamingRentalAgreementTextRenderer streamingRenderer;
+
+    private RentalAgreementJsonRenderer jsonRenderer;
+
+    private final StringBuilder reusedBuilder = new StringBuilder(StreamingRenderer.DEFAULT_CAPACITY);
+
+    private final ByteBuffer reusedBuffer = ByteBuffer.allocateDirect(StreamingRenderer.DEFAULT_CAPACITY);
+
+    @Setup
+    public void setUp() {
+        var tool = Tool.builder()
+                .code("LADW")
+                .brand("Werner")
+                .type(ToolType.LADDER)
+                .build();
+        rentalAgreement = new DefaultRentalAgreementCalculator().calculate(tool, 3, 10, LocalDate.of(2020, 7, 2));
+        textRenderer = new RentalAgreementTextRenderer();
+        streamingRenderer = new StreamingRentalAgreementTextRenderer();
+        jsonRenderer = new RentalAgreementJsonRenderer();
+    }
+
+    @Benchmark
+    public String renderText() {
+        return textRenderer.render(rentalAgreement);
+    }
+
+    @Benchmark
+    public StringBuilder renderStreamingToStringBuilder() throws IOException {
+        reusedBuilder.setLength(0);
+        return streamingRenderer.renderTo(rentalAgreement, reusedBuilder);
+    }
+
+    @Benchmark
+    public ByteBuffer renderStreamingToByteBuffer() {
+        return streamingRenderer.renderTo(rentalAgreement, reusedBuffer.clear());
+    }
+
+    @Benchmark
+    public String renderJson() {
+        return jsonRenderer.render(rentalAgreement);
+    }
+
+    @Benchmark
+    public ByteBuffer renderJsonToByteBuffer() {
+        return jsonRenderer.renderTo(rentalAgreement, reusedBuffer.clear());
+    }
+}
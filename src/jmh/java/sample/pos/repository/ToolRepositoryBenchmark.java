@@ -0,0 +1,51 @@
+package sample.pos.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sample.pos.domain.Tool;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks {@link ToolRepository#findByToolCode} for upper-case, lower-case and unknown codes, for each
+ * repository implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ToolRepositoryBenchmark {
+
+    @Param({"mapped", "concurrent", "packed"})
+    public String repositoryType;
+
+    @Param({"JAKD", "ladw", "0000"})
+    public String toolCode;
+
+    private ToolRepository repository;
+
+    @Setup
+    public void setUp() {
+        var tools = Stream.of("CHNS", "LADW", "JAKD", "JAKR")
+                .map(code -> new MappedToolRepository().findByToolCode(code).orElseThrow())
+                .toList();
+        repository = switch (repositoryType) {
+            case "mapped" -> new MappedToolRepository();
+            case "concurrent" -> new ConcurrentToolRepository(tools);
+            case "packed" -> new PackedToolCatalog(tools);
+            default -> throw new IllegalArgumentException("Unknown repository type: " + repositoryType);
+        };
+    }
+
+    @Benchmark
+    public Optional<Tool> findByToolCode() {
+        return repository.findByToolCode(toolCode);
+    }
+}
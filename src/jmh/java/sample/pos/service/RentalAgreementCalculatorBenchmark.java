@@ -0,0 +1,61 @@
+package sample.pos.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link RentalAgreementCalculator#calculate} for every ToolType, across short and multi-year
+ * rentals, for each calculator implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RentalAgreementCalculatorBenchmark {
+
+    @Param({"default", "closedForm", "prefixSum"})
+    public String calculatorType;
+
+    @Param({"LADDER", "CHAINSAW", "JACK_HAMMER"})
+    public ToolType toolType;
+
+    @Param({"5", "90", "730"})
+    public int dayCount;
+
+    private RentalAgreementCalculator calculator;
+
+    private Tool tool;
+
+    private final LocalDate checkoutDate = LocalDate.of(2020, 7, 2);
+
+    @Setup
+    public void setUp() {
+        calculator = switch (calculatorType) {
+            case "default" -> new DefaultRentalAgreementCalculator();
+            case "closedForm" -> new ClosedFormRentalAgreementCalculator();
+            case "prefixSum" -> new PrefixSumRentalAgreementCalculator();
+            default -> throw new IllegalArgumentException("Unknown calculator type: " + calculatorType);
+        };
+        tool = Tool.builder()
+                .code("TEST")
+                .brand("Test")
+                .type(toolType)
+                .build();
+    }
+
+    @Benchmark
+    public RentalAgreement calculate() {
+        return calculator.calculate(tool, dayCount, 10, checkoutDate);
+    }
+}
@@ -2,6 +2,8 @@ package sample.pos;
 
 import sample.pos.domain.CheckinRequest;
 import sample.pos.domain.RentalAgreement;
+import sample.pos.events.PosHandleEvent;
+import sample.pos.events.PosProcessEvent;
 import sample.pos.handlers.Handler;
 import sample.pos.processors.Processor;
 import sample.pos.renderers.Renderer;
@@ -9,8 +11,11 @@ import sample.pos.renderers.Renderer;
 /**
  * POS-Handler used with an in-house tool repository consisting of a local Tool Hashmap.
  * <p>
- * Processing of RentalAgreements equates to printing them out on the screen. No RentalAgreement persistence
+ * Processing of RentalAgreements equates to printing them out on the screen, unless a processor delegate
+ * (ie, an {@link sample.pos.processors.AsyncBatchingProcessor}) is supplied. No RentalAgreement persistence
  * takes place.
+ * <p>
+ * Handling and processing emit {@link PosHandleEvent} and {@link PosProcessEvent} Flight Recorder events.
  */
 public class MappedToolPOS implements Handler<CheckinRequest, RentalAgreement>, Processor<RentalAgreement> {
 
@@ -25,10 +30,24 @@ public class MappedToolPOS implements Handler<CheckinRequest, RentalAgreement>,
      */
     private final Handler<CheckinRequest, RentalAgreement> handlerDelegate;
 
+    /**
+     * Delegate for the processing logic. Defaults to printing the rendered agreement to standard output.
+     */
+    private final Processor<RentalAgreement> processorDelegate;
+
     public MappedToolPOS(Renderer<RentalAgreement> renderer,
                          Handler<CheckinRequest, RentalAgreement> handlerDelegate) {
         this.renderer = renderer;
         this.handlerDelegate = handlerDelegate;
+        this.processorDelegate = rentalAgreement -> System.out.println(renderer.render(rentalAgreement));
+    }
+
+    public MappedToolPOS(Renderer<RentalAgreement> renderer,
+                         Handler<CheckinRequest, RentalAgreement> handlerDelegate,
+                         Processor<RentalAgreement> processorDelegate) {
+        this.renderer = renderer;
+        this.handlerDelegate = handlerDelegate;
+        this.processorDelegate = processorDelegate;
     }
 
     /**
@@ -36,11 +55,19 @@ public class MappedToolPOS implements Handler<CheckinRequest, RentalAgreement>,
      */
     @Override
     public RentalAgreement handle(CheckinRequest checkinRequest) throws Exception {
-        return handlerDelegate.handle(checkinRequest);
+        var event = new PosHandleEvent();
+        event.begin();
+        RentalAgreement rentalAgreement = null;
+        try {
+            rentalAgreement = handlerDelegate.handle(checkinRequest);
+            return rentalAgreement;
+        } finally {
+            event.finish(checkinRequest, rentalAgreement);
+        }
     }
 
     /**
-     * Prints out rental agreement to standard output.
+     * Prints out rental agreement to standard output, or hands it off to the processor delegate if one was given.
      * <p>
      * Relies on {@link Renderer} object to render rental agreement in proper format
      *
@@ -48,6 +75,12 @@ public class MappedToolPOS implements Handler<CheckinRequest, RentalAgreement>,
      */
     @Override
     public void process(RentalAgreement rentalAgreement) {
-        System.out.println(renderer.render(rentalAgreement));
+        var event = new PosProcessEvent();
+        event.begin();
+        try {
+            processorDelegate.process(rentalAgreement);
+        } finally {
+            event.finish(rentalAgreement);
+        }
     }
 }
@@ -0,0 +1,53 @@
+package sample.pos.analytics;
+
+import lombok.Builder;
+import lombok.Value;
+import sample.pos.domain.Money;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Totals over the rental agreements matching an aggregation (see {@link ColumnarAgreementStore#aggregate}).
+ * <p>
+ * Money totals are held in cents (see {@link Money}), with BigDecimal views for callers expecting dollar amounts.
+ */
+@Builder
+@Value
+public class AgreementAggregate {
+    long agreementCount;
+    long preDiscountChargeCents;
+    long discountAmountCents;
+    long finalChargeCents;
+    long chargeDays;
+    long rentalDays;
+
+    /**
+     * Final charge totals, by tool type name; only tool types with matching agreements are included
+     */
+    Map<String, Long> finalChargeCentsByToolType;
+
+    /**
+     * Agreement counts, by tool type name
+     */
+    Map<String, Long> agreementCountByToolType;
+
+    /**
+     * @return mean charge days per agreement, or 0 if there are no agreements
+     */
+    public double getAverageChargeDays() {
+        return agreementCount == 0 ? 0 : (double) chargeDays / agreementCount;
+    }
+
+    public BigDecimal getPreDiscountCharge() {
+        return Money.toBigDecimal(preDiscountChargeCents);
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return Money.toBigDecimal(discountAmountCents);
+    }
+
+    public BigDecimal getFinalCharge() {
+        return Money.toBigDecimal(finalChargeCents);
+    }
+}
@@ -0,0 +1,336 @@
+package sample.pos.analytics;
+
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.RentalAgreement;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * In-memory, append-only store of rental agreements laid out by column (struct of arrays), for analytics.
+ * <p>
+ * Each field is held in its own primitive array: ints for epoch-day dates and day counts, longs for cent amounts,
+ * int dictionary ids for the tool code, type and brand, and a byte of charge rule flags. A row costs 65 bytes, with
+ * no object headers or pointers, and aggregations scan only the columns they need, sequentially.
+ * <p>
+ * Appends are serialized. Readers never lock: a row is published (by a volatile write of the row count) only once
+ * all of its columns are written, and column arrays that outgrow their capacity are copied before the copy is
+ * published, so a scan sees every row appended before it started and nothing half-written.
+ * <p>
+ * Aggregations over large stores split the rows into contiguous chunks, scanned in parallel on an executor (the
+ * common fork-join pool by default), with each chunk totalling into its own partial result.
+ */
+public class ColumnarAgreementStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Number of chunks handed to each worker thread, to smooth out uneven scheduling
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Fewest rows per chunk; smaller scans are not worth splitting
+     */
+    private static final int MIN_CHUNK_ROWS = 16 * 1024;
+
+    /**
+     * Column arrays, replaced together when they are grown
+     */
+    private record Columns(int[] toolCode, int[] toolType, int[] toolBrand, int[] rentalDays, int[] checkoutDate,
+                           int[] dueDate, int[] chargeDays, int[] discountPercent, long[] dailyRentalChargeCents,
+                           long[] preDiscountChargeCents, long[] discountAmountCents, long[] finalChargeCents,
+                           byte[] chargeRules) {
+
+        static Columns withCapacity(int capacity) {
+            return new Columns(new int[capacity], new int[capacity], new int[capacity], new int[capacity],
+                    new int[capacity], new int[capacity], new int[capacity], new int[capacity],
+                    new long[capacity], new long[capacity], new long[capacity], new long[capacity],
+                    new byte[capacity]);
+        }
+
+        Columns copyOf(int capacity) {
+            return new Columns(Arrays.copyOf(toolCode, capacity), Arrays.copyOf(toolType, capacity),
+                    Arrays.copyOf(toolBrand, capacity), Arrays.copyOf(rentalDays, capacity),
+                    Arrays.copyOf(checkoutDate, capacity), Arrays.copyOf(dueDate, capacity),
+                    Arrays.copyOf(chargeDays, capacity), Arrays.copyOf(discountPercent, capacity),
+                    Arrays.copyOf(dailyRentalChargeCents, capacity), Arrays.copyOf(preDiscountChargeCents, capacity),
+                    Arrays.copyOf(discountAmountCents, capacity), Arrays.copyOf(finalChargeCents, capacity),
+                    Arrays.copyOf(chargeRules, capacity));
+        }
+
+        int capacity() {
+            return toolCode.length;
+        }
+    }
+
+    /**
+     * Running totals of one chunk of rows
+     */
+    private static final class Partial {
+        long agreementCount;
+        long preDiscountChargeCents;
+        long discountAmountCents;
+        long finalChargeCents;
+        long chargeDays;
+        long rentalDays;
+        final long[] finalChargeCentsByToolType;
+        final long[] agreementCountByToolType;
+
+        Partial(int toolTypeCount) {
+            finalChargeCentsByToolType = new long[toolTypeCount];
+            agreementCountByToolType = new long[toolTypeCount];
+        }
+
+        void add(Partial other) {
+            agreementCount += other.agreementCount;
+            preDiscountChargeCents += other.preDiscountChargeCents;
+            discountAmountCents += other.discountAmountCents;
+            finalChargeCents += other.finalChargeCents;
+            chargeDays += other.chargeDays;
+            rentalDays += other.rentalDays;
+            for (int i = 0; i < finalChargeCentsByToolType.length; i++) {
+                finalChargeCentsByToolType[i] += other.finalChargeCentsByToolType[i];
+                agreementCountByToolType[i] += other.agreementCountByToolType[i];
+            }
+        }
+    }
+
+    private final StringDictionary toolCodes = new StringDictionary();
+
+    private final StringDictionary toolTypes = new StringDictionary();
+
+    private final StringDictionary toolBrands = new StringDictionary();
+
+    private final Object writeLock = new Object();
+
+    private final ExecutorService executor;
+
+    private final int parallelism;
+
+    private volatile Columns columns = Columns.withCapacity(INITIAL_CAPACITY);
+
+    /**
+     * Number of published rows; written after the row's columns
+     */
+    private volatile int size;
+
+    public ColumnarAgreementStore() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param executor    executor to run aggregation chunks on
+     * @param parallelism number of threads expected to be available in the executor
+     */
+    public ColumnarAgreementStore(ExecutorService executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0");
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Appends an agreement
+     *
+     * @param rentalAgreement agreement to store
+     * @return row number of the agreement (rows start at 0)
+     * @throws IllegalArgumentException if a date is null, or outside the range of int epoch days
+     */
+    public int append(RentalAgreement rentalAgreement) {
+        synchronized (writeLock) {
+            var row = size;
+            var current = columns;
+            if (row == current.capacity()) {
+                current = current.copyOf(Math.multiplyExact(row, 2));
+                columns = current;
+            }
+
+            current.toolCode()[row] = toolCodes.id(rentalAgreement.getToolCode());
+            current.toolType()[row] = toolTypes.id(rentalAgreement.getToolType());
+            current.toolBrand()[row] = toolBrands.id(rentalAgreement.getToolBrand());
+            current.rentalDays()[row] = rentalAgreement.getRentalDays();
+            current.checkoutDate()[row] = epochDay(rentalAgreement.getCheckoutDate());
+            current.dueDate()[row] = epochDay(rentalAgreement.getDueDate());
+            current.chargeDays()[row] = rentalAgreement.getChargeDays();
+            current.discountPercent()[row] = rentalAgreement.getDiscountPercent();
+            current.dailyRentalChargeCents()[row] = rentalAgreement.getDailyRentalChargeCents();
+            current.preDiscountChargeCents()[row] = rentalAgreement.getPreDiscountChargeCents();
+            current.discountAmountCents()[row] = rentalAgreement.getDiscountAmountCents();
+            current.finalChargeCents()[row] = rentalAgreement.getFinalChargeCents();
+            current.chargeRules()[row] = ChargeRules.toFlags(rentalAgreement.getChargeRules());
+
+            size = row + 1;
+            return row;
+        }
+    }
+
+    /**
+     * Appends many agreements
+     *
+     * @param rentalAgreements agreements to store
+     */
+    public void appendAll(Collection<RentalAgreement> rentalAgreements) {
+        synchronized (writeLock) {
+            rentalAgreements.forEach(this::append);
+        }
+    }
+
+    /**
+     * @return number of agreements stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuilds the agreement stored in a row
+     *
+     * @param row row number returned by {@link #append}
+     * @return the agreement
+     * @throws IndexOutOfBoundsException if the row has not been appended
+     */
+    public RentalAgreement get(int row) {
+        Objects.checkIndex(row, size);
+        var current = columns;
+        return RentalAgreement.builder()
+                .toolCode(toolCodes.value(current.toolCode()[row]))
+                .toolType(toolTypes.value(current.toolType()[row]))
+                .toolBrand(toolBrands.value(current.toolBrand()[row]))
+                .rentalDays(current.rentalDays()[row])
+                .checkoutDate(LocalDate.ofEpochDay(current.checkoutDate()[row]))
+                .dueDate(LocalDate.ofEpochDay(current.dueDate()[row]))
+                .dailyRentalChargeCents(current.dailyRentalChargeCents()[row])
+                .chargeDays(current.chargeDays()[row])
+                .preDiscountChargeCents(current.preDiscountChargeCents()[row])
+                .discountPercent(current.discountPercent()[row])
+                .discountAmountCents(current.discountAmountCents()[row])
+                .finalChargeCents(current.finalChargeCents()[row])
+                .chargeRules(ChargeRules.fromFlags(current.chargeRules()[row]))
+                .build();
+    }
+
+    /**
+     * Totals every agreement stored
+     *
+     * @return totals, overall and by tool type
+     * @throws InterruptedException if interrupted while waiting for the scan to complete
+     * @throws ExecutionException   if a chunk of the scan fails
+     */
+    public AgreementAggregate aggregate() throws InterruptedException, ExecutionException {
+        return aggregate(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Totals the agreements checked out within a date range
+     *
+     * @param from        first checkout date included
+     * @param toExclusive first checkout date after the range
+     * @return totals, overall and by tool type
+     * @throws InterruptedException if interrupted while waiting for the scan to complete
+     * @throws ExecutionException   if a chunk of the scan fails
+     */
+    public AgreementAggregate aggregate(LocalDate from, LocalDate toExclusive) throws InterruptedException, ExecutionException {
+        // read the row count first: the columns and dictionary read after it hold every row it counts
+        var rows = size;
+        var current = columns;
+        var toolTypeNames = toolTypes.values();
+        var fromDay = clampedEpochDay(from);
+        var toDay = clampedEpochDay(toExclusive);
+
+        var chunkCount = Math.min(parallelism * CHUNKS_PER_THREAD, rows / MIN_CHUNK_ROWS);
+        Partial total;
+        if (chunkCount <= 1) {
+            total = scan(current, toolTypeNames.length, 0, rows, fromDay, toDay);
+        } else {
+            var futures = new ArrayList<Future<Partial>>(chunkCount);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                int chunkFrom = (int) ((long) rows * chunk / chunkCount);
+                int chunkTo = (int) ((long) rows * (chunk + 1) / chunkCount);
+                futures.add(executor.submit(() -> scan(current, toolTypeNames.length, chunkFrom, chunkTo, fromDay, toDay)));
+            }
+            total = new Partial(toolTypeNames.length);
+            for (var future : futures) {
+                total.add(future.get());
+            }
+        }
+
+        Map<String, Long> finalChargeCentsByToolType = new LinkedHashMap<>();
+        Map<String, Long> agreementCountByToolType = new LinkedHashMap<>();
+        for (int id = 0; id < toolTypeNames.length; id++) {
+            if (total.agreementCountByToolType[id] > 0) {
+                finalChargeCentsByToolType.put(toolTypeNames[id], total.finalChargeCentsByToolType[id]);
+                agreementCountByToolType.put(toolTypeNames[id], total.agreementCountByToolType[id]);
+            }
+        }
+
+        return AgreementAggregate.builder()
+                .agreementCount(total.agreementCount)
+                .preDiscountChargeCents(total.preDiscountChargeCents)
+                .discountAmountCents(total.discountAmountCents)
+                .finalChargeCents(total.finalChargeCents)
+                .chargeDays(total.chargeDays)
+                .rentalDays(total.rentalDays)
+                .finalChargeCentsByToolType(finalChargeCentsByToolType)
+                .agreementCountByToolType(agreementCountByToolType)
+                .build();
+    }
+
+    /**
+     * Totals rows [from, to) checked out in [fromDay, toDay), reading each column in a tight loop
+     */
+    private static Partial scan(Columns columns, int toolTypeCount, int from, int to, int fromDay, int toDay) {
+        var partial = new Partial(toolTypeCount);
+        var checkoutDate = columns.checkoutDate();
+        var toolType = columns.toolType();
+        var chargeDays = columns.chargeDays();
+        var rentalDays = columns.rentalDays();
+        var preDiscountChargeCents = columns.preDiscountChargeCents();
+        var discountAmountCents = columns.discountAmountCents();
+        var finalChargeCents = columns.finalChargeCents();
+
+        for (int row = from; row < to; row++) {
+            var day = checkoutDate[row];
+            if (day < fromDay || day >= toDay) {
+                continue;
+            }
+            partial.agreementCount++;
+            partial.chargeDays += chargeDays[row];
+            partial.rentalDays += rentalDays[row];
+            partial.preDiscountChargeCents += preDiscountChargeCents[row];
+            partial.discountAmountCents += discountAmountCents[row];
+            partial.finalChargeCents += finalChargeCents[row];
+            var type = toolType[row];
+            if (type != StringDictionary.NULL_ID) {
+                partial.finalChargeCentsByToolType[type] += finalChargeCents[row];
+                partial.agreementCountByToolType[type]++;
+            }
+        }
+        return partial;
+    }
+
+    private static int epochDay(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Agreement dates must not be null");
+        }
+        var epochDay = date.toEpochDay();
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date out of range: " + date);
+        }
+        return (int) epochDay;
+    }
+
+    private static int clampedEpochDay(LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+}
@@ -0,0 +1,30 @@
+package sample.pos.analytics;
+
+import lombok.Builder;
+import lombok.Value;
+import sample.pos.domain.Money;
+import sample.pos.domain.ToolType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated totals for one tool type on one day (see {@link DailyRollups}).
+ * <p>
+ * Checkouts, charge days and final charges are counted on the checkout date; units out counts every agreement
+ * whose tool is out on the day, from its checkout date up to (not including) its due date.
+ */
+@Builder
+@Value
+public class DailyRollup {
+    LocalDate date;
+    ToolType toolType;
+    long checkouts;
+    long chargeDays;
+    long finalChargeCents;
+    long unitsOut;
+
+    public BigDecimal getFinalCharge() {
+        return Money.toBigDecimal(finalChargeCents);
+    }
+}
@@ -0,0 +1,170 @@
+package sample.pos.analytics;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.ToolType;
+import sample.pos.processors.Processor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Daily revenue and utilization totals per tool type, kept up to date as agreements are produced.
+ * <p>
+ * Subscribe the rollups to the checkout pipeline as (or alongside) its {@link Processor}. Each agreement adds its
+ * checkout, charge days and final charge to the bucket for its checkout date, and one unit out to each day from
+ * its checkout date up to its due date, so an update costs O(rental days) and a read costs O(days read),
+ * whatever the number of agreements.
+ * <p>
+ * Buckets are held in pages of {@value #PAGE_DAYS} consecutive days per tool type, created on first use, with each
+ * counter updated atomically. Concurrent checkouts never lock each other out, and no update is lost. A read
+ * racing an update may see some of the agreement's counters and not others.
+ */
+public class DailyRollups implements Processor<RentalAgreement> {
+
+    /**
+     * Days per page
+     */
+    static final int PAGE_DAYS = 512;
+
+    private static final int CHECKOUTS = 0;
+
+    private static final int CHARGE_DAYS = 1;
+
+    private static final int FINAL_CHARGE_CENTS = 2;
+
+    private static final int UNITS_OUT = 3;
+
+    /**
+     * Counters per day, laid out together in a page
+     */
+    private static final int COUNTERS = 4;
+
+    /**
+     * Shared stand-in for pages not yet created; never written
+     */
+    private static final AtomicLongArray EMPTY_PAGE = new AtomicLongArray(PAGE_DAYS * COUNTERS);
+
+    /**
+     * Pages by tool type ordinal and page number (epoch day / PAGE_DAYS)
+     */
+    private final ConcurrentMap<Long, AtomicLongArray> pages = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the agreement to the rollups
+     *
+     * @param rentalAgreement agreement produced by checkout
+     * @throws IllegalArgumentException if the agreement's tool type is unknown
+     */
+    @Override
+    public void process(RentalAgreement rentalAgreement) {
+        var toolType = ToolType.forName(rentalAgreement.getToolType())
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tool type: " + rentalAgreement.getToolType()));
+
+        var checkoutDay = rentalAgreement.getCheckoutDate().toEpochDay();
+        var page = page(toolType, checkoutDay, true);
+        var index = index(checkoutDay);
+        page.incrementAndGet(index + CHECKOUTS);
+        page.addAndGet(index + CHARGE_DAYS, rentalAgreement.getChargeDays());
+        page.addAndGet(index + FINAL_CHARGE_CENTS, rentalAgreement.getFinalChargeCents());
+
+        var dueDay = rentalAgreement.getDueDate().toEpochDay();
+        for (var day = checkoutDay; day < dueDay; day++) {
+            if (day != checkoutDay && Math.floorMod(day, PAGE_DAYS) == 0) {
+                page = page(toolType, day, true);
+            }
+            page.incrementAndGet(index(day) + UNITS_OUT);
+        }
+    }
+
+    /**
+     * @param toolType    tool type
+     * @param from        first day included
+     * @param toExclusive first day after the range
+     * @return one rollup per day in the range, in date order (days without activity are all zeroes)
+     */
+    public List<DailyRollup> rollups(ToolType toolType, LocalDate from, LocalDate toExclusive) {
+        var rollups = new ArrayList<DailyRollup>();
+        AtomicLongArray page = null;
+        for (var date = from; date.isBefore(toExclusive); date = date.plusDays(1)) {
+            var day = date.toEpochDay();
+            if (page == null || Math.floorMod(day, PAGE_DAYS) == 0) {
+                page = page(toolType, day, false);
+            }
+            var index = index(day);
+            rollups.add(DailyRollup.builder()
+                    .date(date)
+                    .toolType(toolType)
+                    .checkouts(page.get(index + CHECKOUTS))
+                    .chargeDays(page.get(index + CHARGE_DAYS))
+                    .finalChargeCents(page.get(index + FINAL_CHARGE_CENTS))
+                    .unitsOut(page.get(index + UNITS_OUT))
+                    .build());
+        }
+        return rollups;
+    }
+
+    /**
+     * @param toolType    tool type
+     * @param from        first checkout date included
+     * @param toExclusive first checkout date after the range
+     * @return final charges of the agreements checked out in the range, in cents
+     */
+    public long finalChargeCents(ToolType toolType, LocalDate from, LocalDate toExclusive) {
+        return sum(toolType, from, toExclusive, FINAL_CHARGE_CENTS);
+    }
+
+    /**
+     * @param toolType    tool type
+     * @param from        first checkout date included
+     * @param toExclusive first checkout date after the range
+     * @return number of agreements checked out in the range
+     */
+    public long checkouts(ToolType toolType, LocalDate from, LocalDate toExclusive) {
+        return sum(toolType, from, toExclusive, CHECKOUTS);
+    }
+
+    /**
+     * @param toolType tool type
+     * @param date     day
+     * @return number of tools of the type out on the day
+     */
+    public long unitsOut(ToolType toolType, LocalDate date) {
+        var day = date.toEpochDay();
+        var page = page(toolType, day, false);
+        return page.get(index(day) + UNITS_OUT);
+    }
+
+    private long sum(ToolType toolType, LocalDate from, LocalDate toExclusive, int counter) {
+        long total = 0;
+        var toDay = toExclusive.toEpochDay();
+        for (var day = from.toEpochDay(); day < toDay; ) {
+            // whole pages (or their ends) at a time
+            var pageEnd = Math.min(toDay, Math.floorDiv(day, PAGE_DAYS) * PAGE_DAYS + PAGE_DAYS);
+            var page = page(toolType, day, false);
+            if (page != EMPTY_PAGE) {
+                for (; day < pageEnd; day++) {
+                    total += page.get(index(day) + counter);
+                }
+            }
+            day = pageEnd;
+        }
+        return total;
+    }
+
+    private AtomicLongArray page(ToolType toolType, long epochDay, boolean create) {
+        var key = ((long) toolType.ordinal() << 48) | (Math.floorDiv(epochDay, PAGE_DAYS) & 0xFFFF_FFFF_FFFFL);
+        if (create) {
+            return pages.computeIfAbsent(key, ignored -> new AtomicLongArray(PAGE_DAYS * COUNTERS));
+        }
+        var page = pages.get(key);
+        return page == null ? EMPTY_PAGE : page;
+    }
+
+    private static int index(long epochDay) {
+        return (int) Math.floorMod(epochDay, PAGE_DAYS) * COUNTERS;
+    }
+}
@@ -0,0 +1,433 @@
+package sample.pos.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Immutable, compressed set of days, for the days a tool was out on rental.
+ * <p>
+ * Rentals are runs of consecutive days, so a bitmap is normally held as its runs: sorted, non-overlapping and
+ * non-adjacent [start, end) pairs of epoch days, 8 bytes a run whatever its length. A bitmap fragmented into many
+ * short runs is held instead as plain 64-day words, covering only the span from its first day to its last.
+ * Each bitmap takes whichever of the two is smaller (in the manner of Roaring's run and bitmap containers), so it
+ * never costs more than its span in bits, and usually far less.
+ * <p>
+ * {@link #and}, {@link #or} and {@link #andNot} merge the runs of the two bitmaps (O(runs)), or combine their
+ * words (O(words)) when both are held as words. Cardinality is cached; cardinality within a window is
+ * O(log runs + runs in the window).
+ */
+public final class DayBitmap {
+
+    public static final DayBitmap EMPTY = new DayBitmap(new int[0], 0, null, 0);
+
+    /**
+     * [start, end) pairs, or null when held as words
+     */
+    private final int[] runs;
+
+    /**
+     * Epoch day of the first bit of {@link #words} (a multiple of 64)
+     */
+    private final int baseDay;
+
+    /**
+     * Day bits, or null when held as runs
+     */
+    private final long[] words;
+
+    private final int cardinality;
+
+    private DayBitmap(int[] runs, int baseDay, long[] words, int cardinality) {
+        this.runs = runs;
+        this.baseDay = baseDay;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @param from        first day
+     * @param toExclusive day after the last day
+     * @return bitmap of every day in [from, toExclusive)
+     */
+    public static DayBitmap of(LocalDate from, LocalDate toExclusive) {
+        var start = epochDay(from);
+        var end = epochDay(toExclusive);
+        if (end <= start) {
+            return EMPTY;
+        }
+        return new DayBitmap(new int[]{start, end}, 0, null, end - start);
+    }
+
+    /**
+     * @return true if the day is in the bitmap
+     */
+    public boolean contains(LocalDate date) {
+        var day = epochDay(date);
+        if (words != null) {
+            var index = day - baseDay;
+            return index >= 0 && index < words.length * 64 && (words[index >>> 6] & (1L << index)) != 0;
+        }
+        var run = firstRunEndingAfter(day);
+        return run < runs.length && runs[run] <= day;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @return number of days in the bitmap
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @param from        first day of the window
+     * @param toExclusive day after the last day of the window
+     * @return number of days in the bitmap within [from, toExclusive)
+     */
+    public int cardinality(LocalDate from, LocalDate toExclusive) {
+        var start = epochDay(from);
+        var end = epochDay(toExclusive);
+        if (end <= start || cardinality == 0) {
+            return 0;
+        }
+        if (words != null) {
+            var spanStart = Math.max(start, baseDay) - baseDay;
+            var spanEnd = Math.min(end, baseDay + words.length * 64) - baseDay;
+            return spanEnd <= spanStart ? 0 : countBits(words, spanStart, spanEnd);
+        }
+        var count = 0;
+        for (var run = firstRunEndingAfter(start); run < runs.length && runs[run] < end; run += 2) {
+            count += Math.min(runs[run + 1], end) - Math.max(runs[run], start);
+        }
+        return count;
+    }
+
+    /**
+     * @return days in both bitmaps
+     */
+    public DayBitmap and(DayBitmap other) {
+        if (isEmpty() || other.isEmpty()) {
+            return EMPTY;
+        }
+        if (words != null && other.words != null) {
+            return combineWords(this, other, Math.max(baseDay, other.baseDay),
+                    Math.min(wordsEnd(), other.wordsEnd()), (a, b) -> a & b);
+        }
+        var a = runs();
+        var b = other.runs();
+        var merged = new int[a.length + b.length];
+        var length = 0;
+        var i = 0;
+        var j = 0;
+        while (i < a.length && j < b.length) {
+            var start = Math.max(a[i], b[j]);
+            var end = Math.min(a[i + 1], b[j + 1]);
+            if (start < end) {
+                merged[length++] = start;
+                merged[length++] = end;
+            }
+            if (a[i + 1] < b[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return fromRuns(merged, length);
+    }
+
+    /**
+     * @return days in either bitmap
+     */
+    public DayBitmap or(DayBitmap other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        if (words != null && other.words != null) {
+            return combineWords(this, other, Math.min(baseDay, other.baseDay),
+                    Math.max(wordsEnd(), other.wordsEnd()), (a, b) -> a | b);
+        }
+        var a = runs();
+        var b = other.runs();
+        var merged = new int[a.length + b.length];
+        var length = 0;
+        var i = 0;
+        var j = 0;
+        while (i < a.length || j < b.length) {
+            int start;
+            int end;
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                start = a[i];
+                end = a[i + 1];
+                i += 2;
+            } else {
+                start = b[j];
+                end = b[j + 1];
+                j += 2;
+            }
+            if (length > 0 && start <= merged[length - 1]) {
+                // overlapping or adjacent: extend the last run
+                merged[length - 1] = Math.max(merged[length - 1], end);
+            } else {
+                merged[length++] = start;
+                merged[length++] = end;
+            }
+        }
+        return fromRuns(merged, length);
+    }
+
+    /**
+     * @return days in this bitmap and not in the other
+     */
+    public DayBitmap andNot(DayBitmap other) {
+        if (isEmpty() || other.isEmpty()) {
+            return this;
+        }
+        if (words != null && other.words != null) {
+            return combineWords(this, other, baseDay, wordsEnd(), (a, b) -> a & ~b);
+        }
+        var a = runs();
+        var b = other.runs();
+        // each run of b can split at most one run of a in two
+        var merged = new int[a.length + b.length];
+        var length = 0;
+        var j = 0;
+        for (var i = 0; i < a.length; i += 2) {
+            var start = a[i];
+            var end = a[i + 1];
+            while (j < b.length && b[j + 1] <= start) {
+                j += 2;
+            }
+            for (var k = j; k < b.length && b[k] < end; k += 2) {
+                if (b[k] > start) {
+                    merged[length++] = start;
+                    merged[length++] = b[k];
+                }
+                start = Math.max(start, b[k + 1]);
+            }
+            if (start < end) {
+                merged[length++] = start;
+                merged[length++] = end;
+            }
+        }
+        return fromRuns(merged, length);
+    }
+
+    /**
+     * @return number of runs of consecutive days
+     */
+    public int runCount() {
+        return words != null ? countRuns(words) : runs.length / 2;
+    }
+
+    /**
+     * @return approximate heap footprint, in bytes (64-bit JVM, compressed references)
+     */
+    public long sizeInBytes() {
+        return 32 + 16 + (words != null ? 8L * words.length : 4L * runs.length);
+    }
+
+    /**
+     * @return true if held as 64-day words rather than runs
+     */
+    boolean isWords() {
+        return words != null;
+    }
+
+    /**
+     * @return the bitmap's [start, end) epoch day pairs
+     */
+    int[] runs() {
+        if (words == null) {
+            return runs;
+        }
+        var bits = BitSet.valueOf(words);
+        var extracted = new int[countRuns(words) * 2];
+        var length = 0;
+        for (var start = bits.nextSetBit(0); start >= 0; start = bits.nextSetBit(extracted[length - 1] - baseDay)) {
+            extracted[length++] = baseDay + start;
+            extracted[length++] = baseDay + bits.nextClearBit(start);
+        }
+        return extracted;
+    }
+
+    /**
+     * @return index of the first run (its start) ending after the day, or runs.length if there is none
+     */
+    private int firstRunEndingAfter(int day) {
+        int low = 0;
+        int high = runs.length / 2 - 1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            if (runs[mid * 2 + 1] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low * 2;
+    }
+
+    private int wordsEnd() {
+        return baseDay + words.length * 64;
+    }
+
+    /**
+     * @param day epoch day, a multiple of 64
+     * @return word starting at the day, or 0 outside the bitmap's span
+     */
+    private long wordAt(int day) {
+        var index = (day - baseDay) >> 6;
+        return index >= 0 && index < words.length ? words[index] : 0L;
+    }
+
+    private static DayBitmap combineWords(DayBitmap a, DayBitmap b, int base, int end, LongBinaryOperator op) {
+        if (end <= base) {
+            return EMPTY;
+        }
+        var combined = new long[(end - base) >>> 6];
+        for (var i = 0; i < combined.length; i++) {
+            var day = base + i * 64;
+            combined[i] = op.applyAsLong(a.wordAt(day), b.wordAt(day));
+        }
+        return fromWords(base, combined);
+    }
+
+    /**
+     * Encodes the runs as whichever of runs or words is smaller
+     *
+     * @param runs   sorted, non-overlapping, non-adjacent [start, end) pairs (may be longer than length)
+     * @param length number of ints of runs in use
+     */
+    private static DayBitmap fromRuns(int[] runs, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        var cardinality = 0;
+        for (var i = 0; i < length; i += 2) {
+            cardinality += runs[i + 1] - runs[i];
+        }
+        var base = Math.floorDiv(runs[0], 64) * 64;
+        var wordCount = (runs[length - 1] - base + 63) >>> 6;
+        if (wordCount < length / 2) {
+            var words = new long[wordCount];
+            for (var i = 0; i < length; i += 2) {
+                setBits(words, runs[i] - base, runs[i + 1] - base);
+            }
+            return new DayBitmap(null, base, words, cardinality);
+        }
+        return new DayBitmap(length == runs.length ? runs : Arrays.copyOf(runs, length), 0, null, cardinality);
+    }
+
+    /**
+     * Encodes the words as whichever of runs or words is smaller
+     */
+    private static DayBitmap fromWords(int base, long[] words) {
+        var first = 0;
+        while (first < words.length && words[first] == 0) {
+            first++;
+        }
+        if (first == words.length) {
+            return EMPTY;
+        }
+        var last = words.length - 1;
+        while (words[last] == 0) {
+            last--;
+        }
+        var trimmed = first == 0 && last == words.length - 1 ? words : Arrays.copyOfRange(words, first, last + 1);
+        var trimmedBase = base + first * 64;
+        var cardinality = 0;
+        for (var word : trimmed) {
+            cardinality += Long.bitCount(word);
+        }
+        var bitmap = new DayBitmap(null, trimmedBase, trimmed, cardinality);
+        return trimmed.length < countRuns(trimmed) ? bitmap : new DayBitmap(bitmap.runs(), 0, null, cardinality);
+    }
+
+    /**
+     * Sets bits [from, to) of the words
+     */
+    private static void setBits(long[] words, int from, int to) {
+        var first = from >>> 6;
+        var last = (to - 1) >>> 6;
+        var firstMask = -1L << from;
+        var lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (var i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /**
+     * @return number of bits set in [from, to) of the words
+     */
+    private static int countBits(long[] words, int from, int to) {
+        var first = from >>> 6;
+        var last = (to - 1) >>> 6;
+        var firstMask = -1L << from;
+        var lastMask = -1L >>> -to;
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        var count = Long.bitCount(words[first] & firstMask);
+        for (var i = first + 1; i < last; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[last] & lastMask);
+    }
+
+    /**
+     * @return number of runs of set bits in the words
+     */
+    private static int countRuns(long[] words) {
+        var count = 0;
+        var carry = 0L;
+        for (var word : words) {
+            // a run starts at each set bit whose previous bit is clear
+            count += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> 63;
+        }
+        return count;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof DayBitmap other
+                && cardinality == other.cardinality && Arrays.equals(runs(), other.runs()));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(runs());
+    }
+
+    @Override
+    public String toString() {
+        var builder = new StringBuilder("{");
+        var days = runs();
+        for (var i = 0; i < days.length; i += 2) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('[').append(LocalDate.ofEpochDay(days[i]))
+                    .append("..").append(LocalDate.ofEpochDay(days[i + 1])).append(')');
+        }
+        return builder.append('}').toString();
+    }
+}
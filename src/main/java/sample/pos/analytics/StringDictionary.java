@@ -0,0 +1,53 @@
+package sample.pos.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Numbers the distinct Strings of a column, so rows can hold an int id in place of a reference.
+ * <p>
+ * Ids are assigned by a single writer (the store, under its write lock); the id-to-String array is republished
+ * whenever a String is added (copy-on-write), so readers can look ids up without locking.
+ */
+final class StringDictionary {
+
+    /**
+     * Id held for a null String
+     */
+    static final int NULL_ID = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private volatile String[] values = new String[0];
+
+    /**
+     * Returns the String's id, adding it if new. Writer only.
+     */
+    int id(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        var id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        var newId = values.length;
+        var grown = Arrays.copyOf(values, newId + 1);
+        grown[newId] = value;
+        values = grown;
+        ids.put(value, newId);
+        return newId;
+    }
+
+    /**
+     * @return current id-to-String array; ids of rows published before this call are all within it
+     */
+    String[] values() {
+        return values;
+    }
+
+    String value(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+}
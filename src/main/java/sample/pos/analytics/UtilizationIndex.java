@@ -0,0 +1,149 @@
+package sample.pos.analytics;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.processors.Processor;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-tool index of the days each tool was out on rental, for fleet occupancy queries (ie, how many of a set of
+ * tools sat idle through a quarter).
+ * <p>
+ * Subscribe the index to the checkout pipeline as (or alongside) its {@link Processor}. Each agreement marks its
+ * tool out from its checkout date up to its due date ([checkoutDate, dueDate), as in
+ * {@link sample.pos.reservations.ReservationIndex}).
+ * <p>
+ * Each tool's days are a compressed {@link DayBitmap}: a tool rented a few dozen times costs a few hundred bytes,
+ * however many years the index spans, so a fleet of hundreds of thousands of tools fits in tens of megabytes.
+ * Bitmaps are immutable, and replaced atomically per tool on each agreement (copy-on-write), so queries read
+ * them without locking, and agreements for different tools never contend.
+ */
+public class UtilizationIndex implements Processor<RentalAgreement> {
+
+    private final ConcurrentMap<String, DayBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    /**
+     * Marks the agreement's tool out for the rental
+     *
+     * @param rentalAgreement agreement produced by checkout
+     */
+    @Override
+    public void process(RentalAgreement rentalAgreement) {
+        add(rentalAgreement.getToolCode(), rentalAgreement.getCheckoutDate(), rentalAgreement.getDueDate());
+    }
+
+    /**
+     * Marks the tool out for the window
+     *
+     * @param toolCode     tool code
+     * @param checkoutDate first day out
+     * @param dueDate      day the tool is due back (not included)
+     */
+    public void add(String toolCode, LocalDate checkoutDate, LocalDate dueDate) {
+        Objects.requireNonNull(toolCode);
+        if (!dueDate.isAfter(checkoutDate)) {
+            throw new IllegalArgumentException("Due date must be after checkout date");
+        }
+        bitmaps.merge(toolCode, DayBitmap.of(checkoutDate, dueDate), DayBitmap::or);
+    }
+
+    /**
+     * @param toolCode tool code
+     * @return days the tool was out (empty if it never was)
+     */
+    public DayBitmap rentedDays(String toolCode) {
+        return bitmaps.getOrDefault(toolCode, DayBitmap.EMPTY);
+    }
+
+    /**
+     * @param toolCode    tool code
+     * @param from        first day of the window
+     * @param toExclusive day after the last day of the window
+     * @return number of days within [from, toExclusive) the tool was out
+     */
+    public int rentedDayCount(String toolCode, LocalDate from, LocalDate toExclusive) {
+        return rentedDays(toolCode).cardinality(from, toExclusive);
+    }
+
+    /**
+     * @param toolCodes tool codes
+     * @return days at least one of the tools was out
+     */
+    public DayBitmap union(Collection<String> toolCodes) {
+        var union = DayBitmap.EMPTY;
+        for (var toolCode : toolCodes) {
+            union = union.or(rentedDays(toolCode));
+        }
+        return union;
+    }
+
+    /**
+     * @param toolCodes tool codes
+     * @return days every one of the tools was out (empty if there are no tools)
+     */
+    public DayBitmap intersection(Collection<String> toolCodes) {
+        DayBitmap intersection = null;
+        for (var toolCode : toolCodes) {
+            var days = rentedDays(toolCode);
+            intersection = intersection == null ? days : intersection.and(days);
+            if (intersection.isEmpty()) {
+                break;
+            }
+        }
+        return intersection == null ? DayBitmap.EMPTY : intersection;
+    }
+
+    /**
+     * @param toolCodes   tool codes
+     * @param from        first day of the window
+     * @param toExclusive day after the last day of the window
+     * @return number of the tools not out on any day within [from, toExclusive)
+     */
+    public int idleToolCount(Collection<String> toolCodes, LocalDate from, LocalDate toExclusive) {
+        var idle = 0;
+        for (var toolCode : toolCodes) {
+            if (rentedDayCount(toolCode, from, toExclusive) == 0) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    /**
+     * @param toolCodes   tool codes
+     * @param from        first day of the window
+     * @param toExclusive day after the last day of the window
+     * @return total days within [from, toExclusive) the tools were not out, summed over the tools
+     */
+    public long idleToolDays(Collection<String> toolCodes, LocalDate from, LocalDate toExclusive) {
+        var windowDays = Math.max(0, ChronoUnit.DAYS.between(from, toExclusive));
+        var idle = 0L;
+        for (var toolCode : toolCodes) {
+            idle += windowDays - rentedDayCount(toolCode, from, toExclusive);
+        }
+        return idle;
+    }
+
+    /**
+     * @return number of tools ever out
+     */
+    public int toolCount() {
+        return bitmaps.size();
+    }
+
+    /**
+     * @return approximate heap footprint of the bitmaps, in bytes (not counting the map or the tool codes)
+     */
+    public long sizeInBytes() {
+        var size = 0L;
+        for (var bitmap : bitmaps.values()) {
+            size += bitmap.sizeInBytes();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,167 @@
+package sample.pos.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HolidayCalendar that materializes each year's observed holidays once, from a list of {@link HolidayRule}s,
+ * into a day-of-year bitset.
+ * <p>
+ * Years are materialized lazily on first use and never change afterward, so lookups are a single bit test
+ * against an immutable array. Years within the cached window live in an {@link AtomicReferenceArray},
+ * so reads never lock; years outside the window fall back to a {@link ConcurrentHashMap}.
+ */
+public class CachedHolidayCalendar implements HolidayCalendar {
+
+    /**
+     * First year of the array-backed cache window
+     */
+    private static final int FIRST_CACHED_YEAR = 1900;
+
+    /**
+     * Number of years in the array-backed cache window
+     */
+    private static final int CACHED_YEARS = 400;
+
+    /**
+     * Number of longs needed to hold a bit for every day of a leap year
+     */
+    private static final int WORDS_PER_YEAR = (366 + Long.SIZE - 1) / Long.SIZE;
+
+    private final String name;
+
+    private final List<HolidayRule> rules;
+
+    private final AtomicReferenceArray<HolidayYear> cachedYears = new AtomicReferenceArray<>(CACHED_YEARS);
+
+    private final Map<Integer, HolidayYear> uncachedYears = new ConcurrentHashMap<>();
+
+    public CachedHolidayCalendar(String name, List<HolidayRule> rules) {
+        this.name = Objects.requireNonNull(name);
+        this.rules = List.copyOf(rules);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isHoliday(LocalDate date) {
+        return HolidayYear.test(holidayYear(date.getYear()).holidays, date.getDayOfYear() - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countHolidays(LocalDate startExclusive, LocalDate endInclusive) {
+        return count(startExclusive, endInclusive, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countWeekendHolidays(LocalDate startExclusive, LocalDate endInclusive) {
+        return count(startExclusive, endInclusive, true);
+    }
+
+    /**
+     * Counts holidays over the range, one bitset rank per calendar year touched.
+     */
+    private int count(LocalDate startExclusive, LocalDate endInclusive, boolean weekendsOnly) {
+        if (!endInclusive.isAfter(startExclusive)) {
+            return 0;
+        }
+
+        var startYear = startExclusive.getYear();
+        var endYear = endInclusive.getYear();
+
+        int count = 0;
+        for (int year = startYear; year <= endYear; year++) {
+            var holidayYear = holidayYear(year);
+            var bits = weekendsOnly ? holidayYear.weekendHolidays : holidayYear.holidays;
+
+            // day-of-year d is stored at bit d-1, so (startDay, endDay] maps to bits [startDay, endDay)
+            var fromBit = year == startYear ? startExclusive.getDayOfYear() : 0;
+            var toBit = year == endYear ? endInclusive.getDayOfYear() : WORDS_PER_YEAR * Long.SIZE;
+            count += HolidayYear.rank(bits, toBit) - HolidayYear.rank(bits, fromBit);
+        }
+        return count;
+    }
+
+    private HolidayYear holidayYear(int year) {
+        var index = year - FIRST_CACHED_YEAR;
+        if (index < 0 || index >= CACHED_YEARS) {
+            return uncachedYears.computeIfAbsent(year, this::materialize);
+        }
+
+        var holidayYear = cachedYears.get(index);
+        if (holidayYear == null) {
+            // materializing is deterministic, so losing the race just means using the winner's copy
+            var materialized = materialize(year);
+            var witness = cachedYears.compareAndExchange(index, null, materialized);
+            holidayYear = witness == null ? materialized : witness;
+        }
+        return holidayYear;
+    }
+
+    private HolidayYear materialize(int year) {
+        var holidays = new long[WORDS_PER_YEAR];
+        var weekendHolidays = new long[WORDS_PER_YEAR];
+
+        // observed dates may spill over from the neighboring years (ie, Jan 1st observed on Dec 31st)
+        for (int ruleYear = year - 1; ruleYear <= year + 1; ruleYear++) {
+            for (var rule : rules) {
+                var date = rule.observedDate(ruleYear);
+                if (date == null || date.getYear() != year) {
+                    continue;
+                }
+                var bit = date.getDayOfYear() - 1;
+                HolidayYear.set(holidays, bit);
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    HolidayYear.set(weekendHolidays, bit);
+                }
+            }
+        }
+        return new HolidayYear(holidays, weekendHolidays);
+    }
+
+    /**
+     * Immutable (once published) bitsets of a single year's observed holidays, indexed by day-of-year - 1
+     */
+    private record HolidayYear(long[] holidays, long[] weekendHolidays) {
+
+        private static void set(long[] bits, int bit) {
+            bits[bit >>> 6] |= 1L << bit;
+        }
+
+        private static boolean test(long[] bits, int bit) {
+            return (bits[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        /**
+         * Number of set bits below the given bit index
+         */
+        private static int rank(long[] bits, int bit) {
+            var word = bit >>> 6;
+            int count = 0;
+            for (int i = 0; i < word; i++) {
+                count += Long.bitCount(bits[i]);
+            }
+            if (word < bits.length) {
+                count += Long.bitCount(bits[word] & ((1L << bit) - 1));
+            }
+            return count;
+        }
+    }
+}
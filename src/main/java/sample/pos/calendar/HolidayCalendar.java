@@ -0,0 +1,48 @@
+package sample.pos.calendar;
+
+import java.time.LocalDate;
+
+/**
+ * Calendar of observed holidays used when determining chargeable days.
+ * <p>
+ * Implementations are expected to be safe for concurrent use, as a single calendar is typically
+ * shared by every checkout for a given store or region.
+ *
+ * @see HolidayCalendars
+ */
+public interface HolidayCalendar {
+
+    /**
+     * @return descriptive name of the calendar (ie, region it applies to)
+     */
+    String getName();
+
+    /**
+     * Determines whether the given date is an observed holiday
+     *
+     * @param date date to check
+     * @return true if the date is an observed holiday
+     */
+    boolean isHoliday(LocalDate date);
+
+    /**
+     * Counts the observed holidays within a date range
+     *
+     * @param startExclusive start of range, not included in the count
+     * @param endInclusive   end of range, included in the count
+     * @return number of observed holidays in range
+     */
+    int countHolidays(LocalDate startExclusive, LocalDate endInclusive);
+
+    /**
+     * Counts the observed holidays within a date range that land on a Saturday or Sunday.
+     * <p>
+     * Holidays are normally observed on weekdays, but nothing prevents a regional calendar from observing
+     * one on a weekend.
+     *
+     * @param startExclusive start of range, not included in the count
+     * @param endInclusive   end of range, included in the count
+     * @return number of observed weekend holidays in range
+     */
+    int countWeekendHolidays(LocalDate startExclusive, LocalDate endInclusive);
+}
@@ -0,0 +1,81 @@
+package sample.pos.calendar;
+
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-built holiday calendars, along with a registry for selecting a calendar by store or region code.
+ * <p>
+ * Additional (ie, state-specific) calendars can be registered at startup, and will be shared by every
+ * calculator looking up the same region.
+ */
+public final class HolidayCalendars {
+
+    public static final HolidayRule NEW_YEARS_DAY = HolidayRule.observedFixedDate(Month.JANUARY, 1);
+    public static final HolidayRule MARTIN_LUTHER_KING_JR_DAY = HolidayRule.nthDayOfWeek(Month.JANUARY, DayOfWeek.MONDAY, 3);
+    public static final HolidayRule WASHINGTONS_BIRTHDAY = HolidayRule.nthDayOfWeek(Month.FEBRUARY, DayOfWeek.MONDAY, 3);
+    public static final HolidayRule MEMORIAL_DAY = HolidayRule.nthDayOfWeek(Month.MAY, DayOfWeek.MONDAY, -1);
+    public static final HolidayRule JUNETEENTH = HolidayRule.observedFixedDate(Month.JUNE, 19).startingIn(2021);
+    public static final HolidayRule INDEPENDENCE_DAY = HolidayRule.observedFixedDate(Month.JULY, 4);
+    public static final HolidayRule LABOR_DAY = HolidayRule.nthDayOfWeek(Month.SEPTEMBER, DayOfWeek.MONDAY, 1);
+    public static final HolidayRule COLUMBUS_DAY = HolidayRule.nthDayOfWeek(Month.OCTOBER, DayOfWeek.MONDAY, 2);
+    public static final HolidayRule VETERANS_DAY = HolidayRule.observedFixedDate(Month.NOVEMBER, 11);
+    public static final HolidayRule THANKSGIVING_DAY = HolidayRule.nthDayOfWeek(Month.NOVEMBER, DayOfWeek.THURSDAY, 4);
+    public static final HolidayRule CHRISTMAS_DAY = HolidayRule.observedFixedDate(Month.DECEMBER, 25);
+
+    /**
+     * Region code for the {@link #DEFAULT} calendar
+     */
+    public static final String DEFAULT_REGION = "DEFAULT";
+
+    /**
+     * Region code for the {@link #US_FEDERAL} calendar
+     */
+    public static final String US_FEDERAL_REGION = "US";
+
+    /**
+     * Holidays observed by the POS system out of the box: Independence Day and Labor Day
+     */
+    public static final HolidayCalendar DEFAULT = new CachedHolidayCalendar("Default",
+            List.of(INDEPENDENCE_DAY, LABOR_DAY));
+
+    /**
+     * All US federal holidays
+     */
+    public static final HolidayCalendar US_FEDERAL = new CachedHolidayCalendar("US Federal",
+            List.of(NEW_YEARS_DAY, MARTIN_LUTHER_KING_JR_DAY, WASHINGTONS_BIRTHDAY, MEMORIAL_DAY, JUNETEENTH,
+                    INDEPENDENCE_DAY, LABOR_DAY, COLUMBUS_DAY, VETERANS_DAY, THANKSGIVING_DAY, CHRISTMAS_DAY));
+
+    private static final Map<String, HolidayCalendar> REGISTRY = new ConcurrentHashMap<>(Map.of(
+            DEFAULT_REGION, DEFAULT,
+            US_FEDERAL_REGION, US_FEDERAL
+    ));
+
+    private HolidayCalendars() {
+    }
+
+    /**
+     * Registers (or replaces) the calendar used for a store or region
+     *
+     * @param regionCode store or region code (ie, "US-TX" or a store id)
+     * @param calendar   calendar to use for that region
+     */
+    public static void register(String regionCode, HolidayCalendar calendar) {
+        REGISTRY.put(Objects.requireNonNull(regionCode), Objects.requireNonNull(calendar));
+    }
+
+    /**
+     * Looks up the calendar for a store or region, falling back on the {@link #DEFAULT} calendar when
+     * the region has nothing registered.
+     *
+     * @param regionCode store or region code
+     * @return calendar for the region
+     */
+    public static HolidayCalendar forRegion(String regionCode) {
+        return REGISTRY.getOrDefault(Objects.requireNonNull(regionCode), DEFAULT);
+    }
+}
@@ -0,0 +1,63 @@
+package sample.pos.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Determines the date a single holiday is observed on in a given year.
+ * <p>
+ * The observed date may land in a neighboring year (ie, New Year's Day landing on a Saturday is observed on
+ * December 31st of the prior year).
+ */
+@FunctionalInterface
+public interface HolidayRule {
+
+    /**
+     * @param year year the holiday belongs to
+     * @return date the holiday is observed on, or null if it is not observed in the given year
+     */
+    LocalDate observedDate(int year);
+
+    /**
+     * Restricts this rule to years on or after the given year
+     *
+     * @param firstYear first year the holiday is observed
+     * @return restricted rule
+     */
+    default HolidayRule startingIn(int firstYear) {
+        return year -> year < firstYear ? null : observedDate(year);
+    }
+
+    /**
+     * Holiday on a fixed month/day, observed on the preceding Friday when landing on a Saturday, and
+     * the following Monday when landing on a Sunday.
+     *
+     * @param month      month of the holiday
+     * @param dayOfMonth day of the holiday
+     * @return holiday rule
+     */
+    static HolidayRule observedFixedDate(Month month, int dayOfMonth) {
+        return year -> {
+            var date = LocalDate.of(year, month, dayOfMonth);
+            return switch (date.getDayOfWeek()) {
+                case SATURDAY -> date.minusDays(1);
+                case SUNDAY -> date.plusDays(1);
+                default -> date;
+            };
+        };
+    }
+
+    /**
+     * Holiday on the nth given day of the week in a month (ie, first Monday in September).
+     *
+     * @param month     month of the holiday
+     * @param dayOfWeek day of the week of the holiday
+     * @param ordinal   1-5 for first through fifth, or -1 for last
+     * @return holiday rule
+     */
+    static HolidayRule nthDayOfWeek(Month month, DayOfWeek dayOfWeek, int ordinal) {
+        return year -> LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek));
+    }
+}
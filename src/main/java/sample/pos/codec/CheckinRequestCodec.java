@@ -0,0 +1,96 @@
+package sample.pos.codec;
+
+import sample.pos.domain.CheckinRequest;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import static sample.pos.codec.RecordFields.beginRead;
+import static sample.pos.codec.RecordFields.beginRecord;
+import static sample.pos.codec.RecordFields.checkDictionary;
+import static sample.pos.codec.RecordFields.endRead;
+import static sample.pos.codec.RecordFields.endRecord;
+import static sample.pos.codec.RecordFields.getDate;
+import static sample.pos.codec.RecordFields.getString;
+import static sample.pos.codec.RecordFields.putDate;
+import static sample.pos.codec.RecordFields.putString;
+import static sample.pos.codec.RecordFields.stringLength;
+
+/**
+ * Binary codec for CheckinRequests.
+ * <p>
+ * Version 1 fields (see {@link Codec} for the record framing):
+ * <pre>
+ *     short toolCode id (see {@link ToolDictionary})
+ *     int   dayCount
+ *     int   discountPercentage
+ *     int   checkoutDate (epoch day)
+ * </pre>
+ * Version 2 appends:
+ * <pre>
+ *     int   fingerprint of the dictionary the id was written with ({@link ToolDictionary#fingerprint()})
+ * </pre>
+ * Records from version 2 on are refused by a codec with a different dictionary; version 1 records cannot be checked.
+ * A request for a catalogued tool encodes to {@value #CATALOGUED_LENGTH} bytes. Numbers are big-endian.
+ */
+public class CheckinRequestCodec implements Codec<CheckinRequest> {
+
+    public static final byte VERSION = 2;
+
+    /**
+     * Oldest version decoded
+     */
+    private static final byte FIRST_VERSION = 1;
+
+    /**
+     * Length of a request whose tool code is in the dictionary
+     */
+    public static final int CATALOGUED_LENGTH = RecordFields.HEADER_LENGTH + Short.BYTES + 4 * Integer.BYTES;
+
+    private final ToolDictionary dictionary;
+
+    public CheckinRequestCodec(ToolDictionary dictionary) {
+        this.dictionary = Objects.requireNonNull(dictionary);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void encode(CheckinRequest checkinRequest, ByteBuffer out) {
+        var start = beginRecord(out, VERSION);
+        putString(out, checkinRequest.getToolCode(), dictionary.id(ToolDictionary.Kind.TOOL_CODE, checkinRequest.getToolCode()));
+        out.putInt(checkinRequest.getDayCount());
+        out.putInt(checkinRequest.getDiscountPercentage());
+        putDate(out, checkinRequest.getCheckoutDate());
+        out.putInt(dictionary.fingerprint());
+        endRecord(out, start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CheckinRequest decode(ByteBuffer in) {
+        var end = beginRead(in, FIRST_VERSION);
+        var checkinRequest = CheckinRequest.builder()
+                .toolCode(getString(in, dictionary, ToolDictionary.Kind.TOOL_CODE))
+                .dayCount(in.getInt())
+                .discountPercentage(in.getInt())
+                .checkoutDate(getDate(in))
+                .build();
+        // version 2
+        checkDictionary(in, end, dictionary);
+        endRead(in, end);
+        return checkinRequest;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int encodedLength(CheckinRequest checkinRequest) {
+        return CATALOGUED_LENGTH - Short.BYTES
+                + stringLength(checkinRequest.getToolCode(), dictionary.id(ToolDictionary.Kind.TOOL_CODE, checkinRequest.getToolCode()));
+    }
+}
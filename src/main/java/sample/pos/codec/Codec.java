@@ -0,0 +1,45 @@
+package sample.pos.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes items of type T to, and decodes them from, a ByteBuffer.
+ * <p>
+ * Each item is written as a self-describing record:
+ * <pre>
+ *     short length of the rest of the record
+ *     byte  format version
+ *     ...   fields, in version order
+ * </pre>
+ * Later versions only append fields, so a decoder reads the fields it knows and skips the rest of the record,
+ * and records from earlier versions decode with defaults for the fields they lack.
+ *
+ * @param <T> item type
+ */
+public interface Codec<T> {
+
+    /**
+     * Writes the item as one record at the buffer's position, advancing it past the record
+     *
+     * @param item item to encode
+     * @param out  destination buffer
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    void encode(T item, ByteBuffer out);
+
+    /**
+     * Reads one record at the buffer's position, advancing it past the record
+     *
+     * @param in source buffer
+     * @return decoded item
+     * @throws java.nio.BufferUnderflowException if the record is truncated
+     * @throws IllegalArgumentException          if the record is malformed
+     */
+    T decode(ByteBuffer in);
+
+    /**
+     * @param item item to encode
+     * @return number of bytes {@link #encode} will write for the item
+     */
+    int encodedLength(T item);
+}
@@ -0,0 +1,184 @@
+package sample.pos.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Field encodings shared by the codecs: record framing, dictionary strings and epoch-day dates
+ */
+final class RecordFields {
+
+    /**
+     * Record length prefix and version
+     */
+    static final int HEADER_LENGTH = Short.BYTES + Byte.BYTES;
+
+    /**
+     * Longest record, excluding the length prefix
+     */
+    static final int MAX_RECORD_LENGTH = Short.MAX_VALUE;
+
+    /**
+     * Id written for a null string
+     */
+    private static final int NULL_STRING = -1;
+
+    /**
+     * Epoch day written for a null date; no LocalDate has it
+     */
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private RecordFields() {
+    }
+
+    /**
+     * Writes the record header, returning the record's start for {@link #endRecord}
+     */
+    static int beginRecord(ByteBuffer out, byte version) {
+        var start = out.position();
+        out.putShort((short) 0);
+        out.put(version);
+        return start;
+    }
+
+    static void endRecord(ByteBuffer out, int start) {
+        var length = out.position() - start - Short.BYTES;
+        if (length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("Record longer than %d bytes".formatted(MAX_RECORD_LENGTH));
+        }
+        out.putShort(start, (short) length);
+    }
+
+    /**
+     * Reads the record header, returning the position just past the record. Records of any version from the
+     * first onwards are accepted, since later versions only append fields.
+     */
+    static int beginRead(ByteBuffer in, byte firstVersion) {
+        var length = Short.toUnsignedInt(in.getShort());
+        var end = in.position() + length;
+        if (length < Byte.BYTES || end > in.limit()) {
+            throw new IllegalArgumentException("Invalid record length: " + length);
+        }
+        var recordVersion = in.get();
+        if (recordVersion < firstVersion) {
+            throw new IllegalArgumentException("Unsupported record version: " + recordVersion);
+        }
+        return end;
+    }
+
+    /**
+     * Checks the known fields fit the record, then skips any fields added by later versions
+     */
+    static void endRead(ByteBuffer in, int end) {
+        if (in.position() > end) {
+            throw new IllegalArgumentException("Record fields overrun the record length");
+        }
+        in.position(end);
+    }
+
+    /**
+     * Reads the fingerprint of the dictionary the record was written with, if the record has one (records from
+     * versions before it was added do not), and checks it is the decoder's
+     *
+     * @throws IllegalArgumentException if the record was written with a different dictionary
+     */
+    static void checkDictionary(ByteBuffer in, int end, ToolDictionary dictionary) {
+        if (in.position() >= end) {
+            return;
+        }
+        var fingerprint = in.getInt();
+        if (fingerprint != dictionary.fingerprint()) {
+            throw new IllegalArgumentException("Record written with a different tool dictionary: %08x, expected %08x"
+                    .formatted(fingerprint, dictionary.fingerprint()));
+        }
+    }
+
+    /**
+     * Writes a short dictionary id, followed by the string itself when it is not in the dictionary
+     */
+    static void putString(ByteBuffer out, String value, int id) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        out.putShort((short) id);
+        if (id == ToolDictionary.INLINE) {
+            putInline(out, value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #putString}
+     *
+     * @param kind string kind, passed to the dictionary lookup
+     */
+    static String getString(ByteBuffer in, ToolDictionary dictionary, ToolDictionary.Kind kind) {
+        int id = in.getShort();
+        if (id == NULL_STRING) {
+            return null;
+        }
+        return id == ToolDictionary.INLINE ? getInline(in) : dictionary.lookup(kind, id);
+    }
+
+    static int stringLength(String value, int id) {
+        return Short.BYTES + (value != null && id == ToolDictionary.INLINE ? inlineLength(value) : 0);
+    }
+
+    /**
+     * @throws ArithmeticException if the date's epoch day does not fit an int (years beyond +/-5.8 million)
+     */
+    static void putDate(ByteBuffer out, LocalDate date) {
+        out.putInt(date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay()));
+    }
+
+    static LocalDate getDate(ByteBuffer in) {
+        var epochDay = in.getInt();
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Writes a short byte count and the string's UTF-8 bytes; ASCII strings are written without an intermediate byte[]
+     */
+    private static void putInline(ByteBuffer out, String value) {
+        if (isAscii(value)) {
+            out.putShort((short) value.length());
+            for (int i = 0; i < value.length(); i++) {
+                out.put((byte) value.charAt(i));
+            }
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getInline(ByteBuffer in) {
+        var length = Short.toUnsignedInt(in.getShort());
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        if (in.hasArray()) {
+            // decode straight from the backing array
+            var value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        var bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int inlineLength(String value) {
+        return Short.BYTES + (isAscii(value) ? value.length() : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
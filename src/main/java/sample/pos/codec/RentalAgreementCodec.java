@@ -0,0 +1,128 @@
+package sample.pos.codec;
+
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.RentalAgreement;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import static sample.pos.codec.RecordFields.beginRead;
+import static sample.pos.codec.RecordFields.beginRecord;
+import static sample.pos.codec.RecordFields.checkDictionary;
+import static sample.pos.codec.RecordFields.endRead;
+import static sample.pos.codec.RecordFields.endRecord;
+import static sample.pos.codec.RecordFields.getDate;
+import static sample.pos.codec.RecordFields.getString;
+import static sample.pos.codec.RecordFields.putDate;
+import static sample.pos.codec.RecordFields.putString;
+import static sample.pos.codec.RecordFields.stringLength;
+
+/**
+ * Binary codec for RentalAgreements.
+ * <p>
+ * Version 1 fields (see {@link Codec} for the record framing):
+ * <pre>
+ *     short toolCode id, short toolType id, short toolBrand id (see {@link ToolDictionary})
+ *     int   rentalDays
+ *     int   checkoutDate, int dueDate (epoch days)
+ *     long  dailyRentalChargeCents
+ *     int   chargeDays
+ *     long  preDiscountChargeCents
+ *     int   discountPercent
+ *     long  discountAmountCents, long finalChargeCents
+ * </pre>
+ * Version 2 appends:
+ * <pre>
+ *     byte  chargeRules ({@link ChargeRules#toFlags})
+ * </pre>
+ * Version 3 appends:
+ * <pre>
+ *     int   fingerprint of the dictionary the ids were written with ({@link ToolDictionary#fingerprint()})
+ * </pre>
+ * Version 1 records decode with null chargeRules. Records from version 3 on are refused by a codec with a different
+ * dictionary; earlier records cannot be checked.
+ * An agreement for a catalogued tool encodes to {@value #CATALOGUED_LENGTH} bytes. Numbers are big-endian.
+ */
+public class RentalAgreementCodec implements Codec<RentalAgreement> {
+
+    public static final byte VERSION = 3;
+
+    /**
+     * Oldest version decoded
+     */
+    private static final byte FIRST_VERSION = 1;
+
+    /**
+     * Length of an agreement whose strings are all in the dictionary
+     */
+    public static final int CATALOGUED_LENGTH = RecordFields.HEADER_LENGTH + 3 * Short.BYTES
+            + 5 * Integer.BYTES + 4 * Long.BYTES + Byte.BYTES + Integer.BYTES;
+
+    private final ToolDictionary dictionary;
+
+    public RentalAgreementCodec(ToolDictionary dictionary) {
+        this.dictionary = Objects.requireNonNull(dictionary);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void encode(RentalAgreement rentalAgreement, ByteBuffer out) {
+        var start = beginRecord(out, VERSION);
+        putString(out, rentalAgreement.getToolCode(), dictionary.id(ToolDictionary.Kind.TOOL_CODE, rentalAgreement.getToolCode()));
+        putString(out, rentalAgreement.getToolType(), dictionary.id(ToolDictionary.Kind.TOOL_TYPE, rentalAgreement.getToolType()));
+        putString(out, rentalAgreement.getToolBrand(), dictionary.id(ToolDictionary.Kind.BRAND, rentalAgreement.getToolBrand()));
+        out.putInt(rentalAgreement.getRentalDays());
+        putDate(out, rentalAgreement.getCheckoutDate());
+        putDate(out, rentalAgreement.getDueDate());
+        out.putLong(rentalAgreement.getDailyRentalChargeCents());
+        out.putInt(rentalAgreement.getChargeDays());
+        out.putLong(rentalAgreement.getPreDiscountChargeCents());
+        out.putInt(rentalAgreement.getDiscountPercent());
+        out.putLong(rentalAgreement.getDiscountAmountCents());
+        out.putLong(rentalAgreement.getFinalChargeCents());
+        out.put(ChargeRules.toFlags(rentalAgreement.getChargeRules()));
+        out.putInt(dictionary.fingerprint());
+        endRecord(out, start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RentalAgreement decode(ByteBuffer in) {
+        var end = beginRead(in, FIRST_VERSION);
+        var rentalAgreement = RentalAgreement.builder()
+                .toolCode(getString(in, dictionary, ToolDictionary.Kind.TOOL_CODE))
+                .toolType(getString(in, dictionary, ToolDictionary.Kind.TOOL_TYPE))
+                .toolBrand(getString(in, dictionary, ToolDictionary.Kind.BRAND))
+                .rentalDays(in.getInt())
+                .checkoutDate(getDate(in))
+                .dueDate(getDate(in))
+                .dailyRentalChargeCents(in.getLong())
+                .chargeDays(in.getInt())
+                .preDiscountChargeCents(in.getLong())
+                .discountPercent(in.getInt())
+                .discountAmountCents(in.getLong())
+                .finalChargeCents(in.getLong())
+                // version 2
+                .chargeRules(in.position() < end ? ChargeRules.fromFlags(in.get()) : null)
+                .build();
+        // version 3
+        checkDictionary(in, end, dictionary);
+        endRead(in, end);
+        return rentalAgreement;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int encodedLength(RentalAgreement rentalAgreement) {
+        return CATALOGUED_LENGTH - 3 * Short.BYTES
+                + stringLength(rentalAgreement.getToolCode(), dictionary.id(ToolDictionary.Kind.TOOL_CODE, rentalAgreement.getToolCode()))
+                + stringLength(rentalAgreement.getToolType(), dictionary.id(ToolDictionary.Kind.TOOL_TYPE, rentalAgreement.getToolType()))
+                + stringLength(rentalAgreement.getToolBrand(), dictionary.id(ToolDictionary.Kind.BRAND, rentalAgreement.getToolBrand()));
+    }
+}
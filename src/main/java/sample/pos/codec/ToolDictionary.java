@@ -0,0 +1,123 @@
+package sample.pos.codec;
+
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Numbers the tool codes, tool types and brands of a tool catalog, so codecs can write a small id in place of
+ * each string.
+ * <p>
+ * Ids start at 1, in sorted order of the strings, so dictionaries built from the same catalog agree. Adding or
+ * removing a tool renumbers the strings after it, so codecs write the {@link #fingerprint()} into each record, and
+ * refuse records written with a different dictionary. Tool type ids follow {@link ToolType} order.
+ * Decoding an id returns the dictionary's own String, so no String is created per field.
+ * <p>
+ * The dictionary is immutable, and is safe to share across threads.
+ */
+public final class ToolDictionary {
+
+    /**
+     * Id written for a string missing from the dictionary; the string follows inline
+     */
+    static final int INLINE = 0;
+
+    /**
+     * Kinds of string numbered by the dictionary
+     */
+    enum Kind {
+        TOOL_CODE, TOOL_TYPE, BRAND
+    }
+
+    private final String[] toolCodes;
+
+    private final String[] brands;
+
+    private final String[] toolTypes;
+
+    private final Map<String, Integer> toolCodeIds;
+
+    private final Map<String, Integer> brandIds;
+
+    private final Map<String, Integer> toolTypeIds;
+
+    private final int fingerprint;
+
+    private ToolDictionary(String[] toolCodes, String[] brands) {
+        this.toolCodes = toolCodes;
+        this.brands = brands;
+        this.toolTypes = Arrays.stream(ToolType.values()).map(ToolType::getName).toArray(String[]::new);
+        this.toolCodeIds = ids(toolCodes);
+        this.brandIds = ids(brands);
+        this.toolTypeIds = ids(toolTypes);
+        this.fingerprint = 31 * (31 * Arrays.hashCode(toolCodes) + Arrays.hashCode(brands)) + Arrays.hashCode(toolTypes);
+    }
+
+    /**
+     * @param tools catalog to number
+     * @return dictionary of the catalog's tool codes and brands
+     * @throws IllegalArgumentException if the catalog has more codes or brands than fit in a short id
+     */
+    public static ToolDictionary of(Collection<Tool> tools) {
+        var toolCodes = new TreeSet<String>();
+        var brands = new TreeSet<String>();
+        tools.forEach(tool -> {
+            toolCodes.add(tool.getCode());
+            brands.add(tool.getBrand());
+        });
+        if (toolCodes.size() >= Short.MAX_VALUE || brands.size() >= Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many tool codes or brands for a dictionary: %d, %d".formatted(toolCodes.size(), brands.size()));
+        }
+        return new ToolDictionary(toolCodes.toArray(String[]::new), brands.toArray(String[]::new));
+    }
+
+    /**
+     * @return hash of every entry, equal for dictionaries that number the same strings the same way
+     */
+    public int fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return id of the string, or {@link #INLINE} if it is not in the dictionary (or is null)
+     */
+    int id(Kind kind, String value) {
+        if (value == null) {
+            return INLINE;
+        }
+        var ids = switch (kind) {
+            case TOOL_CODE -> toolCodeIds;
+            case TOOL_TYPE -> toolTypeIds;
+            case BRAND -> brandIds;
+        };
+        return ids.getOrDefault(value, INLINE);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id is not in the dictionary
+     */
+    String lookup(Kind kind, int id) {
+        var strings = switch (kind) {
+            case TOOL_CODE -> toolCodes;
+            case TOOL_TYPE -> toolTypes;
+            case BRAND -> brands;
+        };
+        if (id < 1 || id > strings.length) {
+            throw new IllegalArgumentException("Unknown %s id: %d".formatted(kind, id));
+        }
+        return strings[id - 1];
+    }
+
+    private static Map<String, Integer> ids(String[] strings) {
+        var ids = new HashMap<String, Integer>();
+        for (int i = 0; i < strings.length; i++) {
+            ids.put(strings[i], i + 1);
+        }
+        return Map.copyOf(ids);
+    }
+}
@@ -0,0 +1,71 @@
+package sample.pos.domain;
+
+/**
+ * Which days of a rental are charged: weekdays, weekends and/or holidays.
+ * <p>
+ * Captured on a {@link RentalAgreement} at checkout, so a later return counts its late or unused days by the same
+ * rules, even if the pricing table has been republished since. There are only eight combinations, each a shared
+ * instance, packed into a byte of {@link #flags()} for storage.
+ *
+ * @param chargeOnWeekdays charged on weekdays
+ * @param chargeOnWeekends charged on weekends
+ * @param chargeOnHolidays charged on holidays
+ */
+public record ChargeRules(boolean chargeOnWeekdays, boolean chargeOnWeekends, boolean chargeOnHolidays) {
+
+    /**
+     * Flags stored for an agreement whose rules were not captured
+     */
+    public static final byte UNKNOWN_FLAGS = -1;
+
+    private static final int WEEKDAYS = 1;
+
+    private static final int WEEKENDS = 1 << 1;
+
+    private static final int HOLIDAYS = 1 << 2;
+
+    private static final ChargeRules[] ALL = new ChargeRules[8];
+
+    static {
+        for (int flags = 0; flags < ALL.length; flags++) {
+            ALL[flags] = new ChargeRules((flags & WEEKDAYS) != 0, (flags & WEEKENDS) != 0, (flags & HOLIDAYS) != 0);
+        }
+    }
+
+    /**
+     * @return shared instance for the combination
+     */
+    public static ChargeRules of(boolean chargeOnWeekdays, boolean chargeOnWeekends, boolean chargeOnHolidays) {
+        return ALL[(chargeOnWeekdays ? WEEKDAYS : 0) | (chargeOnWeekends ? WEEKENDS : 0) | (chargeOnHolidays ? HOLIDAYS : 0)];
+    }
+
+    /**
+     * @param rules rules, or null if not captured
+     * @return the rules' {@link #flags()}, or {@link #UNKNOWN_FLAGS} for null
+     */
+    public static byte toFlags(ChargeRules rules) {
+        return rules == null ? UNKNOWN_FLAGS : rules.flags();
+    }
+
+    /**
+     * @param flags byte from {@link #toFlags}
+     * @return shared instance for the flags, or null for {@link #UNKNOWN_FLAGS}
+     * @throws IllegalArgumentException if the byte holds bits other than the three flags
+     */
+    public static ChargeRules fromFlags(byte flags) {
+        if (flags == UNKNOWN_FLAGS) {
+            return null;
+        }
+        if ((flags & ~(WEEKDAYS | WEEKENDS | HOLIDAYS)) != 0) {
+            throw new IllegalArgumentException("Invalid charge rule flags: " + flags);
+        }
+        return ALL[flags];
+    }
+
+    /**
+     * @return the rules as a byte of flags (weekdays = 1, weekends = 2, holidays = 4)
+     */
+    public byte flags() {
+        return (byte) ((chargeOnWeekdays ? WEEKDAYS : 0) | (chargeOnWeekends ? WEEKENDS : 0) | (chargeOnHolidays ? HOLIDAYS : 0));
+    }
+}
@@ -0,0 +1,137 @@
+package sample.pos.domain;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of checking out a {@link CheckinRequest}, returned instead of thrown: either a {@link Success} holding the
+ * {@link RentalAgreement}, or one of the {@link Failure} variants describing why the request was refused.
+ * <p>
+ * Failures carry the offending value and a constant reason, so refusing a request creates no stack trace and
+ * formats no message. Switch over the variants to handle each case:
+ * <pre>
+ *     switch (handler.tryHandle(request)) {
+ *         case CheckoutOutcome.Success success -> print(success.rentalAgreement());
+ *         case CheckoutOutcome.Failure failure -> beep(failure.reason());
+ *     }
+ * </pre>
+ *
+ * @see sample.pos.handlers.MappedToolCheckoutHandler#tryHandle
+ */
+public sealed interface CheckoutOutcome {
+
+    /**
+     * @return true if the request was checked out
+     */
+    default boolean isSuccess() {
+        return this instanceof Success;
+    }
+
+    /**
+     * Request was checked out
+     *
+     * @param rentalAgreement agreement created for the request
+     */
+    record Success(RentalAgreement rentalAgreement) implements CheckoutOutcome {
+    }
+
+    /**
+     * Request was refused
+     */
+    sealed interface Failure extends CheckoutOutcome {
+
+        /**
+         * @return why the request was refused (a constant, without the offending value)
+         */
+        String reason();
+
+        /**
+         * Formats the reason with the offending value, as the matching exception's message would read. Only
+         * formatted when called, for callers reporting the failure as text.
+         *
+         * @return reason and offending value (ie, "Unable to find tool with given code: &lt;JAKX&gt;")
+         */
+        String message();
+    }
+
+    /**
+     * Number of days to rent was 0 (or less)
+     *
+     * @param dayCount requested number of days
+     */
+    record InvalidDayCount(int dayCount) implements Failure {
+
+        public static final String REASON = "Day count must be greater than 0";
+
+        @Override
+        public String reason() {
+            return REASON;
+        }
+
+        @Override
+        public String message() {
+            return "%s: <%d>".formatted(REASON, dayCount);
+        }
+    }
+
+    /**
+     * Discount was outside the range of 0%-100%
+     *
+     * @param discountPercent requested discount
+     */
+    record InvalidDiscount(int discountPercent) implements Failure {
+
+        public static final String REASON = "Discount must be between 0 and 100";
+
+        @Override
+        public String reason() {
+            return REASON;
+        }
+
+        @Override
+        public String message() {
+            return "%s: <%d>".formatted(REASON, discountPercent);
+        }
+    }
+
+    /**
+     * Tool code was not in the tool repository
+     *
+     * @param toolCode requested tool code
+     */
+    record InvalidToolCode(String toolCode) implements Failure {
+
+        public static final String REASON = "Unable to find tool with given code";
+
+        @Override
+        public String reason() {
+            return REASON;
+        }
+
+        @Override
+        public String message() {
+            return "%s: <%s>".formatted(REASON, toolCode);
+        }
+    }
+
+    /**
+     * Tool was already reserved for part of the rental window
+     *
+     * @param toolCode     tool code
+     * @param checkoutDate requested checkout date
+     * @param dueDate      due date of the requested rental
+     */
+    record ToolUnavailable(String toolCode, LocalDate checkoutDate, LocalDate dueDate) implements Failure {
+
+        public static final String REASON = "Tool is already reserved";
+
+        @Override
+        public String reason() {
+            return REASON;
+        }
+
+        @Override
+        public String message() {
+            return "%s: <%s> from <%s> to <%s>".formatted(REASON, toolCode, checkoutDate, dueDate);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package sample.pos.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of checking out a single {@link CheckinRequest} as part of a batch.
+ * <p>
+ * Holds either the resulting {@link RentalAgreement}, or the exception thrown while validating/handling
+ * the request, so a single bad request does not abort the rest of the batch.
+ */
+@Builder
+@Value
+public class CheckoutResult {
+    /**
+     * Position of the request in the batch input
+     */
+    int index;
+    CheckinRequest request;
+    RentalAgreement agreement;
+    Exception failure;
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
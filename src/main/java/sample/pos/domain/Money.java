@@ -0,0 +1,68 @@
+package sample.pos.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for money amounts held as a {@code long} number of cents.
+ * <p>
+ * Calculations on cents avoid allocating a BigDecimal per arithmetic step. All rounding is HALF_UP, to
+ * the cent, matching the rounding previously done with BigDecimal. Amounts are converted to BigDecimal
+ * (scale 2) only at the API edge.
+ */
+public final class Money {
+
+    /**
+     * Number of decimal places in a cent amount
+     */
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Calculates a percentage of a cent amount, rounded HALF_UP to the cent
+     * <p>
+     * ie, 25% of 447 cents is 111.75 cents, which rounds to 112 cents
+     *
+     * @param cents   amount in cents
+     * @param percent percentage (0-100)
+     * @return percentage of the amount, in cents
+     * @throws ArithmeticException if the amount overflows a long
+     */
+    public static long percentOf(long cents, int percent) {
+        var product = Math.multiplyExact(cents, percent);
+        var quotient = product / 100;
+        var remainder = product % 100;
+        if (Math.abs(remainder) >= 50) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+
+    /**
+     * Multiplies a cent amount by a number of units (ie, days)
+     *
+     * @throws ArithmeticException if the amount overflows a long
+     */
+    public static long times(long cents, int units) {
+        return Math.multiplyExact(cents, units);
+    }
+
+    /**
+     * @param cents amount in cents
+     * @return amount as a BigDecimal with a scale of 2 (ie, 199 -> 1.99)
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * @param amount amount in dollars (ie, 1.99)
+     * @return amount in cents, rounded HALF_UP (ie, 199)
+     * @throws ArithmeticException if the amount overflows a long
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -18,7 +18,7 @@ import java.time.LocalDate;
  *     <li>toolBrand</li>
  *     <li>rentalDays</li>
  *     <li>checkoutDate</li>
- *     <li>dailyRentalCharge</li>
+ *     <li>dailyRentalChargeCents</li>
  *     <li>discountPercent</li>
  * </ul>
  *
@@ -26,10 +26,16 @@ import java.time.LocalDate;
  * <ul>
  *     <li>dueDate</li>
  *     <li>chargeDays</li>
- *     <li>preDiscountCharge</li>
- *     <li>discountAmount</li>
- *     <li>finalCharge</li>
+ *     <li>preDiscountChargeCents</li>
+ *     <li>discountAmountCents</li>
+ *     <li>finalChargeCents</li>
  * </ul>
+ *
+ * Money amounts are held in cents (see {@link Money}), with BigDecimal views provided for callers expecting
+ * dollar amounts.
+ * <p>
+ * chargeRules are the charge-day rules the agreement was priced with, so returns count late and unused days the same
+ * way; they are null for agreements recorded before the rules were captured.
  */
 @Builder
 @Value
@@ -40,12 +46,29 @@ public class RentalAgreement {
     int rentalDays;
     LocalDate checkoutDate;
     LocalDate dueDate;
-    BigDecimal dailyRentalCharge;
+    long dailyRentalChargeCents;
     int chargeDays;
-    BigDecimal preDiscountCharge;
+    long preDiscountChargeCents;
     int discountPercent;
-    BigDecimal discountAmount;
-    BigDecimal finalCharge;
+    long discountAmountCents;
+    long finalChargeCents;
+    ChargeRules chargeRules;
+
+    public BigDecimal getDailyRentalCharge() {
+        return Money.toBigDecimal(dailyRentalChargeCents);
+    }
+
+    public BigDecimal getPreDiscountCharge() {
+        return Money.toBigDecimal(preDiscountChargeCents);
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return Money.toBigDecimal(discountAmountCents);
+    }
+
+    public BigDecimal getFinalCharge() {
+        return Money.toBigDecimal(finalChargeCents);
+    }
 }
 
 
@@ -0,0 +1,17 @@
+package sample.pos.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Booking of a physical tool, from its checkout date up to (not including) its due date
+ */
+@Builder
+@Value
+public class Reservation {
+    String toolCode;
+    LocalDate checkoutDate;
+    LocalDate dueDate;
+}
@@ -0,0 +1,36 @@
+package sample.pos.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Store policy for re-pricing returned rentals
+ * <ul>
+ *     <li>Late returns are charged for each chargeable day past the due date, at the daily rate (no discount),
+ *     plus a late fee of lateFeePercent of that charge</li>
+ *     <li>Early returns are credited earlyReturnCreditPercent of the (discounted) charge for each unused
+ *     chargeable day</li>
+ * </ul>
+ */
+@Builder
+@Value
+public class ReturnPolicy {
+
+    /**
+     * 10% late fee, and full credit for unused days
+     */
+    public static final ReturnPolicy DEFAULT = ReturnPolicy.builder()
+            .lateFeePercent(10)
+            .earlyReturnCreditPercent(100)
+            .build();
+
+    /**
+     * Surcharge on late day charges (0-100)
+     */
+    int lateFeePercent;
+
+    /**
+     * Portion of the charge for unused days credited back on early return (0-100)
+     */
+    int earlyReturnCreditPercent;
+}
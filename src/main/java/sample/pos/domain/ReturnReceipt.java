@@ -0,0 +1,46 @@
+package sample.pos.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Result of returning a rented tool: the original agreement, re-priced for the actual return date.
+ * <p>
+ * Only one of the late (daysLate, lateChargeDays, lateChargeCents, lateFeeCents) or early (daysEarly,
+ * unusedChargeDays, earlyReturnCreditCents) fields are non-zero, depending on when the tool came back.
+ * finalChargeCents is the total owed for the rental, after the adjustments.
+ */
+@Builder(toBuilder = true)
+@Value
+public class ReturnReceipt {
+    long agreementId;
+    RentalAgreement rentalAgreement;
+    LocalDate returnDate;
+    int daysLate;
+    int lateChargeDays;
+    long lateChargeCents;
+    long lateFeeCents;
+    int daysEarly;
+    int unusedChargeDays;
+    long earlyReturnCreditCents;
+    long finalChargeCents;
+
+    public BigDecimal getLateCharge() {
+        return Money.toBigDecimal(lateChargeCents);
+    }
+
+    public BigDecimal getLateFee() {
+        return Money.toBigDecimal(lateFeeCents);
+    }
+
+    public BigDecimal getEarlyReturnCredit() {
+        return Money.toBigDecimal(earlyReturnCreditCents);
+    }
+
+    public BigDecimal getFinalCharge() {
+        return Money.toBigDecimal(finalChargeCents);
+    }
+}
@@ -0,0 +1,19 @@
+package sample.pos.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * POJO for capturing inputs necessary to return (check in) a rented tool
+ */
+@Builder
+@Value
+public class ReturnRequest {
+    /**
+     * Id of the open agreement, as assigned by the RentalAgreementRepository
+     */
+    long agreementId;
+    LocalDate returnDate;
+}
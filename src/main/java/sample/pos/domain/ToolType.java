@@ -1,24 +1,51 @@
 package sample.pos.domain;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.math.BigDecimal;
+import java.util.Optional;
 
 /**
  * The ToolType enum represents the limited pre-set values for ToolType
+ * <p>
+ * Daily charges are held in cents; see {@link Money}. The charges and flags here are the defaults
+ * ({@link sample.pos.pricing.PricingTable#DEFAULT}); calculators read the current prices from a
+ * {@link sample.pos.pricing.PricingTable}, indexed by ordinal, which may be reloaded from a config file.
  */
 @Getter
-@AllArgsConstructor
 public enum ToolType {
-    LADDER("Ladder", BigDecimal.valueOf(1.99), true, true, false),
-    CHAINSAW("ChainSaw", BigDecimal.valueOf(1.49), true, false, true),
-    JACK_HAMMER("JackHammer", BigDecimal.valueOf(2.99), true, false, false);
+    LADDER("Ladder", 199, true, true, false),
+    CHAINSAW("ChainSaw", 149, true, false, true),
+    JACK_HAMMER("JackHammer", 299, true, false, false);
 
     private final String name;
+    private final long dailyChargeCents;
     private final BigDecimal dailyCharge;
     private final boolean chargeOnWeekdays;
     private final boolean chargeOnWeekends;
     private final boolean chargeOnHolidays;
 
+    ToolType(String name, long dailyChargeCents, boolean chargeOnWeekdays, boolean chargeOnWeekends, boolean chargeOnHolidays) {
+        this.name = name;
+        this.dailyChargeCents = dailyChargeCents;
+        this.dailyCharge = Money.toBigDecimal(dailyChargeCents);
+        this.chargeOnWeekdays = chargeOnWeekdays;
+        this.chargeOnWeekends = chargeOnWeekends;
+        this.chargeOnHolidays = chargeOnHolidays;
+    }
+
+    /**
+     * Looks up a tool type by its display name, as held on a RentalAgreement (ie, "Ladder")
+     *
+     * @param name display name
+     * @return Optional(toolType) | Optional(empty)
+     */
+    public static Optional<ToolType> forName(String name) {
+        for (var toolType : values()) {
+            if (toolType.name.equals(name)) {
+                return Optional.of(toolType);
+            }
+        }
+        return Optional.empty();
+    }
 }
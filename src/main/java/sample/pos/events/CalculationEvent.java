@@ -0,0 +1,22 @@
+package sample.pos.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Calculation of charge days and charges for a rental agreement.
+ * <p>
+ * Recorded when the stage takes longer than 5 ms, unless the recording sets its own threshold.
+ */
+@Name(CalculationEvent.NAME)
+@Label("Rental Calculation")
+@Description("Calculation of charge days and charges for a rental agreement")
+@Threshold("5 ms")
+@StackTrace(false)
+public class CalculationEvent extends CheckoutStageEvent {
+
+    public static final String NAME = "sample.pos.Calculation";
+}
@@ -0,0 +1,56 @@
+package sample.pos.events;
+
+import jdk.jfr.Configuration;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Names and recording settings of the checkout pipeline events.
+ * <p>
+ * The settings (resource {@code sample/pos/events/checkout.jfc}) enable every event at its production threshold.
+ * They can be given on the command line alongside the JDK's own settings, or used to start a recording in-process:
+ * <pre>
+ *     try (var recording = new Recording(CheckoutEvents.configuration())) {
+ *         recording.start();
+ *         ...
+ *     }
+ * </pre>
+ */
+public final class CheckoutEvents {
+
+    /**
+     * Name of the settings resource, relative to this class
+     */
+    public static final String SETTINGS_RESOURCE = "checkout.jfc";
+
+    /**
+     * Names of every checkout event, in pipeline order
+     */
+    public static final List<String> NAMES = List.of(
+            PosHandleEvent.NAME,
+            CheckoutHandlerEvent.NAME,
+            ToolLookupEvent.NAME,
+            CalculationEvent.NAME,
+            PosProcessEvent.NAME,
+            RenderEvent.NAME);
+
+    private CheckoutEvents() {
+    }
+
+    /**
+     * @return recording settings enabling every checkout event at its production threshold
+     * @throws IOException    if the settings resource cannot be read
+     * @throws ParseException if the settings resource is malformed
+     */
+    public static Configuration configuration() throws IOException, ParseException {
+        var settings = Objects.requireNonNull(CheckoutEvents.class.getResourceAsStream(SETTINGS_RESOURCE), SETTINGS_RESOURCE);
+        try (var reader = new InputStreamReader(settings, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
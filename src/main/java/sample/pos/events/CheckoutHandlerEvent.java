@@ -0,0 +1,22 @@
+package sample.pos.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Validation, tool lookup, reservation and calculation of a checkout.
+ * <p>
+ * Recorded when the stage takes longer than 10 ms, unless the recording sets its own threshold.
+ */
+@Name(CheckoutHandlerEvent.NAME)
+@Label("Checkout Handler")
+@Description("Validation, tool lookup, reservation and calculation of a checkout")
+@Threshold("10 ms")
+@StackTrace(false)
+public class CheckoutHandlerEvent extends CheckoutStageEvent {
+
+    public static final String NAME = "sample.pos.CheckoutHandler";
+}
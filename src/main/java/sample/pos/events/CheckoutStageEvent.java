@@ -0,0 +1,78 @@
+package sample.pos.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+
+/**
+ * Base Java Flight Recorder event for one stage of the checkout pipeline, carrying the tool code, day count and
+ * charge days of the checkout it timed.
+ * <p>
+ * Usage mirrors {@link Event} itself: create the event and call {@link #begin()} before the stage, then call one
+ * of the {@code finish} methods once it is done. The fields are only filled in when the event will actually be
+ * recorded (ie, it is enabled and ran longer than its threshold), so a stage below its threshold costs little more
+ * than two clock reads. Each stage has a default threshold (see the subclasses); recordings may override it, ie
+ * with the settings from {@link CheckoutEvents#configuration()}.
+ */
+@Category({"Tool Rental POS", "Checkout"})
+public abstract class CheckoutStageEvent extends Event {
+
+    /**
+     * Charge days recorded before the charge days are known (ie, for the tool lookup, or a rejected request)
+     */
+    public static final int UNKNOWN_CHARGE_DAYS = -1;
+
+    @Label("Tool Code")
+    String toolCode;
+
+    @Label("Day Count")
+    int dayCount;
+
+    @Label("Charge Days")
+    @Description("Number of days charged, or -1 if not known at this stage")
+    int chargeDays;
+
+    /**
+     * Ends the event, committing it if it should be recorded
+     *
+     * @param toolCode   tool code of the checkout
+     * @param dayCount   number of days rented
+     * @param chargeDays number of days charged, or {@link #UNKNOWN_CHARGE_DAYS}
+     */
+    public final void finish(String toolCode, int dayCount, int chargeDays) {
+        end();
+        if (shouldCommit()) {
+            this.toolCode = toolCode;
+            this.dayCount = dayCount;
+            this.chargeDays = chargeDays;
+            commit();
+        }
+    }
+
+    /**
+     * Ends the event for a checkin request
+     *
+     * @param checkinRequest request being checked out
+     * @param rentalAgreement agreement created for the request, or null if it was rejected
+     */
+    public final void finish(CheckinRequest checkinRequest, RentalAgreement rentalAgreement) {
+        finish(checkinRequest.getToolCode(), checkinRequest.getDayCount(),
+                rentalAgreement == null ? UNKNOWN_CHARGE_DAYS : rentalAgreement.getChargeDays());
+    }
+
+    /**
+     * Ends the event for a rental agreement
+     *
+     * @param rentalAgreement agreement being processed, or null if the stage failed without one
+     */
+    public final void finish(RentalAgreement rentalAgreement) {
+        if (rentalAgreement == null) {
+            finish(null, 0, UNKNOWN_CHARGE_DAYS);
+            return;
+        }
+        finish(rentalAgreement.getToolCode(), rentalAgreement.getRentalDays(), rentalAgreement.getChargeDays());
+    }
+}
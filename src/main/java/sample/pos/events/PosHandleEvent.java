@@ -0,0 +1,22 @@
+package sample.pos.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Checkout of a request by the POS, from request to rental agreement.
+ * <p>
+ * Recorded when the stage takes longer than 20 ms, unless the recording sets its own threshold.
+ */
+@Name(PosHandleEvent.NAME)
+@Label("POS Checkout")
+@Description("Checkout of a request by the POS, from request to rental agreement")
+@Threshold("20 ms")
+@StackTrace(false)
+public class PosHandleEvent extends CheckoutStageEvent {
+
+    public static final String NAME = "sample.pos.PosHandle";
+}
@@ -0,0 +1,22 @@
+package sample.pos.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Processing of a completed rental agreement by the POS.
+ * <p>
+ * Recorded when the stage takes longer than 20 ms, unless the recording sets its own threshold.
+ */
+@Name(PosProcessEvent.NAME)
+@Label("POS Processing")
+@Description("Processing of a completed rental agreement by the POS")
+@Threshold("20 ms")
+@StackTrace(false)
+public class PosProcessEvent extends CheckoutStageEvent {
+
+    public static final String NAME = "sample.pos.PosProcess";
+}
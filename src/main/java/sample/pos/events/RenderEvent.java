@@ -0,0 +1,22 @@
+package sample.pos.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Rendering of a rental agreement as text.
+ * <p>
+ * Recorded when the stage takes longer than 5 ms, unless the recording sets its own threshold.
+ */
+@Name(RenderEvent.NAME)
+@Label("Rental Agreement Rendering")
+@Description("Rendering of a rental agreement as text")
+@Threshold("5 ms")
+@StackTrace(false)
+public class RenderEvent extends CheckoutStageEvent {
+
+    public static final String NAME = "sample.pos.Render";
+}
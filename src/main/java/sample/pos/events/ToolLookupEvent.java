@@ -0,0 +1,22 @@
+package sample.pos.events;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Lookup of a tool code in the tool repository.
+ * <p>
+ * Recorded when the stage takes longer than 1 ms, unless the recording sets its own threshold.
+ */
+@Name(ToolLookupEvent.NAME)
+@Label("Tool Lookup")
+@Description("Lookup of a tool code in the tool repository")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ToolLookupEvent extends CheckoutStageEvent {
+
+    public static final String NAME = "sample.pos.ToolLookup";
+}
@@ -0,0 +1,27 @@
+package sample.pos.exceptions;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Exception thrown when an agreement that has already been returned is returned again on a different date
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class AgreementAlreadyReturnedException extends Exception {
+    long agreementId;
+    LocalDate returnDate;
+
+    public AgreementAlreadyReturnedException(String message, long agreementId, LocalDate returnDate) {
+        super(message);
+        this.agreementId = agreementId;
+        this.returnDate = returnDate;
+    }
+
+    @Override
+    public String getMessage() {
+        return "%s: <%d> on <%s>".formatted(super.getMessage(), agreementId, returnDate);
+    }
+}
@@ -0,0 +1,25 @@
+package sample.pos.exceptions;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+/**
+ * Exception thrown when an agreement lookup fails to retrieve an agreement from the RentalAgreement Repo.
+ *
+ * @see sample.pos.repository.RentalAgreementRepository
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class InvalidAgreementIdException extends Exception {
+    long agreementId;
+
+    public InvalidAgreementIdException(String message, long agreementId) {
+        super(message);
+        this.agreementId = agreementId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "%s: <%d>".formatted(super.getMessage(), agreementId);
+    }
+}
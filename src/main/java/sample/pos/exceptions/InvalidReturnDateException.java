@@ -0,0 +1,25 @@
+package sample.pos.exceptions;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Exception thrown when a return date is invalid (before the checkout date, or missing)
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class InvalidReturnDateException extends Exception {
+    LocalDate returnDate;
+
+    public InvalidReturnDateException(String message, LocalDate returnDate) {
+        super(message);
+        this.returnDate = returnDate;
+    }
+
+    @Override
+    public String getMessage() {
+        return "%s: <%s>".formatted(super.getMessage(), returnDate);
+    }
+}
@@ -0,0 +1,31 @@
+package sample.pos.exceptions;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Exception thrown when a tool is already reserved for part of the requested rental window
+ *
+ * @see sample.pos.reservations.ReservationIndex
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+public class ToolUnavailableException extends Exception {
+    String toolCode;
+    LocalDate checkoutDate;
+    LocalDate dueDate;
+
+    public ToolUnavailableException(String message, String toolCode, LocalDate checkoutDate, LocalDate dueDate) {
+        super(message);
+        this.toolCode = toolCode;
+        this.checkoutDate = checkoutDate;
+        this.dueDate = dueDate;
+    }
+
+    @Override
+    public String getMessage() {
+        return "%s: <%s> from <%s> to <%s>".formatted(super.getMessage(), toolCode, checkoutDate, dueDate);
+    }
+}
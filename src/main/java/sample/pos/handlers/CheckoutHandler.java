@@ -0,0 +1,83 @@
+package sample.pos.handlers;
+
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutOutcome;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.exceptions.InvalidDayCountException;
+import sample.pos.exceptions.InvalidDiscountException;
+import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.exceptions.ToolUnavailableException;
+
+import java.util.Objects;
+
+/**
+ * Checkout handler that can also report refused requests as a {@link CheckoutOutcome} rather than throwing, and
+ * give back the booking of an agreement that could not be kept.
+ * <p>
+ * Served checkouts (ie, {@link sample.pos.http.CheckoutHttpServer}, {@link sample.pos.tcp.CheckoutTcpServer}) go
+ * through this interface, so decorators (ie, {@link sample.pos.metrics.TimedCheckoutHandler}) can wrap them.
+ * Plain handlers (ie, {@link sample.pos.MappedToolPOS}) are adapted with {@link #of}.
+ */
+public interface CheckoutHandler extends Handler<CheckinRequest, RentalAgreement> {
+
+    /**
+     * Checks out a request as {@link #handle} does, but reports refused requests as a {@link CheckoutOutcome.Failure}
+     *
+     * @param checkinRequest {@link CheckinRequest} item holding all needed parameters
+     * @return {@link CheckoutOutcome.Success} holding the rental agreement, or the failure refusing the request
+     */
+    CheckoutOutcome tryHandle(CheckinRequest checkinRequest);
+
+    /**
+     * Gives back whatever was taken when the agreement was checked out (ie, the tool's reservation), when the
+     * agreement could not be kept
+     *
+     * @param rentalAgreement agreement returned by this handler
+     * @return true if anything was given back
+     */
+    boolean cancel(RentalAgreement rentalAgreement);
+
+    /**
+     * Adapts a plain handler, mapping the domain exceptions it throws to the matching failures. There is nothing to
+     * cancel, so {@link #cancel} does nothing.
+     *
+     * @param handler handler to adapt
+     * @return the handler itself, if it already is a CheckoutHandler
+     */
+    static CheckoutHandler of(Handler<CheckinRequest, RentalAgreement> handler) {
+        Objects.requireNonNull(handler);
+        if (handler instanceof CheckoutHandler checkoutHandler) {
+            return checkoutHandler;
+        }
+        return new CheckoutHandler() {
+            @Override
+            public RentalAgreement handle(CheckinRequest checkinRequest) throws Exception {
+                return handler.handle(checkinRequest);
+            }
+
+            @Override
+            public CheckoutOutcome tryHandle(CheckinRequest checkinRequest) {
+                try {
+                    return new CheckoutOutcome.Success(handler.handle(checkinRequest));
+                } catch (InvalidDayCountException e) {
+                    return new CheckoutOutcome.InvalidDayCount(e.getDayCount());
+                } catch (InvalidDiscountException e) {
+                    return new CheckoutOutcome.InvalidDiscount(e.getPercentage());
+                } catch (InvalidToolCodeException e) {
+                    return new CheckoutOutcome.InvalidToolCode(e.getToolCode());
+                } catch (ToolUnavailableException e) {
+                    return new CheckoutOutcome.ToolUnavailable(e.getToolCode(), e.getCheckoutDate(), e.getDueDate());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException("Checkout failed", e);
+                }
+            }
+
+            @Override
+            public boolean cancel(RentalAgreement rentalAgreement) {
+                return false;
+            }
+        };
+    }
+}
@@ -1,14 +1,21 @@
 package sample.pos.handlers;
 
 import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutOutcome;
 import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Reservation;
+import sample.pos.events.CheckoutHandlerEvent;
+import sample.pos.events.CheckoutStageEvent;
+import sample.pos.events.ToolLookupEvent;
 import sample.pos.exceptions.InvalidDayCountException;
 import sample.pos.exceptions.InvalidDiscountException;
 import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.exceptions.ToolUnavailableException;
 import sample.pos.repository.ToolRepository;
+import sample.pos.reservations.ReservationIndex;
 import sample.pos.service.RentalAgreementCalculator;
 
-public class MappedToolCheckoutHandler implements Handler<CheckinRequest, RentalAgreement>{
+public class MappedToolCheckoutHandler implements CheckoutHandler {
 
     /**
      * Repo used to store all available tools
@@ -20,40 +27,132 @@ public class MappedToolCheckoutHandler implements Handler<CheckinRequest, Rental
      */
     private final RentalAgreementCalculator calculator;
 
+    /**
+     * Index of tool reservations, consulted to refuse double bookings; null if bookings are not tracked
+     */
+    private final ReservationIndex reservationIndex;
+
     public MappedToolCheckoutHandler(ToolRepository toolRepository, RentalAgreementCalculator calculator) {
+        this(toolRepository, calculator, null);
+    }
+
+    public MappedToolCheckoutHandler(ToolRepository toolRepository, RentalAgreementCalculator calculator, ReservationIndex reservationIndex) {
         this.toolRepository = toolRepository;
         this.calculator = calculator;
+        this.reservationIndex = reservationIndex;
     }
 
     /**
      * Creates a RentalAgreement based on calculations made from tool code, number of days to rent, optional discount, and checkout date.
+     * <p>
+     * Adapter over {@link #tryHandle}, throwing the exception matching a failed outcome.
      *
      * @param checkinRequest {@link CheckinRequest} item holding all needed parameters
      * @return {@link RentalAgreement} component, containing all necessary info for the rental
      * @throws InvalidToolCodeException if a given toolcode is not in the system (or available, at the moment)
      * @throws InvalidDiscountException if a discount given is outside the range of 0%-100%.
      * @throws InvalidDayCountException if the number of days to rent is 0 (or less)
+     * @throws ToolUnavailableException if the tool is already reserved for part of the rental window (only when a
+     *                                  reservation index was given; the window is reserved otherwise)
+     */
+    @Override
+    public RentalAgreement handle(CheckinRequest checkinRequest) throws InvalidDayCountException, InvalidDiscountException, InvalidToolCodeException, ToolUnavailableException {
+        return switch (tryHandle(checkinRequest)) {
+            case CheckoutOutcome.Success success -> success.rentalAgreement();
+            case CheckoutOutcome.InvalidDayCount failure ->
+                    throw new InvalidDayCountException(failure.reason(), failure.dayCount());
+            case CheckoutOutcome.InvalidDiscount failure ->
+                    throw new InvalidDiscountException(failure.reason(), failure.discountPercent());
+            case CheckoutOutcome.InvalidToolCode failure ->
+                    throw new InvalidToolCodeException(failure.reason(), failure.toolCode());
+            case CheckoutOutcome.ToolUnavailable failure ->
+                    throw new ToolUnavailableException(failure.reason(), failure.toolCode(), failure.checkoutDate(), failure.dueDate());
+        };
+    }
+
+    /**
+     * Checks out a request as {@link #handle} does, but reports refused requests as a {@link CheckoutOutcome.Failure}
+     * rather than throwing, so bad input (ie, a mistyped tool code) costs no stack trace or message formatting.
+     * <p>
+     * Emits a {@link CheckoutHandlerEvent} for the whole checkout, and a {@link ToolLookupEvent} for the repository lookup.
+     *
+     * @param checkinRequest {@link CheckinRequest} item holding all needed parameters
+     * @return {@link CheckoutOutcome.Success} holding the rental agreement, or the failure refusing the request
+     */
+    @Override
+    public CheckoutOutcome tryHandle(CheckinRequest checkinRequest) {
+        var event = new CheckoutHandlerEvent();
+        event.begin();
+        RentalAgreement rentalAgreement = null;
+        try {
+            var outcome = checkout(checkinRequest);
+            if (outcome instanceof CheckoutOutcome.Success success) {
+                rentalAgreement = success.rentalAgreement();
+            }
+            return outcome;
+        } finally {
+            event.finish(checkinRequest, rentalAgreement);
+        }
+    }
+
+    /**
+     * Releases the reservation taken when the agreement was checked out, ie, when the agreement could not be kept.
+     * Does nothing if bookings are not tracked.
+     *
+     * @param rentalAgreement agreement returned by this handler
+     * @return true if a reservation was found and released
      */
     @Override
-    public RentalAgreement handle(CheckinRequest checkinRequest) throws InvalidDayCountException, InvalidDiscountException, InvalidToolCodeException{
+    public boolean cancel(RentalAgreement rentalAgreement) {
+        if (reservationIndex == null) {
+            return false;
+        }
+        return reservationIndex.release(Reservation.builder()
+                .toolCode(rentalAgreement.getToolCode())
+                .checkoutDate(rentalAgreement.getCheckoutDate())
+                .dueDate(rentalAgreement.getDueDate())
+                .build());
+    }
+
+    private CheckoutOutcome checkout(CheckinRequest checkinRequest) {
         // validate input; dayCount > 0, 0 <= discountPercent <= 100
         var dayCount = checkinRequest.getDayCount();
         if (dayCount <= 0) {
-            throw new InvalidDayCountException("Day count must be greater than 0", dayCount);
+            return new CheckoutOutcome.InvalidDayCount(dayCount);
         }
 
         var discountPercent = checkinRequest.getDiscountPercentage();
         if (discountPercent < 0 || discountPercent > 100) {
-            throw new InvalidDiscountException("Discount must be between 0 and 100", discountPercent);
+            return new CheckoutOutcome.InvalidDiscount(discountPercent);
         }
 
 
         // lookup Tool, and create rental agreement, if found
         var toolCode = checkinRequest.getToolCode();
-        return toolRepository.findByToolCode(toolCode)
-                .map(tool -> calculator.calculate(tool, dayCount, discountPercent, checkinRequest.getCheckoutDate()))
-                .orElseThrow(() -> new InvalidToolCodeException("Unable to find tool with given code", toolCode));
+        var lookupEvent = new ToolLookupEvent();
+        lookupEvent.begin();
+        var tool = toolRepository.findByToolCode(toolCode).orElse(null);
+        lookupEvent.finish(toolCode, dayCount, CheckoutStageEvent.UNKNOWN_CHARGE_DAYS);
+        if (tool == null) {
+            return new CheckoutOutcome.InvalidToolCode(toolCode);
+        }
+        if (reservationIndex == null) {
+            return new CheckoutOutcome.Success(calculator.calculate(tool, dayCount, discountPercent, checkinRequest.getCheckoutDate()));
+        }
+
+        // reserve the tool from checkout until due, refusing double bookings
+        var checkoutDate = checkinRequest.getCheckoutDate();
+        var dueDate = checkoutDate.plusDays(dayCount);
+        var reservation = reservationIndex.tryReserve(tool.getCode(), checkoutDate, dueDate).orElse(null);
+        if (reservation == null) {
+            return new CheckoutOutcome.ToolUnavailable(tool.getCode(), checkoutDate, dueDate);
+        }
+        try {
+            return new CheckoutOutcome.Success(calculator.calculate(tool, dayCount, discountPercent, checkoutDate));
+        } catch (RuntimeException e) {
+            reservationIndex.release(reservation);
+            throw e;
+        }
 
     }
 }
-
@@ -0,0 +1,120 @@
+package sample.pos.handlers;
+
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutResult;
+import sample.pos.domain.RentalAgreement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Batch checkout handler, for end-of-day re-quotes and imports.
+ * <p>
+ * The batch is split into contiguous chunks that are handled in parallel on an executor (the common fork-join
+ * pool by default), with each chunk writing its results directly into its own slice of the output. Results
+ * come back in input order. Invalid requests are reported as failed {@link CheckoutResult}s rather than
+ * aborting the batch.
+ * <p>
+ * The delegate handler must be safe for concurrent use ({@link MappedToolCheckoutHandler} is).
+ */
+public class ParallelCheckoutHandler implements Handler<List<CheckinRequest>, List<CheckoutResult>> {
+
+    /**
+     * Number of chunks handed to each worker thread, to smooth out uneven chunk costs
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Delegate for handling the checkout of a single request
+     */
+    private final Handler<CheckinRequest, RentalAgreement> handlerDelegate;
+
+    private final ExecutorService executor;
+
+    private final int parallelism;
+
+    public ParallelCheckoutHandler(Handler<CheckinRequest, RentalAgreement> handlerDelegate) {
+        this(handlerDelegate, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param handlerDelegate handler for single requests
+     * @param executor        executor to run batch chunks on
+     * @param parallelism     number of threads expected to be available in the executor
+     */
+    public ParallelCheckoutHandler(Handler<CheckinRequest, RentalAgreement> handlerDelegate, ExecutorService executor, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0");
+        }
+        this.handlerDelegate = Objects.requireNonNull(handlerDelegate);
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Checks out every request in the batch.
+     *
+     * @param checkinRequests batch of requests
+     * @return one {@link CheckoutResult} per request, in input order
+     * @throws InterruptedException if interrupted while waiting for the batch to complete
+     * @throws ExecutionException   if a chunk fails outside of request handling (ie, an Error)
+     */
+    @Override
+    public List<CheckoutResult> handle(List<CheckinRequest> checkinRequests) throws InterruptedException, ExecutionException {
+        var size = checkinRequests.size();
+        var results = new CheckoutResult[size];
+
+        var chunkCount = Math.min(size, parallelism * CHUNKS_PER_THREAD);
+        if (chunkCount <= 1) {
+            handleRange(checkinRequests, results, 0, size);
+            return Arrays.asList(results);
+        }
+
+        var futures = new ArrayList<Future<?>>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            // spread the remainder across the leading chunks
+            int from = (int) ((long) size * chunk / chunkCount);
+            int to = (int) ((long) size * (chunk + 1) / chunkCount);
+            futures.add(executor.submit(() -> handleRange(checkinRequests, results, from, to)));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Checks out every request in the stream. The stream is drained before checkout begins.
+     *
+     * @param checkinRequests stream of requests
+     * @return one {@link CheckoutResult} per request, in encounter order
+     * @see #handle(List)
+     */
+    public List<CheckoutResult> handle(Stream<CheckinRequest> checkinRequests) throws InterruptedException, ExecutionException {
+        return handle(checkinRequests.toList());
+    }
+
+    private void handleRange(List<CheckinRequest> checkinRequests, CheckoutResult[] results, int from, int to) {
+        for (int index = from; index < to; index++) {
+            results[index] = handleOne(index, checkinRequests.get(index));
+        }
+    }
+
+    private CheckoutResult handleOne(int index, CheckinRequest checkinRequest) {
+        var result = CheckoutResult.builder()
+                .index(index)
+                .request(checkinRequest);
+        try {
+            return result.agreement(handlerDelegate.handle(checkinRequest)).build();
+        } catch (Exception e) {
+            return result.failure(e).build();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package sample.pos.handlers;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Reservation;
+import sample.pos.domain.ReturnReceipt;
+import sample.pos.domain.ReturnRequest;
+import sample.pos.exceptions.AgreementAlreadyReturnedException;
+import sample.pos.exceptions.InvalidAgreementIdException;
+import sample.pos.exceptions.InvalidReturnDateException;
+import sample.pos.repository.RentalAgreementRepository;
+import sample.pos.reservations.ReservationIndex;
+import sample.pos.service.ReturnCalculator;
+
+import java.time.LocalDate;
+
+/**
+ * Handles the return (check-in) of rented tools, re-pricing the open agreement for the actual return date.
+ * <p>
+ * Returns are idempotent: returning an agreement again on the same date gives back the original receipt,
+ * without charging or crediting twice. Returning it again on a different date is rejected.
+ * <p>
+ * The return date is marked on the agreement in the repository ({@link RentalAgreementRepository#markReturned})
+ * before the receipt is given out, and looked up there first, so repeated returns are recognized after a restart
+ * too. Receipts are not kept: a repeated return is re-priced from the agreement and the marked date (pricing is
+ * pure, so it comes out the same). The handler holds no state of its own, so is safe for concurrent use.
+ * <p>
+ * Given the {@link ReservationIndex} the agreements were checked out against, an early return ends the tool's
+ * reservation on the return date, so the tool can be checked out again from that day.
+ */
+public class ReturnHandler implements Handler<ReturnRequest, ReturnReceipt> {
+
+    /**
+     * Repo holding the open agreements
+     */
+    private final RentalAgreementRepository agreementRepository;
+
+    /**
+     * Service to handle the re-pricing of returned agreements
+     */
+    private final ReturnCalculator calculator;
+
+    /**
+     * Index of tool reservations, shortened on early returns; null if bookings are not tracked
+     */
+    private final ReservationIndex reservationIndex;
+
+    public ReturnHandler(RentalAgreementRepository agreementRepository, ReturnCalculator calculator) {
+        this(agreementRepository, calculator, null);
+    }
+
+    public ReturnHandler(RentalAgreementRepository agreementRepository, ReturnCalculator calculator, ReservationIndex reservationIndex) {
+        this.agreementRepository = agreementRepository;
+        this.calculator = calculator;
+        this.reservationIndex = reservationIndex;
+    }
+
+    /**
+     * Returns the tool for the agreement, re-pricing the agreement for the return date.
+     *
+     * @param returnRequest {@link ReturnRequest} item holding the agreement id and return date
+     * @return {@link ReturnReceipt} holding the adjusted charges
+     * @throws InvalidAgreementIdException       if the agreement is not in the system
+     * @throws InvalidReturnDateException        if the return date is missing, or before the checkout date
+     * @throws AgreementAlreadyReturnedException if the agreement was already returned on a different date
+     */
+    @Override
+    public ReturnReceipt handle(ReturnRequest returnRequest) throws InvalidAgreementIdException, InvalidReturnDateException, AgreementAlreadyReturnedException {
+        var agreementId = returnRequest.getAgreementId();
+        var returnDate = returnRequest.getReturnDate();
+        if (returnDate == null) {
+            throw new InvalidReturnDateException("Return date is required", null);
+        }
+
+        var rentalAgreement = agreementRepository.findById(agreementId)
+                .orElseThrow(() -> new InvalidAgreementIdException("Unable to find agreement with given id", agreementId));
+
+        // the agreement may already have been returned (ie, before a restart, or concurrently)
+        var markedDate = agreementRepository.findReturnDate(agreementId).orElse(null);
+        var firstReturn = markedDate == null;
+        if (firstReturn) {
+            if (returnDate.isBefore(rentalAgreement.getCheckoutDate())) {
+                throw new InvalidReturnDateException("Return date must not be before checkout date " + rentalAgreement.getCheckoutDate(), returnDate);
+            }
+            markedDate = agreementRepository.markReturned(agreementId, returnDate);
+        }
+        if (!markedDate.equals(returnDate)) {
+            throw new AgreementAlreadyReturnedException("Agreement already returned", agreementId, markedDate);
+        }
+
+        var receipt = calculator.calculate(rentalAgreement, returnDate).toBuilder()
+                .agreementId(agreementId)
+                .build();
+        if (firstReturn) {
+            endReservation(rentalAgreement, returnDate);
+        }
+        return receipt;
+    }
+
+    /**
+     * Frees the rest of the agreement's reservation, if the tool came back before its due date
+     */
+    private void endReservation(RentalAgreement rentalAgreement, LocalDate returnDate) {
+        if (reservationIndex == null || !returnDate.isBefore(rentalAgreement.getDueDate())) {
+            return;
+        }
+        reservationIndex.shorten(Reservation.builder()
+                .toolCode(rentalAgreement.getToolCode())
+                .checkoutDate(rentalAgreement.getCheckoutDate())
+                .dueDate(rentalAgreement.getDueDate())
+                .build(), returnDate);
+    }
+}
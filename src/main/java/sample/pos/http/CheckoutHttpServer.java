@@ -0,0 +1,274 @@
+package sample.pos.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutOutcome;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.handlers.CheckoutHandler;
+import sample.pos.imports.ImportFormat;
+import sample.pos.imports.JsonCheckinRequestReader;
+import sample.pos.renderers.Renderer;
+import sample.pos.repository.RentalAgreementRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP front end for checkout, on the JDK's built-in {@link HttpServer}.
+ * <p>
+ * Each request runs on its own virtual thread, so thousands of concurrent (mostly idle) terminal connections do
+ * not need a matching pool of platform threads.
+ * <ul>
+ *     <li>{@code POST /checkout} - checks out the CheckinRequest in the body (a JSON object, in any layout, or a CSV
+ *     line if the Content-Type is {@code text/csv}), and responds with the rendered agreement. If a repository was given, the
+ *     agreement is saved, and its location ({@code /agreements/{id}}) returned in the Location header; if saving
+ *     fails, the tool's reservation is released ({@link CheckoutHandler#cancel}).</li>
+ *     <li>{@code GET /agreements/{id}} - responds with a saved agreement, rendered</li>
+ * </ul>
+ * Requests are checked out with {@link CheckoutHandler#tryHandle}, so refused requests (ie, mistyped
+ * tool codes) are answered without throwing. Request errors are reported as plain text:
+ * <ul>
+ *     <li>400 Bad Request - malformed body</li>
+ *     <li>404 Not Found - unknown tool code ({@link CheckoutOutcome.InvalidToolCode}), or unknown agreement</li>
+ *     <li>405 Method Not Allowed</li>
+ *     <li>409 Conflict - tool already reserved for part of the rental window ({@link CheckoutOutcome.ToolUnavailable})</li>
+ *     <li>413 Content Too Large - body over {@link #MAX_BODY_LENGTH} bytes</li>
+ *     <li>422 Unprocessable Content - invalid day count ({@link CheckoutOutcome.InvalidDayCount}) or discount
+ *     ({@link CheckoutOutcome.InvalidDiscount})</li>
+ * </ul>
+ */
+public class CheckoutHttpServer implements AutoCloseable {
+
+    /**
+     * Largest request body accepted, in bytes; a CheckinRequest needs well under 1 KB
+     */
+    public static final int MAX_BODY_LENGTH = 8 * 1024;
+
+    private static final String CHECKOUT_PATH = "/checkout";
+
+    private static final String AGREEMENTS_PATH = "/agreements/";
+
+    private static final String TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private static final String CSV_CONTENT_TYPE = "text/csv";
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final CheckoutHandler handler;
+
+    private final Renderer<RentalAgreement> renderer;
+
+    /**
+     * Repository to save agreements to; null if agreements are not kept
+     */
+    private final RentalAgreementRepository repository;
+
+    private CheckoutHttpServer(HttpServer server, CheckoutHandler handler,
+                               Renderer<RentalAgreement> renderer, RentalAgreementRepository repository) {
+        this.server = server;
+        this.handler = Objects.requireNonNull(handler);
+        this.renderer = Objects.requireNonNull(renderer);
+        this.repository = repository;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        server.setExecutor(executor);
+        server.createContext(CHECKOUT_PATH, this::handleCheckout);
+        server.createContext(AGREEMENTS_PATH, this::handleAgreement);
+    }
+
+    /**
+     * Starts a server that checks out and renders agreements, without keeping them
+     *
+     * @see #start(InetSocketAddress, CheckoutHandler, Renderer, RentalAgreementRepository)
+     */
+    public static CheckoutHttpServer start(InetSocketAddress address, CheckoutHandler handler,
+                                           Renderer<RentalAgreement> renderer) throws IOException {
+        return start(address, handler, renderer, null);
+    }
+
+    /**
+     * Starts a server on the given address
+     *
+     * @param address    address to listen on (port 0 picks a free port; see {@link #getAddress()})
+     * @param handler    checkout handler, which must be safe for concurrent use
+     * @param renderer   renderer for agreements in responses
+     * @param repository repository to save agreements to, or null if agreements are not kept
+     * @return started server
+     * @throws IOException if the server cannot listen on the address
+     */
+    public static CheckoutHttpServer start(InetSocketAddress address, CheckoutHandler handler,
+                                           Renderer<RentalAgreement> renderer, RentalAgreementRepository repository) throws IOException {
+        var server = new CheckoutHttpServer(HttpServer.create(address, 0), handler, renderer, repository);
+        server.server.start();
+        return server;
+    }
+
+    /**
+     * @return address the server is listening on
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, waits for in-flight requests to complete, and stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handleCheckout(HttpExchange exchange) throws IOException {
+        try {
+            checkout(exchange);
+        } catch (RuntimeException e) {
+            sendServerError(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleAgreement(HttpExchange exchange) throws IOException {
+        try {
+            findAgreement(exchange);
+        } catch (RuntimeException e) {
+            sendServerError(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void checkout(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            send(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+            return;
+        }
+        if (!CHECKOUT_PATH.equals(exchange.getRequestURI().getPath())) {
+            send(exchange, 404, "Not found: " + exchange.getRequestURI().getPath());
+            return;
+        }
+
+        var body = exchange.getRequestBody().readNBytes(MAX_BODY_LENGTH + 1);
+        if (body.length > MAX_BODY_LENGTH) {
+            send(exchange, 413, "Request body larger than %d bytes".formatted(MAX_BODY_LENGTH));
+            return;
+        }
+
+        CheckinRequest checkinRequest;
+        try {
+            checkinRequest = parse(exchange, body);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, e.getMessage());
+            return;
+        }
+
+        RentalAgreement rentalAgreement;
+        switch (handler.tryHandle(checkinRequest)) {
+            case CheckoutOutcome.Success success -> rentalAgreement = success.rentalAgreement();
+            case CheckoutOutcome.InvalidToolCode failure -> {
+                send(exchange, 404, failure.message());
+                return;
+            }
+            case CheckoutOutcome.InvalidDayCount failure -> {
+                send(exchange, 422, failure.message());
+                return;
+            }
+            case CheckoutOutcome.InvalidDiscount failure -> {
+                send(exchange, 422, failure.message());
+                return;
+            }
+            case CheckoutOutcome.ToolUnavailable failure -> {
+                send(exchange, 409, failure.message());
+                return;
+            }
+        }
+
+        if (repository != null) {
+            long id;
+            try {
+                id = repository.save(rentalAgreement);
+            } catch (RuntimeException e) {
+                // no agreement was kept, so the tool must not stay booked
+                handler.cancel(rentalAgreement);
+                throw e;
+            }
+            exchange.getResponseHeaders().set("Location", AGREEMENTS_PATH + id);
+        }
+        send(exchange, 200, renderer.render(rentalAgreement));
+    }
+
+    private void findAgreement(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            send(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+            return;
+        }
+
+        var path = exchange.getRequestURI().getPath();
+        var rentalAgreement = Optional.ofNullable(repository)
+                .flatMap(agreements -> parseId(path.substring(AGREEMENTS_PATH.length())).flatMap(agreements::findById));
+        if (rentalAgreement.isEmpty()) {
+            send(exchange, 404, "Not found: " + path);
+            return;
+        }
+        send(exchange, 200, renderer.render(rentalAgreement.get()));
+    }
+
+    private static CheckinRequest parse(HttpExchange exchange, byte[] body) throws IOException {
+        var contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith(CSV_CONTENT_TYPE)) {
+            // a single record; ignore trailing line breaks
+            var length = body.length;
+            while (length > 0 && (body[length - 1] == '\n' || body[length - 1] == '\r')) {
+                length--;
+            }
+            return ImportFormat.CSV.newParser().parse(body, 0, length);
+        }
+
+        // a single object, in any layout (ie, pretty-printed over several lines)
+        try (var reader = new JsonCheckinRequestReader(Channels.newChannel(new ByteArrayInputStream(body)), Math.max(body.length, 1))) {
+            var checkinRequest = reader.next();
+            if (checkinRequest == null) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            if (reader.next() != null) {
+                throw new IllegalArgumentException("Expected a single JSON object");
+            }
+            return checkinRequest;
+        }
+    }
+
+    private static Optional<Long> parseId(String id) {
+        try {
+            return Optional.of(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void sendServerError(HttpExchange exchange) throws IOException {
+        // the response may already be under way; only report the error if nothing has been sent
+        if (exchange.getResponseCode() == -1) {
+            send(exchange, 500, "Internal server error");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", TEXT_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,331 @@
+package sample.pos.imports;
+
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.handlers.Handler;
+import sample.pos.renderers.StreamingRenderer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming bulk import, for reprocessing large historical files of rental requests.
+ * <p>
+ * Input (CSV or JSON lines) is read through NIO in chunks, and collected into batches of raw line bytes. Each
+ * batch is split into contiguous chunks that are parsed, checked out and rendered in parallel on an executor
+ * (the common fork-join pool by default). Rendered agreements and rejected rows are then written out in input
+ * order: agreements separated by a blank line, and rejects as {@code lineNumber<TAB>reason<TAB>original line}.
+ * <p>
+ * Only one batch is held in memory at a time, and its buffers are reused for the next batch, so memory use is
+ * bounded by the batch size and maximum line length rather than by the size of the input.
+ * <p>
+ * The handler and renderer must be safe for concurrent use ({@link sample.pos.handlers.MappedToolCheckoutHandler}
+ * and {@link sample.pos.renderers.StreamingRentalAgreementTextRenderer} are).
+ */
+public class BulkImportPipeline {
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    public static final int DEFAULT_MAX_LINE_LENGTH = 8 * 1024;
+
+    /**
+     * Number of chunks handed to each worker thread, to smooth out uneven chunk costs
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Handler<CheckinRequest, RentalAgreement> handler;
+
+    private final StreamingRenderer<RentalAgreement> renderer;
+
+    private final ExecutorService executor;
+
+    private final int parallelism;
+
+    private final int batchSize;
+
+    private final int maxLineLength;
+
+    public BulkImportPipeline(Handler<CheckinRequest, RentalAgreement> handler, StreamingRenderer<RentalAgreement> renderer) {
+        this(handler, renderer, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), DEFAULT_BATCH_SIZE, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    /**
+     * @param handler       handler for single requests
+     * @param renderer      renderer for the agreements output
+     * @param executor      executor to run batch chunks on
+     * @param parallelism   number of threads expected to be available in the executor
+     * @param batchSize     number of lines read before each batch is processed
+     * @param maxLineLength longest line accepted, in bytes; longer lines are rejected
+     */
+    public BulkImportPipeline(Handler<CheckinRequest, RentalAgreement> handler, StreamingRenderer<RentalAgreement> renderer,
+                              ExecutorService executor, int parallelism, int batchSize, int maxLineLength) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        if (maxLineLength <= 0) {
+            throw new IllegalArgumentException("Max line length must be greater than 0");
+        }
+        this.handler = Objects.requireNonNull(handler);
+        this.renderer = Objects.requireNonNull(renderer);
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Imports a file, picking its format from its extension.
+     *
+     * @see #run(Path, ImportFormat, Path, Path)
+     */
+    public BulkImportReport run(Path input, Path agreementsOutput, Path rejectsOutput) throws IOException, InterruptedException, ExecutionException {
+        return run(input, ImportFormat.forPath(input), agreementsOutput, rejectsOutput);
+    }
+
+    /**
+     * Imports a file, writing rendered agreements and rejected rows to the output files (replacing them if present).
+     *
+     * @param input            file of rental requests
+     * @param format           format of the input
+     * @param agreementsOutput file to write rendered agreements to
+     * @param rejectsOutput    file to write rejected rows to
+     * @return summary of the run
+     * @throws IOException          if the files cannot be read or written
+     * @throws InterruptedException if interrupted while waiting for a batch to complete
+     * @throws ExecutionException   if a chunk fails outside of request handling (ie, an Error)
+     */
+    public BulkImportReport run(Path input, ImportFormat format, Path agreementsOutput, Path rejectsOutput) throws IOException, InterruptedException, ExecutionException {
+        try (var channel = FileChannel.open(input, StandardOpenOption.READ);
+             var agreements = Files.newBufferedWriter(agreementsOutput, StandardCharsets.UTF_8);
+             var rejects = Files.newBufferedWriter(rejectsOutput, StandardCharsets.UTF_8)) {
+            return run(channel, format, agreements, rejects);
+        }
+    }
+
+    /**
+     * Imports from a channel, writing rendered agreements and rejected rows to the writers. The writers are
+     * flushed, but not closed.
+     *
+     * @see #run(Path, ImportFormat, Path, Path)
+     */
+    public BulkImportReport run(ReadableByteChannel input, ImportFormat format, Writer agreements, Writer rejects) throws IOException, InterruptedException, ExecutionException {
+        var start = System.nanoTime();
+        var run = new Run(format, agreements, rejects);
+
+        try {
+            new ChunkedLineReader(input, maxLineLength).forEachLine(run::accept);
+        } catch (BatchFailedException e) {
+            if (e.getCause() instanceof InterruptedException interrupted) {
+                throw interrupted;
+            }
+            throw (ExecutionException) e.getCause();
+        }
+        run.flushBatch();
+        agreements.flush();
+        rejects.flush();
+
+        return BulkImportReport.builder()
+                .rows(run.rows)
+                .agreements(run.accepted)
+                .rejected(run.rejected)
+                .elapsed(Duration.ofNanos(System.nanoTime() - start))
+                .build();
+    }
+
+    /**
+     * Carries a batch failure out of the line reader's callback, to be rethrown by {@link #run}
+     */
+    private static final class BatchFailedException extends RuntimeException {
+        private BatchFailedException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Raw lines of the current batch, copied out of the reader's buffer; reused from batch to batch
+     */
+    private static final class Batch {
+        private byte[] bytes = new byte[64 * 1024];
+        private int byteCount;
+        private final int[] starts;
+        private final int[] ends;
+        private final long[] lineNumbers;
+        private final boolean[] truncated;
+        private int size;
+
+        private Batch(int capacity) {
+            starts = new int[capacity];
+            ends = new int[capacity];
+            lineNumbers = new long[capacity];
+            truncated = new boolean[capacity];
+        }
+
+        private void add(byte[] line, int from, int to, long lineNumber, boolean lineTruncated) {
+            var length = to - from;
+            if (byteCount + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + length));
+            }
+            System.arraycopy(line, from, bytes, byteCount, length);
+            starts[size] = byteCount;
+            ends[size] = byteCount + length;
+            lineNumbers[size] = lineNumber;
+            truncated[size] = lineTruncated;
+            byteCount += length;
+            size++;
+        }
+
+        private void clear() {
+            byteCount = 0;
+            size = 0;
+        }
+    }
+
+    /**
+     * Output of one chunk of a batch, in input order
+     */
+    private static final class ChunkOutput {
+        private final StringBuilder agreements = new StringBuilder();
+        private final StringBuilder rejects = new StringBuilder();
+        private int accepted;
+        private int rejected;
+    }
+
+    /**
+     * State of a single import run
+     */
+    private final class Run {
+        private final Writer agreements;
+        private final Writer rejects;
+        private final CheckinRequestParser headerParser;
+        private final ThreadLocal<CheckinRequestParser> parsers;
+        private final Batch batch = new Batch(batchSize);
+        private final ChunkOutput[] outputs;
+
+        private long lineNumber;
+        private boolean seenFirstRow;
+        private long rows;
+        private long accepted;
+        private long rejected;
+
+        private Run(ImportFormat format, Writer agreements, Writer rejects) {
+            this.agreements = agreements;
+            this.rejects = rejects;
+            this.headerParser = format.newParser();
+            this.parsers = ThreadLocal.withInitial(format::newParser);
+            this.outputs = new ChunkOutput[Math.min(batchSize, parallelism * CHUNKS_PER_THREAD)];
+            for (int i = 0; i < outputs.length; i++) {
+                outputs[i] = new ChunkOutput();
+            }
+        }
+
+        private void accept(byte[] bytes, int from, int to, boolean truncated) throws IOException {
+            lineNumber++;
+            if (isBlank(bytes, from, to)) {
+                return;
+            }
+            if (!seenFirstRow) {
+                seenFirstRow = true;
+                if (!truncated && headerParser.isHeader(bytes, from, to)) {
+                    return;
+                }
+            }
+
+            rows++;
+            batch.add(bytes, from, to, lineNumber, truncated);
+            if (batch.size == batchSize) {
+                try {
+                    flushBatch();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new BatchFailedException(e);
+                }
+            }
+        }
+
+        /**
+         * Processes the current batch in parallel chunks, then writes each chunk's output in order
+         */
+        private void flushBatch() throws IOException, InterruptedException, ExecutionException {
+            var size = batch.size;
+            if (size == 0) {
+                return;
+            }
+
+            var chunkCount = Math.min(size, outputs.length);
+            if (chunkCount <= 1) {
+                processRange(outputs[0], 0, size);
+            } else {
+                var futures = new ArrayList<Future<?>>(chunkCount);
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    // spread the remainder across the leading chunks
+                    int from = (int) ((long) size * chunk / chunkCount);
+                    int to = (int) ((long) size * (chunk + 1) / chunkCount);
+                    var output = outputs[chunk];
+                    futures.add(executor.submit(() -> processRange(output, from, to)));
+                }
+                for (var future : futures) {
+                    future.get();
+                }
+            }
+
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                var output = outputs[chunk];
+                agreements.append(output.agreements);
+                rejects.append(output.rejects);
+                accepted += output.accepted;
+                rejected += output.rejected;
+
+                output.agreements.setLength(0);
+                output.rejects.setLength(0);
+                output.accepted = 0;
+                output.rejected = 0;
+            }
+            batch.clear();
+        }
+
+        private void processRange(ChunkOutput output, int from, int to) {
+            var parser = parsers.get();
+            for (int index = from; index < to; index++) {
+                try {
+                    if (batch.truncated[index]) {
+                        throw new IllegalArgumentException("Line longer than %d bytes".formatted(maxLineLength));
+                    }
+                    var request = parser.parse(batch.bytes, batch.starts[index], batch.ends[index]);
+                    renderer.renderTo(handler.handle(request), output.agreements).append('\n');
+                    output.accepted++;
+                } catch (Exception e) {
+                    output.rejects.append(batch.lineNumbers[index]).append('\t')
+                            .append(Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName())).append('\t')
+                            .append(new String(batch.bytes, batch.starts[index], batch.ends[index] - batch.starts[index], StandardCharsets.UTF_8))
+                            .append('\n');
+                    output.rejected++;
+                }
+            }
+        }
+    }
+
+    private static boolean isBlank(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!FieldParsers.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package sample.pos.imports;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Summary of a bulk import run
+ */
+@Builder
+@Value
+public class BulkImportReport {
+    /**
+     * Number of data rows read (blank lines and the header are not counted)
+     */
+    long rows;
+    /**
+     * Number of rows checked out, and written to the agreements output
+     */
+    long agreements;
+    /**
+     * Number of rows that failed parsing or checkout, and were written to the rejects output
+     */
+    long rejected;
+    Duration elapsed;
+
+    /**
+     * @return rows processed per second over the whole run
+     */
+    public double getRowsPerSecond() {
+        var nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "%d rows (%d agreements, %d rejected) in %d ms: %.0f rows/sec".formatted(rows, agreements, rejected,
+                elapsed.toMillis(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,31 @@
+package sample.pos.imports;
+
+import sample.pos.domain.CheckinRequest;
+
+/**
+ * Parses a single input record (one line of bytes) into a CheckinRequest.
+ * <p>
+ * Parsers work on the raw UTF-8 bytes of the line, so numbers and dates are parsed without first creating
+ * Strings for each field. Parsers may cache state (ie, tool code Strings) between calls, so are not thread-safe;
+ * use one parser per thread.
+ */
+public interface CheckinRequestParser {
+
+    /**
+     * Parses the record held in {@code bytes[from, to)}
+     *
+     * @param bytes buffer holding the record
+     * @param from  index of the first byte of the record
+     * @param to    index after the last byte of the record (excluding any line terminator)
+     * @return parsed request
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    CheckinRequest parse(byte[] bytes, int from, int to);
+
+    /**
+     * @return true if the record is a header line, rather than data (only asked of the first record)
+     */
+    default boolean isHeader(byte[] bytes, int from, int to) {
+        return false;
+    }
+}
@@ -0,0 +1,91 @@
+package sample.pos.imports;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits a channel into lines, reading it in fixed-size chunks into a single reused buffer.
+ * <p>
+ * Lines are handed to the consumer as a range of the buffer (without the line terminator, {@code \n} or
+ * {@code \r\n}), valid only for the duration of the call. Lines longer than the buffer are handed over truncated,
+ * once, with the remainder of the line skipped.
+ */
+final class ChunkedLineReader {
+
+    @FunctionalInterface
+    interface LineConsumer {
+        /**
+         * @param bytes     buffer holding the line
+         * @param from      index of the first byte of the line
+         * @param to        index after the last byte of the line
+         * @param truncated true if the line was longer than the buffer, and only its start is given
+         */
+        void accept(byte[] bytes, int from, int to, boolean truncated) throws IOException;
+    }
+
+    private final ReadableByteChannel channel;
+
+    private final byte[] bytes;
+
+    private final ByteBuffer buffer;
+
+    ChunkedLineReader(ReadableByteChannel channel, int maxLineLength) {
+        this.channel = channel;
+        this.bytes = new byte[maxLineLength];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Reads the channel to its end, handing each line to the consumer
+     */
+    void forEachLine(LineConsumer consumer) throws IOException {
+        int filled = 0;
+        int lineStart = 0;
+        int scan = 0;
+        boolean skipping = false;
+
+        while (true) {
+            var read = channel.read(buffer.limit(bytes.length).position(filled));
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+
+            for (; scan < filled; scan++) {
+                if (bytes[scan] == '\n') {
+                    if (!skipping) {
+                        emit(consumer, lineStart, scan, false);
+                    }
+                    skipping = false;
+                    lineStart = scan + 1;
+                }
+            }
+
+            if (lineStart > 0) {
+                System.arraycopy(bytes, lineStart, bytes, 0, filled - lineStart);
+                filled -= lineStart;
+                scan -= lineStart;
+                lineStart = 0;
+            } else if (filled == bytes.length) {
+                if (!skipping) {
+                    emit(consumer, 0, filled, true);
+                }
+                skipping = true;
+                filled = 0;
+                scan = 0;
+            }
+        }
+
+        if (filled > 0 && !skipping) {
+            emit(consumer, 0, filled, false);
+        }
+    }
+
+    private void emit(LineConsumer consumer, int from, int to, boolean truncated) throws IOException {
+        if (!truncated && to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        consumer.accept(bytes, from, to, truncated);
+    }
+}
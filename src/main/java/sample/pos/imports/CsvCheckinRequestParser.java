@@ -0,0 +1,114 @@
+package sample.pos.imports;
+
+import sample.pos.domain.CheckinRequest;
+
+import static sample.pos.imports.FieldParsers.indexOf;
+import static sample.pos.imports.FieldParsers.isWhitespace;
+import static sample.pos.imports.FieldParsers.parseDate;
+import static sample.pos.imports.FieldParsers.parseInt;
+
+/**
+ * Parses CSV records of the form {@code toolCode,dayCount,discountPercentage,checkoutDate}
+ * <pre>
+ *     toolCode,dayCount,discountPercentage,checkoutDate
+ *     JAKR,5,101,2015-09-03
+ *     LADW,3,10,7/2/20
+ * </pre>
+ * Fields may be surrounded by whitespace or double quotes. An empty discount is taken as 0%. An optional header
+ * line is recognized by its first field, {@code toolCode}.
+ */
+public class CsvCheckinRequestParser implements CheckinRequestParser {
+
+    private static final byte SEPARATOR = ',';
+
+    private static final byte QUOTE = '"';
+
+    private static final byte[] HEADER_FIELD = "toolcode".getBytes();
+
+    private static final int FIELD_COUNT = 4;
+
+    private static final String FIELD_COUNT_MESSAGE = "Expected %d fields: toolCode,dayCount,discountPercentage,checkoutDate".formatted(FIELD_COUNT);
+
+    private final FieldParsers.ToolCodeCache toolCodes = new FieldParsers.ToolCodeCache();
+
+    /**
+     * Start/end indexes of each field, reused across records
+     */
+    private final int[] starts = new int[FIELD_COUNT];
+
+    private final int[] ends = new int[FIELD_COUNT];
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CheckinRequest parse(byte[] bytes, int from, int to) {
+        split(bytes, from, to);
+        return CheckinRequest.builder()
+                .toolCode(toolCodes.toolCode(bytes, starts[0], ends[0]))
+                .dayCount(parseInt(bytes, starts[1], ends[1], "day count"))
+                .discountPercentage(starts[2] == ends[2] ? 0 : parseInt(bytes, starts[2], ends[2], "discount percentage"))
+                .checkoutDate(parseDate(bytes, starts[3], ends[3], "checkout date"))
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isHeader(byte[] bytes, int from, int to) {
+        var end = indexOf(bytes, from, to, SEPARATOR);
+        end = end < 0 ? to : end;
+        int start = from;
+        while (start < end && (isWhitespace(bytes[start]) || bytes[start] == QUOTE)) {
+            start++;
+        }
+        while (end > start && (isWhitespace(bytes[end - 1]) || bytes[end - 1] == QUOTE)) {
+            end--;
+        }
+        if (end - start != HEADER_FIELD.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER_FIELD.length; i++) {
+            if ((bytes[start + i] | 0x20) != HEADER_FIELD[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fills starts/ends with the trimmed, unquoted bounds of each field
+     */
+    private void split(byte[] bytes, int from, int to) {
+        int start = from;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            var separator = indexOf(bytes, start, to, SEPARATOR);
+            if (field == FIELD_COUNT - 1) {
+                if (separator >= 0) {
+                    throw new IllegalArgumentException(FIELD_COUNT_MESSAGE);
+                }
+                separator = to;
+            } else if (separator < 0) {
+                throw new IllegalArgumentException(FIELD_COUNT_MESSAGE);
+            }
+
+            int fieldStart = start;
+            int fieldEnd = separator;
+            while (fieldStart < fieldEnd && isWhitespace(bytes[fieldStart])) {
+                fieldStart++;
+            }
+            while (fieldEnd > fieldStart && isWhitespace(bytes[fieldEnd - 1])) {
+                fieldEnd--;
+            }
+            if (fieldEnd - fieldStart >= 2 && bytes[fieldStart] == QUOTE && bytes[fieldEnd - 1] == QUOTE) {
+                fieldStart++;
+                fieldEnd--;
+            }
+
+            starts[field] = fieldStart;
+            ends[field] = fieldEnd;
+            start = separator + 1;
+        }
+    }
+}
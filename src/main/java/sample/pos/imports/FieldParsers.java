@@ -0,0 +1,161 @@
+package sample.pos.imports;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Byte-level field parsing shared by the CheckinRequest parsers
+ */
+final class FieldParsers {
+
+    /**
+     * Two digit years are taken to be in this century, matching the MM/dd/yy dates on rendered agreements
+     */
+    private static final int TWO_DIGIT_YEAR_BASE = 2000;
+
+    private FieldParsers() {
+    }
+
+    /**
+     * Parses a (possibly negative) decimal int from {@code bytes[from, to)}
+     *
+     * @throws IllegalArgumentException if the field is empty, not a number, or out of int range
+     */
+    static int parseInt(byte[] bytes, int from, int to, String field) {
+        if (from >= to) {
+            throw new IllegalArgumentException("Missing %s".formatted(field));
+        }
+        var negative = bytes[from] == '-';
+        var index = negative ? from + 1 : from;
+        if (index == to) {
+            throw invalid(bytes, from, to, field);
+        }
+
+        long value = 0;
+        for (; index < to; index++) {
+            var digit = bytes[index] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(bytes, from, to, field);
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw invalid(bytes, from, to, field);
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw invalid(bytes, from, to, field);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a date from {@code bytes[from, to)}, as either {@code yyyy-MM-dd} or {@code M/d/yy} ({@code M/d/yyyy})
+     *
+     * @throws IllegalArgumentException if the field is not a valid date in either format
+     */
+    static LocalDate parseDate(byte[] bytes, int from, int to, String field) {
+        try {
+            if (to - from == 10 && bytes[from + 4] == '-' && bytes[from + 7] == '-') {
+                return LocalDate.of(digits(bytes, from, from + 4), digits(bytes, from + 5, from + 7), digits(bytes, from + 8, to));
+            }
+
+            var firstSlash = indexOf(bytes, from, to, (byte) '/');
+            var secondSlash = firstSlash < 0 ? -1 : indexOf(bytes, firstSlash + 1, to, (byte) '/');
+            if (secondSlash > 0) {
+                var year = digits(bytes, secondSlash + 1, to);
+                if (to - secondSlash - 1 == 2) {
+                    year += TWO_DIGIT_YEAR_BASE;
+                } else if (to - secondSlash - 1 != 4) {
+                    year = -1;
+                }
+                if (year >= 0) {
+                    return LocalDate.of(year, digits(bytes, from, firstSlash), digits(bytes, firstSlash + 1, secondSlash));
+                }
+            }
+        } catch (DateTimeException | NumberFormatException e) {
+            throw invalid(bytes, from, to, field);
+        }
+        throw invalid(bytes, from, to, field);
+    }
+
+    /**
+     * @return index of the first {@code b} in {@code bytes[from, to)}, or -1
+     */
+    static int indexOf(byte[] bytes, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    static IllegalArgumentException invalid(byte[] bytes, int from, int to, String field) {
+        return new IllegalArgumentException("Invalid %s: <%s>".formatted(field, new String(bytes, from, to - from, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Parses 1 to 4 unsigned digits
+     */
+    private static int digits(byte[] bytes, int from, int to) {
+        if (from >= to || to - from > 4) {
+            throw new NumberFormatException();
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            var digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Small direct-mapped cache of tool code Strings, keyed by the code's packed bytes, so that the handful of
+     * codes repeated across millions of rows are not each decoded into a new String.
+     * Codes that are not 4 ASCII bytes are decoded every time. Not thread-safe.
+     */
+    static final class ToolCodeCache {
+
+        private static final int SIZE = 256;
+
+        private final int[] keys = new int[SIZE];
+
+        private final String[] codes = new String[SIZE];
+
+        String toolCode(byte[] bytes, int from, int to) {
+            if (from >= to) {
+                throw new IllegalArgumentException("Missing tool code");
+            }
+            if (to - from != 4) {
+                return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+            }
+
+            int key = 0;
+            for (int i = from; i < to; i++) {
+                // bytes are signed, so this also rejects non-ASCII bytes
+                if (bytes[i] <= ' ') {
+                    return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+                }
+                key = (key << 8) | bytes[i];
+            }
+
+            var slot = (key * 0x9E3779B9) >>> 24;
+            if (keys[slot] == key) {
+                return codes[slot];
+            }
+            var code = new String(bytes, from, to - from, StandardCharsets.US_ASCII);
+            keys[slot] = key;
+            codes[slot] = code;
+            return code;
+        }
+    }
+}
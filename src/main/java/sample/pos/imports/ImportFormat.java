@@ -0,0 +1,54 @@
+package sample.pos.imports;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Supported bulk import file formats
+ */
+public enum ImportFormat {
+
+    /**
+     * Comma separated, one request per line: {@code toolCode,dayCount,discountPercentage,checkoutDate}
+     */
+    CSV {
+        @Override
+        public CheckinRequestParser newParser() {
+            return new CsvCheckinRequestParser();
+        }
+    },
+
+    /**
+     * JSON lines, one flat object per line:
+     * {@code {"toolCode":"JAKR","dayCount":5,"discountPercentage":10,"checkoutDate":"2015-09-03"}}
+     */
+    JSONL {
+        @Override
+        public CheckinRequestParser newParser() {
+            return new JsonLinesCheckinRequestParser();
+        }
+    };
+
+    /**
+     * @return new (single-threaded) parser for this format
+     */
+    public abstract CheckinRequestParser newParser();
+
+    /**
+     * Picks the format from a file's extension ({@code .csv}, {@code .jsonl} or {@code .ndjson})
+     *
+     * @param path input file
+     * @return format of the file
+     * @throws IllegalArgumentException if the extension is not recognized
+     */
+    public static ImportFormat forPath(Path path) {
+        var name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Unable to determine import format from file name: <%s>".formatted(path.getFileName()));
+    }
+}
@@ -0,0 +1,188 @@
+package sample.pos.imports;
+
+import sample.pos.domain.CheckinRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static sample.pos.imports.FieldParsers.isWhitespace;
+
+/**
+ * Streams CheckinRequests out of a JSON document, one object at a time, without reading the whole document.
+ * <p>
+ * Accepts a top-level array of flat request objects, or objects one after another (ie, JSON lines, or objects
+ * separated by commas or whitespace), in any layout:
+ * <pre>
+ *     [{"toolCode":"JAKR","dayCount":5,"discountPercentage":10,"checkoutDate":"2015-09-03"},
+ *      {"toolCode":"LADW","dayCount":3,"checkoutDate":"2020-07-02"}]
+ * </pre>
+ * The channel is read in chunks into a single reused buffer. Each object's extent is found by scanning its bytes,
+ * then the bytes are handed to a {@link JsonLinesCheckinRequestParser}, so the same keys, values and limits apply
+ * (no escape sequences, nested objects or arrays). Objects may span chunks, but not exceed the maximum object length.
+ * <p>
+ * Readers are not thread-safe.
+ */
+public class JsonCheckinRequestReader implements Closeable {
+
+    /**
+     * Default longest object accepted, in bytes
+     */
+    public static final int DEFAULT_MAX_OBJECT_LENGTH = 4 * 1024;
+
+    private final ReadableByteChannel channel;
+
+    private final byte[] bytes;
+
+    private final ByteBuffer buffer;
+
+    private final JsonLinesCheckinRequestParser parser = new JsonLinesCheckinRequestParser();
+
+    /**
+     * Index of the next byte to scan
+     */
+    private int position;
+
+    /**
+     * Index after the last byte read from the channel
+     */
+    private int filled;
+
+    public JsonCheckinRequestReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_MAX_OBJECT_LENGTH);
+    }
+
+    public JsonCheckinRequestReader(ReadableByteChannel channel, int maxObjectLength) {
+        if (maxObjectLength <= 0) {
+            throw new IllegalArgumentException("Max object length must be greater than 0: " + maxObjectLength);
+        }
+        this.channel = channel;
+        this.bytes = new byte[maxObjectLength];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Reads the next request.
+     * <p>
+     * When an object is rejected (ie, it is not a valid request, uses escape sequences, or is too long), the reader
+     * has already moved past it; stray bytes between objects are skipped up to the next '{'. So callers may catch
+     * the exception and carry on with the next object.
+     *
+     * @return next request, or null at the end of the document
+     * @throws IOException              if the channel cannot be read
+     * @throws IllegalArgumentException if the document or the object is malformed, or the object is too long
+     */
+    public CheckinRequest next() throws IOException {
+        // skip whitespace, commas and array brackets between objects
+        while (true) {
+            if (position == filled && !fill(position)) {
+                return null;
+            }
+            var b = bytes[position];
+            if (!isWhitespace(b) && b != '\n' && b != ',' && b != '[' && b != ']') {
+                break;
+            }
+            position++;
+        }
+        if (bytes[position] != '{') {
+            skipToObject();
+            throw new IllegalArgumentException("Expected '{'");
+        }
+
+        var objectStart = position;
+        int depth = 0;
+        boolean inString = false;
+        // rejected objects are still scanned to their end, so the next call starts after them
+        boolean escaped = false;
+        boolean skipNext = false;
+        boolean tooLong = false;
+        while (true) {
+            if (position == filled) {
+                if (tooLong || position - objectStart == bytes.length) {
+                    // drop what was scanned, rather than keep more than the buffer holds
+                    tooLong = true;
+                    objectStart = position;
+                }
+                if (!fill(objectStart)) {
+                    throw new IllegalArgumentException("Unterminated object");
+                }
+                // fill moved the object to the start of the buffer
+                objectStart = 0;
+            }
+            var b = bytes[position++];
+            if (skipNext) {
+                // the escaped byte may be a quote, which does not end the string
+                skipNext = false;
+            } else if (inString) {
+                if (b == '"') {
+                    inString = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                    skipNext = true;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '\n') {
+                // the parser works on lines, so objects spanning lines are joined
+                bytes[position - 1] = ' ';
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                if (tooLong) {
+                    throw new IllegalArgumentException("Object longer than %d bytes".formatted(bytes.length));
+                }
+                if (escaped) {
+                    throw new IllegalArgumentException("Escape sequences are not supported");
+                }
+                return parser.parse(bytes, objectStart, position);
+            }
+        }
+    }
+
+    /**
+     * Skips stray bytes up to the next '{' (or the end of the document)
+     */
+    private void skipToObject() throws IOException {
+        position++;
+        while (true) {
+            if (position == filled && !fill(position)) {
+                return;
+            }
+            if (bytes[position] == '{') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Moves bytes from {@code keepFrom} to the start of the buffer, and reads more after them
+     *
+     * @return false at the end of the channel
+     */
+    private boolean fill(int keepFrom) throws IOException {
+        var kept = filled - keepFrom;
+        if (kept == bytes.length) {
+            throw new IllegalArgumentException("Object longer than %d bytes".formatted(bytes.length));
+        }
+        System.arraycopy(bytes, keepFrom, bytes, 0, kept);
+        position -= keepFrom;
+        filled = kept;
+
+        int read;
+        do {
+            read = channel.read(buffer.limit(bytes.length).position(filled));
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        filled += read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,175 @@
+package sample.pos.imports;
+
+import sample.pos.domain.CheckinRequest;
+
+import java.time.LocalDate;
+
+import static sample.pos.imports.FieldParsers.isWhitespace;
+import static sample.pos.imports.FieldParsers.parseDate;
+import static sample.pos.imports.FieldParsers.parseInt;
+
+/**
+ * Parses JSON lines records, one flat object per line
+ * <pre>
+ *     {"toolCode":"JAKR","dayCount":5,"discountPercentage":10,"checkoutDate":"2015-09-03"}
+ * </pre>
+ * Keys are matched byte-by-byte, so no Strings are created for keys or numbers. Unknown keys with string, number,
+ * boolean or null values are skipped. A missing discountPercentage is taken as 0%. Escape sequences within
+ * strings, and nested objects or arrays, are not supported, as no CheckinRequest field needs them.
+ */
+public class JsonLinesCheckinRequestParser implements CheckinRequestParser {
+
+    private static final byte[] TOOL_CODE = "toolCode".getBytes();
+    private static final byte[] DAY_COUNT = "dayCount".getBytes();
+    private static final byte[] DISCOUNT_PERCENTAGE = "discountPercentage".getBytes();
+    private static final byte[] CHECKOUT_DATE = "checkoutDate".getBytes();
+
+    private final FieldParsers.ToolCodeCache toolCodes = new FieldParsers.ToolCodeCache();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CheckinRequest parse(byte[] bytes, int from, int to) {
+        String toolCode = null;
+        Integer dayCount = null;
+        int discountPercentage = 0;
+        LocalDate checkoutDate = null;
+
+        int index = expect(bytes, skipWhitespace(bytes, from, to), to, '{');
+        index = skipWhitespace(bytes, index, to);
+        if (index < to && bytes[index] == '}') {
+            index++;
+        } else {
+            while (true) {
+                index = expect(bytes, index, to, '"');
+                var keyStart = index;
+                var keyEnd = endOfString(bytes, keyStart, to);
+                index = skipWhitespace(bytes, keyEnd + 1, to);
+                index = skipWhitespace(bytes, expect(bytes, index, to, ':'), to);
+
+                // value bounds; strings exclude their quotes
+                int valueStart;
+                int valueEnd;
+                boolean isString;
+                if (index < to && bytes[index] == '"') {
+                    isString = true;
+                    valueStart = index + 1;
+                    valueEnd = endOfString(bytes, valueStart, to);
+                    index = valueEnd + 1;
+                } else {
+                    isString = false;
+                    valueStart = index;
+                    while (index < to && bytes[index] != ',' && bytes[index] != '}' && !isWhitespace(bytes[index])) {
+                        if (bytes[index] == '{' || bytes[index] == '[') {
+                            throw new IllegalArgumentException("Nested objects and arrays are not supported");
+                        }
+                        index++;
+                    }
+                    valueEnd = index;
+                    if (valueStart == valueEnd) {
+                        throw new IllegalArgumentException("Missing value");
+                    }
+                }
+
+                if (keyEquals(bytes, keyStart, keyEnd, TOOL_CODE)) {
+                    requireString(isString, "toolCode");
+                    toolCode = toolCodes.toolCode(bytes, valueStart, valueEnd);
+                } else if (keyEquals(bytes, keyStart, keyEnd, DAY_COUNT)) {
+                    requireNumber(isString, "dayCount");
+                    dayCount = parseInt(bytes, valueStart, valueEnd, "day count");
+                } else if (keyEquals(bytes, keyStart, keyEnd, DISCOUNT_PERCENTAGE)) {
+                    requireNumber(isString, "discountPercentage");
+                    discountPercentage = parseInt(bytes, valueStart, valueEnd, "discount percentage");
+                } else if (keyEquals(bytes, keyStart, keyEnd, CHECKOUT_DATE)) {
+                    requireString(isString, "checkoutDate");
+                    checkoutDate = parseDate(bytes, valueStart, valueEnd, "checkout date");
+                }
+
+                index = skipWhitespace(bytes, index, to);
+                if (index < to && bytes[index] == ',') {
+                    index = skipWhitespace(bytes, index + 1, to);
+                    continue;
+                }
+                index = expect(bytes, index, to, '}');
+                break;
+            }
+        }
+
+        if (skipWhitespace(bytes, index, to) != to) {
+            throw new IllegalArgumentException("Unexpected content after object");
+        }
+        if (toolCode == null) {
+            throw new IllegalArgumentException("Missing toolCode");
+        }
+        if (dayCount == null) {
+            throw new IllegalArgumentException("Missing dayCount");
+        }
+        if (checkoutDate == null) {
+            throw new IllegalArgumentException("Missing checkoutDate");
+        }
+
+        return CheckinRequest.builder()
+                .toolCode(toolCode)
+                .dayCount(dayCount)
+                .discountPercentage(discountPercentage)
+                .checkoutDate(checkoutDate)
+                .build();
+    }
+
+    private static int skipWhitespace(byte[] bytes, int index, int to) {
+        while (index < to && isWhitespace(bytes[index])) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return index after the expected byte
+     */
+    private static int expect(byte[] bytes, int index, int to, char expected) {
+        if (index >= to || bytes[index] != expected) {
+            throw new IllegalArgumentException("Expected '%s'".formatted(expected));
+        }
+        return index + 1;
+    }
+
+    /**
+     * @return index of the closing quote of a string starting at {@code from}
+     */
+    private static int endOfString(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '"') {
+                return i;
+            }
+            if (bytes[i] == '\\') {
+                throw new IllegalArgumentException("Escape sequences are not supported");
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    private static boolean keyEquals(byte[] bytes, int from, int to, byte[] key) {
+        if (to - from != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (bytes[from + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void requireString(boolean isString, String key) {
+        if (!isString) {
+            throw new IllegalArgumentException("Expected a string for %s".formatted(key));
+        }
+    }
+
+    private static void requireNumber(boolean isString, String key) {
+        if (isString) {
+            throw new IllegalArgumentException("Expected a number for %s".formatted(key));
+        }
+    }
+}
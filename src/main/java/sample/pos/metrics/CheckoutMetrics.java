@@ -0,0 +1,96 @@
+package sample.pos.metrics;
+
+import sample.pos.domain.CheckoutOutcome;
+import sample.pos.exceptions.InvalidDayCountException;
+import sample.pos.exceptions.InvalidDiscountException;
+import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.exceptions.ToolUnavailableException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of per-stage latency histograms and rejection counts, shared by the timing decorators
+ * ({@link TimedHandler}, {@link TimedCheckoutHandler}, {@link TimedRentalAgreementCalculator}, {@link TimedProcessor},
+ * {@link TimedRenderer}).
+ * <p>
+ * Decorators look up their histogram once, when they are created, so recording does not touch the registry.
+ * Rejections are counted by exception type; the three domain exceptions are registered up front, so they are
+ * always reported (even at zero).
+ */
+public class CheckoutMetrics {
+
+    public static final String HANDLER_STAGE = "handler";
+
+    public static final String CALCULATOR_STAGE = "calculator";
+
+    public static final String PROCESSOR_STAGE = "processor";
+
+    public static final String RENDERER_STAGE = "renderer";
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    public CheckoutMetrics() {
+        rejections.put(InvalidToolCodeException.class, new LongAdder());
+        rejections.put(InvalidDiscountException.class, new LongAdder());
+        rejections.put(InvalidDayCountException.class, new LongAdder());
+    }
+
+    /**
+     * @param stage stage name (ie, {@link #HANDLER_STAGE})
+     * @return histogram for the stage, created on first use
+     */
+    public LatencyHistogram histogram(String stage) {
+        return histograms.computeIfAbsent(stage, name -> new LatencyHistogram());
+    }
+
+    /**
+     * Counts a rejected request
+     *
+     * @param exception exception the request was rejected with
+     */
+    public void recordRejection(Exception exception) {
+        recordRejection(exception.getClass());
+    }
+
+    /**
+     * Counts a refused request, under the exception {@link sample.pos.handlers.CheckoutHandler#handle} throws for it
+     *
+     * @param failure outcome the request was refused with
+     */
+    public void recordRejection(CheckoutOutcome.Failure failure) {
+        recordRejection(switch (failure) {
+            case CheckoutOutcome.InvalidDayCount invalid -> InvalidDayCountException.class;
+            case CheckoutOutcome.InvalidDiscount invalid -> InvalidDiscountException.class;
+            case CheckoutOutcome.InvalidToolCode invalid -> InvalidToolCodeException.class;
+            case CheckoutOutcome.ToolUnavailable unavailable -> ToolUnavailableException.class;
+        });
+    }
+
+    private void recordRejection(Class<?> exceptionType) {
+        rejections.computeIfAbsent(exceptionType, type -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return copy of every histogram and rejection count as they are now
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, HistogramSnapshot> stages = new LinkedHashMap<>();
+        histograms.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> stages.put(entry.getKey(), entry.getValue().snapshot()));
+
+        Map<String, Long> rejectionCounts = new LinkedHashMap<>();
+        rejections.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> a.getSimpleName().compareTo(b.getSimpleName())))
+                .forEach(entry -> rejectionCounts.put(entry.getKey().getSimpleName(), entry.getValue().sum()));
+
+        return new MetricsSnapshot(Collections.unmodifiableMap(stages), Collections.unmodifiableMap(rejectionCounts));
+    }
+}
@@ -0,0 +1,73 @@
+package sample.pos.metrics;
+
+/**
+ * Point-in-time copy of a {@link LatencyHistogram}
+ */
+public class HistogramSnapshot {
+
+    private final long[] counts;
+
+    private final long count;
+
+    private final long totalNanos;
+
+    private final long maxNanos;
+
+    HistogramSnapshot(long[] counts, long totalNanos, long maxNanos) {
+        this.counts = counts;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+
+        long sum = 0;
+        for (var bucketCount : counts) {
+            sum += bucketCount;
+        }
+        this.count = sum;
+    }
+
+    /**
+     * @return number of latencies recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return mean latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * @return largest latency recorded, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Latency at the given percentile, as the upper bound of the bucket holding it (never more than the max)
+     *
+     * @param percentile percentile, from 0 to 100 (ie, 99.9)
+     * @return latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+}
@@ -0,0 +1,95 @@
+package sample.pos.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram, with log-linear buckets.
+ * <p>
+ * Values below 16ns get a bucket each. Above that, each power of two is split into 8 equal buckets, so a
+ * bucket's width is at most 1/8 of its lower bound (percentiles are within 12.5% of the true value), over the
+ * whole range of a long, in 488 buckets.
+ * <p>
+ * {@link #record} increments one bucket with a single atomic add, and allocates nothing; it may be called from
+ * any number of threads. {@link #snapshot} copies the buckets without stopping recorders, so a snapshot taken
+ * while recording continues is approximate, but internally consistent (its count is the sum of its buckets).
+ */
+public class LatencyHistogram {
+
+    /**
+     * Values below this are counted exactly
+     */
+    private static final int LINEAR_BUCKETS = 16;
+
+    /**
+     * log2(LINEAR_BUCKETS)
+     */
+    private static final int LINEAR_BITS = 4;
+
+    /**
+     * log2 of the number of buckets per power of two
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    static final int BUCKET_COUNT = LINEAR_BUCKETS + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a single latency
+     *
+     * @param nanos latency in nanoseconds; negative values (ie, from a clock adjustment) are counted as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * @return copy of the histogram as it is now
+     */
+    public HistogramSnapshot snapshot() {
+        var counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new HistogramSnapshot(counts, totalNanos.sum(), maxNanos.get());
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < LINEAR_BUCKETS) {
+            return (int) nanos;
+        }
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        var subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return largest value counted in the bucket
+     */
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        var exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        var subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        var shift = exponent - SUB_BUCKET_BITS;
+        var upper = ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+        // the top bucket's bound overflows
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
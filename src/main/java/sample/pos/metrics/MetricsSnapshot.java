@@ -0,0 +1,42 @@
+package sample.pos.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of {@link CheckoutMetrics}
+ *
+ * @param stages     latency histograms, by stage name
+ * @param rejections rejection counts, by exception simple name
+ */
+public record MetricsSnapshot(Map<String, HistogramSnapshot> stages, Map<String, Long> rejections) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * Renders the snapshot as a text table, with latencies in microseconds
+     * <pre>
+     *     stage            count     mean      p50      p90      p99    p99.9      max
+     *     handler           1200      2.1      1.9      3.0      7.9     15.9     40.2
+     *     rejections: InvalidDayCountException=3 InvalidDiscountException=0 InvalidToolCodeException=1
+     * </pre>
+     *
+     * @return text table
+     */
+    public String render() {
+        var out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-12s %10s %8s %8s %8s %8s %8s %8s%n",
+                "stage", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        stages.forEach((stage, histogram) -> {
+            out.append(String.format(Locale.ROOT, "%-12s %10d %8.1f", stage, histogram.getCount(), histogram.getMeanNanos() / 1_000));
+            for (var percentile : PERCENTILES) {
+                out.append(String.format(Locale.ROOT, " %8.1f", histogram.getPercentileNanos(percentile) / 1_000.0));
+            }
+            out.append(String.format(Locale.ROOT, " %8.1f%n", histogram.getMaxNanos() / 1_000.0));
+        });
+
+        out.append("rejections:");
+        rejections.forEach((type, count) -> out.append(' ').append(type).append('=').append(count));
+        return out.append(System.lineSeparator()).toString();
+    }
+}
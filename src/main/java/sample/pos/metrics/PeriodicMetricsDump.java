@@ -0,0 +1,67 @@
+package sample.pos.metrics;
+
+import sample.pos.processors.Processor;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a {@link CheckoutMetrics} snapshot as text at a fixed interval, on a daemon thread, and hands it to a
+ * sink (standard output by default). Figures are cumulative since the metrics were created.
+ */
+public class PeriodicMetricsDump implements AutoCloseable {
+
+    private final CheckoutMetrics metrics;
+
+    private final Processor<String> sink;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "checkout-metrics-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PeriodicMetricsDump(CheckoutMetrics metrics, Duration period) {
+        this(metrics, period, System.out::print);
+    }
+
+    /**
+     * @param metrics metrics to dump
+     * @param period  time between dumps
+     * @param sink    destination of each rendered dump
+     */
+    public PeriodicMetricsDump(CheckoutMetrics metrics, Duration period, Processor<String> sink) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be greater than 0");
+        }
+        this.metrics = Objects.requireNonNull(metrics);
+        this.sink = Objects.requireNonNull(sink);
+        scheduler.scheduleAtFixedRate(this::scheduledDump, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Dumps immediately, in addition to the scheduled dumps
+     */
+    public void dump() {
+        sink.process(metrics.snapshot().render());
+    }
+
+    private void scheduledDump() {
+        try {
+            dump();
+        } catch (RuntimeException e) {
+            // a failing sink must not cancel later dumps
+        }
+    }
+
+    /**
+     * Stops dumping. No final dump is made; call {@link #dump()} first if one is wanted.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package sample.pos.metrics;
+
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutOutcome;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.handlers.CheckoutHandler;
+
+/**
+ * {@link TimedHandler} for a {@link CheckoutHandler}, so served checkouts (which go through
+ * {@link CheckoutHandler#tryHandle}) are timed too. Refused outcomes are counted under the exception
+ * {@link #handle} would have thrown for them, so both paths report the same rejection counts.
+ */
+public class TimedCheckoutHandler extends TimedHandler<CheckinRequest, RentalAgreement> implements CheckoutHandler {
+
+    private final CheckoutHandler delegate;
+
+    private final CheckoutMetrics metrics;
+
+    private final LatencyHistogram histogram;
+
+    public TimedCheckoutHandler(CheckoutHandler delegate, CheckoutMetrics metrics) {
+        this(delegate, metrics, CheckoutMetrics.HANDLER_STAGE);
+    }
+
+    public TimedCheckoutHandler(CheckoutHandler delegate, CheckoutMetrics metrics, String stage) {
+        super(delegate, metrics, stage);
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.histogram = metrics.histogram(stage);
+    }
+
+    @Override
+    public CheckoutOutcome tryHandle(CheckinRequest checkinRequest) {
+        var start = System.nanoTime();
+        try {
+            var outcome = delegate.tryHandle(checkinRequest);
+            if (outcome instanceof CheckoutOutcome.Failure failure) {
+                metrics.recordRejection(failure);
+            }
+            return outcome;
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean cancel(RentalAgreement rentalAgreement) {
+        return delegate.cancel(rentalAgreement);
+    }
+}
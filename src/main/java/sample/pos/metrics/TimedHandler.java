@@ -0,0 +1,44 @@
+package sample.pos.metrics;
+
+import sample.pos.handlers.Handler;
+
+import java.util.Objects;
+
+/**
+ * Handler decorator recording the delegate's latency, and counting the exceptions it rejects requests with.
+ * Rejected requests are timed too.
+ *
+ * @param <T> input type
+ * @param <U> return type
+ */
+public class TimedHandler<T, U> implements Handler<T, U> {
+
+    private final Handler<T, U> delegate;
+
+    private final CheckoutMetrics metrics;
+
+    private final LatencyHistogram histogram;
+
+    public TimedHandler(Handler<T, U> delegate, CheckoutMetrics metrics) {
+        this(delegate, metrics, CheckoutMetrics.HANDLER_STAGE);
+    }
+
+    public TimedHandler(Handler<T, U> delegate, CheckoutMetrics metrics, String stage) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.metrics = metrics;
+        this.histogram = metrics.histogram(stage);
+    }
+
+    @Override
+    public U handle(T t) throws Exception {
+        var start = System.nanoTime();
+        try {
+            return delegate.handle(t);
+        } catch (Exception e) {
+            metrics.recordRejection(e);
+            throw e;
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package sample.pos.metrics;
+
+import sample.pos.processors.Processor;
+
+import java.util.Objects;
+
+/**
+ * Processor decorator recording the delegate's latency
+ *
+ * @param <T> Item type to process
+ */
+public class TimedProcessor<T> implements Processor<T> {
+
+    private final Processor<T> delegate;
+
+    private final LatencyHistogram histogram;
+
+    public TimedProcessor(Processor<T> delegate, CheckoutMetrics metrics) {
+        this(delegate, metrics, CheckoutMetrics.PROCESSOR_STAGE);
+    }
+
+    public TimedProcessor(Processor<T> delegate, CheckoutMetrics metrics, String stage) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.histogram = metrics.histogram(stage);
+    }
+
+    @Override
+    public void process(T t) {
+        var start = System.nanoTime();
+        try {
+            delegate.process(t);
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package sample.pos.metrics;
+
+import sample.pos.renderers.Renderer;
+
+import java.util.Objects;
+
+/**
+ * Renderer decorator recording the delegate's latency
+ *
+ * @param <T> data type to render.
+ */
+public class TimedRenderer<T> implements Renderer<T> {
+
+    private final Renderer<T> delegate;
+
+    private final LatencyHistogram histogram;
+
+    public TimedRenderer(Renderer<T> delegate, CheckoutMetrics metrics) {
+        this(delegate, metrics, CheckoutMetrics.RENDERER_STAGE);
+    }
+
+    public TimedRenderer(Renderer<T> delegate, CheckoutMetrics metrics, String stage) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.histogram = metrics.histogram(stage);
+    }
+
+    @Override
+    public String render(T t) {
+        var start = System.nanoTime();
+        try {
+            return delegate.render(t);
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
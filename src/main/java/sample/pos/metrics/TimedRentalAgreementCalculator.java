@@ -0,0 +1,37 @@
+package sample.pos.metrics;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Tool;
+import sample.pos.service.RentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * RentalAgreementCalculator decorator recording the delegate's latency
+ */
+public class TimedRentalAgreementCalculator implements RentalAgreementCalculator {
+
+    private final RentalAgreementCalculator delegate;
+
+    private final LatencyHistogram histogram;
+
+    public TimedRentalAgreementCalculator(RentalAgreementCalculator delegate, CheckoutMetrics metrics) {
+        this(delegate, metrics, CheckoutMetrics.CALCULATOR_STAGE);
+    }
+
+    public TimedRentalAgreementCalculator(RentalAgreementCalculator delegate, CheckoutMetrics metrics, String stage) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.histogram = metrics.histogram(stage);
+    }
+
+    @Override
+    public RentalAgreement calculate(Tool tool, int dayCount, int discountPercent, LocalDate checkoutDate) {
+        var start = System.nanoTime();
+        try {
+            return delegate.calculate(tool, dayCount, discountPercent, checkoutDate);
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package sample.pos.pricing;
+
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.Money;
+import sample.pos.domain.ToolType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Immutable table of daily charges and charge-day rules, indexed by tool type id ({@link ToolType#ordinal()}).
+ * <p>
+ * Each tool type costs a long (daily charge, in cents) and a byte of flags (charged on weekdays, weekends and/or
+ * holidays), held in two parallel arrays. Tables are never changed once built; to change prices, load a new table
+ * and publish it through a {@link PricingTableHolder}.
+ */
+public final class PricingTable {
+
+    /**
+     * Prices compiled into {@link ToolType}
+     */
+    public static final PricingTable DEFAULT = defaults();
+
+    private static final byte WEEKDAYS = 1;
+
+    private static final byte WEEKENDS = 1 << 1;
+
+    private static final byte HOLIDAYS = 1 << 2;
+
+    private static final char COMMENT = '#';
+
+    private static final String SEPARATOR = ",";
+
+    private static final int FIELD_COUNT = 5;
+
+    private final long[] dailyChargeCents;
+
+    private final byte[] chargeFlags;
+
+    private PricingTable(long[] dailyChargeCents, byte[] chargeFlags) {
+        this.dailyChargeCents = dailyChargeCents;
+        this.chargeFlags = chargeFlags;
+    }
+
+    private static PricingTable defaults() {
+        var toolTypes = ToolType.values();
+        var dailyChargeCents = new long[toolTypes.length];
+        var chargeFlags = new byte[toolTypes.length];
+        for (var toolType : toolTypes) {
+            dailyChargeCents[toolType.ordinal()] = toolType.getDailyChargeCents();
+            chargeFlags[toolType.ordinal()] = flags(toolType.isChargeOnWeekdays(), toolType.isChargeOnWeekends(), toolType.isChargeOnHolidays());
+        }
+        return new PricingTable(dailyChargeCents, chargeFlags);
+    }
+
+    /**
+     * Loads a table from a flat file, with one tool type per line as
+     * {@code TOOL_TYPE,dailyCharge,chargeOnWeekdays,chargeOnWeekends,chargeOnHolidays}
+     * <pre>
+     *     # comments and blank lines are skipped
+     *     LADDER,1.99,true,true,false
+     *     CHAINSAW,1.49,true,false,true
+     *     JACK_HAMMER,2.99,true,false,false
+     * </pre>
+     * Every tool type must be priced; later lines replace earlier lines for the same tool type.
+     *
+     * @param path flat file to load
+     * @return loaded table
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed, or a tool type is not priced
+     */
+    public static PricingTable load(Path path) throws IOException {
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * @see #load(Path)
+     */
+    public static PricingTable load(BufferedReader reader) throws IOException {
+        var toolTypes = ToolType.values();
+        var dailyChargeCents = new long[toolTypes.length];
+        var chargeFlags = new byte[toolTypes.length];
+        var priced = new boolean[toolTypes.length];
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.charAt(0) == COMMENT) {
+                continue;
+            }
+
+            var fields = line.split(SEPARATOR, -1);
+            if (fields.length != FIELD_COUNT) {
+                throw new IllegalArgumentException("Line %d: expected TOOL_TYPE,dailyCharge,chargeOnWeekdays,chargeOnWeekends,chargeOnHolidays: <%s>".formatted(lineNumber, line));
+            }
+
+            ToolType toolType;
+            try {
+                toolType = ToolType.valueOf(fields[0].strip());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line %d: unknown tool type: <%s>".formatted(lineNumber, line), e);
+            }
+
+            long cents;
+            try {
+                cents = Money.toCents(new BigDecimal(fields[1].strip()));
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new IllegalArgumentException("Line %d: invalid daily charge: <%s>".formatted(lineNumber, line), e);
+            }
+            if (cents < 0) {
+                throw new IllegalArgumentException("Line %d: daily charge must not be negative: <%s>".formatted(lineNumber, line));
+            }
+
+            dailyChargeCents[toolType.ordinal()] = cents;
+            chargeFlags[toolType.ordinal()] = flags(parseFlag(fields[2], lineNumber, line),
+                    parseFlag(fields[3], lineNumber, line), parseFlag(fields[4], lineNumber, line));
+            priced[toolType.ordinal()] = true;
+        }
+
+        for (var toolType : toolTypes) {
+            if (!priced[toolType.ordinal()]) {
+                throw new IllegalArgumentException("No pricing for tool type: <%s>".formatted(toolType));
+            }
+        }
+        return new PricingTable(dailyChargeCents, chargeFlags);
+    }
+
+    /**
+     * @param toolType tool type
+     * @return daily charge, in cents
+     */
+    public long getDailyChargeCents(ToolType toolType) {
+        return dailyChargeCents[toolType.ordinal()];
+    }
+
+    /**
+     * @param toolType tool type
+     * @return the tool type's weekday, weekend and holiday rules
+     */
+    public ChargeRules getChargeRules(ToolType toolType) {
+        return ChargeRules.of(isChargeOnWeekdays(toolType), isChargeOnWeekends(toolType), isChargeOnHolidays(toolType));
+    }
+
+    public boolean isChargeOnWeekdays(ToolType toolType) {
+        return (chargeFlags[toolType.ordinal()] & WEEKDAYS) != 0;
+    }
+
+    public boolean isChargeOnWeekends(ToolType toolType) {
+        return (chargeFlags[toolType.ordinal()] & WEEKENDS) != 0;
+    }
+
+    public boolean isChargeOnHolidays(ToolType toolType) {
+        return (chargeFlags[toolType.ordinal()] & HOLIDAYS) != 0;
+    }
+
+    private static byte flags(boolean chargeOnWeekdays, boolean chargeOnWeekends, boolean chargeOnHolidays) {
+        return (byte) ((chargeOnWeekdays ? WEEKDAYS : 0) | (chargeOnWeekends ? WEEKENDS : 0) | (chargeOnHolidays ? HOLIDAYS : 0));
+    }
+
+    private static boolean parseFlag(String field, int lineNumber, String line) {
+        return switch (field.strip().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("Line %d: expected true or false, found <%s>: <%s>".formatted(lineNumber, field.strip(), line));
+        };
+    }
+}
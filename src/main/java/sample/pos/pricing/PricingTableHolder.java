@@ -0,0 +1,59 @@
+package sample.pos.pricing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Holds the current {@link PricingTable}, so prices can be changed without a redeploy.
+ * <p>
+ * The table is published through a volatile field (copy-on-write): a new table is built in full, then swapped in
+ * with a single write. Readers never lock, and each {@link #get()} returns one complete table, so a calculation
+ * that reads the table once never sees a half-updated rate. Calculations already in flight finish with the table
+ * they read.
+ */
+public class PricingTableHolder {
+
+    private volatile PricingTable pricingTable;
+
+    /**
+     * Holds the prices compiled into {@link sample.pos.domain.ToolType}
+     */
+    public PricingTableHolder() {
+        this(PricingTable.DEFAULT);
+    }
+
+    public PricingTableHolder(PricingTable pricingTable) {
+        this.pricingTable = Objects.requireNonNull(pricingTable);
+    }
+
+    /**
+     * @return current table
+     */
+    public PricingTable get() {
+        return pricingTable;
+    }
+
+    /**
+     * Replaces the current table
+     *
+     * @param pricingTable table to publish
+     */
+    public void publish(PricingTable pricingTable) {
+        this.pricingTable = Objects.requireNonNull(pricingTable);
+    }
+
+    /**
+     * Loads a table from a flat file and publishes it. The current table is kept if the file cannot be loaded.
+     *
+     * @param path flat file to load (see {@link PricingTable#load(Path)})
+     * @return published table
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed, or does not price every tool type
+     */
+    public PricingTable reload(Path path) throws IOException {
+        var loaded = PricingTable.load(path);
+        publish(loaded);
+        return loaded;
+    }
+}
@@ -0,0 +1,309 @@
+package sample.pos.processors;
+
+import sample.pos.renderers.StreamingRenderer;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Processor that queues items and writes them out in batches from a single writer thread.
+ * <p>
+ * Callers (ie, checkout threads) only pay for a queue insert; they never contend on a PrintStream lock or wait
+ * on an unbuffered flush. The writer thread drains whatever has queued up, renders each item directly into a
+ * reusable ByteBuffer (followed by a line separator, as with {@code println}), and writes the whole batch to the
+ * channel in one go.
+ * <p>
+ * The queue is bounded; when full, {@link OverflowPolicy} determines whether callers block or the item is dropped.
+ * {@link #close()} stops accepting items, writes out everything already queued, and then returns.
+ *
+ * @param <T> Item type to process
+ */
+public class AsyncBatchingProcessor<T> implements Processor<T>, Closeable {
+
+    public enum OverflowPolicy {
+        /**
+         * Block the calling thread until there is room in the queue
+         */
+        BLOCK,
+        /**
+         * Drop the item (counted in {@link #getDroppedCount()}) when the queue is full
+         */
+        DROP
+    }
+
+    public static final int DEFAULT_CAPACITY = 8_192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * How long the writer waits for an item before checking whether it has been closed
+     */
+    private static final long POLL_MILLIS = 50;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final StreamingRenderer<T> renderer;
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<T> queue;
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * Callers currently between their closed check and their queue insert; the writer waits for these on close
+     */
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    private final Thread writerThread;
+
+    private volatile boolean closed;
+
+    /**
+     * First write failure; reported by {@link #close()}. Only touched by the writer thread until it is joined.
+     */
+    private IOException writeFailure;
+
+    /**
+     * Writer-thread-only output buffer; grown if a single item does not fit
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Writer-thread-only count of items rendered into the buffer, but not yet written to the channel
+     */
+    private int bufferedItems;
+
+    /**
+     * @param renderer       renders each item into the output buffer
+     * @param channel        destination of the rendered items
+     * @param closeChannel   whether {@link #close()} should also close the channel
+     * @param capacity       maximum number of items waiting to be written
+     * @param maxBatchSize   maximum number of items written per batch
+     * @param overflowPolicy behavior when the queue is full
+     */
+    public AsyncBatchingProcessor(StreamingRenderer<T> renderer, WritableByteChannel channel, boolean closeChannel,
+                                  int capacity, int maxBatchSize, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and max batch size must be greater than 0");
+        }
+        this.renderer = Objects.requireNonNull(renderer);
+        this.channel = Objects.requireNonNull(channel);
+        this.closeChannel = closeChannel;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+
+        this.writerThread = new Thread(this::drainLoop, "async-batching-processor-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Processor writing to standard output. Standard output is left open on close.
+     */
+    public static <T> AsyncBatchingProcessor<T> toStandardOut(StreamingRenderer<T> renderer, OverflowPolicy overflowPolicy) {
+        return new AsyncBatchingProcessor<>(renderer, Channels.newChannel(new FileOutputStream(FileDescriptor.out)), false,
+                DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, overflowPolicy);
+    }
+
+    /**
+     * Processor appending to a file, creating it if needed. The file is closed on close.
+     */
+    public static <T> AsyncBatchingProcessor<T> toFile(StreamingRenderer<T> renderer, Path path, OverflowPolicy overflowPolicy) throws IOException {
+        var fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new AsyncBatchingProcessor<>(renderer, fileChannel, true, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, overflowPolicy);
+    }
+
+    /**
+     * Queues the item to be written.
+     *
+     * @param t item to write
+     * @throws IllegalStateException if the processor has been closed
+     */
+    @Override
+    public void process(T t) {
+        Objects.requireNonNull(t);
+
+        // registering before checking closed guarantees the writer either sees this caller, or this caller sees closed
+        activeProducers.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Processor has been closed");
+            }
+            enqueue(t);
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    private void enqueue(T t) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!queue.offer(t)) {
+                droppedCount.increment();
+            }
+            return;
+        }
+
+        try {
+            queue.put(t);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.increment();
+        }
+    }
+
+    /**
+     * @return number of items dropped, either from a full queue, an interrupted caller, a failed render, or a failed write
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return number of items waiting to be written
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting items, waits for every queued item to be written, and closes the channel if owned.
+     *
+     * @throws IOException the first failure encountered while writing, or while closing the channel
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing queued items", e);
+        }
+
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (writeFailure == null) {
+                    writeFailure = e;
+                } else {
+                    writeFailure.addSuppressed(e);
+                }
+            }
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    private void drainLoop() {
+        var batch = new ArrayList<T>(maxBatchSize);
+        while (true) {
+            T first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // only close() stops the writer; keep draining
+                continue;
+            }
+
+            if (first == null) {
+                // once closed, no new callers get past the closed check, so nothing else can arrive
+                if (closed && activeProducers.get() == 0 && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<T> batch) {
+        buffer.clear();
+        bufferedItems = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                renderItem(batch.get(i));
+            } catch (IOException e) {
+                // everything buffered, plus the rest of the batch, never made it out
+                recordFailure(e, bufferedItems + batch.size() - i);
+                return;
+            }
+        }
+        try {
+            flushBuffer();
+        } catch (IOException e) {
+            recordFailure(e, bufferedItems);
+        }
+    }
+
+    /**
+     * Renders one item into the buffer, writing out the buffer (or growing it) when the item does not fit.
+     * An item that fails to render is dropped, rather than stopping the writer.
+     */
+    private void renderItem(T item) throws IOException {
+        while (true) {
+            var start = buffer.position();
+            try {
+                renderer.renderTo(item, buffer);
+                buffer.put(LINE_SEPARATOR);
+                bufferedItems++;
+                return;
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                if (start > 0) {
+                    flushBuffer();
+                } else {
+                    // a single item larger than the buffer
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                }
+            } catch (RuntimeException e) {
+                buffer.position(start);
+                droppedCount.increment();
+                return;
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        bufferedItems = 0;
+    }
+
+    private void recordFailure(IOException e, int itemsLost) {
+        droppedCount.add(itemsLost);
+        if (writeFailure == null) {
+            writeFailure = e;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package sample.pos.renderers;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Formatting helpers that write numbers, currency and dates straight into an {@link Appendable},
+ * without creating intermediate Strings.
+ */
+final class AppendableFormats {
+
+    private AppendableFormats() {
+    }
+
+    /**
+     * Writes a whole number (ie, -12345)
+     */
+    static void appendLong(Appendable out, long value) throws IOException {
+        if (value < 0) {
+            out.append('-');
+            appendDigits(out, Math.absExact(value), false);
+        } else {
+            appendDigits(out, value, false);
+        }
+    }
+
+    /**
+     * Writes a cent amount in US currency format, matching {@code NumberFormat.getCurrencyInstance(Locale.US)}
+     * (ie, 123456 -> $1,234.56 and -5 -> -$0.05)
+     */
+    static void appendCurrency(Appendable out, long cents) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+            cents = Math.absExact(cents);
+        }
+        out.append('$');
+        appendDigits(out, cents / 100, true);
+        out.append('.');
+        appendTwoDigits(out, (int) (cents % 100));
+    }
+
+    /**
+     * Writes a date in MM/dd/uu format (ie, 2024-08-05 -> 08/05/24)
+     */
+    static void appendDate(Appendable out, LocalDate date) throws IOException {
+        appendTwoDigits(out, date.getMonthValue());
+        out.append('/');
+        appendTwoDigits(out, date.getDayOfMonth());
+        out.append('/');
+        appendTwoDigits(out, Math.abs(date.getYear()) % 100);
+    }
+
+    /**
+     * Writes a cent amount as a plain decimal, with two places and no grouping (ie, 123456 -> 1234.56 and -5 -> -0.05)
+     */
+    static void appendDecimal(Appendable out, long cents) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+            cents = Math.absExact(cents);
+        }
+        appendDigits(out, cents / 100, false);
+        out.append('.');
+        appendTwoDigits(out, (int) (cents % 100));
+    }
+
+    /**
+     * Writes a date in ISO-8601 format (ie, 2024-08-05), as {@link LocalDate#toString()} does
+     */
+    static void appendIsoDate(Appendable out, LocalDate date) throws IOException {
+        var year = date.getYear();
+        if (year < 0 || year > 9999) {
+            // signed and expanded years are rare enough to format the slow way
+            out.append(date.toString());
+            return;
+        }
+        appendTwoDigits(out, year / 100);
+        appendTwoDigits(out, year % 100);
+        out.append('-');
+        appendTwoDigits(out, date.getMonthValue());
+        out.append('-');
+        appendTwoDigits(out, date.getDayOfMonth());
+    }
+
+    static void appendTwoDigits(Appendable out, int value) throws IOException {
+        out.append((char) ('0' + value / 10));
+        out.append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Writes the digits of a non-negative number, most significant first, optionally with thousands separators
+     */
+    private static void appendDigits(Appendable out, long value, boolean grouping) throws IOException {
+        // find the place value of the leading digit
+        long place = 1;
+        int digits = 1;
+        while (place <= value / 10) {
+            place *= 10;
+            digits++;
+        }
+
+        for (; place > 0; place /= 10, digits--) {
+            out.append((char) ('0' + (value / place) % 10));
+            if (grouping && digits > 1 && (digits - 1) % 3 == 0) {
+                out.append(',');
+            }
+        }
+    }
+}
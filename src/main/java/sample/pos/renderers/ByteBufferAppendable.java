@@ -0,0 +1,83 @@
+package sample.pos.renderers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Appendable that encodes characters as UTF-8 directly into a ByteBuffer.
+ * <p>
+ * Instances are pooled per thread (see {@link #wrap}), so rendering into a ByteBuffer does not allocate an
+ * adapter per call.
+ */
+final class ByteBufferAppendable implements Appendable {
+
+    private static final ThreadLocal<ByteBufferAppendable> POOL = ThreadLocal.withInitial(ByteBufferAppendable::new);
+
+    private ByteBuffer buffer;
+
+    private ByteBufferAppendable() {
+    }
+
+    /**
+     * @param buffer destination buffer
+     * @return this thread's adapter, targeting the buffer until {@link #release()} is called
+     */
+    static ByteBufferAppendable wrap(ByteBuffer buffer) {
+        var appendable = POOL.get();
+        appendable.buffer = buffer;
+        return appendable;
+    }
+
+    void release() {
+        buffer = null;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) {
+        return csq == null ? append("null", 0, 4) : append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+        if (csq == null) {
+            return append("null", start, end);
+        }
+        for (int i = start; i < end; i++) {
+            var c = csq.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(csq.charAt(i + 1))) {
+                putCodePoint(Character.toCodePoint(c, csq.charAt(++i)));
+            } else {
+                putCodePoint(c);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+        putCodePoint(c);
+        return this;
+    }
+
+    private void putCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            buffer.put((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | (codePoint >> 6)))
+                    .put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            if (Character.isSurrogate((char) codePoint)) {
+                // unpaired surrogate, encoded as '?' to match String.getBytes(UTF_8)
+                buffer.put((byte) '?');
+                return;
+            }
+            buffer.put((byte) (0xE0 | (codePoint >> 12)))
+                    .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                    .put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (codePoint >> 18)))
+                    .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                    .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                    .put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+}
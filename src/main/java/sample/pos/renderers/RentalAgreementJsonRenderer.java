@@ -0,0 +1,118 @@
+package sample.pos.renderers;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.events.RenderEvent;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static sample.pos.renderers.AppendableFormats.appendDecimal;
+import static sample.pos.renderers.AppendableFormats.appendIsoDate;
+import static sample.pos.renderers.AppendableFormats.appendLong;
+
+/**
+ * Renders a RentalAgreement as a single-line JSON object, for downstream billing.
+ * <pre>
+ *     {"toolCode":"LADW","toolType":"Ladder","toolBrand":"Werner","rentalDays":3,"checkoutDate":"2020-07-02",
+ *      "dueDate":"2020-07-05","dailyRentalCharge":1.99,"chargeDays":2,"preDiscountCharge":3.98,
+ *      "discountPercent":10,"discountAmount":0.40,"finalCharge":3.58}
+ * </pre>
+ * Fields are written by hand, in a fixed order, straight into the caller's Appendable or ByteBuffer, without
+ * reflection or an intermediate map. Dates are ISO-8601 strings, and money amounts are decimal numbers with
+ * exactly two places, so they parse exactly as decimals. Strings are escaped as JSON requires; null fields are
+ * written as null.
+ */
+public class RentalAgreementJsonRenderer implements StreamingRenderer<RentalAgreement> {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Renders the agreement as a JSON object, without a trailing newline. Emits a {@link RenderEvent}.
+     *
+     * @param rentalAgreement data to be rendered
+     * @param out             destination of the rendered output
+     * @return the destination, for chaining
+     */
+    @Override
+    public <A extends Appendable> A renderTo(RentalAgreement rentalAgreement, A out) throws IOException {
+        var event = new RenderEvent();
+        event.begin();
+        try {
+            write(rentalAgreement, out);
+            return out;
+        } finally {
+            event.finish(rentalAgreement);
+        }
+    }
+
+    private void write(RentalAgreement rentalAgreement, Appendable out) throws IOException {
+        out.append("{\"toolCode\":");
+        appendString(out, rentalAgreement.getToolCode());
+        out.append(",\"toolType\":");
+        appendString(out, rentalAgreement.getToolType());
+        out.append(",\"toolBrand\":");
+        appendString(out, rentalAgreement.getToolBrand());
+
+        out.append(",\"rentalDays\":");
+        appendLong(out, rentalAgreement.getRentalDays());
+        out.append(",\"checkoutDate\":");
+        appendDate(out, rentalAgreement.getCheckoutDate());
+        out.append(",\"dueDate\":");
+        appendDate(out, rentalAgreement.getDueDate());
+
+        out.append(",\"dailyRentalCharge\":");
+        appendDecimal(out, rentalAgreement.getDailyRentalChargeCents());
+        out.append(",\"chargeDays\":");
+        appendLong(out, rentalAgreement.getChargeDays());
+        out.append(",\"preDiscountCharge\":");
+        appendDecimal(out, rentalAgreement.getPreDiscountChargeCents());
+        out.append(",\"discountPercent\":");
+        appendLong(out, rentalAgreement.getDiscountPercent());
+        out.append(",\"discountAmount\":");
+        appendDecimal(out, rentalAgreement.getDiscountAmountCents());
+        out.append(",\"finalCharge\":");
+        appendDecimal(out, rentalAgreement.getFinalChargeCents());
+        out.append('}');
+    }
+
+    private static void appendDate(Appendable out, LocalDate date) throws IOException {
+        if (date == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        appendIsoDate(out, date);
+        out.append('"');
+    }
+
+    /**
+     * Writes a quoted JSON string, escaping quotes, backslashes and control characters
+     */
+    private static void appendString(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int plainFrom = 0;
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c >= ' ' && c != '"' && c != '\\') {
+                continue;
+            }
+            // write the run of plain characters before this one, then its escape
+            out.append(value, plainFrom, i);
+            plainFrom = i + 1;
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            }
+        }
+        out.append(value, plainFrom, value.length());
+        out.append('"');
+    }
+}
@@ -1,9 +1,9 @@
 package sample.pos.renderers;
 
+import sample.pos.domain.Money;
 import sample.pos.domain.RentalAgreement;
+import sample.pos.events.RenderEvent;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -24,12 +24,23 @@ public class RentalAgreementTextRenderer implements Renderer<RentalAgreement>{
      *     ...
      *     Final charge: $12.99
      * </pre>
+     * Emits a {@link RenderEvent}.
      *
      * @param rentalAgreement data to be rendered
      * @return formatted results
      */
     @Override
     public String render(RentalAgreement rentalAgreement) {
+        var event = new RenderEvent();
+        event.begin();
+        try {
+            return format(rentalAgreement);
+        } finally {
+            event.finish(rentalAgreement);
+        }
+    }
+
+    private String format(RentalAgreement rentalAgreement) {
         return """
                 Tool code: %s
                 Tool type: %s
@@ -48,17 +59,17 @@ public class RentalAgreementTextRenderer implements Renderer<RentalAgreement>{
                 rentalAgreement.getRentalDays(),
                 formatDate(rentalAgreement.getCheckoutDate()),
                 formatDate(rentalAgreement.getDueDate()),
-                formatBigDecimal(rentalAgreement.getDailyRentalCharge()),
+                formatCents(rentalAgreement.getDailyRentalChargeCents()),
                 rentalAgreement.getChargeDays(),
-                formatBigDecimal(rentalAgreement.getPreDiscountCharge()),
+                formatCents(rentalAgreement.getPreDiscountChargeCents()),
                 rentalAgreement.getDiscountPercent(),
-                formatBigDecimal(rentalAgreement.getDiscountAmount()),
-                formatBigDecimal(rentalAgreement.getFinalCharge()));
+                formatCents(rentalAgreement.getDiscountAmountCents()),
+                formatCents(rentalAgreement.getFinalChargeCents()));
     }
 
-    private String formatBigDecimal(BigDecimal bd){
-        // 12.125 -> $12.13
-        return NUMBER_FORMATTER.get().format(bd.setScale(2, RoundingMode.HALF_UP));
+    private String formatCents(long cents){
+        // 1213 -> $12.13
+        return NUMBER_FORMATTER.get().format(Money.toBigDecimal(cents));
     }
 
     private String formatDate(LocalDate date){
@@ -0,0 +1,65 @@
+package sample.pos.renderers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Renderer that writes directly into a caller-supplied {@link Appendable} or {@link ByteBuffer}, rather than
+ * building a new String for each item.
+ * <p>
+ * Callers rendering at volume can reuse the same StringBuilder or ByteBuffer across items.
+ *
+ * @param <T> data type to render.
+ */
+public interface StreamingRenderer<T> extends Renderer<T> {
+
+    /**
+     * Initial capacity of the StringBuilder used by {@link #render}
+     */
+    int DEFAULT_CAPACITY = 512;
+
+    /**
+     * Renders data into the given Appendable
+     *
+     * @param t   data to be rendered
+     * @param out destination of the rendered output
+     * @return the destination, for chaining
+     * @throws IOException if the destination fails to accept the output
+     */
+    <A extends Appendable> A renderTo(T t, A out) throws IOException;
+
+    /**
+     * Renders data into the given ByteBuffer as UTF-8, starting at its current position.
+     *
+     * @param t   data to be rendered
+     * @param out destination of the rendered output
+     * @return the destination, for chaining
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    default ByteBuffer renderTo(T t, ByteBuffer out) {
+        var appendable = ByteBufferAppendable.wrap(out);
+        try {
+            renderTo(t, appendable);
+        } catch (IOException e) {
+            // ByteBufferAppendable does not throw IOException
+            throw new UncheckedIOException(e);
+        } finally {
+            appendable.release();
+        }
+        return out;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default String render(T t) {
+        try {
+            return renderTo(t, new StringBuilder(DEFAULT_CAPACITY)).toString();
+        } catch (IOException e) {
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+}
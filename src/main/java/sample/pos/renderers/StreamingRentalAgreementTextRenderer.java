@@ -0,0 +1,88 @@
+package sample.pos.renderers;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.events.RenderEvent;
+
+import java.io.IOException;
+
+import static sample.pos.renderers.AppendableFormats.appendCurrency;
+import static sample.pos.renderers.AppendableFormats.appendDate;
+import static sample.pos.renderers.AppendableFormats.appendLong;
+
+/**
+ * Streaming variant of {@link RentalAgreementTextRenderer}, producing byte-identical output.
+ * <p>
+ * Writes each field directly into the caller's Appendable or ByteBuffer, formatting numbers, currency and dates
+ * by hand, so no intermediate Strings are created per agreement.
+ */
+public class StreamingRentalAgreementTextRenderer implements StreamingRenderer<RentalAgreement> {
+
+    /**
+     * Renders RentalAgreement parameter as a block of text, with Title: Value semantics for each field.
+     *
+     * <pre>
+     *     Tool code: ABCD
+     *     Tool brand: Ladder
+     *     ...
+     *     Final charge: $12.99
+     * </pre>
+     * Emits a {@link RenderEvent}.
+     *
+     * @param rentalAgreement data to be rendered
+     * @param out             destination of the rendered output
+     * @return the destination, for chaining
+     */
+    @Override
+    public <A extends Appendable> A renderTo(RentalAgreement rentalAgreement, A out) throws IOException {
+        var event = new RenderEvent();
+        event.begin();
+        try {
+            write(rentalAgreement, out);
+            return out;
+        } finally {
+            event.finish(rentalAgreement);
+        }
+    }
+
+    private void write(RentalAgreement rentalAgreement, Appendable out) throws IOException {
+        out.append("Tool code: ").append(rentalAgreement.getToolCode()).append('\n');
+        out.append("Tool type: ").append(rentalAgreement.getToolType()).append('\n');
+        out.append("Tool brand: ").append(rentalAgreement.getToolBrand()).append('\n');
+
+        out.append("Rental days: ");
+        appendLong(out, rentalAgreement.getRentalDays());
+        out.append('\n');
+
+        out.append("Checkout date: ");
+        appendDate(out, rentalAgreement.getCheckoutDate());
+        out.append('\n');
+
+        out.append("Due date: ");
+        appendDate(out, rentalAgreement.getDueDate());
+        out.append('\n');
+
+        out.append("Daily rental charge: ");
+        appendCurrency(out, rentalAgreement.getDailyRentalChargeCents());
+        out.append('\n');
+
+        out.append("Chargeable days: ");
+        appendLong(out, rentalAgreement.getChargeDays());
+        out.append('\n');
+
+        out.append("Pre-discount charge: ");
+        appendCurrency(out, rentalAgreement.getPreDiscountChargeCents());
+        out.append('\n');
+
+        out.append("Discount percent: ");
+        appendLong(out, rentalAgreement.getDiscountPercent());
+        out.append("%\n");
+
+        out.append("Discount amount: ");
+        appendCurrency(out, rentalAgreement.getDiscountAmountCents());
+        out.append('\n');
+
+        out.append("Final Charge: ");
+        appendCurrency(out, rentalAgreement.getFinalChargeCents());
+        out.append('\n');
+    }
+}
@@ -0,0 +1,122 @@
+package sample.pos.repository;
+
+import sample.pos.domain.Tool;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Thread-safe, mutable ToolRepository for inventory that changes throughout the day.
+ * <p>
+ * The tools are held in an immutable snapshot, published through a volatile field (copy-on-write).
+ * Lookups read the current snapshot without locking, and are never blocked by writers. Writers are serialized,
+ * copy the snapshot, apply their change and publish the copy, so {@link #findAll()} always returns a
+ * consistent point-in-time view.
+ * <p>
+ * Each write copies the whole repository, which suits a read-heavy workload; use {@link #upsertAll} to apply
+ * many changes with a single copy.
+ */
+public class ConcurrentToolRepository implements ToolRepository {
+
+    /**
+     * Immutable view of the repository at a point in time
+     */
+    private record Snapshot(Map<String, Tool> toolsByCode, List<Tool> tools) {
+
+        static Snapshot of(Map<String, Tool> toolsByCode) {
+            return new Snapshot(Collections.unmodifiableMap(toolsByCode), List.copyOf(toolsByCode.values()));
+        }
+    }
+
+    private volatile Snapshot snapshot;
+
+    private final Object writeLock = new Object();
+
+    public ConcurrentToolRepository() {
+        this(List.of());
+    }
+
+    public ConcurrentToolRepository(Collection<Tool> tools) {
+        var toolsByCode = new HashMap<String, Tool>();
+        tools.forEach(tool -> toolsByCode.put(normalize(tool.getCode()), tool));
+        this.snapshot = Snapshot.of(toolsByCode);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lookup is case-insensitive. Codes already in upper case (the norm) are looked up as given, without
+     * creating an upper-cased copy.
+     */
+    @Override
+    public Optional<Tool> findByToolCode(String toolCode) {
+        Objects.requireNonNull(toolCode);
+        return Optional.ofNullable(snapshot.toolsByCode().get(normalize(toolCode)));
+    }
+
+    /**
+     * @return immutable snapshot of every tool in the repository, unaffected by later writes
+     */
+    @Override
+    public List<Tool> findAll() {
+        return snapshot.tools();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void upsert(Tool tool) {
+        upsertAll(List.of(tool));
+    }
+
+    /**
+     * Adds or updates many tools, publishing them all at once.
+     *
+     * @param tools tools to add
+     */
+    public void upsertAll(Collection<Tool> tools) {
+        synchronized (writeLock) {
+            var toolsByCode = new HashMap<>(snapshot.toolsByCode());
+            tools.forEach(tool -> toolsByCode.put(normalize(tool.getCode()), tool));
+            snapshot = Snapshot.of(toolsByCode);
+        }
+    }
+
+    /**
+     * Removes the tool with the same code as the given tool, if present.
+     *
+     * @param tool tool to remove
+     */
+    @Override
+    public void remove(Tool tool) {
+        var code = normalize(tool.getCode());
+        synchronized (writeLock) {
+            if (!snapshot.toolsByCode().containsKey(code)) {
+                return;
+            }
+            var toolsByCode = new HashMap<>(snapshot.toolsByCode());
+            toolsByCode.remove(code);
+            snapshot = Snapshot.of(toolsByCode);
+        }
+    }
+
+    /**
+     * Upper-cases ASCII tool codes, returning the code itself when there is nothing to change
+     */
+    private static String normalize(String toolCode) {
+        for (int i = 0; i < toolCode.length(); i++) {
+            var c = toolCode.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                return toolCode.toUpperCase(Locale.ROOT);
+            }
+        }
+        return toolCode;
+    }
+}
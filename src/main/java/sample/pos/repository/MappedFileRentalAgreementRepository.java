@@ -0,0 +1,697 @@
+package sample.pos.repository;
+
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.RentalAgreement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * RentalAgreementRepository backed by append-only, memory-mapped segment files.
+ * <p>
+ * Each segment file is a fixed size, starting with a header (magic number and format version), followed by records:
+ * <pre>
+ *     int  payload length
+ *     int  CRC32C of payload
+ *     payload:
+ *         long   agreement id
+ *         short  tool code length,  tool code (UTF-8)
+ *         short  tool type length,  tool type (UTF-8)
+ *         short  tool brand length, tool brand (UTF-8)
+ *         int    rental days
+ *         int    checkout date (epoch day)
+ *         int    due date (epoch day)
+ *         long   daily rental charge (cents)
+ *         int    charge days
+ *         long   pre-discount charge (cents)
+ *         int    discount percent
+ *         long   discount amount (cents)
+ *         long   final charge (cents)
+ *         byte   charge rules ({@link ChargeRules#toFlags}); absent from records written before they were captured
+ * </pre>
+ * When a record does not fit in the current segment, a new segment is started. An in-memory index maps each
+ * agreement id to its segment and offset, so lookups go straight to the record.
+ * <p>
+ * On open, the segments are scanned to rebuild the index. The scan stops at the first empty, torn or corrupt
+ * (CRC mismatch) record in the last segment, which becomes the new write position; anything past it is wiped.
+ * A last segment left without its header (a crash while it was being created) is empty, and gets its header then.
+ * <p>
+ * Durability uses group commit: {@link #save} copies the record into the mapped segment, then waits until a
+ * {@code force()} covers it. Only one thread forces at a time, and each force covers every record appended so far,
+ * so concurrent savers share a single flush rather than paying for one each.
+ * <p>
+ * Returns are marked in a separate append-only file ({@value #RETURNS_FILE}, created on the first return), one
+ * record per returned agreement, each forced before {@link #markReturned} returns:
+ * <pre>
+ *     long agreement id
+ *     int  return date (epoch day)
+ *     int  CRC32C of the id and date
+ * </pre>
+ * On open, marks are read back into memory, up to the first torn or corrupt record.
+ */
+public class MappedFileRentalAgreementRepository implements RentalAgreementRepository, Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int MAGIC = 0x52414753; // "RAGS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final String SEGMENT_PREFIX = "agreements-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+    private static final String RETURNS_FILE = "returns.log";
+    private static final int RETURN_RECORD_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    /**
+     * A single mapped segment file. forcedPosition is written by the thread currently forcing, and by
+     * {@link #rollSegment} (under appendLock) when the segment is sealed. The two may race on the segment being
+     * sealed; either value is harmless, since a sealed segment is already fully forced and never forced again.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int forcedPosition;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+
+    /**
+     * Segments in order, republished whenever a segment is added
+     */
+    private volatile Segment[] segments;
+
+    /**
+     * offsets[id - 1] = (segment number << 32) | position of record; republished whenever it grows
+     */
+    private volatile long[] offsets;
+
+    /**
+     * Number of agreements appended; written after the index entry, so readers seeing id <= count see its offset
+     */
+    private volatile long count;
+
+    // writer state, guarded by appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Segment activeSegment;
+    private int writePosition;
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+    private final CRC32C crc = new CRC32C();
+    private boolean closed;
+
+    // durability state, guarded by durabilityLock
+    private final ReentrantLock durabilityLock = new ReentrantLock();
+    private final Condition forceCompleted = durabilityLock.newCondition();
+    private long durableCount;
+    private boolean forcing;
+
+    // return marks; the file and its position are guarded by returnLock
+    private final ReentrantLock returnLock = new ReentrantLock();
+    private final Map<Long, LocalDate> returnDates = new ConcurrentHashMap<>();
+    private FileChannel returnsChannel;
+    private long returnsPosition;
+    private boolean returnsClosed;
+
+    private MappedFileRentalAgreementRepository(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens (or creates) a repository in the given directory, with default sized segments
+     *
+     * @see #open(Path, int)
+     */
+    public static MappedFileRentalAgreementRepository open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens (or creates) a repository in the given directory, recovering any agreements already stored there.
+     *
+     * @param directory   directory holding the segment files
+     * @param segmentSize size of newly created segment files, in bytes
+     * @return opened repository
+     * @throws IOException if the segments cannot be read, or a segment other than the last is corrupt
+     */
+    public static MappedFileRentalAgreementRepository open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+
+        var repository = new MappedFileRentalAgreementRepository(directory, segmentSize);
+        repository.recover();
+        repository.recoverReturns();
+        return repository;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException  if the agreement could not be written or forced to disk
+     * @throws IllegalStateException if the repository has been closed
+     */
+    @Override
+    public long save(RentalAgreement rentalAgreement) {
+        long id;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Repository has been closed");
+            }
+            id = count + 1;
+            append(id, rentalAgreement);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        awaitDurable(id);
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<RentalAgreement> findById(long agreementId) {
+        // count must be read before offsets; see count
+        if (agreementId < 1 || agreementId > count) {
+            return Optional.empty();
+        }
+        var offset = offsets[(int) (agreementId - 1)];
+        var buffer = segments[(int) (offset >>> 32)].buffer;
+        var position = (int) offset;
+
+        var payload = new byte[buffer.getInt(position)];
+        buffer.get(position + RECORD_HEADER_SIZE, payload);
+        return Optional.of(decode(ByteBuffer.wrap(payload)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long count() {
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException  if the mark could not be written or forced to disk
+     * @throws IllegalStateException if the repository has been closed
+     */
+    @Override
+    public LocalDate markReturned(long agreementId, LocalDate returnDate) {
+        Objects.requireNonNull(returnDate);
+        if (agreementId < 1 || agreementId > count) {
+            throw new IllegalArgumentException("Unknown agreement id: " + agreementId);
+        }
+        returnLock.lock();
+        try {
+            if (returnsClosed) {
+                throw new IllegalStateException("Repository has been closed");
+            }
+            var existing = returnDates.get(agreementId);
+            if (existing != null) {
+                return existing;
+            }
+            if (returnsChannel == null) {
+                returnsChannel = FileChannel.open(directory.resolve(RETURNS_FILE), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+
+            var record = ByteBuffer.allocate(RETURN_RECORD_SIZE)
+                    .putLong(agreementId)
+                    .putInt(Math.toIntExact(returnDate.toEpochDay()));
+            var returnCrc = new CRC32C();
+            returnCrc.update(record.array(), 0, record.position());
+            record.putInt((int) returnCrc.getValue()).flip();
+            while (record.hasRemaining()) {
+                returnsPosition += returnsChannel.write(record, returnsPosition);
+            }
+            returnsChannel.force(false);
+
+            returnDates.put(agreementId, returnDate);
+            return returnDate;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            returnLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<LocalDate> findReturnDate(long agreementId) {
+        return Optional.ofNullable(returnDates.get(agreementId));
+    }
+
+    /**
+     * Forces any outstanding records to disk and closes the segment and return files.
+     */
+    @Override
+    public void close() throws IOException {
+        returnLock.lock();
+        try {
+            returnsClosed = true;
+            if (returnsChannel != null) {
+                returnsChannel.close();
+            }
+        } finally {
+            returnLock.unlock();
+        }
+
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            activeSegment.buffer.force();
+
+            IOException failure = null;
+            for (var segment : segments) {
+                try {
+                    segment.channel.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Encodes the record into the active segment (rolling to a new segment if needed), and indexes it.
+     * Must hold appendLock.
+     */
+    private void append(long id, RentalAgreement rentalAgreement) throws IOException {
+        var payloadLength = encodePayload(id, rentalAgreement);
+        var recordSize = RECORD_HEADER_SIZE + payloadLength;
+        if (SEGMENT_HEADER_SIZE + recordSize > segmentSize) {
+            throw new IllegalArgumentException("Agreement too large for segment size: " + recordSize);
+        }
+        if (writePosition + recordSize > segmentSize) {
+            rollSegment();
+        }
+
+        crc.reset();
+        crc.update(scratch.array(), 0, payloadLength);
+
+        var buffer = activeSegment.buffer;
+        buffer.putInt(writePosition + Integer.BYTES, (int) crc.getValue());
+        buffer.put(writePosition + RECORD_HEADER_SIZE, scratch.array(), 0, payloadLength);
+        // length goes in last, so a record is never visible to recovery with a length but no payload
+        buffer.putInt(writePosition, payloadLength);
+
+        index(id, segments.length - 1, writePosition);
+        writePosition += recordSize;
+        count = id;
+    }
+
+    /**
+     * Encodes the record payload into scratch, growing scratch as needed. Must hold appendLock.
+     *
+     * @return payload length
+     */
+    private int encodePayload(long id, RentalAgreement rentalAgreement) {
+        while (true) {
+            try {
+                scratch.clear();
+                encode(id, rentalAgreement, scratch);
+                return scratch.position();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Adds an offset to the index, growing it as needed. Must hold appendLock.
+     */
+    private void index(long id, int segmentNumber, int position) {
+        var current = offsets;
+        var slot = (int) (id - 1);
+        if (slot >= current.length) {
+            // readers holding the old array only look up ids it already contains
+            current = Arrays.copyOf(current, current.length * 2);
+            current[slot] = ((long) segmentNumber << 32) | position;
+            offsets = current;
+        } else {
+            current[slot] = ((long) segmentNumber << 32) | position;
+        }
+    }
+
+    /**
+     * Forces the full active segment to disk, and starts a new one. Must hold appendLock.
+     */
+    private void rollSegment() throws IOException {
+        activeSegment.buffer.force();
+        activeSegment.forcedPosition = writePosition;
+
+        var segment = createSegment(segments.length);
+        var updated = Arrays.copyOf(segments, segments.length + 1);
+        updated[updated.length - 1] = segment;
+        segments = updated;
+
+        activeSegment = segment;
+        writePosition = SEGMENT_HEADER_SIZE;
+    }
+
+    /**
+     * Waits until a force covers the given id, forcing on behalf of every waiting thread if no force is running.
+     */
+    private void awaitDurable(long id) {
+        durabilityLock.lock();
+        try {
+            while (durableCount < id) {
+                if (forcing) {
+                    forceCompleted.awaitUninterruptibly();
+                    continue;
+                }
+
+                forcing = true;
+                durabilityLock.unlock();
+                long forcedCount = -1;
+                try {
+                    forcedCount = forceAppended();
+                } finally {
+                    durabilityLock.lock();
+                    forcing = false;
+                    if (forcedCount > durableCount) {
+                        durableCount = forcedCount;
+                    }
+                    forceCompleted.signalAll();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            durabilityLock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything appended to the active segment so far.
+     * Earlier segments were fully forced when they were rolled.
+     *
+     * @return number of agreements now durable
+     */
+    private long forceAppended() throws IOException {
+        Segment segment;
+        int position;
+        long appended;
+        appendLock.lock();
+        try {
+            segment = activeSegment;
+            position = writePosition;
+            appended = count;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (position > segment.forcedPosition) {
+            segment.buffer.force(segment.forcedPosition, position - segment.forcedPosition);
+            segment.forcedPosition = position;
+        }
+        return appended;
+    }
+
+    /**
+     * Rebuilds the index from the segment files, and positions the writer after the last intact record.
+     */
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (var files = Files.list(directory)) {
+            paths = files.filter(path -> {
+                        var name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+
+        var recovered = new ArrayList<Segment>();
+        offsets = new long[INITIAL_INDEX_CAPACITY];
+        long recoveredCount = 0;
+        var scanCrc = new CRC32C();
+
+        for (int segmentNumber = 0; segmentNumber < paths.size(); segmentNumber++) {
+            var segment = openSegment(paths.get(segmentNumber), segmentNumber == paths.size() - 1);
+            recovered.add(segment);
+            var buffer = segment.buffer;
+
+            int position = SEGMENT_HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+                var length = buffer.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                    break;
+                }
+
+                var payload = new byte[length];
+                buffer.get(position + RECORD_HEADER_SIZE, payload);
+                scanCrc.reset();
+                scanCrc.update(payload);
+                if ((int) scanCrc.getValue() != buffer.getInt(position + Integer.BYTES)
+                        || ByteBuffer.wrap(payload).getLong() != recoveredCount + 1) {
+                    break;
+                }
+
+                recoveredCount++;
+                index(recoveredCount, segmentNumber, position);
+                position += RECORD_HEADER_SIZE + length;
+            }
+
+            var isLast = segmentNumber == paths.size() - 1;
+            if (!isLast && !isEmptyFrom(buffer, position)) {
+                throw new IOException("Corrupt record in segment %s at offset %d".formatted(segment.path, position));
+            }
+            if (isLast) {
+                wipeFrom(buffer, position);
+                activeSegment = segment;
+                writePosition = position;
+            }
+            segment.forcedPosition = position;
+        }
+
+        if (recovered.isEmpty()) {
+            activeSegment = createSegment(0);
+            writePosition = SEGMENT_HEADER_SIZE;
+            recovered.add(activeSegment);
+        }
+
+        segments = recovered.toArray(Segment[]::new);
+        durableCount = recoveredCount;
+        count = recoveredCount;
+    }
+
+    /**
+     * Reads the return marks back into memory, and positions the return file after the last intact mark.
+     * Marks for agreements lost from the segments (ie, torn on a crash) are skipped.
+     */
+    private void recoverReturns() throws IOException {
+        var path = directory.resolve(RETURNS_FILE);
+        if (!Files.exists(path)) {
+            return;
+        }
+        returnsChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var bytes = ByteBuffer.allocate(Math.toIntExact(returnsChannel.size()));
+        while (bytes.hasRemaining() && returnsChannel.read(bytes, bytes.position()) > 0) {
+            // read the whole file
+        }
+        bytes.flip();
+
+        var scanCrc = new CRC32C();
+        while (bytes.remaining() >= RETURN_RECORD_SIZE) {
+            var start = bytes.position();
+            var agreementId = bytes.getLong();
+            var epochDay = bytes.getInt();
+            scanCrc.reset();
+            scanCrc.update(bytes.array(), start, Long.BYTES + Integer.BYTES);
+            if ((int) scanCrc.getValue() != bytes.getInt()) {
+                bytes.position(start);
+                break;
+            }
+            if (agreementId >= 1 && agreementId <= count) {
+                returnDates.putIfAbsent(agreementId, LocalDate.ofEpochDay(epochDay));
+            }
+        }
+
+        // drop a torn tail, so the next mark starts on a record boundary
+        returnsPosition = bytes.position();
+        if (returnsChannel.size() > returnsPosition) {
+            returnsChannel.truncate(returnsPosition);
+            returnsChannel.force(false);
+        }
+    }
+
+    private Segment createSegment(int segmentNumber) throws IOException {
+        var path = directory.resolve("%s%010d%s".formatted(SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return initializeSegment(path, channel);
+    }
+
+    /**
+     * Maps a new (or never initialized) segment file at the segment size, and writes and forces its header
+     */
+    private Segment initializeSegment(Path path, FileChannel channel) throws IOException {
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, FORMAT_VERSION);
+        buffer.force(0, SEGMENT_HEADER_SIZE);
+
+        var segment = new Segment(path, channel, buffer);
+        segment.forcedPosition = SEGMENT_HEADER_SIZE;
+        return segment;
+    }
+
+    /**
+     * @param isLast whether this is the last segment; a crash while creating it may have left it without a header
+     *               (empty, or zero-filled), in which case it holds no records and is initialized as a new segment
+     */
+    private Segment openSegment(Path path, boolean isLast) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (isLast && isEmptyFrom(buffer, 0)) {
+            return initializeSegment(path, channel);
+        }
+        if (buffer.capacity() < SEGMENT_HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a rental agreement segment: " + path);
+        }
+        if (buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Unsupported segment format version %d: %s".formatted(buffer.getInt(Integer.BYTES), path));
+        }
+        return new Segment(path, channel, buffer);
+    }
+
+    private static boolean isEmptyFrom(MappedByteBuffer buffer, int position) {
+        for (int i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Zeroes out a torn tail, so later scans do not mistake leftover bytes for records
+     */
+    private static void wipeFrom(MappedByteBuffer buffer, int position) {
+        if (isEmptyFrom(buffer, position)) {
+            return;
+        }
+        for (int i = position; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force(position, buffer.capacity() - position);
+    }
+
+    private static void encode(long id, RentalAgreement rentalAgreement, ByteBuffer out) {
+        out.putLong(id);
+        putString(out, rentalAgreement.getToolCode());
+        putString(out, rentalAgreement.getToolType());
+        putString(out, rentalAgreement.getToolBrand());
+        out.putInt(rentalAgreement.getRentalDays());
+        out.putInt(Math.toIntExact(rentalAgreement.getCheckoutDate().toEpochDay()));
+        out.putInt(Math.toIntExact(rentalAgreement.getDueDate().toEpochDay()));
+        out.putLong(rentalAgreement.getDailyRentalChargeCents());
+        out.putInt(rentalAgreement.getChargeDays());
+        out.putLong(rentalAgreement.getPreDiscountChargeCents());
+        out.putInt(rentalAgreement.getDiscountPercent());
+        out.putLong(rentalAgreement.getDiscountAmountCents());
+        out.putLong(rentalAgreement.getFinalChargeCents());
+        out.put(ChargeRules.toFlags(rentalAgreement.getChargeRules()));
+    }
+
+    private static RentalAgreement decode(ByteBuffer in) {
+        in.getLong(); // id
+        return RentalAgreement.builder()
+                .toolCode(getString(in))
+                .toolType(getString(in))
+                .toolBrand(getString(in))
+                .rentalDays(in.getInt())
+                .checkoutDate(LocalDate.ofEpochDay(in.getInt()))
+                .dueDate(LocalDate.ofEpochDay(in.getInt()))
+                .dailyRentalChargeCents(in.getLong())
+                .chargeDays(in.getInt())
+                .preDiscountChargeCents(in.getLong())
+                .discountPercent(in.getInt())
+                .discountAmountCents(in.getLong())
+                .finalChargeCents(in.getLong())
+                .chargeRules(in.hasRemaining() ? ChargeRules.fromFlags(in.get()) : null)
+                .build();
+    }
+
+    /**
+     * Writes a short length prefix (-1 for null) followed by the UTF-8 bytes
+     */
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long to store: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        var length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        var value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,248 @@
+package sample.pos.repository;
+
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-only tool catalog for large (multi-store) inventories, keyed by 4-character tool codes packed into an int.
+ * <p>
+ * Each code's four ASCII characters are upper-cased and packed one per byte, and tools are stored in an
+ * open-addressing table (parallel int key and Tool arrays, linear probing). Lookups are case-insensitive and
+ * allocate nothing beyond the returned Optional; entries cost an int key and a Tool reference in the table.
+ * Brand Strings are de-duplicated while loading, so tools of the same brand share one String.
+ * <p>
+ * The catalog is immutable once built, and is safe to share across threads. To change inventory, load a new
+ * catalog (or use {@link ConcurrentToolRepository}).
+ */
+public class PackedToolCatalog implements ToolRepository {
+
+    /**
+     * Number of characters in every tool code
+     */
+    public static final int CODE_LENGTH = 4;
+
+    /**
+     * Packed value returned for codes that cannot be packed; never used by a valid code
+     */
+    public static final int INVALID_CODE = 0;
+
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    private static final char COMMENT = '#';
+
+    private static final char SEPARATOR = ',';
+
+    /**
+     * Packed codes, INVALID_CODE marking an empty slot
+     */
+    private final int[] keys;
+
+    private final Tool[] tools;
+
+    /**
+     * keys.length - 1; keys.length is always a power of 2
+     */
+    private final int mask;
+
+    private final int size;
+
+    public PackedToolCatalog(Collection<Tool> tools) {
+        var capacity = Integer.highestOneBit((int) Math.max(2, Math.ceil(tools.size() / MAX_LOAD_FACTOR)) * 2 - 1);
+        this.keys = new int[capacity];
+        this.tools = new Tool[capacity];
+        this.mask = capacity - 1;
+
+        int count = 0;
+        for (var tool : tools) {
+            var key = pack(tool.getCode());
+            if (key == INVALID_CODE) {
+                throw new IllegalArgumentException("Tool code must be %d printable ASCII characters: <%s>".formatted(CODE_LENGTH, tool.getCode()));
+            }
+            if (insert(key, tool)) {
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    /**
+     * Loads a catalog from a flat file, with one tool per line as {@code CODE,TOOL_TYPE,Brand}
+     * <pre>
+     *     # comments and blank lines are skipped
+     *     CHNS,CHAINSAW,Stihl
+     *     LADW,LADDER,Werner
+     * </pre>
+     * Later lines replace earlier lines with the same code.
+     *
+     * @param path flat file to load
+     * @return loaded catalog
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static PackedToolCatalog load(Path path) throws IOException {
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * @see #load(Path)
+     */
+    public static PackedToolCatalog load(BufferedReader reader) throws IOException {
+        var tools = new ArrayList<Tool>();
+        Map<String, String> brands = new HashMap<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.charAt(0) == COMMENT) {
+                continue;
+            }
+
+            var firstSeparator = line.indexOf(SEPARATOR);
+            var secondSeparator = firstSeparator < 0 ? -1 : line.indexOf(SEPARATOR, firstSeparator + 1);
+            if (secondSeparator < 0) {
+                throw new IllegalArgumentException("Line %d: expected CODE,TOOL_TYPE,Brand: <%s>".formatted(lineNumber, line));
+            }
+
+            ToolType type;
+            try {
+                type = ToolType.valueOf(line.substring(firstSeparator + 1, secondSeparator).strip());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line %d: unknown tool type: <%s>".formatted(lineNumber, line), e);
+            }
+
+            var brand = line.substring(secondSeparator + 1).strip();
+            tools.add(Tool.builder()
+                    .code(line.substring(0, firstSeparator).strip())
+                    .type(type)
+                    .brand(brands.computeIfAbsent(brand, b -> b))
+                    .build());
+        }
+        return new PackedToolCatalog(tools);
+    }
+
+    /**
+     * Packs a tool code into an int, upper-casing ASCII letters (ie, "chns" and "CHNS" pack the same).
+     *
+     * @param code tool code
+     * @return packed code, or {@link #INVALID_CODE} if the code is not 4 printable ASCII characters
+     */
+    public static int pack(CharSequence code) {
+        if (code.length() != CODE_LENGTH) {
+            return INVALID_CODE;
+        }
+        int packed = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            int c = code.charAt(i);
+            if (c <= ' ' || c > '~') {
+                return INVALID_CODE;
+            }
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            }
+            packed = (packed << 8) | c;
+        }
+        return packed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lookup is case-insensitive.
+     */
+    @Override
+    public Optional<Tool> findByToolCode(String toolCode) {
+        Objects.requireNonNull(toolCode);
+        return Optional.ofNullable(findByPackedCode(pack(toolCode)));
+    }
+
+    /**
+     * Looks up a tool by its packed code, without allocating.
+     *
+     * @param packedCode code from {@link #pack}
+     * @return tool, or null if not in the catalog
+     */
+    public Tool findByPackedCode(int packedCode) {
+        if (packedCode == INVALID_CODE) {
+            return null;
+        }
+        for (int slot = slot(packedCode); ; slot = (slot + 1) & mask) {
+            var key = keys[slot];
+            if (key == packedCode) {
+                return tools[slot];
+            }
+            if (key == INVALID_CODE) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Lists every tool in the catalog. The list is built on each call, rather than held alongside the table.
+     *
+     * @return unmodifiable list of every tool in the catalog
+     */
+    @Override
+    public List<Tool> findAll() {
+        var all = new ArrayList<Tool>(size);
+        for (var tool : tools) {
+            if (tool != null) {
+                all.add(tool);
+            }
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * @return number of tools in the catalog
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return estimated heap footprint of the lookup table (keys and references, not the Tool objects themselves)
+     */
+    public long tableFootprintBytes() {
+        // 16 byte array headers; 4 byte references assume compressed oops
+        return 2L * (16 + 4L * keys.length);
+    }
+
+    /**
+     * @return true if the tool was added, false if it replaced a tool with the same code
+     */
+    private boolean insert(int key, Tool tool) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == INVALID_CODE) {
+                keys[slot] = key;
+                tools[slot] = tool;
+                return true;
+            }
+            if (keys[slot] == key) {
+                tools[slot] = tool;
+                return false;
+            }
+        }
+    }
+
+    private int slot(int key) {
+        // fibonacci hashing spreads the (highly regular) packed ASCII bytes across the table
+        return (key * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(keys.length)) & mask;
+    }
+}
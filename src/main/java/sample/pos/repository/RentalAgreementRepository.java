@@ -0,0 +1,52 @@
+package sample.pos.repository;
+
+import sample.pos.domain.RentalAgreement;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Interface for storing and retrieving completed RentalAgreements.
+ * <p>
+ * Agreements are append-only; once saved, an agreement is identified by the id assigned to it by the repository.
+ * An agreement may be marked as returned, once, so returns are recognized as repeats after a restart.
+ */
+public interface RentalAgreementRepository {
+
+    /**
+     * Stores the rental agreement. The agreement is durable once this returns.
+     *
+     * @param rentalAgreement agreement to store
+     * @return id assigned to the agreement (ids start at 1 and increase by 1 with each agreement)
+     */
+    long save(RentalAgreement rentalAgreement);
+
+    /**
+     * Return rental agreement from repository, if available.  Wrap in optional
+     *
+     * @param agreementId id returned when the agreement was saved
+     * @return Optional(agreement) | Optional(empty)
+     */
+    Optional<RentalAgreement> findById(long agreementId);
+
+    /**
+     * @return number of agreements stored
+     */
+    long count();
+
+    /**
+     * Marks the agreement as returned on the date, unless it was already marked. The mark is durable once this returns.
+     *
+     * @param agreementId id returned when the agreement was saved
+     * @param returnDate  date the tool came back
+     * @return the agreement's return date: the given date, or the date it was already marked with
+     * @throws IllegalArgumentException if no agreement has the id
+     */
+    LocalDate markReturned(long agreementId, LocalDate returnDate);
+
+    /**
+     * @param agreementId id returned when the agreement was saved
+     * @return Optional(return date) | Optional(empty), if the agreement has not been returned (or does not exist)
+     */
+    Optional<LocalDate> findReturnDate(long agreementId);
+}
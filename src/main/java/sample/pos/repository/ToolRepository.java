@@ -16,6 +16,8 @@ import java.util.Optional;
  * I added default add/remove/findall logic here with no-ops, just because a 'Repository' that
  * doesn't offer these behaviors is very unrealistic. At least have no-ops documents fuller behavior
  * from a repo
+ * <p>
+ * {@link ConcurrentToolRepository} implements the full set of behaviors, for inventory that changes at runtime.
  */
 public interface ToolRepository {
 
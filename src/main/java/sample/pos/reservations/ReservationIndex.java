@@ -0,0 +1,283 @@
+package sample.pos.reservations;
+
+import sample.pos.domain.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tool index of reservations, for detecting conflicting bookings of the same physical tool.
+ * <p>
+ * Each reservation covers [checkoutDate, dueDate): a tool due back on a date may be checked out again that day.
+ * <p>
+ * Reservations for a tool never overlap (conflicting reservations are refused), so they are held as parallel
+ * sorted arrays of start and end epoch days. Sorting by start also sorts by end, so the only reservation that can
+ * overlap a window is the last one starting before the window ends, found by binary search: availability checks
+ * are O(log n) in the tool's reservation count.
+ * <p>
+ * Each tool's arrays are an immutable snapshot, published through a volatile field (copy-on-write). Availability
+ * checks read the snapshot without locking. Reserve, release, shorten and prune lock only one tool at a time, so
+ * bookings of different tools proceed in parallel, and the check-then-insert of a reservation is atomic.
+ * <p>
+ * Reservations stay in the index after they end (a timely return neither releases nor shortens them), so call
+ * {@link #prune} on a schedule (ie, daily, with today's date) to keep each tool's arrays to its current and future
+ * bookings; otherwise they grow with the tool's whole rental history, and so does the cost of each reservation.
+ */
+public class ReservationIndex {
+
+    /**
+     * Immutable, sorted reservations for one tool
+     */
+    private record Intervals(int[] starts, int[] ends) {
+
+        private static final Intervals EMPTY = new Intervals(new int[0], new int[0]);
+
+        /**
+         * @return index of the last reservation starting before the given day, or -1
+         */
+        int lastStartingBefore(int day) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                var mid = (low + high) >>> 1;
+                if (starts[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        boolean overlaps(int start, int end) {
+            var candidate = lastStartingBefore(end);
+            return candidate >= 0 && ends[candidate] > start;
+        }
+
+        Intervals insert(int index, int start, int end) {
+            var newStarts = new int[starts.length + 1];
+            var newEnds = new int[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            newStarts[index] = start;
+            newEnds[index] = end;
+            System.arraycopy(starts, index, newStarts, index + 1, starts.length - index);
+            System.arraycopy(ends, index, newEnds, index + 1, ends.length - index);
+            return new Intervals(newStarts, newEnds);
+        }
+
+        Intervals remove(int index) {
+            var newStarts = new int[starts.length - 1];
+            var newEnds = new int[ends.length - 1];
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            System.arraycopy(starts, index + 1, newStarts, index, starts.length - index - 1);
+            System.arraycopy(ends, index + 1, newEnds, index, ends.length - index - 1);
+            return new Intervals(newStarts, newEnds);
+        }
+
+        /**
+         * @return number of reservations ending on or before the given day (a prefix, as ends are sorted too)
+         */
+        int endingBy(int day) {
+            int low = 0;
+            int high = ends.length - 1;
+            while (low <= high) {
+                var mid = (low + high) >>> 1;
+                if (ends[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        Intervals dropFirst(int count) {
+            return new Intervals(Arrays.copyOfRange(starts, count, starts.length), Arrays.copyOfRange(ends, count, ends.length));
+        }
+
+        Intervals withEnd(int index, int end) {
+            var newEnds = ends.clone();
+            newEnds[index] = end;
+            return new Intervals(starts, newEnds);
+        }
+    }
+
+    /**
+     * Reservations for one tool; writers synchronize on the instance
+     */
+    private static final class ToolReservations {
+        private volatile Intervals intervals = Intervals.EMPTY;
+    }
+
+    private final Map<String, ToolReservations> reservationsByTool = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether the tool is free for the whole window
+     *
+     * @param toolCode     tool code
+     * @param checkoutDate first day of the window
+     * @param dueDate      day the window ends (not included)
+     * @return true if no reservation overlaps the window
+     */
+    public boolean isAvailable(String toolCode, LocalDate checkoutDate, LocalDate dueDate) {
+        var start = epochDay(checkoutDate);
+        var end = epochDay(dueDate);
+        requireWindow(start, end);
+
+        var reservations = reservationsByTool.get(toolCode);
+        return reservations == null || !reservations.intervals.overlaps(start, end);
+    }
+
+    /**
+     * Reserves the tool for the window, if no reservation overlaps it.
+     *
+     * @param toolCode     tool code
+     * @param checkoutDate first day of the window
+     * @param dueDate      day the window ends (not included)
+     * @return Optional(reservation) | Optional(empty), if the window conflicts with an existing reservation
+     */
+    public Optional<Reservation> tryReserve(String toolCode, LocalDate checkoutDate, LocalDate dueDate) {
+        Objects.requireNonNull(toolCode);
+        var start = epochDay(checkoutDate);
+        var end = epochDay(dueDate);
+        requireWindow(start, end);
+
+        var reservations = reservationsByTool.computeIfAbsent(toolCode, code -> new ToolReservations());
+        synchronized (reservations) {
+            var intervals = reservations.intervals;
+            if (intervals.overlaps(start, end)) {
+                return Optional.empty();
+            }
+            // every later reservation starts at or after this one ends
+            reservations.intervals = intervals.insert(intervals.lastStartingBefore(end) + 1, start, end);
+        }
+        return Optional.of(Reservation.builder()
+                .toolCode(toolCode)
+                .checkoutDate(checkoutDate)
+                .dueDate(dueDate)
+                .build());
+    }
+
+    /**
+     * Releases a reservation (ie, on cancellation)
+     *
+     * @param reservation reservation from {@link #tryReserve}
+     * @return true if the reservation was found and released
+     */
+    public boolean release(Reservation reservation) {
+        var reservations = reservationsByTool.get(reservation.getToolCode());
+        if (reservations == null) {
+            return false;
+        }
+        var start = epochDay(reservation.getCheckoutDate());
+        var end = epochDay(reservation.getDueDate());
+
+        synchronized (reservations) {
+            var intervals = reservations.intervals;
+            var index = intervals.lastStartingBefore(start + 1);
+            if (index < 0 || intervals.starts()[index] != start || intervals.ends()[index] != end) {
+                return false;
+            }
+            reservations.intervals = intervals.remove(index);
+            return true;
+        }
+    }
+
+    /**
+     * Ends a reservation early (ie, on an early return), freeing the rest of its window. Ending it on or before
+     * its checkout date releases it.
+     *
+     * @param reservation reservation from {@link #tryReserve}
+     * @param newDueDate  day the reservation now ends (not included)
+     * @return true if the reservation was found and shortened (or released); false if it was not found, or does
+     * not end after the new due date
+     */
+    public boolean shorten(Reservation reservation, LocalDate newDueDate) {
+        var reservations = reservationsByTool.get(reservation.getToolCode());
+        if (reservations == null) {
+            return false;
+        }
+        var start = epochDay(reservation.getCheckoutDate());
+        var end = epochDay(reservation.getDueDate());
+        var newEnd = epochDay(newDueDate);
+        if (newEnd >= end) {
+            return false;
+        }
+
+        synchronized (reservations) {
+            var intervals = reservations.intervals;
+            var index = intervals.lastStartingBefore(start + 1);
+            if (index < 0 || intervals.starts()[index] != start || intervals.ends()[index] != end) {
+                return false;
+            }
+            // a shorter window overlaps nothing the original did not
+            reservations.intervals = newEnd <= start ? intervals.remove(index) : intervals.withEnd(index, newEnd);
+            return true;
+        }
+    }
+
+    /**
+     * Drops reservations that ended on or before the given date, which can no longer conflict with a booking from
+     * that date on
+     *
+     * @param date first day still of interest (ie, today)
+     * @return number of reservations dropped
+     */
+    public int prune(LocalDate date) {
+        var day = epochDay(date);
+        var pruned = 0;
+        for (var reservations : reservationsByTool.values()) {
+            // checked without the lock first, so tools with nothing to drop are not locked
+            if (reservations.intervals.endingBy(day) == 0) {
+                continue;
+            }
+            synchronized (reservations) {
+                var intervals = reservations.intervals;
+                var ended = intervals.endingBy(day);
+                reservations.intervals = intervals.dropFirst(ended);
+                pruned += ended;
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * @param toolCode tool code
+     * @return the tool's reservations, in date order
+     */
+    public List<Reservation> findReservations(String toolCode) {
+        var reservations = reservationsByTool.get(toolCode);
+        if (reservations == null) {
+            return List.of();
+        }
+        var intervals = reservations.intervals;
+        var found = new ArrayList<Reservation>(intervals.starts().length);
+        for (int i = 0; i < intervals.starts().length; i++) {
+            found.add(Reservation.builder()
+                    .toolCode(toolCode)
+                    .checkoutDate(LocalDate.ofEpochDay(intervals.starts()[i]))
+                    .dueDate(LocalDate.ofEpochDay(intervals.ends()[i]))
+                    .build());
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private static void requireWindow(int start, int end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Due date must be after checkout date");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package sample.pos.service;
+
+import sample.pos.calendar.HolidayCalendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Precomputed cumulative chargeable-day counts over a fixed date horizon, one array per charge mask.
+ * <p>
+ * A charge mask combines the three ToolType flags (weekdays, weekends, holidays), so there are at most eight
+ * of them. With the cumulative counts in place, the number of charge days in any billing window within the
+ * horizon is a single subtraction.
+ * <p>
+ * Masks that charge neither weekdays nor weekends are always zero, and are not backed by an array.
+ * The index is immutable once built, and is safe to share across threads.
+ */
+public class ChargeDayIndex {
+
+    public static final int WEEKDAYS = 1;
+    public static final int WEEKENDS = 1 << 1;
+    public static final int HOLIDAYS = 1 << 2;
+
+    public static final int MASK_COUNT = 8;
+
+    /**
+     * JVM array header size used when estimating memory footprint
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final LocalDate horizonStart;
+    private final LocalDate horizonEnd;
+    private final String holidayCalendarName;
+
+    private final long firstEpochDay;
+
+    /**
+     * cumulative[mask][k] = number of chargeable days from the start of the horizon through epoch day (firstEpochDay + k - 1)
+     */
+    private final int[][] cumulative = new int[MASK_COUNT][];
+
+    /**
+     * Builds the index for every charge mask.
+     *
+     * @param holidayCalendar calendar of holidays to exclude for masks not charging holidays
+     * @param horizonStart    first date covered by the index
+     * @param horizonEnd      last date covered by the index
+     */
+    public ChargeDayIndex(HolidayCalendar holidayCalendar, LocalDate horizonStart, LocalDate horizonEnd) {
+        Objects.requireNonNull(holidayCalendar);
+        if (horizonEnd.isBefore(horizonStart)) {
+            throw new IllegalArgumentException("Horizon end must not be before horizon start");
+        }
+
+        this.horizonStart = horizonStart;
+        this.horizonEnd = horizonEnd;
+        this.holidayCalendarName = holidayCalendar.getName();
+        this.firstEpochDay = horizonStart.toEpochDay();
+
+        var days = Math.toIntExact(horizonEnd.toEpochDay() - firstEpochDay + 1);
+
+        for (int mask = 0; mask < MASK_COUNT; mask++) {
+            if ((mask & (WEEKDAYS | WEEKENDS)) != 0) {
+                cumulative[mask] = new int[days + 1];
+            }
+        }
+
+        var date = horizonStart;
+        for (int day = 0; day < days; day++, date = date.plusDays(1)) {
+            var isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            var isHoliday = holidayCalendar.isHoliday(date);
+
+            for (int mask = 0; mask < MASK_COUNT; mask++) {
+                var counts = cumulative[mask];
+                if (counts != null) {
+                    counts[day + 1] = counts[day] + (isChargeable(mask, isWeekend, isHoliday) ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Combines ToolType charge flags into a charge mask
+     */
+    public static int mask(boolean includeWeekdays, boolean includeWeekends, boolean includeHolidays) {
+        return (includeWeekdays ? WEEKDAYS : 0) | (includeWeekends ? WEEKENDS : 0) | (includeHolidays ? HOLIDAYS : 0);
+    }
+
+    private static boolean isChargeable(int mask, boolean isWeekend, boolean isHoliday) {
+        var dayOfWeekCharged = (mask & (isWeekend ? WEEKENDS : WEEKDAYS)) != 0;
+        return dayOfWeekCharged && (!isHoliday || (mask & HOLIDAYS) != 0);
+    }
+
+    /**
+     * Determines whether a billing window lies entirely within the horizon
+     *
+     * @param startExclusive checkout date, not included in the billing window
+     * @param endInclusive   last day of the billing window
+     * @return true if {@link #chargeDays} can answer for the window
+     */
+    public boolean covers(LocalDate startExclusive, LocalDate endInclusive) {
+        // the day before the horizon is covered as an exclusive start, since cumulative[0] represents it
+        return startExclusive.toEpochDay() >= firstEpochDay - 1 && !endInclusive.isAfter(horizonEnd);
+    }
+
+    /**
+     * Number of chargeable days in the window (startExclusive, endInclusive].
+     * The window must be {@link #covers covered} by the horizon.
+     *
+     * @param mask           charge mask, from {@link #mask}
+     * @param startExclusive checkout date, not included in the billing window
+     * @param endInclusive   last day of the billing window
+     * @return number of chargeable days
+     */
+    public int chargeDays(int mask, LocalDate startExclusive, LocalDate endInclusive) {
+        var counts = cumulative[mask];
+        if (counts == null) {
+            return 0;
+        }
+        return counts[(int) (endInclusive.toEpochDay() - firstEpochDay + 1)]
+                - counts[(int) (startExclusive.toEpochDay() - firstEpochDay + 1)];
+    }
+
+    /**
+     * Estimated heap footprint of the array backing a single charge mask
+     *
+     * @param mask charge mask
+     * @return estimated size in bytes (0 when the mask has no backing array)
+     */
+    public long footprintBytes(int mask) {
+        var counts = cumulative[mask];
+        return counts == null ? 0 : ARRAY_HEADER_BYTES + (long) Integer.BYTES * counts.length;
+    }
+
+    /**
+     * Renders the expected memory footprint of each charge mask as a block of text
+     *
+     * <pre>
+     *     ChargeDayIndex [Default] 1990-01-01 - 2100-12-31
+     *     mask 0 (none): 0 bytes
+     *     mask 1 (weekdays): 162,188 bytes
+     *     ...
+     *     total: 973,128 bytes
+     * </pre>
+     *
+     * @return formatted footprint report
+     */
+    public String footprintReport() {
+        var report = new StringBuilder("ChargeDayIndex [%s] %s - %s%n".formatted(holidayCalendarName, horizonStart, horizonEnd));
+        long total = 0;
+        for (int mask = 0; mask < MASK_COUNT; mask++) {
+            var bytes = footprintBytes(mask);
+            total += bytes;
+            report.append("mask %d (%s): %,d bytes%n".formatted(mask, describe(mask), bytes));
+        }
+        return report.append("total: %,d bytes%n".formatted(total)).toString();
+    }
+
+    private static String describe(int mask) {
+        var description = new StringBuilder();
+        if ((mask & WEEKDAYS) != 0) {
+            description.append("weekdays");
+        }
+        if ((mask & WEEKENDS) != 0) {
+            description.append(description.isEmpty() ? "" : ", ").append("weekends");
+        }
+        if ((mask & HOLIDAYS) != 0) {
+            description.append(description.isEmpty() ? "" : ", ").append("holidays");
+        }
+        return description.isEmpty() ? "none" : description.toString();
+    }
+}
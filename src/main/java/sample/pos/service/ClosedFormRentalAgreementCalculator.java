@@ -0,0 +1,81 @@
+package sample.pos.service;
+
+import sample.pos.calendar.HolidayCalendar;
+import sample.pos.calendar.HolidayCalendars;
+import sample.pos.pricing.PricingTableHolder;
+
+import java.time.LocalDate;
+
+/**
+ * RentalAgreementCalculator that counts charge days arithmetically, instead of streaming through each
+ * day of the rental period.
+ * <p>
+ * Weekdays and weekend days are counted from the epoch-day offsets of the billing window, and holidays
+ * are counted from the {@link HolidayCalendar}'s cached per-year bitsets (one rank per calendar year spanned).
+ * The cost of the charge day calculation does not depend on the number of days rented.
+ * <p>
+ * All monetary calculations are inherited from {@link DefaultRentalAgreementCalculator}.
+ */
+public class ClosedFormRentalAgreementCalculator extends DefaultRentalAgreementCalculator {
+
+    /**
+     * Offset applied to epoch days so that (epochDay + offset) % 7 == 0 lands on a Monday.
+     * 1970-01-01 was a Thursday.
+     */
+    private static final int MONDAY_OFFSET = 3;
+
+    public ClosedFormRentalAgreementCalculator() {
+        this(HolidayCalendars.DEFAULT);
+    }
+
+    public ClosedFormRentalAgreementCalculator(HolidayCalendar holidayCalendar) {
+        super(holidayCalendar);
+    }
+
+    public ClosedFormRentalAgreementCalculator(HolidayCalendar holidayCalendar, PricingTableHolder pricing) {
+        super(holidayCalendar, pricing);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getChargeDays(LocalDate start, int dayCount, boolean includeWeekdays, boolean includeWeekends, boolean includeHolidays) {
+
+        // NOTE: the checkout date is not counted as a charge day, but the checkin date is.
+        //       the billing window is therefore (start, start + dayCount]
+        var end = start.plusDays(dayCount);
+
+        long weekdays = weekdaysThrough(end.toEpochDay()) - weekdaysThrough(start.toEpochDay());
+        long weekends = dayCount - weekdays;
+
+        long weekdayHolidays = 0;
+        long weekendHolidays = 0;
+        if (!includeHolidays) {
+            var holidayCalendar = getHolidayCalendar();
+            weekendHolidays = holidayCalendar.countWeekendHolidays(start, end);
+            weekdayHolidays = holidayCalendar.countHolidays(start, end) - weekendHolidays;
+        }
+
+        long chargeDays = 0;
+        if (includeWeekdays) {
+            chargeDays += weekdays - weekdayHolidays;
+        }
+        if (includeWeekends) {
+            chargeDays += weekends - weekendHolidays;
+        }
+        return (int) chargeDays;
+    }
+
+    /**
+     * Running count of weekdays up to and including the given epoch day, relative to an arbitrary fixed origin.
+     * Only differences between two results are meaningful.
+     *
+     * @param epochDay day to count through
+     * @return running weekday count
+     */
+    private static long weekdaysThrough(long epochDay) {
+        long days = epochDay + MONDAY_OFFSET + 1;
+        return Math.floorDiv(days, 7) * 5 + Math.min(Math.floorMod(days, 7), 5);
+    }
+}
@@ -1,44 +1,105 @@
 package sample.pos.service;
 
+import sample.pos.calendar.HolidayCalendar;
+import sample.pos.calendar.HolidayCalendars;
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.Money;
 import sample.pos.domain.RentalAgreement;
 import sample.pos.domain.Tool;
+import sample.pos.events.CalculationEvent;
+import sample.pos.pricing.PricingTable;
+import sample.pos.pricing.PricingTableHolder;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.Month;
-import java.util.Map;
+import java.util.Objects;
 import java.util.function.Predicate;
 
+/**
+ * Calculates rental agreements, streaming through each day of the rental period to count charge days.
+ * <p>
+ * Daily charges and charge-day rules are read from the current {@link PricingTable} of a {@link PricingTableHolder},
+ * once per calculation, so prices may be republished while calculations are in flight.
+ */
 public class DefaultRentalAgreementCalculator implements RentalAgreementCalculator{
 
     private static final Predicate<LocalDate> IS_WEEKEND = ld -> ld.getDayOfWeek() == DayOfWeek.SATURDAY || ld.getDayOfWeek() == DayOfWeek.SUNDAY;
     private static final Predicate<LocalDate> IS_WEEKDAY = IS_WEEKEND.negate();
 
-    /* Helper predicates for INDEPENDENCE_DAY_WEEKEND */
-    private static final Predicate<LocalDate> _IS_FRIDAY_JULY_3 = ld -> ld.getMonth() == Month.JULY && ld.getDayOfMonth() == 3 && ld.getDayOfWeek() == DayOfWeek.FRIDAY;
-    private static final Predicate<LocalDate> _IS_MONDAY_JULY_5 = ld -> ld.getMonth() == Month.JULY && ld.getDayOfMonth() == 5 && ld.getDayOfWeek() == DayOfWeek.MONDAY;
-    /* Helper predicates for INDEPENDENCE_DAY_WEEKEND */
+    /**
+     * Calendar of observed holidays, used when a tool type does not charge on holidays
+     */
+    private final HolidayCalendar holidayCalendar;
+
+    /**
+     * Holder of the current daily charges and charge-day rules
+     */
+    private final PricingTableHolder pricing;
+
+    public DefaultRentalAgreementCalculator() {
+        this(HolidayCalendars.DEFAULT);
+    }
+
+    public DefaultRentalAgreementCalculator(HolidayCalendar holidayCalendar) {
+        this(holidayCalendar, new PricingTableHolder());
+    }
+
+    public DefaultRentalAgreementCalculator(HolidayCalendar holidayCalendar, PricingTableHolder pricing) {
+        this.holidayCalendar = holidayCalendar;
+        this.pricing = Objects.requireNonNull(pricing);
+    }
+
+    protected HolidayCalendar getHolidayCalendar() {
+        return holidayCalendar;
+    }
 
-    private static final Map<String, Predicate<LocalDate>> HOLIDAY_MAP = Map.of(
-            "LABOR_DAY", ld -> ld.getMonth() == Month.SEPTEMBER && ld.getDayOfWeek() == DayOfWeek.MONDAY && ld.getDayOfMonth() <= 7,
-            "INDEPENDENCE_DAY_WEEKDAY", IS_WEEKDAY.and(ld -> ld.getMonth() == Month.JULY && ld.getDayOfMonth() == 4),
-            "INDEPENDENCE_DAY_WEEKEND", _IS_FRIDAY_JULY_3.or(_IS_MONDAY_JULY_5)
-    );
+    /**
+     * @return current pricing table
+     */
+    protected PricingTable getPricingTable() {
+        return pricing.get();
+    }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Emits a {@link CalculationEvent}, for subclasses as well.
+     */
     @Override
     public RentalAgreement calculate(Tool tool, int dayCount, int discountPercent, LocalDate checkoutDate) {
+        var event = new CalculationEvent();
+        event.begin();
+        RentalAgreement rentalAgreement = null;
+        try {
+            rentalAgreement = calculateAgreement(tool, dayCount, discountPercent, checkoutDate);
+            return rentalAgreement;
+        } finally {
+            if (rentalAgreement != null) {
+                event.finish(rentalAgreement);
+            } else {
+                event.finish(tool == null ? null : tool.getCode(), dayCount, CalculationEvent.UNKNOWN_CHARGE_DAYS);
+            }
+        }
+    }
+
+    private RentalAgreement calculateAgreement(Tool tool, int dayCount, int discountPercent, LocalDate checkoutDate) {
 
         var toolType = tool.getType();
 
-        var chargeDays = getChargeDays(checkoutDate, dayCount, toolType.isChargeOnWeekdays(), toolType.isChargeOnWeekends(), toolType.isChargeOnHolidays());
+        // read the table once, so the rate and rules all come from the same snapshot
+        var pricingTable = pricing.get();
+
+        var chargeRules = pricingTable.getChargeRules(toolType);
+
+        var chargeDays = getChargeDays(checkoutDate, dayCount, chargeRules);
+
+        var dailyChargeCents = pricingTable.getDailyChargeCents(toolType);
 
-        var prediscount = toolType.getDailyCharge().multiply(BigDecimal.valueOf(chargeDays));
+        var prediscountCents = Money.times(dailyChargeCents, chargeDays);
 
-        var discountAmount = calculateDiscountAmount(prediscount, discountPercent);
+        var discountAmountCents = Money.percentOf(prediscountCents, discountPercent);
 
-        var finalAmount = prediscount.subtract(discountAmount);
+        var finalAmountCents = prediscountCents - discountAmountCents;
 
         return RentalAgreement.builder()
                 .toolCode(tool.getCode())
@@ -47,24 +108,24 @@ public class DefaultRentalAgreementCalculator implements RentalAgreementCalculat
                 .checkoutDate(checkoutDate)
                 .rentalDays(dayCount)
                 .dueDate(checkoutDate.plusDays(dayCount))
-                .dailyRentalCharge(toolType.getDailyCharge())
+                .dailyRentalChargeCents(dailyChargeCents)
                 .chargeDays(chargeDays)
-                .preDiscountCharge(prediscount)
+                .preDiscountChargeCents(prediscountCents)
                 .discountPercent(discountPercent)
-                .discountAmount(discountAmount)
-                .finalCharge(finalAmount)
+                .discountAmountCents(discountAmountCents)
+                .finalChargeCents(finalAmountCents)
+                .chargeRules(chargeRules)
                 .build();
     }
 
-    private BigDecimal calculateDiscountAmount(BigDecimal preDiscountAmount, int discountPercent){
-
-        // prediscountAmount * discountPercent/100 => (prediscountAmount * discountPercent)/100
-
-        // BigDecimal wrappers for computation
-        var discountPercentBD = BigDecimal.valueOf(discountPercent);
-        var by100DB = BigDecimal.valueOf(100);
-
-        return (preDiscountAmount.multiply(discountPercentBD)).divide(by100DB, RoundingMode.HALF_UP).setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Counts charge days by the given rules
+     *
+     * @see #getChargeDays(LocalDate, int, boolean, boolean, boolean)
+     */
+    protected int getChargeDays(LocalDate start, int dayCount, ChargeRules chargeRules) {
+        return getChargeDays(start, dayCount, chargeRules.chargeOnWeekdays(), chargeRules.chargeOnWeekends(),
+                chargeRules.chargeOnHolidays());
     }
 
     /**
@@ -73,6 +134,8 @@ public class DefaultRentalAgreementCalculator implements RentalAgreementCalculat
      * <p>
      * Each ToolType contains flags on whether to charge on weekdays, weekends and/or holidays.
      * Assuming weekdays are always charged, but adding flag here in case of any
+     * <p>
+     * Subclasses may override this to count the days differently, so long as the results match.
      *
      * @param start  Checkout date.  Not included in billing cycle
      * @param dayCount number of days in billing cycle
@@ -81,18 +144,17 @@ public class DefaultRentalAgreementCalculator implements RentalAgreementCalculat
      * @param includeHolidays flag to include holidays in the days to charge
      * @return total number of days to charge
      */
-    private int getChargeDays(LocalDate start, int dayCount, boolean includeWeekdays, boolean includeWeekends, boolean includeHolidays) {
+    protected int getChargeDays(LocalDate start, int dayCount, boolean includeWeekdays, boolean includeWeekends, boolean includeHolidays) {
 
         Predicate<LocalDate> weekendsExclusionPredicate = ignored -> !includeWeekends;
         Predicate<LocalDate> weekdaysExclusionPredicate  = ignored -> !includeWeekdays;
         Predicate<LocalDate> holidaysExclusionPredicate = ignored -> !includeHolidays;
 
-        Predicate<LocalDate> reducerSeed = (IS_WEEKDAY.and(weekdaysExclusionPredicate)).or(IS_WEEKEND.and(weekendsExclusionPredicate));
+        Predicate<LocalDate> dayOfWeekExclusions = (IS_WEEKDAY.and(weekdaysExclusionPredicate)).or(IS_WEEKEND.and(weekendsExclusionPredicate));
+
+        Predicate<LocalDate> isHoliday = holidayCalendar::isHoliday;
 
-        Predicate<LocalDate> exclusions = HOLIDAY_MAP.values()
-                .stream()
-                .map(pred -> pred.and(holidaysExclusionPredicate))
-                .reduce(reducerSeed, Predicate::or);
+        Predicate<LocalDate> exclusions = dayOfWeekExclusions.or(isHoliday.and(holidaysExclusionPredicate));
 
         // Stream through all days, excluding holidays, weekends or weekdays if flagged to exclude
         // NOTE: the checkout date is not counted as a charge day, but the checkin date is.
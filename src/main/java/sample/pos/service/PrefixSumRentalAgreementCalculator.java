@@ -0,0 +1,56 @@
+package sample.pos.service;
+
+import sample.pos.calendar.HolidayCalendar;
+import sample.pos.calendar.HolidayCalendars;
+import sample.pos.pricing.PricingTableHolder;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+/**
+ * RentalAgreementCalculator that looks charge days up from a precomputed {@link ChargeDayIndex}.
+ * <p>
+ * Within the index horizon, charge days are a single subtraction of cumulative counts, regardless of the
+ * checkout date or number of days rented. Billing windows falling outside the horizon fall back on the
+ * streaming logic from {@link DefaultRentalAgreementCalculator}.
+ */
+public class PrefixSumRentalAgreementCalculator extends DefaultRentalAgreementCalculator {
+
+    public static final LocalDate DEFAULT_HORIZON_START = LocalDate.of(1990, Month.JANUARY, 1);
+    public static final LocalDate DEFAULT_HORIZON_END = LocalDate.of(2100, Month.DECEMBER, 31);
+
+    private final ChargeDayIndex chargeDayIndex;
+
+    public PrefixSumRentalAgreementCalculator() {
+        this(HolidayCalendars.DEFAULT);
+    }
+
+    public PrefixSumRentalAgreementCalculator(HolidayCalendar holidayCalendar) {
+        this(holidayCalendar, DEFAULT_HORIZON_START, DEFAULT_HORIZON_END);
+    }
+
+    public PrefixSumRentalAgreementCalculator(HolidayCalendar holidayCalendar, LocalDate horizonStart, LocalDate horizonEnd) {
+        this(holidayCalendar, new PricingTableHolder(), horizonStart, horizonEnd);
+    }
+
+    public PrefixSumRentalAgreementCalculator(HolidayCalendar holidayCalendar, PricingTableHolder pricing, LocalDate horizonStart, LocalDate horizonEnd) {
+        super(holidayCalendar, pricing);
+        this.chargeDayIndex = new ChargeDayIndex(holidayCalendar, horizonStart, horizonEnd);
+    }
+
+    public ChargeDayIndex getChargeDayIndex() {
+        return chargeDayIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getChargeDays(LocalDate start, int dayCount, boolean includeWeekdays, boolean includeWeekends, boolean includeHolidays) {
+        var end = start.plusDays(dayCount);
+        if (!chargeDayIndex.covers(start, end)) {
+            return super.getChargeDays(start, dayCount, includeWeekdays, includeWeekends, includeHolidays);
+        }
+        return chargeDayIndex.chargeDays(ChargeDayIndex.mask(includeWeekdays, includeWeekends, includeHolidays), start, end);
+    }
+}
@@ -0,0 +1,114 @@
+package sample.pos.service;
+
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.Money;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.ReturnPolicy;
+import sample.pos.domain.ReturnReceipt;
+import sample.pos.domain.ToolType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Re-prices a RentalAgreement for its actual return date.
+ * <p>
+ * The agreement's charge days are taken as already counted. Only the days between the due date and the return
+ * date are counted: the days past due for a late return, or the unused days for an early return. Charge days are
+ * counted with the agreement's own {@link ChargeRules} (captured at checkout, so republishing the pricing table does
+ * not change rentals already out) and the checkout calendar, by a {@link DefaultRentalAgreementCalculator}; with the
+ * default {@link ClosedFormRentalAgreementCalculator}, the count does not depend on the number of days at all.
+ * Agreements recorded before the rules were captured fall back to the calculator's current pricing table.
+ * <p>
+ * Calculations are pure, so returning the same agreement on the same date always gives the same receipt.
+ */
+public class ReturnCalculator {
+
+    /**
+     * Counts charge days in the delta window
+     */
+    private final DefaultRentalAgreementCalculator chargeDayCounter;
+
+    private final ReturnPolicy returnPolicy;
+
+    public ReturnCalculator() {
+        this(new ClosedFormRentalAgreementCalculator(), ReturnPolicy.DEFAULT);
+    }
+
+    /**
+     * @param chargeDayCounter calculator whose holiday calendar was used at checkout
+     * @param returnPolicy     late fee and early return credit policy
+     */
+    public ReturnCalculator(DefaultRentalAgreementCalculator chargeDayCounter, ReturnPolicy returnPolicy) {
+        this.chargeDayCounter = Objects.requireNonNull(chargeDayCounter);
+        this.returnPolicy = Objects.requireNonNull(returnPolicy);
+    }
+
+    /**
+     * Re-prices the agreement for the return date
+     *
+     * @param rentalAgreement agreement being returned
+     * @param returnDate      date the tool came back
+     * @return receipt, with the adjusted final charge
+     * @throws IllegalArgumentException if the return date is before the checkout date, or the agreement's charge rules were not captured and its tool type is unknown
+     */
+    public ReturnReceipt calculate(RentalAgreement rentalAgreement, LocalDate returnDate) {
+        if (returnDate.isBefore(rentalAgreement.getCheckoutDate())) {
+            throw new IllegalArgumentException("Return date %s is before checkout date %s".formatted(returnDate, rentalAgreement.getCheckoutDate()));
+        }
+        var chargeRules = chargeRulesOf(rentalAgreement);
+
+        var dueDate = rentalAgreement.getDueDate();
+        var receipt = ReturnReceipt.builder()
+                .rentalAgreement(rentalAgreement)
+                .returnDate(returnDate)
+                .finalChargeCents(rentalAgreement.getFinalChargeCents());
+
+        if (returnDate.isAfter(dueDate)) {
+            // late: charge the chargeable days in (dueDate, returnDate], undiscounted, plus the late fee
+            var daysLate = (int) ChronoUnit.DAYS.between(dueDate, returnDate);
+            var lateChargeDays = chargeDayCounter.getChargeDays(dueDate, daysLate, chargeRules);
+            var lateChargeCents = Money.times(rentalAgreement.getDailyRentalChargeCents(), lateChargeDays);
+            var lateFeeCents = Money.percentOf(lateChargeCents, returnPolicy.getLateFeePercent());
+
+            return receipt.daysLate(daysLate)
+                    .lateChargeDays(lateChargeDays)
+                    .lateChargeCents(lateChargeCents)
+                    .lateFeeCents(lateFeeCents)
+                    .finalChargeCents(rentalAgreement.getFinalChargeCents() + lateChargeCents + lateFeeCents)
+                    .build();
+        }
+
+        if (returnDate.isBefore(dueDate)) {
+            // early: credit the chargeable days in (returnDate, dueDate], at the discounted rate
+            var daysEarly = (int) ChronoUnit.DAYS.between(returnDate, dueDate);
+            var unusedChargeDays = chargeDayCounter.getChargeDays(returnDate, daysEarly, chargeRules);
+            var unusedCents = Money.times(rentalAgreement.getDailyRentalChargeCents(), unusedChargeDays);
+            unusedCents -= Money.percentOf(unusedCents, rentalAgreement.getDiscountPercent());
+            // rounding the discount separately could otherwise credit a cent more than was charged
+            var creditCents = Math.min(Money.percentOf(unusedCents, returnPolicy.getEarlyReturnCreditPercent()),
+                    rentalAgreement.getFinalChargeCents());
+
+            return receipt.daysEarly(daysEarly)
+                    .unusedChargeDays(unusedChargeDays)
+                    .earlyReturnCreditCents(creditCents)
+                    .finalChargeCents(rentalAgreement.getFinalChargeCents() - creditCents)
+                    .build();
+        }
+
+        return receipt.build();
+    }
+
+    /**
+     * @return the rules the agreement was priced with, or, if they were not captured, the current rules for its tool type
+     */
+    private ChargeRules chargeRulesOf(RentalAgreement rentalAgreement) {
+        if (rentalAgreement.getChargeRules() != null) {
+            return rentalAgreement.getChargeRules();
+        }
+        var toolType = ToolType.forName(rentalAgreement.getToolType())
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tool type: " + rentalAgreement.getToolType()));
+        return chargeDayCounter.getPricingTable().getChargeRules(toolType);
+    }
+}
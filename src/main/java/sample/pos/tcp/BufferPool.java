@@ -0,0 +1,35 @@
+package sample.pos.tcp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of same-sized direct buffers, owned by a single reactor thread (not thread-safe).
+ * <p>
+ * Connections take a read and a write buffer when they open, and give them back when they close, so connection
+ * churn does not allocate (and later free) direct memory.
+ */
+final class BufferPool {
+
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+    private final int bufferSize;
+
+    private final int maxPooled;
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    ByteBuffer acquire() {
+        var buffer = free.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer.clear();
+    }
+
+    void release(ByteBuffer buffer) {
+        if (free.size() < maxPooled) {
+            free.push(buffer);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package sample.pos.tcp;
+
+/**
+ * Error codes sent in error response frames
+ */
+public enum CheckoutError {
+    /**
+     * Tool code not in the system ({@link sample.pos.exceptions.InvalidToolCodeException})
+     */
+    INVALID_TOOL_CODE,
+    /**
+     * Day count of 0 or less ({@link sample.pos.exceptions.InvalidDayCountException})
+     */
+    INVALID_DAY_COUNT,
+    /**
+     * Discount outside of 0-100% ({@link sample.pos.exceptions.InvalidDiscountException})
+     */
+    INVALID_DISCOUNT,
+    /**
+     * Request frame could not be decoded
+     */
+    MALFORMED_REQUEST,
+    /**
+     * Unexpected failure while handling the request
+     */
+    INTERNAL_ERROR,
+    /**
+     * Tool already reserved for part of the rental window ({@link sample.pos.exceptions.ToolUnavailableException})
+     */
+    TOOL_UNAVAILABLE;
+
+    private static final CheckoutError[] VALUES = values();
+
+    /**
+     * @return code sent on the wire (codes follow declaration order, so new errors go at the end)
+     */
+    public byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    /**
+     * @param code code read from the wire
+     * @return matching error
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static CheckoutError fromCode(byte code) {
+        if (code < 1 || code > VALUES.length) {
+            throw new IllegalArgumentException("Unknown error code: " + code);
+        }
+        return VALUES[code - 1];
+    }
+}
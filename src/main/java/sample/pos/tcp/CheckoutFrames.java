@@ -0,0 +1,230 @@
+package sample.pos.tcp;
+
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Wire format of the binary checkout protocol.
+ * <p>
+ * Every frame is length-prefixed, and carries a type and a client-chosen correlation id:
+ * <pre>
+ *     int   length of the rest of the frame
+ *     byte  frame type
+ *     int   correlation id
+ *     ...   body
+ * </pre>
+ * Bodies, by type:
+ * <pre>
+ *     CHECKOUT_REQUEST:   string toolCode, int dayCount, int discountPercentage, int checkoutDate (epoch day)
+ *     AGREEMENT_RESPONSE: string toolCode, string toolType, string toolBrand, int rentalDays,
+ *                         int checkoutDate (epoch day), int dueDate (epoch day), long dailyRentalChargeCents,
+ *                         int chargeDays, long preDiscountChargeCents, int discountPercent,
+ *                         long discountAmountCents, long finalChargeCents,
+ *                         byte chargeRules ({@link ChargeRules#toFlags}; absent from older servers' frames)
+ *     ERROR_RESPONSE:     byte error code ({@link CheckoutError}), string message
+ * </pre>
+ * Strings are a short byte count followed by UTF-8 bytes. Numbers are big-endian. Clients may pipeline requests;
+ * responses come back on the same connection in request order.
+ */
+public final class CheckoutFrames {
+
+    public static final byte CHECKOUT_REQUEST = 1;
+
+    public static final byte AGREEMENT_RESPONSE = 2;
+
+    public static final byte ERROR_RESPONSE = 3;
+
+    public static final int LENGTH_PREFIX = Integer.BYTES;
+
+    /**
+     * Type and correlation id
+     */
+    public static final int HEADER_LENGTH = Byte.BYTES + Integer.BYTES;
+
+    /**
+     * Longest frame (excluding the length prefix) either side will accept
+     */
+    public static final int MAX_FRAME_LENGTH = 4 * 1024;
+
+    /**
+     * Longest string field, in bytes; keeps every frame within MAX_FRAME_LENGTH
+     */
+    private static final int MAX_STRING_LENGTH = 1024;
+
+    private CheckoutFrames() {
+    }
+
+    /**
+     * Writes a checkout request frame at the buffer's position
+     *
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    public static void encodeRequest(ByteBuffer out, int correlationId, CheckinRequest checkinRequest) {
+        var start = beginFrame(out, CHECKOUT_REQUEST, correlationId);
+        putString(out, checkinRequest.getToolCode());
+        out.putInt(checkinRequest.getDayCount());
+        out.putInt(checkinRequest.getDiscountPercentage());
+        out.putInt(Math.toIntExact(checkinRequest.getCheckoutDate().toEpochDay()));
+        endFrame(out, start);
+    }
+
+    /**
+     * Reads a checkout request body, from the buffer's position (after the frame header)
+     *
+     * @throws java.nio.BufferUnderflowException if the body is truncated
+     */
+    public static CheckinRequest decodeRequest(ByteBuffer in) {
+        return CheckinRequest.builder()
+                .toolCode(getString(in))
+                .dayCount(in.getInt())
+                .discountPercentage(in.getInt())
+                .checkoutDate(LocalDate.ofEpochDay(in.getInt()))
+                .build();
+    }
+
+    /**
+     * Writes an agreement response frame at the buffer's position
+     *
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    public static void encodeAgreement(ByteBuffer out, int correlationId, RentalAgreement rentalAgreement) {
+        var start = beginFrame(out, AGREEMENT_RESPONSE, correlationId);
+        putString(out, rentalAgreement.getToolCode());
+        putString(out, rentalAgreement.getToolType());
+        putString(out, rentalAgreement.getToolBrand());
+        out.putInt(rentalAgreement.getRentalDays());
+        out.putInt(Math.toIntExact(rentalAgreement.getCheckoutDate().toEpochDay()));
+        out.putInt(Math.toIntExact(rentalAgreement.getDueDate().toEpochDay()));
+        out.putLong(rentalAgreement.getDailyRentalChargeCents());
+        out.putInt(rentalAgreement.getChargeDays());
+        out.putLong(rentalAgreement.getPreDiscountChargeCents());
+        out.putInt(rentalAgreement.getDiscountPercent());
+        out.putLong(rentalAgreement.getDiscountAmountCents());
+        out.putLong(rentalAgreement.getFinalChargeCents());
+        out.put(ChargeRules.toFlags(rentalAgreement.getChargeRules()));
+        endFrame(out, start);
+    }
+
+    /**
+     * Writes an error response frame at the buffer's position. Messages longer than the protocol allows are cut short,
+     * at a character boundary.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room
+     */
+    public static void encodeError(ByteBuffer out, int correlationId, CheckoutError error, String message) {
+        var start = beginFrame(out, ERROR_RESPONSE, correlationId);
+        out.put(error.code());
+        var bytes = message == null ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
+        var length = Math.min(bytes.length, MAX_STRING_LENGTH);
+        // back up over continuation bytes (10xxxxxx), so a multi-byte character is not split
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        out.putShort((short) length);
+        out.put(bytes, 0, length);
+        endFrame(out, start);
+    }
+
+    /**
+     * Reads a whole response frame (including the length prefix), from the buffer's position
+     *
+     * @throws IllegalArgumentException          if the frame is not a response
+     * @throws java.nio.BufferUnderflowException if the frame is truncated
+     */
+    public static CheckoutResponse decodeResponse(ByteBuffer in) {
+        var length = in.getInt();
+        var end = in.position() + length;
+        var type = in.get();
+        var response = CheckoutResponse.builder().correlationId(in.getInt());
+        return switch (type) {
+            case AGREEMENT_RESPONSE -> response.agreement(RentalAgreement.builder()
+                            .toolCode(getString(in))
+                            .toolType(getString(in))
+                            .toolBrand(getString(in))
+                            .rentalDays(in.getInt())
+                            .checkoutDate(LocalDate.ofEpochDay(in.getInt()))
+                            .dueDate(LocalDate.ofEpochDay(in.getInt()))
+                            .dailyRentalChargeCents(in.getLong())
+                            .chargeDays(in.getInt())
+                            .preDiscountChargeCents(in.getLong())
+                            .discountPercent(in.getInt())
+                            .discountAmountCents(in.getLong())
+                            .finalChargeCents(in.getLong())
+                            .chargeRules(in.position() < end ? ChargeRules.fromFlags(in.get()) : null)
+                            .build())
+                    .build();
+            case ERROR_RESPONSE -> response.error(CheckoutError.fromCode(in.get()))
+                    .errorMessage(getString(in))
+                    .build();
+            default -> throw new IllegalArgumentException("Not a response frame type: " + type);
+        };
+    }
+
+    /**
+     * @return length of the complete frame at the buffer's position (excluding the prefix), or -1 if the
+     * buffer does not yet hold a complete frame
+     * @throws IllegalArgumentException if the length prefix is invalid
+     */
+    public static int completeFrameLength(ByteBuffer in) {
+        if (in.remaining() < LENGTH_PREFIX) {
+            return -1;
+        }
+        var length = in.getInt(in.position());
+        if (length < HEADER_LENGTH || length > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Invalid frame length: " + length);
+        }
+        return in.remaining() - LENGTH_PREFIX >= length ? length : -1;
+    }
+
+    private static int beginFrame(ByteBuffer out, byte type, int correlationId) {
+        var start = out.position();
+        out.putInt(0);
+        out.put(type);
+        out.putInt(correlationId);
+        return start;
+    }
+
+    private static void endFrame(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - LENGTH_PREFIX);
+    }
+
+    /**
+     * Writes a short length and the string's bytes; ASCII strings (the norm) are written without an intermediate byte[]
+     */
+    private static void putString(ByteBuffer out, String value) {
+        var length = value.length();
+        var ascii = length <= MAX_STRING_LENGTH;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            out.putShort((short) length);
+            for (int i = 0; i < length; i++) {
+                out.put((byte) value.charAt(i));
+            }
+            return;
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH) {
+            throw new IllegalArgumentException("String longer than %d bytes".formatted(MAX_STRING_LENGTH));
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        var length = in.getShort();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        var bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,188 @@
+package sample.pos.tcp;
+
+import sample.pos.domain.CheckinRequest;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load generator for {@link CheckoutTcpServer}, for measuring throughput locally.
+ * <p>
+ * Each connection runs on its own thread, keeping up to {@code pipelineDepth} requests in flight: it writes
+ * requests until the window is full, then reads whatever responses have arrived, checking they come back in
+ * request order. Responses are counted by type rather than fully decoded, so the client stays cheap relative to
+ * the server.
+ * <p>
+ * Run {@link #main} to start a server on the loopback interface and load it:
+ * {@code CheckoutLoadClient [connections] [pipelineDepth] [requestsPerConnection] [reactors]}
+ */
+public class CheckoutLoadClient {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Requests are written before responses are read, so the responses in flight must fit in the socket buffers
+     */
+    public static final int MAX_PIPELINE_DEPTH = 1024;
+
+    private final InetSocketAddress address;
+
+    private final int connections;
+
+    private final int pipelineDepth;
+
+    /**
+     * @param address       server address
+     * @param connections   number of concurrent connections
+     * @param pipelineDepth maximum requests in flight per connection
+     */
+    public CheckoutLoadClient(InetSocketAddress address, int connections, int pipelineDepth) {
+        if (connections <= 0) {
+            throw new IllegalArgumentException("Connections must be greater than 0");
+        }
+        if (pipelineDepth <= 0 || pipelineDepth > MAX_PIPELINE_DEPTH) {
+            throw new IllegalArgumentException("Pipeline depth must be between 1 and %d".formatted(MAX_PIPELINE_DEPTH));
+        }
+        this.address = address;
+        this.connections = connections;
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * Sends {@code requestsPerConnection} requests on each connection, cycling through the given requests.
+     *
+     * @param requests              requests to send
+     * @param requestsPerConnection number of requests sent on each connection
+     * @return summary of the run
+     * @throws IOException          if a connection fails, or a response is out of order
+     * @throws InterruptedException if interrupted while waiting for the connections to finish
+     */
+    public CheckoutLoadReport run(List<CheckinRequest> requests, int requestsPerConnection) throws IOException, InterruptedException {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one request is needed");
+        }
+
+        var start = System.nanoTime();
+        long responses = 0;
+        long errors = 0;
+        try (var executor = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("checkout-load-", 0).factory())) {
+            var futures = new ArrayList<Future<long[]>>(connections);
+            for (int i = 0; i < connections; i++) {
+                futures.add(executor.submit(() -> runConnection(requests, requestsPerConnection)));
+            }
+            for (var future : futures) {
+                var counts = future.get();
+                responses += counts[0];
+                errors += counts[1];
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Load connection failed", e.getCause());
+        }
+
+        return CheckoutLoadReport.builder()
+                .connections(connections)
+                .pipelineDepth(pipelineDepth)
+                .responses(responses)
+                .errors(errors)
+                .elapsed(Duration.ofNanos(System.nanoTime() - start))
+                .build();
+    }
+
+    /**
+     * @return {responses, errors}
+     */
+    private long[] runConnection(List<CheckinRequest> requests, int total) throws IOException {
+        var writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        var readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long errors = 0;
+
+        try (var channel = SocketChannel.open(address)) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            int sent = 0;
+            int received = 0;
+            while (received < total) {
+                while (sent < total && sent - received < pipelineDepth
+                        && writeBuffer.remaining() >= CheckoutFrames.LENGTH_PREFIX + CheckoutFrames.MAX_FRAME_LENGTH) {
+                    CheckoutFrames.encodeRequest(writeBuffer, sent, requests.get(sent % requests.size()));
+                    sent++;
+                }
+                writeBuffer.flip();
+                while (writeBuffer.hasRemaining()) {
+                    channel.write(writeBuffer);
+                }
+                writeBuffer.clear();
+
+                if (channel.read(readBuffer) < 0) {
+                    throw new EOFException("Server closed the connection after %d responses".formatted(received));
+                }
+                readBuffer.flip();
+                int length;
+                while ((length = CheckoutFrames.completeFrameLength(readBuffer)) >= 0) {
+                    var position = readBuffer.position();
+                    var type = readBuffer.get(position + CheckoutFrames.LENGTH_PREFIX);
+                    var correlationId = readBuffer.getInt(position + CheckoutFrames.LENGTH_PREFIX + Byte.BYTES);
+                    if (correlationId != received) {
+                        throw new IOException("Expected response %d, received %d".formatted(received, correlationId));
+                    }
+                    if (type == CheckoutFrames.ERROR_RESPONSE) {
+                        errors++;
+                    }
+                    received++;
+                    readBuffer.position(position + CheckoutFrames.LENGTH_PREFIX + length);
+                }
+                readBuffer.compact();
+            }
+        }
+        return new long[]{total, errors};
+    }
+
+    /**
+     * Starts a server on the loopback interface, loads it, and prints the report.
+     *
+     * @param args [connections] [pipelineDepth] [requestsPerConnection] [reactors]
+     */
+    public static void main(String[] args) throws Exception {
+        var connections = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        var pipelineDepth = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        var requestsPerConnection = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        var reactors = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        var handler = new MappedToolCheckoutHandler(new MappedToolRepository(), new DefaultRentalAgreementCalculator());
+        var requests = new ArrayList<CheckinRequest>();
+        var toolCodes = new String[]{"CHNS", "LADW", "JAKD", "JAKR"};
+        for (int i = 0; i < 1_000; i++) {
+            requests.add(CheckinRequest.builder()
+                    .toolCode(toolCodes[i % toolCodes.length])
+                    .dayCount(i % 30 + 1)
+                    .discountPercentage(i % 50)
+                    .checkoutDate(LocalDate.of(2020, 1, 1).plusDays(i))
+                    .build());
+        }
+
+        try (var server = CheckoutTcpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), handler,
+                reactors, CheckoutTcpServer.DEFAULT_BUFFER_SIZE)) {
+            var client = new CheckoutLoadClient(server.getAddress(), connections, pipelineDepth);
+            // warm up, then measure
+            client.run(requests, Math.min(requestsPerConnection, 100_000));
+            System.out.println(client.run(requests, requestsPerConnection));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package sample.pos.tcp;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Summary of a load client run
+ */
+@Builder
+@Value
+public class CheckoutLoadReport {
+    int connections;
+    int pipelineDepth;
+    /**
+     * Number of responses received (agreements and errors)
+     */
+    long responses;
+    /**
+     * Number of error responses received
+     */
+    long errors;
+    Duration elapsed;
+
+    /**
+     * @return responses received per second over the whole run
+     */
+    public double getRequestsPerSecond() {
+        var nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : responses * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "%d connections, pipeline depth %d: %d responses (%d errors) in %d ms: %.0f requests/sec".formatted(
+                connections, pipelineDepth, responses, errors, elapsed.toMillis(), getRequestsPerSecond());
+    }
+}
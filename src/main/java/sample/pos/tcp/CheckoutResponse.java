@@ -0,0 +1,24 @@
+package sample.pos.tcp;
+
+import lombok.Builder;
+import lombok.Value;
+import sample.pos.domain.RentalAgreement;
+
+/**
+ * Decoded response frame: either a RentalAgreement, or an error
+ */
+@Builder
+@Value
+public class CheckoutResponse {
+    /**
+     * Correlation id of the request this responds to
+     */
+    int correlationId;
+    RentalAgreement agreement;
+    CheckoutError error;
+    String errorMessage;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,358 @@
+package sample.pos.tcp;
+
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutOutcome;
+import sample.pos.handlers.CheckoutHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.DateTimeException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * TCP front end for checkout, speaking the binary protocol in {@link CheckoutFrames}.
+ * <p>
+ * An acceptor thread hands each new connection to one of N reactor threads (round-robin). Each reactor runs its own
+ * NIO {@link Selector} loop, reading into a pooled direct buffer, decoding every complete frame, handling it on the
+ * reactor thread, and encoding the response into the connection's pooled write buffer. Pipelined requests are
+ * handled back to back, with their responses written in request order, and flushed together.
+ * <p>
+ * When a client stops reading, the reactor stops reading from it until its pending responses are written, so a
+ * slow client cannot build up an unbounded backlog.
+ * <p>
+ * Requests are checked out with {@link CheckoutHandler#tryHandle}, so refused requests (ie, mistyped tool
+ * codes) are answered without throwing. The handler runs on the reactor threads, so must be fast and non-blocking,
+ * and safe for concurrent use when there is more than one reactor.
+ */
+public class CheckoutTcpServer implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Room kept free in a write buffer before handling another request, so any response fits
+     */
+    private static final int RESPONSE_HEADROOM = CheckoutFrames.LENGTH_PREFIX + CheckoutFrames.MAX_FRAME_LENGTH;
+
+    /**
+     * Idle buffers kept per reactor
+     */
+    private static final int MAX_POOLED_BUFFERS = 256;
+
+    private final ServerSocketChannel serverChannel;
+
+    private final Reactor[] reactors;
+
+    private final Thread acceptor;
+
+    private volatile boolean running = true;
+
+    private CheckoutTcpServer(ServerSocketChannel serverChannel, CheckoutHandler handler,
+                              int reactorCount, int bufferSize) throws IOException {
+        this.serverChannel = serverChannel;
+        this.reactors = new Reactor[reactorCount];
+        for (int i = 0; i < reactorCount; i++) {
+            reactors[i] = new Reactor(handler, new BufferPool(bufferSize, MAX_POOLED_BUFFERS), "checkout-reactor-" + i);
+        }
+        this.acceptor = new Thread(this::accept, "checkout-acceptor");
+    }
+
+    /**
+     * Starts a server with a single reactor
+     *
+     * @see #start(InetSocketAddress, CheckoutHandler, int, int)
+     */
+    public static CheckoutTcpServer start(InetSocketAddress address, CheckoutHandler handler) throws IOException {
+        return start(address, handler, 1, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Starts a server on the given address
+     *
+     * @param address      address to listen on (port 0 picks a free port; see {@link #getAddress()})
+     * @param handler      checkout handler
+     * @param reactorCount number of reactor threads
+     * @param bufferSize   size of each connection's read and write buffers
+     * @return started server
+     * @throws IOException if the server cannot listen on the address
+     */
+    public static CheckoutTcpServer start(InetSocketAddress address, CheckoutHandler handler,
+                                          int reactorCount, int bufferSize) throws IOException {
+        Objects.requireNonNull(handler);
+        if (reactorCount <= 0) {
+            throw new IllegalArgumentException("Reactor count must be greater than 0");
+        }
+        if (bufferSize < 2 * RESPONSE_HEADROOM) {
+            throw new IllegalArgumentException("Buffer size must be at least %d bytes".formatted(2 * RESPONSE_HEADROOM));
+        }
+
+        var serverChannel = ServerSocketChannel.open().bind(address);
+        var server = new CheckoutTcpServer(serverChannel, handler, reactorCount, bufferSize);
+        for (var reactor : server.reactors) {
+            reactor.thread.start();
+        }
+        server.acceptor.start();
+        return server;
+    }
+
+    /**
+     * @return address the server is listening on
+     */
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops accepting connections, closes every open connection, and stops the reactor threads.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (var reactor : reactors) {
+            reactor.selector.wakeup();
+        }
+        try {
+            acceptor.join();
+            for (var reactor : reactors) {
+                reactor.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                var channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[next].register(channel);
+                next = (next + 1) % reactors.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // a failed accept only affects that connection
+            }
+        }
+    }
+
+    /**
+     * Selector loop owning a set of connections
+     */
+    private final class Reactor implements Runnable {
+        private final CheckoutHandler handler;
+        private final BufferPool bufferPool;
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        private Reactor(CheckoutHandler handler, BufferPool bufferPool, String name) throws IOException {
+            this.handler = handler;
+            this.bufferPool = bufferPool;
+            this.selector = Selector.open();
+            this.thread = new Thread(this, name);
+        }
+
+        private void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+
+                    var selected = selector.selectedKeys();
+                    for (var key : selected) {
+                        var connection = (Connection) key.attachment();
+                        try {
+                            connection.service(key);
+                        } catch (IOException | IllegalArgumentException e) {
+                            // connection reset, or protocol violation
+                            connection.close();
+                        }
+                    }
+                    selected.clear();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                for (var key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+                SocketChannel channel;
+                while ((channel = pending.poll()) != null) {
+                    closeQuietly(channel);
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                try {
+                    var connection = new Connection(this, channel);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                }
+            }
+        }
+    }
+
+    /**
+     * One client connection, owned by a reactor
+     */
+    private static final class Connection {
+        private final Reactor reactor;
+        private final SocketChannel channel;
+        private ByteBuffer readBuffer;
+        private ByteBuffer writeBuffer;
+        private SelectionKey key;
+
+        private Connection(Reactor reactor, SocketChannel channel) {
+            this.reactor = reactor;
+            this.channel = channel;
+            this.readBuffer = reactor.bufferPool.acquire();
+            this.writeBuffer = reactor.bufferPool.acquire();
+        }
+
+        /**
+         * Reads what is available, handles every complete frame that fits in the write buffer, and writes the
+         * responses. Reading resumes once all pending responses have been written.
+         */
+        private void service(SelectionKey key) throws IOException {
+            if (key.isReadable() && channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+
+            boolean flushed;
+            do {
+                handleFrames();
+                flushed = flush();
+            } while (flushed && hasCompleteFrame());
+
+            key.interestOps(flushed ? SelectionKey.OP_READ : SelectionKey.OP_WRITE);
+        }
+
+        private void handleFrames() {
+            readBuffer.flip();
+            var dataEnd = readBuffer.limit();
+            try {
+                int length;
+                while (writeBuffer.remaining() >= RESPONSE_HEADROOM && (length = CheckoutFrames.completeFrameLength(readBuffer)) >= 0) {
+                    var frameEnd = readBuffer.position() + CheckoutFrames.LENGTH_PREFIX + length;
+                    readBuffer.position(readBuffer.position() + CheckoutFrames.LENGTH_PREFIX);
+                    handleFrame(readBuffer.limit(frameEnd));
+                    readBuffer.limit(dataEnd).position(frameEnd);
+                }
+            } finally {
+                readBuffer.compact();
+            }
+        }
+
+        private void handleFrame(ByteBuffer frame) {
+            var type = frame.get();
+            var correlationId = frame.getInt();
+            var responseStart = writeBuffer.position();
+            try {
+                if (type != CheckoutFrames.CHECKOUT_REQUEST) {
+                    CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.MALFORMED_REQUEST, "Unknown frame type: " + type);
+                    return;
+                }
+
+                CheckinRequest checkinRequest;
+                try {
+                    checkinRequest = CheckoutFrames.decodeRequest(frame);
+                } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+                    CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.MALFORMED_REQUEST, "Malformed checkout request");
+                    return;
+                }
+
+                switch (reactor.handler.tryHandle(checkinRequest)) {
+                    case CheckoutOutcome.Success success ->
+                            CheckoutFrames.encodeAgreement(writeBuffer, correlationId, success.rentalAgreement());
+                    case CheckoutOutcome.InvalidToolCode failure ->
+                            CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.INVALID_TOOL_CODE, failure.message());
+                    case CheckoutOutcome.InvalidDayCount failure ->
+                            CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.INVALID_DAY_COUNT, failure.message());
+                    case CheckoutOutcome.InvalidDiscount failure ->
+                            CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.INVALID_DISCOUNT, failure.message());
+                    case CheckoutOutcome.ToolUnavailable failure ->
+                            CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.TOOL_UNAVAILABLE, failure.message());
+                }
+            } catch (Exception e) {
+                // includes agreements too large to encode; drop any partial response
+                writeBuffer.position(responseStart);
+                CheckoutFrames.encodeError(writeBuffer, correlationId, CheckoutError.INTERNAL_ERROR, "Internal error");
+            }
+        }
+
+        /**
+         * @return true if every pending response was written
+         */
+        private boolean flush() throws IOException {
+            writeBuffer.flip();
+            try {
+                channel.write(writeBuffer);
+                return !writeBuffer.hasRemaining();
+            } finally {
+                writeBuffer.compact();
+            }
+        }
+
+        private boolean hasCompleteFrame() {
+            readBuffer.flip();
+            try {
+                return CheckoutFrames.completeFrameLength(readBuffer) >= 0;
+            } finally {
+                readBuffer.compact();
+            }
+        }
+
+        private void close() {
+            if (readBuffer == null) {
+                return;
+            }
+            if (key != null) {
+                key.cancel();
+            }
+            closeQuietly(channel);
+            reactor.bufferPool.release(readBuffer);
+            reactor.bufferPool.release(writeBuffer);
+            readBuffer = null;
+            writeBuffer = null;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // nothing more to do
+        }
+    }
+}
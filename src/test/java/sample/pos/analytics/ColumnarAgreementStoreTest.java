@@ -0,0 +1,109 @@
+package sample.pos.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Columnar Agreement Store")
+class ColumnarAgreementStoreTest {
+
+    private static final LocalDate FIRST_CHECKOUT = LocalDate.of(2020, 1, 1);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should return the agreements appended, row by row")
+    void get_1() {
+        var store = new ColumnarAgreementStore(executor, 4);
+        var agreements = AgreementFixtures.agreements(3_000, FIRST_CHECKOUT);
+
+        for (int i = 0; i < agreements.size(); i++) {
+            assertEquals(i, store.append(agreements.get(i)));
+        }
+
+        assertEquals(agreements.size(), store.size());
+        for (int i = 0; i < agreements.size(); i++) {
+            assertEquals(agreements.get(i), store.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(agreements.size()));
+    }
+
+    @Test
+    @DisplayName("parallel aggregates should match totals computed from the agreement objects")
+    void aggregate_1() throws Exception {
+        var store = new ColumnarAgreementStore(executor, 4);
+        var agreements = AgreementFixtures.agreements(200_000, FIRST_CHECKOUT);
+        store.appendAll(agreements);
+
+        var from = FIRST_CHECKOUT.plusDays(100);
+        var to = FIRST_CHECKOUT.plusDays(500);
+        var all = store.aggregate();
+        var range = store.aggregate(from, to);
+        var inRange = agreements.stream()
+                .filter(agreement -> !agreement.getCheckoutDate().isBefore(from) && agreement.getCheckoutDate().isBefore(to))
+                .toList();
+
+        assertAll(
+                () -> assertExpected(agreements, all),
+                () -> assertExpected(inRange, range),
+                () -> assertEquals(0, store.aggregate(to, from).getAgreementCount(), "empty range"),
+                () -> assertEquals(0, new ColumnarAgreementStore().aggregate().getAverageChargeDays(), "empty store")
+        );
+    }
+
+    @Test
+    @DisplayName("aggregates racing appends should see whole rows only")
+    void aggregate_2() throws Exception {
+        var store = new ColumnarAgreementStore(executor, 4);
+        var agreements = AgreementFixtures.agreements(100_000, FIRST_CHECKOUT);
+
+        var writer = new Thread(() -> store.appendAll(agreements));
+        writer.start();
+        while (writer.isAlive()) {
+            var aggregate = store.aggregate();
+            var countByType = aggregate.getAgreementCountByToolType().values().stream().mapToLong(Long::longValue).sum();
+            var chargeByType = aggregate.getFinalChargeCentsByToolType().values().stream().mapToLong(Long::longValue).sum();
+            assertEquals(aggregate.getAgreementCount(), countByType);
+            assertEquals(aggregate.getFinalChargeCents(), chargeByType);
+            assertEquals(aggregate.getPreDiscountChargeCents(), aggregate.getFinalChargeCents() + aggregate.getDiscountAmountCents());
+        }
+        writer.join();
+
+        assertEquals(agreements.size(), store.aggregate().getAgreementCount());
+    }
+
+    private static void assertExpected(List<RentalAgreement> agreements, AgreementAggregate aggregate) {
+        Map<String, Long> finalByType = agreements.stream()
+                .collect(Collectors.groupingBy(RentalAgreement::getToolType, Collectors.summingLong(RentalAgreement::getFinalChargeCents)));
+        Map<String, Long> countByType = agreements.stream()
+                .collect(Collectors.groupingBy(RentalAgreement::getToolType, Collectors.counting()));
+        var chargeDays = agreements.stream().mapToLong(RentalAgreement::getChargeDays).sum();
+
+        assertAll(
+                () -> assertEquals(agreements.size(), aggregate.getAgreementCount()),
+                () -> assertEquals(agreements.stream().mapToLong(RentalAgreement::getPreDiscountChargeCents).sum(), aggregate.getPreDiscountChargeCents()),
+                () -> assertEquals(agreements.stream().mapToLong(RentalAgreement::getDiscountAmountCents).sum(), aggregate.getDiscountAmountCents()),
+                () -> assertEquals(agreements.stream().mapToLong(RentalAgreement::getFinalChargeCents).sum(), aggregate.getFinalChargeCents()),
+                () -> assertEquals(agreements.stream().mapToLong(RentalAgreement::getRentalDays).sum(), aggregate.getRentalDays()),
+                () -> assertEquals(chargeDays, aggregate.getChargeDays()),
+                () -> assertEquals((double) chargeDays / agreements.size(), aggregate.getAverageChargeDays(), 1e-9),
+                () -> assertEquals(finalByType, aggregate.getFinalChargeCentsByToolType()),
+                () -> assertEquals(countByType, aggregate.getAgreementCountByToolType())
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package sample.pos.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.ToolType;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.ClosedFormRentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Daily Rollups")
+class DailyRollupsTest {
+
+    // spans several pages; 2020-06-19 (epoch day 18432 = 512 * 36) starts a page
+    private static final LocalDate FIRST_CHECKOUT = LocalDate.of(2019, 12, 1);
+
+    @Test
+    @DisplayName("should roll up each day's checkouts, charges and units out")
+    void rollups_1() {
+        var rollups = new DailyRollups();
+        var ladder = agreement("LADW", 3, LocalDate.of(2020, 7, 2));
+        var chainsaw = agreement("CHNS", 5, LocalDate.of(2020, 7, 3));
+        rollups.process(ladder);
+        rollups.process(chainsaw);
+        rollups.process(agreement("LADW", 1, LocalDate.of(2020, 7, 4)));
+
+        var ladders = rollups.rollups(ToolType.LADDER, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 6));
+        assertAll(
+                () -> assertEquals(5, ladders.size()),
+                () -> assertEquals(List.of(0L, 1L, 0L, 1L, 0L), ladders.stream().map(DailyRollup::getCheckouts).toList(), "checkouts"),
+                () -> assertEquals(List.of(0L, 1L, 1L, 2L, 0L), ladders.stream().map(DailyRollup::getUnitsOut).toList(), "units out"),
+                () -> assertEquals(ladder.getFinalChargeCents(), ladders.get(1).getFinalChargeCents()),
+                () -> assertEquals(ladder.getChargeDays(), ladders.get(1).getChargeDays()),
+                () -> assertEquals(LocalDate.of(2020, 7, 2), ladders.get(1).getDate()),
+                () -> assertEquals(1, rollups.unitsOut(ToolType.CHAINSAW, LocalDate.of(2020, 7, 7))),
+                () -> assertEquals(0, rollups.unitsOut(ToolType.CHAINSAW, LocalDate.of(2020, 7, 8))),
+                () -> assertEquals(0, rollups.unitsOut(ToolType.JACK_HAMMER, LocalDate.of(2020, 7, 4))),
+                () -> assertThrows(IllegalArgumentException.class, () -> rollups.process(RentalAgreement.builder()
+                        .toolType("Saw")
+                        .checkoutDate(LocalDate.of(2020, 7, 2))
+                        .dueDate(LocalDate.of(2020, 7, 3))
+                        .build()))
+        );
+    }
+
+    @Test
+    @DisplayName("concurrent updates should match totals computed from the agreements, across page boundaries")
+    void process_1() throws Exception {
+        var agreements = AgreementFixtures.agreements(100_000, FIRST_CHECKOUT);
+        var rollups = new DailyRollups();
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; thread++) {
+                var from = agreements.size() * thread / 4;
+                var to = agreements.size() * (thread + 1) / 4;
+                futures.add(executor.submit(() -> agreements.subList(from, to).forEach(rollups::process)));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var from = FIRST_CHECKOUT.plusDays(50);
+        var to = FIRST_CHECKOUT.plusDays(700);
+        var probe = LocalDate.of(2020, 6, 19);
+        for (var toolType : ToolType.values()) {
+            var ofType = agreements.stream().filter(agreement -> agreement.getToolType().equals(toolType.getName())).toList();
+            var inRange = ofType.stream()
+                    .filter(agreement -> !agreement.getCheckoutDate().isBefore(from) && agreement.getCheckoutDate().isBefore(to))
+                    .toList();
+            var rolled = rollups.rollups(toolType, from, to);
+
+            assertAll(toolType.name(),
+                    () -> assertEquals(inRange.size(), rollups.checkouts(toolType, from, to)),
+                    () -> assertEquals(inRange.stream().mapToLong(RentalAgreement::getFinalChargeCents).sum(), rollups.finalChargeCents(toolType, from, to)),
+                    () -> assertEquals(inRange.stream().mapToLong(RentalAgreement::getFinalChargeCents).sum(),
+                            rolled.stream().mapToLong(DailyRollup::getFinalChargeCents).sum()),
+                    () -> assertEquals(inRange.stream().mapToLong(RentalAgreement::getChargeDays).sum(),
+                            rolled.stream().mapToLong(DailyRollup::getChargeDays).sum()),
+                    () -> assertEquals(ofType.stream().filter(agreement -> !agreement.getCheckoutDate().isAfter(probe)
+                            && agreement.getDueDate().isAfter(probe)).count(), rollups.unitsOut(toolType, probe))
+            );
+        }
+    }
+
+    private static RentalAgreement agreement(String toolCode, int dayCount, LocalDate checkoutDate) {
+        var tool = new MappedToolRepository().findByToolCode(toolCode).orElseThrow();
+        return new ClosedFormRentalAgreementCalculator().calculate(tool, dayCount, 10, checkoutDate);
+    }
+}
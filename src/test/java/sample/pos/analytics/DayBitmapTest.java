@@ -0,0 +1,140 @@
+package sample.pos.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Day Bitmap")
+class DayBitmapTest {
+
+    // before the epoch, so day numbers run negative
+    private static final LocalDate ORIGIN = LocalDate.of(1969, 11, 1);
+
+    @Test
+    @DisplayName("should merge overlapping and adjacent rentals into runs")
+    void or_1() {
+        var bitmap = range(0, 5).or(range(5, 8)).or(range(3, 6)).or(range(100, 102));
+        assertAll(
+                () -> assertEquals(10, bitmap.cardinality()),
+                () -> assertEquals(2, bitmap.runCount()),
+                () -> assertFalse(bitmap.isWords(), "runs are smaller"),
+                () -> assertTrue(bitmap.contains(day(7))),
+                () -> assertFalse(bitmap.contains(day(8)), "end is not included"),
+                () -> assertEquals(range(0, 8).or(range(100, 102)), bitmap),
+                () -> assertEquals("{[1969-11-01..1969-11-09), [1970-02-09..1970-02-11)}", bitmap.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("should intersect and subtract runs")
+    void and_1() {
+        var rented = range(0, 10).or(range(20, 30));
+        var window = range(5, 25);
+        assertAll(
+                () -> assertEquals(range(5, 10).or(range(20, 25)), rented.and(window)),
+                () -> assertEquals(range(10, 20), window.andNot(rented)),
+                () -> assertEquals(range(0, 5).or(range(25, 30)), rented.andNot(window)),
+                () -> assertTrue(rented.and(range(10, 20)).isEmpty()),
+                () -> assertSame(DayBitmap.EMPTY, DayBitmap.EMPTY.and(rented)),
+                () -> assertSame(rented, rented.or(DayBitmap.EMPTY))
+        );
+    }
+
+    @Test
+    @DisplayName("should count days within a window")
+    void cardinality_1() {
+        var bitmap = range(0, 10).or(range(20, 30)).or(range(40, 41));
+        assertAll(
+                () -> assertEquals(21, bitmap.cardinality()),
+                () -> assertEquals(10, bitmap.cardinality(day(5), day(25))),
+                () -> assertEquals(0, bitmap.cardinality(day(10), day(20))),
+                () -> assertEquals(21, bitmap.cardinality(day(-100), day(100))),
+                () -> assertEquals(0, bitmap.cardinality(day(25), day(25)), "empty window")
+        );
+    }
+
+    @Test
+    @DisplayName("should hold fragmented days as words, no larger than their span")
+    void words_1() {
+        var bitmap = DayBitmap.EMPTY;
+        for (int i = 0; i < 365; i += 2) {
+            bitmap = bitmap.or(range(i, i + 1));
+        }
+        var fragmented = bitmap;
+        assertAll(
+                () -> assertTrue(fragmented.isWords()),
+                () -> assertEquals(183, fragmented.cardinality()),
+                () -> assertEquals(183, fragmented.runCount()),
+                () -> assertTrue(fragmented.sizeInBytes() <= 48 + 8 * 7, "a year fits in 6 or 7 words"),
+                () -> assertEquals(50, fragmented.cardinality(day(0), day(100))),
+                () -> assertFalse(fragmented.contains(day(101))),
+                () -> assertEquals(range(0, 365), fragmented.or(range(0, 365))),
+                () -> assertFalse(fragmented.or(range(0, 365)).isWords(), "one run is smaller")
+        );
+    }
+
+    @Test
+    @DisplayName("should match BitSet for random bitmaps, held as runs or words")
+    void random_1() {
+        var random = new Random(25);
+        for (int trial = 0; trial < 200; trial++) {
+            // short runs spread thin or packed tight, so both encodings are exercised
+            var spread = trial % 2 == 0 ? 2_000 : 200;
+            var expectedA = new BitSet();
+            var expectedB = new BitSet();
+            var a = randomBitmap(random, spread, expectedA);
+            var b = randomBitmap(random, spread, expectedB);
+
+            var and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            var or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            var andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+
+            assertBitmap(and, a.and(b));
+            assertBitmap(or, a.or(b));
+            assertBitmap(andNot, a.andNot(b));
+
+            var from = random.nextInt(spread);
+            var to = from + random.nextInt(spread);
+            assertEquals(expectedA.get(from, to).cardinality(), a.cardinality(day(from), day(to)), "window cardinality");
+        }
+    }
+
+    private static DayBitmap randomBitmap(Random random, int spread, BitSet expected) {
+        var bitmap = DayBitmap.EMPTY;
+        for (int i = 0; i < 40; i++) {
+            var start = random.nextInt(spread);
+            var end = start + 1 + random.nextInt(5);
+            bitmap = bitmap.or(range(start, end));
+            expected.set(start, end);
+        }
+        return bitmap;
+    }
+
+    private static void assertBitmap(BitSet expected, DayBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality(), "cardinality");
+        var runs = 0;
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(expected.nextClearBit(i))) {
+            runs++;
+        }
+        assertEquals(runs, actual.runCount(), "runs");
+        for (int i = 0; i < expected.length() + 64; i++) {
+            assertEquals(expected.get(i), actual.contains(day(i)), "day " + i);
+        }
+    }
+
+    private static DayBitmap range(int from, int to) {
+        return DayBitmap.of(day(from), day(to));
+    }
+
+    private static LocalDate day(int offset) {
+        return ORIGIN.plusDays(offset);
+    }
+}
@@ -0,0 +1,131 @@
+package sample.pos.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.ClosedFormRentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Utilization Index")
+class UtilizationIndexTest {
+
+    private static final LocalDate Q3_START = LocalDate.of(2020, 7, 1);
+
+    private static final LocalDate Q4_START = LocalDate.of(2020, 10, 1);
+
+    @Test
+    @DisplayName("should mark each tool out from checkout up to its due date")
+    void process_1() {
+        var index = new UtilizationIndex();
+        var ladder = agreement("LADW", 3, LocalDate.of(2020, 7, 2));
+        index.process(ladder);
+        index.process(agreement("LADW", 2, LocalDate.of(2020, 7, 5)));
+        index.process(agreement("CHNS", 5, LocalDate.of(2020, 7, 3)));
+
+        var ladderDays = index.rentedDays("LADW");
+        assertAll(
+                () -> assertEquals(2, index.toolCount()),
+                () -> assertEquals(5, ladderDays.cardinality()),
+                () -> assertEquals(1, ladderDays.runCount(), "back-to-back rentals form one run"),
+                () -> assertTrue(ladderDays.contains(ladder.getCheckoutDate())),
+                () -> assertFalse(ladderDays.contains(LocalDate.of(2020, 7, 7)), "due date is not included"),
+                () -> assertTrue(index.rentedDays("JAKD").isEmpty()),
+                () -> assertEquals(3, index.rentedDayCount("CHNS", LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 6)))
+        );
+    }
+
+    @Test
+    @DisplayName("should answer union, intersection and idle queries across tools")
+    void queries_1() {
+        var index = new UtilizationIndex();
+        index.add("JAKD-1", LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 11));
+        index.add("JAKD-2", LocalDate.of(2020, 7, 6), LocalDate.of(2020, 7, 16));
+        index.add("JAKD-3", LocalDate.of(2020, 6, 1), LocalDate.of(2020, 7, 1));
+        index.add("JAKD-4", LocalDate.of(2020, 10, 1), LocalDate.of(2020, 10, 2));
+        var fleet = List.of("JAKD-1", "JAKD-2", "JAKD-3", "JAKD-4", "JAKD-5");
+
+        assertAll(
+                () -> assertEquals(DayBitmap.of(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 7, 16))
+                        .or(DayBitmap.of(LocalDate.of(2020, 10, 1), LocalDate.of(2020, 10, 2))), index.union(fleet)),
+                () -> assertEquals(DayBitmap.of(LocalDate.of(2020, 7, 6), LocalDate.of(2020, 7, 11)),
+                        index.intersection(List.of("JAKD-1", "JAKD-2"))),
+                () -> assertTrue(index.intersection(fleet).isEmpty()),
+                () -> assertTrue(index.intersection(List.of()).isEmpty()),
+                () -> assertEquals(3, index.idleToolCount(fleet, Q3_START, Q4_START), "out only before or after Q3, or never"),
+                () -> assertEquals(5L * 92 - 20, index.idleToolDays(fleet, Q3_START, Q4_START))
+        );
+    }
+
+    @Test
+    @DisplayName("should refuse a due date not after the checkout date")
+    void add_1() {
+        var index = new UtilizationIndex();
+        assertThrows(IllegalArgumentException.class,
+                () -> index.add("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 2)));
+    }
+
+    @Test
+    @DisplayName("should lose no rental under concurrent checkouts")
+    void process_2() throws Exception {
+        var index = new UtilizationIndex();
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                var offset = thread;
+                futures.add(executor.submit(() -> {
+                    // every thread rents the same tools, on its own days of each week
+                    for (int week = 0; week < 100; week++) {
+                        for (int tool = 0; tool < 10; tool++) {
+                            var checkout = Q3_START.plusWeeks(week).plusDays(offset);
+                            index.add("TOOL-" + tool, checkout, checkout.plusDays(1));
+                        }
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+        for (int tool = 0; tool < 10; tool++) {
+            var days = index.rentedDays("TOOL-" + tool);
+            assertAll(
+                    () -> assertEquals(400, days.cardinality()),
+                    () -> assertEquals(100, days.runCount())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should keep a large fleet over several years small")
+    void sizeInBytes_1() {
+        var index = new UtilizationIndex();
+        var tools = 100_000;
+        var first = LocalDate.of(2020, 1, 1);
+        for (int tool = 0; tool < tools; tool++) {
+            // twenty rentals of 1-7 days, spread over five years
+            for (int rental = 0; rental < 20; rental++) {
+                var checkout = first.plusDays((tool * 31L + rental * 91L) % 1_826);
+                index.add("TOOL-" + tool, checkout, checkout.plusDays(1 + (tool + rental) % 7));
+            }
+        }
+        var uncompressed = (long) tools * ((1_826 + 63) / 64) * 8;
+        assertAll(
+                () -> assertEquals(tools, index.toolCount()),
+                () -> assertTrue(index.sizeInBytes() < 250L * tools, "under 250 bytes per tool: " + index.sizeInBytes()),
+                () -> assertTrue(index.sizeInBytes() < uncompressed, "smaller than a bit per day")
+        );
+    }
+
+    private static RentalAgreement agreement(String toolCode, int dayCount, LocalDate checkoutDate) {
+        var tool = new MappedToolRepository().findByToolCode(toolCode).orElseThrow();
+        return new ClosedFormRentalAgreementCalculator().calculate(tool, dayCount, 10, checkoutDate);
+    }
+}
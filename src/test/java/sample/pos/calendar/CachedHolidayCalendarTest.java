@@ -0,0 +1,81 @@
+package sample.pos.calendar;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cached Holiday Calendar")
+class CachedHolidayCalendarTest {
+
+    @Test
+    @DisplayName("default calendar should observe July 4th (shifted off weekends) and Labor Day only")
+    void isHoliday_1() {
+        var calendar = HolidayCalendars.DEFAULT;
+
+        // walk 1850 -> 2350, so both the array-backed and map-backed year caches are covered
+        for (var date = LocalDate.of(1850, Month.JANUARY, 1); date.getYear() < 2350; date = date.plusDays(1)) {
+            var dayOfWeek = date.getDayOfWeek();
+            var isJuly = date.getMonth() == Month.JULY;
+
+            var expected = (date.getMonth() == Month.SEPTEMBER && dayOfWeek == DayOfWeek.MONDAY && date.getDayOfMonth() <= 7)
+                    || (isJuly && date.getDayOfMonth() == 4 && dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY)
+                    || (isJuly && date.getDayOfMonth() == 3 && dayOfWeek == DayOfWeek.FRIDAY)
+                    || (isJuly && date.getDayOfMonth() == 5 && dayOfWeek == DayOfWeek.MONDAY);
+
+            if (expected != calendar.isHoliday(date)) {
+                fail("holiday mismatch on " + date);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("US federal calendar should observe holidays spilling into the prior year, and Juneteenth from 2021 on")
+    void isHoliday_2() {
+        var calendar = HolidayCalendars.US_FEDERAL;
+
+        assertAll(
+                // Jan 1st, 2022 was a Saturday
+                () -> assertTrue(calendar.isHoliday(LocalDate.of(2021, Month.DECEMBER, 31))),
+                () -> assertFalse(calendar.isHoliday(LocalDate.of(2022, Month.JANUARY, 1))),
+                () -> assertTrue(calendar.isHoliday(LocalDate.of(2024, Month.NOVEMBER, 28)), "Thanksgiving"),
+                () -> assertTrue(calendar.isHoliday(LocalDate.of(2024, Month.MAY, 27)), "Memorial Day"),
+                () -> assertFalse(calendar.isHoliday(LocalDate.of(2020, Month.JUNE, 19)), "Juneteenth, before 2021"),
+                () -> assertTrue(calendar.isHoliday(LocalDate.of(2023, Month.JUNE, 19)), "Juneteenth"),
+                () -> assertEquals(11, calendar.countHolidays(LocalDate.of(2022, Month.DECEMBER, 31), LocalDate.of(2023, Month.DECEMBER, 31)))
+        );
+    }
+
+    @Test
+    @DisplayName("should count holidays, and weekend holidays, over ranges that span multiple years")
+    void countHolidays_1() {
+        // unshifted rules, so some holidays land on weekends
+        var calendar = new CachedHolidayCalendar("Test", List.of(
+                year -> LocalDate.of(year, Month.JULY, 4),
+                year -> LocalDate.of(year, Month.DECEMBER, 31)));
+
+        var start = LocalDate.of(2019, Month.JUNE, 1);
+        for (int days = 0; days < 1500; days += 7) {
+            var end = start.plusDays(days);
+
+            int expectedHolidays = 0;
+            int expectedWeekendHolidays = 0;
+            for (var date = start.plusDays(1); !date.isAfter(end); date = date.plusDays(1)) {
+                if (calendar.isHoliday(date)) {
+                    expectedHolidays++;
+                    if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                        expectedWeekendHolidays++;
+                    }
+                }
+            }
+
+            assertEquals(expectedHolidays, calendar.countHolidays(start, end), "holidays through " + end);
+            assertEquals(expectedWeekendHolidays, calendar.countWeekendHolidays(start, end), "weekend holidays through " + end);
+        }
+    }
+}
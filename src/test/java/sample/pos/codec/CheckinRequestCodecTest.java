@@ -0,0 +1,111 @@
+package sample.pos.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+import sample.pos.repository.MappedToolRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Checkin Request Codec")
+class CheckinRequestCodecTest {
+
+    private final CheckinRequestCodec codec = new CheckinRequestCodec(ToolDictionary.of(Stream.of("CHNS", "LADW", "JAKD", "JAKR")
+            .map(code -> new MappedToolRepository().findByToolCode(code).orElseThrow())
+            .toList()));
+
+    @Test
+    @DisplayName("requests should round-trip, whether or not their tool code is in the dictionary")
+    void roundTrip_1() {
+        var requests = new CheckinRequest[]{
+                request("LADW", LocalDate.of(2020, 7, 2)),
+                request("chns", LocalDate.of(1969, 12, 31)),
+                request(null, null),
+                request("JAKR", LocalDate.of(9999, 12, 31))
+        };
+        var buffer = ByteBuffer.allocate(256);
+
+        var expectedLength = 0;
+        for (var request : requests) {
+            codec.encode(request, buffer);
+            expectedLength += codec.encodedLength(request);
+        }
+        assertEquals(expectedLength, buffer.position());
+        buffer.flip();
+
+        for (var request : requests) {
+            assertEquals(request, codec.decode(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("decoded tool codes should be the dictionary's own Strings")
+    void decode_1() {
+        var buffer = ByteBuffer.allocate(64);
+        codec.encode(request(new String("LADW".toCharArray()), LocalDate.of(2020, 7, 2)), buffer);
+        codec.encode(request(new String("LADW".toCharArray()), LocalDate.of(2020, 7, 3)), buffer);
+        buffer.flip();
+
+        assertEquals(CheckinRequestCodec.CATALOGUED_LENGTH * 2, buffer.remaining());
+        assertSame(codec.decode(buffer).getToolCode(), codec.decode(buffer).getToolCode());
+    }
+
+    @Test
+    @DisplayName("requests should be refused by a codec whose dictionary has since gained a tool, unless they predate the fingerprint")
+    void decode_2() {
+        var request = request("LADW", LocalDate.of(2020, 7, 2));
+        var buffer = ByteBuffer.allocate(64);
+        codec.encode(request, buffer);
+        buffer.flip();
+
+        // JAKA sorts between CHNS and JAKD, renumbering every tool code after it
+        var grown = new CheckinRequestCodec(ToolDictionary.of(Stream.concat(
+                Stream.of("CHNS", "LADW", "JAKD", "JAKR").map(code -> new MappedToolRepository().findByToolCode(code).orElseThrow()),
+                Stream.of(Tool.builder().code("JAKA").type(ToolType.JACK_HAMMER).brand("Atlas").build())).toList()));
+
+        // a version 1 record: the version 2 fingerprint dropped
+        var unchecked = ByteBuffer.allocate(64).put(buffer.duplicate().limit(buffer.limit() - Integer.BYTES));
+        unchecked.putShort(0, (short) (unchecked.position() - Short.BYTES));
+        unchecked.put(Short.BYTES, (byte) 1);
+        unchecked.flip();
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> grown.decode(buffer.duplicate())),
+                () -> assertEquals(request, codec.decode(buffer.duplicate()), "same dictionary"),
+                () -> assertEquals(request, codec.decode(unchecked), "version 1")
+        );
+    }
+
+    @Test
+    @DisplayName("encoding should be several times smaller than Java serialization of the same fields")
+    void size_1() throws Exception {
+        var request = request("LADW", LocalDate.of(2020, 7, 2));
+
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new Object[]{request.getToolCode(), request.getDayCount(), request.getDiscountPercentage(),
+                    request.getCheckoutDate()});
+        }
+
+        assertTrue(bytes.size() > 5 * CheckinRequestCodec.CATALOGUED_LENGTH,
+                "serialized %d bytes, encoded %d bytes".formatted(bytes.size(), CheckinRequestCodec.CATALOGUED_LENGTH));
+    }
+
+    private static CheckinRequest request(String toolCode, LocalDate checkoutDate) {
+        return CheckinRequest.builder()
+                .toolCode(toolCode)
+                .dayCount(4)
+                .discountPercentage(10)
+                .checkoutDate(checkoutDate)
+                .build();
+    }
+}
@@ -0,0 +1,191 @@
+package sample.pos.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rental Agreement Codec")
+class RentalAgreementCodecTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+
+    private final ToolDictionary dictionary = ToolDictionary.of(Stream.of(TOOL_CODES)
+            .map(code -> new MappedToolRepository().findByToolCode(code).orElseThrow())
+            .toList());
+
+    private final RentalAgreementCodec codec = new RentalAgreementCodec(dictionary);
+
+    @Test
+    @DisplayName("agreements should round-trip, back to back, through heap and direct buffers")
+    void roundTrip_1() throws Exception {
+        var agreements = agreements(500);
+
+        for (var buffer : List.of(ByteBuffer.allocate(64 * 1024), ByteBuffer.allocateDirect(64 * 1024))) {
+            for (var agreement : agreements) {
+                var before = buffer.position();
+                codec.encode(agreement, buffer);
+                assertEquals(RentalAgreementCodec.CATALOGUED_LENGTH, buffer.position() - before);
+                assertEquals(RentalAgreementCodec.CATALOGUED_LENGTH, codec.encodedLength(agreement));
+            }
+            buffer.flip();
+
+            var decoded = new ArrayList<RentalAgreement>();
+            while (buffer.hasRemaining()) {
+                decoded.add(codec.decode(buffer));
+            }
+            assertEquals(agreements, decoded, buffer.isDirect() ? "direct" : "heap");
+        }
+    }
+
+    @Test
+    @DisplayName("strings missing from the dictionary, and nulls, should round-trip inline")
+    void roundTrip_2() {
+        var agreement = RentalAgreement.builder()
+                .toolCode("SAWX")
+                .toolType("Scie")
+                .toolBrand("Makita Électrique")
+                .rentalDays(3)
+                .checkoutDate(LocalDate.of(2024, 2, 29))
+                .dueDate(null)
+                .dailyRentalChargeCents(Long.MAX_VALUE)
+                .finalChargeCents(-1)
+                .build();
+        var buffer = ByteBuffer.allocate(256);
+
+        codec.encode(agreement, buffer);
+        assertEquals(codec.encodedLength(agreement), buffer.position());
+        buffer.flip();
+
+        assertEquals(agreement, codec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("fields appended by a later version should be skipped")
+    void roundTrip_3() throws Exception {
+        var agreements = agreements(2);
+        var buffer = ByteBuffer.allocate(256);
+
+        // a "version 4" record: version 3 fields followed by an extra long
+        codec.encode(agreements.get(0), buffer);
+        buffer.putLong(42);
+        buffer.putShort(0, (short) (buffer.position() - Short.BYTES));
+        buffer.put(Short.BYTES, (byte) 4);
+        codec.encode(agreements.get(1), buffer);
+        buffer.flip();
+
+        assertAll(
+                () -> assertEquals(agreements.get(0), codec.decode(buffer)),
+                () -> assertEquals(agreements.get(1), codec.decode(buffer)),
+                () -> assertFalse(buffer.hasRemaining())
+        );
+    }
+
+    @Test
+    @DisplayName("version 1 records should decode without charge rules")
+    void roundTrip_4() throws Exception {
+        var agreement = agreements(1).get(0);
+        var buffer = ByteBuffer.allocate(256);
+
+        // a version 1 record: the version 2 charge rules byte and version 3 fingerprint dropped
+        codec.encode(agreement, buffer);
+        buffer.position(buffer.position() - Byte.BYTES - Integer.BYTES);
+        buffer.putShort(0, (short) (buffer.position() - Short.BYTES));
+        buffer.put(Short.BYTES, (byte) 1);
+        buffer.flip();
+
+        var decoded = codec.decode(buffer);
+        assertAll(
+                () -> assertNotNull(agreement.getChargeRules()),
+                () -> assertNull(decoded.getChargeRules()),
+                () -> assertEquals(agreement.getFinalChargeCents(), decoded.getFinalChargeCents()),
+                () -> assertFalse(buffer.hasRemaining())
+        );
+    }
+
+    @Test
+    @DisplayName("records should be refused by a codec whose dictionary has since gained a tool")
+    void roundTrip_5() throws Exception {
+        var agreement = agreements(1).get(0);
+        var buffer = ByteBuffer.allocate(256);
+        codec.encode(agreement, buffer);
+        buffer.flip();
+
+        // JAKA sorts between CHNS and JAKD, renumbering every tool code after it
+        var tools = new ArrayList<>(Stream.of(TOOL_CODES)
+                .map(code -> new MappedToolRepository().findByToolCode(code).orElseThrow())
+                .toList());
+        tools.add(Tool.builder().code("JAKA").type(ToolType.JACK_HAMMER).brand("Atlas").build());
+        var grown = new RentalAgreementCodec(ToolDictionary.of(tools));
+
+        assertAll(
+                () -> assertNotEquals(dictionary.fingerprint(), ToolDictionary.of(tools).fingerprint()),
+                () -> assertThrows(IllegalArgumentException.class, () -> grown.decode(buffer.duplicate())),
+                () -> assertEquals(agreement, codec.decode(buffer.duplicate()), "same dictionary")
+        );
+    }
+
+    @Test
+    @DisplayName("malformed records should be rejected")
+    void decode_1() throws Exception {
+        var buffer = ByteBuffer.allocate(256);
+        codec.encode(agreements(1).get(0), buffer);
+        buffer.flip();
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer.duplicate().put(Short.BYTES, (byte) 0)), "version"),
+                () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer.duplicate().putShort(0, (short) 10)), "short record"),
+                () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer.duplicate().putShort(3, (short) 99)), "tool code id"),
+                () -> assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer.duplicate().limit(20)), "truncated")
+        );
+    }
+
+    @Test
+    @DisplayName("encoding should be several times smaller than Java serialization of the same fields")
+    void size_1() throws Exception {
+        var agreement = agreements(1).get(0);
+
+        // RentalAgreement is not Serializable; serialize its field values as the POJO would hold them
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new Object[]{agreement.getToolCode(), agreement.getToolType(), agreement.getToolBrand(),
+                    agreement.getRentalDays(), agreement.getCheckoutDate(), agreement.getDueDate(),
+                    agreement.getDailyRentalCharge(), agreement.getChargeDays(), agreement.getPreDiscountCharge(),
+                    agreement.getDiscountPercent(), agreement.getDiscountAmount(), agreement.getFinalCharge()});
+        }
+
+        var serializedLength = bytes.size();
+        assertTrue(serializedLength > 5 * RentalAgreementCodec.CATALOGUED_LENGTH,
+                "serialized %d bytes, encoded %d bytes".formatted(serializedLength, RentalAgreementCodec.CATALOGUED_LENGTH));
+    }
+
+    private static List<RentalAgreement> agreements(int count) throws Exception {
+        var handler = new MappedToolCheckoutHandler(new MappedToolRepository(), new DefaultRentalAgreementCalculator());
+        var agreements = new ArrayList<RentalAgreement>();
+        for (int i = 0; i < count; i++) {
+            agreements.add(handler.handle(CheckinRequest.builder()
+                    .toolCode(TOOL_CODES[i % TOOL_CODES.length])
+                    .dayCount(1 + i % 30)
+                    .discountPercentage(i % 101)
+                    .checkoutDate(LocalDate.of(2020, 7, 2).plusDays(i))
+                    .build()));
+        }
+        return agreements;
+    }
+}
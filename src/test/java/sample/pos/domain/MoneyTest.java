@@ -0,0 +1,45 @@
+package sample.pos.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money (long cents)")
+class MoneyTest {
+
+    @Test
+    @DisplayName("percentOf should match the prior BigDecimal HALF_UP discount rounding to the cent")
+    void percentOf_1() {
+        var by100 = BigDecimal.valueOf(100);
+
+        for (long cents = 0; cents < 20_000; cents += 7) {
+            var amount = Money.toBigDecimal(cents);
+            for (int percent = 0; percent <= 100; percent++) {
+                // discount calculation as previously done by DefaultRentalAgreementCalculator
+                var expected = amount.multiply(BigDecimal.valueOf(percent))
+                        .divide(by100, RoundingMode.HALF_UP)
+                        .setScale(2, RoundingMode.HALF_UP);
+
+                if (!expected.equals(Money.toBigDecimal(Money.percentOf(cents, percent)))) {
+                    fail("%d%% of %s: expected <%s>".formatted(percent, amount, expected));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should convert between cents and BigDecimal, rounding HALF_UP")
+    void toBigDecimal_1() {
+        assertAll(
+                () -> assertEquals(new BigDecimal("1.99"), Money.toBigDecimal(199)),
+                () -> assertEquals(199, Money.toCents(BigDecimal.valueOf(1.99))),
+                () -> assertEquals(1213, Money.toCents(new BigDecimal("12.125"))),
+                () -> assertEquals(-112, Money.percentOf(-447, 25)),
+                () -> assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3))
+        );
+    }
+}
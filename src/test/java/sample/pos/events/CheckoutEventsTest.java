@@ -0,0 +1,178 @@
+package sample.pos.events;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.MappedToolPOS;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.renderers.RentalAgreementJsonRenderer;
+import sample.pos.renderers.RentalAgreementTextRenderer;
+import sample.pos.renderers.StreamingRentalAgreementTextRenderer;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.reservations.ReservationIndex;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+import sample.pos.service.RentalAgreementCalculator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Checkout Flight Recorder Events")
+class CheckoutEventsTest {
+
+    private Path recordingFile;
+
+    private MappedToolPOS pos;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        recordingFile = Files.createTempFile("checkout", ".jfr");
+        var renderer = new RentalAgreementTextRenderer();
+        pos = new MappedToolPOS(renderer,
+                new MappedToolCheckoutHandler(new MappedToolRepository(), new DefaultRentalAgreementCalculator()),
+                renderer::render);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(recordingFile);
+    }
+
+    @Test
+    @DisplayName("every stage should record the tool code, day count and charge days")
+    void events_1() throws Exception {
+        try (var recording = new Recording()) {
+            CheckoutEvents.NAMES.forEach(name -> recording.enable(name).withThreshold(Duration.ZERO));
+            recording.start();
+
+            pos.process(pos.handle(request("CHNS", 5)));
+            assertThrows(InvalidToolCodeException.class, () -> pos.handle(request("0000", 4)));
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        var events = RecordingFile.readAllEvents(recordingFile).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        assertAll(
+                () -> assertEquals(Map.of("CHNS", 3, "0000", -1), chargeDaysByToolCode(events.get(PosHandleEvent.NAME)), "pos handle"),
+                () -> assertEquals(Map.of("CHNS", 3, "0000", -1), chargeDaysByToolCode(events.get(CheckoutHandlerEvent.NAME)), "handler"),
+                () -> assertEquals(Map.of("CHNS", -1, "0000", -1), chargeDaysByToolCode(events.get(ToolLookupEvent.NAME)), "lookup"),
+                () -> assertEquals(Map.of("CHNS", 3), chargeDaysByToolCode(events.get(CalculationEvent.NAME)), "calculation"),
+                () -> assertEquals(Map.of("CHNS", 3), chargeDaysByToolCode(events.get(PosProcessEvent.NAME)), "pos process"),
+                () -> assertEquals(Map.of("CHNS", 3), chargeDaysByToolCode(events.get(RenderEvent.NAME)), "render"),
+                () -> assertTrue(events.values().stream().flatMap(List::stream)
+                        .allMatch(event -> event.getInt("dayCount") == ("CHNS".equals(event.getString("toolCode")) ? 5 : 4)), "day counts"),
+                () -> assertTrue(events.values().stream().flatMap(List::stream)
+                        .noneMatch(event -> event.getDuration().isNegative()), "durations")
+        );
+    }
+
+    @Test
+    @DisplayName("failed checkouts, calculations and renderings should still be recorded")
+    void events_3() throws Exception {
+        var calculator = new DefaultRentalAgreementCalculator();
+        var tool = new MappedToolRepository().findByToolCode("CHNS").orElseThrow();
+        var rentalAgreement = calculator.calculate(tool, 5, 25, LocalDate.of(2015, 7, 2));
+        RentalAgreementCalculator failingCalculator = (failedTool, dayCount, discountPercent, checkoutDate) -> {
+            throw new IllegalStateException("Pricing table unavailable");
+        };
+        Appendable failing = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        try (var recording = new Recording()) {
+            CheckoutEvents.NAMES.forEach(name -> recording.enable(name).withThreshold(Duration.ZERO));
+            recording.start();
+
+            assertThrows(RuntimeException.class, () -> calculator.calculate(tool, 5, 25, null));
+            assertThrows(RuntimeException.class, () -> new MappedToolCheckoutHandler(new MappedToolRepository(), failingCalculator,
+                    new ReservationIndex()).tryHandle(request("LADW", 2)));
+            assertThrows(IOException.class, () -> new StreamingRentalAgreementTextRenderer().renderTo(rentalAgreement, failing));
+            assertThrows(IOException.class, () -> new RentalAgreementJsonRenderer().renderTo(rentalAgreement, failing));
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        var events = RecordingFile.readAllEvents(recordingFile).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        assertAll(
+                () -> assertEquals(Map.of("CHNS", -1), chargeDaysByToolCode(events.get(CalculationEvent.NAME)), "calculation"),
+                () -> assertEquals(5, events.get(CalculationEvent.NAME).get(0).getInt("dayCount"), "calculation day count"),
+                () -> assertEquals(2, events.get(RenderEvent.NAME).size(), "renderings"),
+                () -> assertEquals(Map.of("LADW", -1), chargeDaysByToolCode(events.get(CheckoutHandlerEvent.NAME)), "handler"),
+                () -> assertEquals(2, events.get(CheckoutHandlerEvent.NAME).get(0).getInt("dayCount"), "handler day count")
+        );
+    }
+
+    @Test
+    @DisplayName("checkouts below the threshold should not be recorded")
+    void events_2() throws Exception {
+        try (var recording = new Recording(CheckoutEvents.configuration())) {
+            assertAll(
+                    () -> assertEquals("true", recording.getSettings().get(CalculationEvent.NAME + "#enabled")),
+                    () -> assertEquals("5 ms", recording.getSettings().get(CalculationEvent.NAME + "#threshold")),
+                    () -> assertEquals(CheckoutEvents.NAMES.size(), recording.getSettings().keySet().stream()
+                            .filter(setting -> setting.endsWith("#threshold")).count())
+            );
+
+            CheckoutEvents.NAMES.forEach(name -> recording.enable(name).withThreshold(Duration.ofHours(1)));
+            recording.start();
+
+            for (int i = 0; i < 100; i++) {
+                pos.process(pos.handle(request("LADW", 1 + i % 10)));
+            }
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        var events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> CheckoutEvents.NAMES.contains(event.getEventType().getName()))
+                .toList();
+        assertEquals(List.of(), events);
+    }
+
+    private static CheckinRequest request(String toolCode, int dayCount) {
+        return CheckinRequest.builder()
+                .toolCode(toolCode)
+                .dayCount(dayCount)
+                .discountPercentage(25)
+                .checkoutDate(LocalDate.of(2015, 7, 2))
+                .build();
+    }
+
+    private static Map<String, Integer> chargeDaysByToolCode(List<RecordedEvent> events) {
+        assertNotNull(events, "no events recorded");
+        return events.stream().collect(Collectors.toMap(event -> event.getString("toolCode"), event -> event.getInt("chargeDays")));
+    }
+}
@@ -0,0 +1,104 @@
+package sample.pos.handlers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.CheckoutOutcome;
+import sample.pos.exceptions.InvalidDayCountException;
+import sample.pos.exceptions.InvalidDiscountException;
+import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.exceptions.ToolUnavailableException;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.reservations.ReservationIndex;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Mapped Tool Checkout Handler")
+class MappedToolCheckoutHandlerTest {
+
+    private static final LocalDate CHECKOUT_DATE = LocalDate.of(2015, 7, 2);
+
+    private final MappedToolCheckoutHandler checkoutHandler = new MappedToolCheckoutHandler(new MappedToolRepository(),
+            new DefaultRentalAgreementCalculator(), new ReservationIndex());
+
+    @Test
+    @DisplayName("tryHandle should return a success holding the agreement")
+    void tryHandle_1() {
+        var outcome = checkoutHandler.tryHandle(request("CHNS", 5, 25));
+
+        var success = assertInstanceOf(CheckoutOutcome.Success.class, outcome);
+        assertAll(
+                () -> assertTrue(outcome.isSuccess()),
+                () -> assertEquals("CHNS", success.rentalAgreement().getToolCode()),
+                () -> assertEquals(3, success.rentalAgreement().getChargeDays())
+        );
+    }
+
+    @Test
+    @DisplayName("tryHandle should return a failure for each kind of bad request, without throwing")
+    void tryHandle_2() {
+        checkoutHandler.tryHandle(request("LADW", 3, 10));
+
+        assertAll(
+                () -> assertEquals(new CheckoutOutcome.InvalidDayCount(0), checkoutHandler.tryHandle(request("CHNS", 0, 10))),
+                () -> assertEquals(new CheckoutOutcome.InvalidDiscount(101), checkoutHandler.tryHandle(request("CHNS", 5, 101))),
+                () -> assertEquals(new CheckoutOutcome.InvalidToolCode("CHNZ"), checkoutHandler.tryHandle(request("CHNZ", 5, 10))),
+                () -> assertEquals(new CheckoutOutcome.ToolUnavailable("LADW", CHECKOUT_DATE, CHECKOUT_DATE.plusDays(2)),
+                        checkoutHandler.tryHandle(request("LADW", 2, 10))),
+                () -> assertFalse(checkoutHandler.tryHandle(request("CHNZ", 5, 10)).isSuccess())
+        );
+    }
+
+    @Test
+    @DisplayName("handle should throw the exception matching each failure, with the same messages as before")
+    void handle_1() throws Exception {
+        checkoutHandler.handle(request("LADW", 3, 10));
+
+        var dayCount = assertThrows(InvalidDayCountException.class, () -> checkoutHandler.handle(request("CHNS", 0, 10)));
+        var discount = assertThrows(InvalidDiscountException.class, () -> checkoutHandler.handle(request("CHNS", 5, -1)));
+        var toolCode = assertThrows(InvalidToolCodeException.class, () -> checkoutHandler.handle(request("CHNZ", 5, 10)));
+        var unavailable = assertThrows(ToolUnavailableException.class, () -> checkoutHandler.handle(request("LADW", 2, 10)));
+        assertAll(
+                () -> assertEquals("Day count must be greater than 0: <0>", dayCount.getMessage()),
+                () -> assertEquals("Discount must be between 0 and 100: <-1>", discount.getMessage()),
+                () -> assertEquals("Unable to find tool with given code: <CHNZ>", toolCode.getMessage()),
+                () -> assertEquals("Tool is already reserved: <LADW> from <2015-07-02> to <2015-07-04>", unavailable.getMessage())
+        );
+    }
+
+    @Test
+    @DisplayName("failure messages should read as the matching exception messages")
+    void tryHandle_3() {
+        assertAll(
+                () -> assertEquals("Day count must be greater than 0: <0>", new CheckoutOutcome.InvalidDayCount(0).message()),
+                () -> assertEquals("Discount must be between 0 and 100: <-1>", new CheckoutOutcome.InvalidDiscount(-1).message()),
+                () -> assertEquals("Unable to find tool with given code: <CHNZ>", new CheckoutOutcome.InvalidToolCode("CHNZ").message()),
+                () -> assertEquals("Tool is already reserved: <LADW> from <2015-07-02> to <2015-07-04>",
+                        new CheckoutOutcome.ToolUnavailable("LADW", CHECKOUT_DATE, CHECKOUT_DATE.plusDays(2)).message())
+        );
+    }
+
+    @Test
+    @DisplayName("cancel should release the agreement's reservation")
+    void cancel_1() {
+        var success = assertInstanceOf(CheckoutOutcome.Success.class, checkoutHandler.tryHandle(request("LADW", 3, 10)));
+
+        assertAll(
+                () -> assertTrue(checkoutHandler.cancel(success.rentalAgreement())),
+                () -> assertFalse(checkoutHandler.cancel(success.rentalAgreement()), "already released"),
+                () -> assertTrue(checkoutHandler.tryHandle(request("LADW", 3, 10)).isSuccess())
+        );
+    }
+
+    private static CheckinRequest request(String toolCode, int dayCount, int discountPercentage) {
+        return CheckinRequest.builder()
+                .toolCode(toolCode)
+                .dayCount(dayCount)
+                .discountPercentage(discountPercentage)
+                .checkoutDate(CHECKOUT_DATE)
+                .build();
+    }
+}
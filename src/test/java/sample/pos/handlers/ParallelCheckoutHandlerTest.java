@@ -0,0 +1,84 @@
+package sample.pos.handlers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.exceptions.InvalidDayCountException;
+import sample.pos.exceptions.InvalidDiscountException;
+import sample.pos.exceptions.InvalidToolCodeException;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Parallel Checkout Handler")
+class ParallelCheckoutHandlerTest {
+
+    private final MappedToolCheckoutHandler checkoutHandler = new MappedToolCheckoutHandler(new MappedToolRepository(),
+            new DefaultRentalAgreementCalculator());
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR", "0000"};
+
+    @Test
+    @DisplayName("should return agreements and failures for every request, in input order, without aborting the batch")
+    void handle_1() throws Exception {
+        var requests = new ArrayList<CheckinRequest>();
+        for (int i = 0; i < 1_000; i++) {
+            requests.add(CheckinRequest.builder()
+                    .toolCode(TOOL_CODES[i % TOOL_CODES.length])
+                    .dayCount(i % 7 == 0 ? 0 : i % 30)
+                    .discountPercentage(i % 11 == 0 ? 101 : i % 100)
+                    .checkoutDate(LocalDate.of(2020, 7, 2).plusDays(i))
+                    .build());
+        }
+
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var results = new ParallelCheckoutHandler(checkoutHandler, executor, 3).handle(requests);
+
+            assertEquals(requests.size(), results.size());
+            for (int i = 0; i < requests.size(); i++) {
+                var request = requests.get(i);
+                var result = results.get(i);
+
+                assertEquals(i, result.getIndex());
+                assertSame(request, result.getRequest());
+                try {
+                    assertEquals(checkoutHandler.handle(request), result.getAgreement());
+                    assertTrue(result.isSuccess());
+                } catch (InvalidDayCountException | InvalidDiscountException | InvalidToolCodeException e) {
+                    assertFalse(result.isSuccess());
+                    assertEquals(e.getClass(), result.getFailure().getClass());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("should handle empty and single item batches on the common pool")
+    void handle_2() throws Exception {
+        var handler = new ParallelCheckoutHandler(checkoutHandler);
+        var request = CheckinRequest.builder()
+                .toolCode("JAKD")
+                .dayCount(6)
+                .discountPercentage(0)
+                .checkoutDate(LocalDate.of(2015, 9, 3))
+                .build();
+
+        var results = handler.handle(Stream.of(request));
+
+        assertAll(
+                () -> assertTrue(handler.handle(List.of()).isEmpty()),
+                () -> assertEquals(1, results.size()),
+                () -> assertEquals(3, results.get(0).getAgreement().getChargeDays())
+        );
+    }
+}
@@ -0,0 +1,140 @@
+package sample.pos.handlers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.ReturnRequest;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+import sample.pos.exceptions.AgreementAlreadyReturnedException;
+import sample.pos.exceptions.InvalidAgreementIdException;
+import sample.pos.exceptions.InvalidReturnDateException;
+import sample.pos.repository.RentalAgreementRepository;
+import sample.pos.reservations.ReservationIndex;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+import sample.pos.service.ReturnCalculator;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Return Handler")
+class ReturnHandlerTest {
+
+    private final RentalAgreement agreement = new DefaultRentalAgreementCalculator().calculate(Tool.builder()
+            .code("LADW")
+            .brand("Werner")
+            .type(ToolType.LADDER)
+            .build(), 3, 10, LocalDate.of(2020, 7, 2));
+
+    /**
+     * Repository holding the single agreement, as id 1
+     */
+    private final RentalAgreementRepository repository = new RentalAgreementRepository() {
+        private final Map<Long, LocalDate> returnDates = new ConcurrentHashMap<>();
+
+        @Override
+        public long save(RentalAgreement rentalAgreement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<RentalAgreement> findById(long agreementId) {
+            return agreementId == 1 ? Optional.of(agreement) : Optional.empty();
+        }
+
+        @Override
+        public long count() {
+            return 1;
+        }
+
+        @Override
+        public LocalDate markReturned(long agreementId, LocalDate returnDate) {
+            if (agreementId != 1) {
+                throw new IllegalArgumentException("Unknown agreement id: " + agreementId);
+            }
+            return returnDates.computeIfAbsent(agreementId, id -> returnDate);
+        }
+
+        @Override
+        public Optional<LocalDate> findReturnDate(long agreementId) {
+            return Optional.ofNullable(returnDates.get(agreementId));
+        }
+    };
+
+    private final ReturnHandler returnHandler = new ReturnHandler(repository, new ReturnCalculator());
+
+    private static ReturnRequest returnRequest(long agreementId, LocalDate returnDate) {
+        return ReturnRequest.builder()
+                .agreementId(agreementId)
+                .returnDate(returnDate)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should return the same receipt when an agreement is returned again on the same date")
+    void handle_1() throws Exception {
+        var first = returnHandler.handle(returnRequest(1, LocalDate.of(2020, 7, 8)));
+        var second = returnHandler.handle(returnRequest(1, LocalDate.of(2020, 7, 8)));
+
+        assertAll(
+                () -> assertEquals(1, first.getAgreementId()),
+                () -> assertEquals(first, second),
+                () -> assertEquals(1015, second.getFinalChargeCents())
+        );
+    }
+
+    @Test
+    @DisplayName("should reject unknown agreements, invalid return dates, and second returns on other dates")
+    void handle_2() throws Exception {
+        assertAll(
+                () -> assertThrows(InvalidAgreementIdException.class, () -> returnHandler.handle(returnRequest(2, LocalDate.of(2020, 7, 8)))),
+                () -> assertThrows(InvalidReturnDateException.class, () -> returnHandler.handle(returnRequest(1, LocalDate.of(2020, 7, 1)))),
+                () -> assertThrows(InvalidReturnDateException.class, () -> returnHandler.handle(returnRequest(1, null)))
+        );
+
+        returnHandler.handle(returnRequest(1, LocalDate.of(2020, 7, 4)));
+        var exception = assertThrows(AgreementAlreadyReturnedException.class, () -> returnHandler.handle(returnRequest(1, LocalDate.of(2020, 7, 5))));
+        assertAll(
+                () -> assertEquals("Agreement already returned: <1> on <2020-07-04>", exception.getMessage()),
+                () -> assertThrows(InvalidReturnDateException.class, () -> returnHandler.handle(returnRequest(1, null)), "missing date, once returned")
+        );
+    }
+
+    @Test
+    @DisplayName("should recognize a return marked in the repository, as after a restart")
+    void handle_3() throws Exception {
+        var first = returnHandler.handle(returnRequest(1, LocalDate.of(2020, 7, 8)));
+
+        // a new handler has no receipts in memory
+        var restarted = new ReturnHandler(repository, new ReturnCalculator());
+        var repeated = restarted.handle(returnRequest(1, LocalDate.of(2020, 7, 8)));
+
+        assertAll(
+                () -> assertEquals(Optional.of(LocalDate.of(2020, 7, 8)), repository.findReturnDate(1)),
+                () -> assertEquals(first, repeated, "same receipt, not charged again"),
+                () -> assertThrows(AgreementAlreadyReturnedException.class,
+                        () -> new ReturnHandler(repository, new ReturnCalculator()).handle(returnRequest(1, LocalDate.of(2020, 7, 4))))
+        );
+    }
+
+    @Test
+    @DisplayName("should end the tool's reservation on an early return")
+    void handle_4() throws Exception {
+        var index = new ReservationIndex();
+        index.tryReserve("LADW", agreement.getCheckoutDate(), agreement.getDueDate()).orElseThrow();
+        var handler = new ReturnHandler(repository, new ReturnCalculator(), index);
+
+        // checked out 2020-07-02 for 3 days, due back 2020-07-05
+        handler.handle(returnRequest(1, LocalDate.of(2020, 7, 3)));
+
+        assertAll(
+                () -> assertTrue(index.isAvailable("LADW", LocalDate.of(2020, 7, 3), LocalDate.of(2020, 7, 10))),
+                () -> assertFalse(index.isAvailable("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 3))),
+                () -> assertEquals(LocalDate.of(2020, 7, 3), index.findReservations("LADW").get(0).getDueDate())
+        );
+    }
+}
@@ -0,0 +1,281 @@
+package sample.pos.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.MappedToolPOS;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.handlers.CheckoutHandler;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.metrics.CheckoutMetrics;
+import sample.pos.metrics.TimedCheckoutHandler;
+import sample.pos.renderers.RentalAgreementTextRenderer;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.repository.RentalAgreementRepository;
+import sample.pos.reservations.ReservationIndex;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Checkout HTTP Server")
+class CheckoutHttpServerTest {
+
+    /**
+     * Minimal in-memory repository, to check the server saves and finds agreements
+     */
+    private static class ListRentalAgreementRepository implements RentalAgreementRepository {
+        private final List<RentalAgreement> agreements = new ArrayList<>();
+
+        @Override
+        public synchronized long save(RentalAgreement rentalAgreement) {
+            agreements.add(rentalAgreement);
+            return agreements.size();
+        }
+
+        @Override
+        public synchronized Optional<RentalAgreement> findById(long agreementId) {
+            return agreementId < 1 || agreementId > agreements.size() ? Optional.empty() : Optional.of(agreements.get((int) agreementId - 1));
+        }
+
+        @Override
+        public synchronized long count() {
+            return agreements.size();
+        }
+
+        @Override
+        public LocalDate markReturned(long agreementId, LocalDate returnDate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<LocalDate> findReturnDate(long agreementId) {
+            return Optional.empty();
+        }
+    }
+
+    private final MappedToolCheckoutHandler checkoutHandler = new MappedToolCheckoutHandler(new MappedToolRepository(),
+            new DefaultRentalAgreementCalculator());
+
+    private final RentalAgreementTextRenderer renderer = new RentalAgreementTextRenderer();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private CheckoutHttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = CheckoutHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), checkoutHandler, renderer,
+                new ListRentalAgreementRepository());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:%d%s".formatted(server.getAddress().getPort(), path));
+    }
+
+    private HttpResponse<String> post(String body, String contentType) throws Exception {
+        var request = HttpRequest.newBuilder(uri("/checkout"))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("should serve checkouts through a timed handler, recording latency and counting refusals")
+    void checkout_7() throws Exception {
+        var metrics = new CheckoutMetrics();
+        var timedHandler = new TimedCheckoutHandler(new MappedToolCheckoutHandler(new MappedToolRepository(),
+                new DefaultRentalAgreementCalculator(), new ReservationIndex()), metrics);
+        server.close();
+        server = CheckoutHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), timedHandler, renderer);
+
+        var statuses = List.of(post("LADW,3,10,7/2/20", "text/csv").statusCode(),
+                post("LADW,3,10,7/2/20", "text/csv").statusCode(),
+                post("JAKX,4,50,7/2/20", "text/csv").statusCode(),
+                post("JAKR,0,50,7/2/20", "text/csv").statusCode());
+
+        var snapshot = metrics.snapshot();
+        assertAll(
+                () -> assertEquals(List.of(200, 409, 404, 422), statuses),
+                () -> assertEquals(4, snapshot.stages().get(CheckoutMetrics.HANDLER_STAGE).getCount(), "handler"),
+                () -> assertEquals(1, snapshot.rejections().get("ToolUnavailableException").longValue(), "tool unavailable"),
+                () -> assertEquals(1, snapshot.rejections().get("InvalidToolCodeException").longValue(), "tool code"),
+                () -> assertEquals(1, snapshot.rejections().get("InvalidDayCountException").longValue(), "day count")
+        );
+    }
+
+    @Test
+    @DisplayName("should serve checkouts through a plain handler, adapted")
+    void checkout_8() throws Exception {
+        var pos = new MappedToolPOS(renderer, checkoutHandler);
+        server.close();
+        server = CheckoutHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), CheckoutHandler.of(pos), renderer);
+
+        var accepted = post("LADW,3,10,7/2/20", "text/csv");
+        var unknownTool = post("JAKX,4,50,7/2/20", "text/csv");
+        var invalidDiscount = post("JAKR,5,101,9/3/15", "text/csv");
+
+        assertAll(
+                () -> assertEquals(200, accepted.statusCode()),
+                () -> assertEquals(404, unknownTool.statusCode()),
+                () -> assertEquals("Unable to find tool with given code: <JAKX>", unknownTool.body()),
+                () -> assertEquals(422, invalidDiscount.statusCode())
+        );
+    }
+
+    @Test
+    @DisplayName("should check out a JSON request, respond with the rendered agreement, and serve it from its location")
+    void checkout_1() throws Exception {
+        var expected = renderer.render(checkoutHandler.handle(CheckinRequest.builder()
+                .toolCode("LADW")
+                .dayCount(3)
+                .discountPercentage(10)
+                .checkoutDate(LocalDate.of(2020, 7, 2))
+                .build()));
+
+        var response = post("{\"toolCode\":\"LADW\",\"dayCount\":3,\"discountPercentage\":10,\"checkoutDate\":\"2020-07-02\"}\n", "application/json");
+        var location = response.headers().firstValue("Location").orElseThrow();
+        var stored = get(location);
+
+        assertAll(
+                () -> assertEquals(200, response.statusCode()),
+                () -> assertEquals(expected, response.body()),
+                () -> assertEquals("/agreements/1", location),
+                () -> assertEquals(200, stored.statusCode()),
+                () -> assertEquals(expected, stored.body())
+        );
+    }
+
+    @Test
+    @DisplayName("should check out a CSV request")
+    void checkout_2() throws Exception {
+        var response = post("JAKR,4,50,7/2/20", "text/csv");
+
+        assertAll(
+                () -> assertEquals(200, response.statusCode()),
+                () -> assertTrue(response.body().startsWith("Tool code: JAKR\n"), response.body())
+        );
+    }
+
+    @Test
+    @DisplayName("should check out a pretty-printed JSON request")
+    void checkout_5() throws Exception {
+        var response = post("""
+                {
+                  "toolCode": "LADW",
+                  "dayCount": 3,
+                  "discountPercentage": 10,
+                  "checkoutDate": "2020-07-02"
+                }
+                """, "application/json");
+        var twoObjects = post("{\"toolCode\":\"LADW\",\"dayCount\":3,\"checkoutDate\":\"2020-07-02\"}\n"
+                + "{\"toolCode\":\"LADW\",\"dayCount\":3,\"checkoutDate\":\"2020-07-02\"}", "application/json");
+        var empty = post(" \n", "application/json");
+
+        assertAll(
+                () -> assertEquals(200, response.statusCode()),
+                () -> assertTrue(response.body().startsWith("Tool code: LADW\n"), response.body()),
+                () -> assertEquals(400, twoObjects.statusCode()),
+                () -> assertEquals(400, empty.statusCode())
+        );
+    }
+
+    @Test
+    @DisplayName("should release the reservation when the agreement cannot be saved")
+    void checkout_6() throws Exception {
+        var reservingHandler = new MappedToolCheckoutHandler(new MappedToolRepository(), new DefaultRentalAgreementCalculator(),
+                new ReservationIndex());
+        var failing = new AtomicBoolean(true);
+        var repository = new ListRentalAgreementRepository() {
+            @Override
+            public synchronized long save(RentalAgreement rentalAgreement) {
+                if (failing.get()) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+                return super.save(rentalAgreement);
+            }
+        };
+        server.close();
+        server = CheckoutHttpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), reservingHandler, renderer,
+                repository);
+
+        var failed = post("LADW,3,10,7/2/20", "text/csv");
+        failing.set(false);
+        var retried = post("LADW,3,10,7/2/20", "text/csv");
+        var conflicting = post("LADW,3,10,7/2/20", "text/csv");
+
+        assertAll(
+                () -> assertEquals(500, failed.statusCode()),
+                () -> assertEquals(200, retried.statusCode(), "window is free again"),
+                () -> assertEquals(409, conflicting.statusCode(), "saved agreement keeps its reservation")
+        );
+    }
+
+    @Test
+    @DisplayName("should map domain exceptions and malformed requests to 4xx responses")
+    void checkout_3() throws Exception {
+        var unknownTool = post("JAKX,4,50,7/2/20", "text/csv");
+        var invalidDayCount = post("JAKR,0,50,7/2/20", "text/csv");
+        var invalidDiscount = post("JAKR,5,101,9/3/15", "text/csv");
+        var malformed = post("{\"toolCode\":\"JAKR\"}", "application/json");
+        var tooLarge = post("x".repeat(CheckoutHttpServer.MAX_BODY_LENGTH + 1), "text/csv");
+        var wrongMethod = get("/checkout");
+        var unknownAgreement = get("/agreements/42");
+
+        assertAll(
+                () -> assertEquals(404, unknownTool.statusCode()),
+                () -> assertEquals("Unable to find tool with given code: <JAKX>", unknownTool.body()),
+                () -> assertEquals(422, invalidDayCount.statusCode()),
+                () -> assertEquals("Day count must be greater than 0: <0>", invalidDayCount.body()),
+                () -> assertEquals(422, invalidDiscount.statusCode()),
+                () -> assertEquals("Discount must be between 0 and 100: <101>", invalidDiscount.body()),
+                () -> assertEquals(400, malformed.statusCode()),
+                () -> assertEquals(413, tooLarge.statusCode()),
+                () -> assertEquals(405, wrongMethod.statusCode()),
+                () -> assertEquals(404, unknownAgreement.statusCode())
+        );
+    }
+
+    @Test
+    @DisplayName("should serve many concurrent requests")
+    void checkout_4() {
+        var responses = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+        for (int i = 0; i < 500; i++) {
+            var request = HttpRequest.newBuilder(uri("/checkout"))
+                    .header("Content-Type", "text/csv")
+                    .POST(HttpRequest.BodyPublishers.ofString("CHNS,%d,0,2020-07-02".formatted(i % 30 + 1)))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (var response : responses) {
+            assertEquals(200, response.join().statusCode());
+        }
+    }
+}
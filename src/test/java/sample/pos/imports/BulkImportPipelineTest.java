@@ -0,0 +1,128 @@
+package sample.pos.imports;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.renderers.StreamingRentalAgreementTextRenderer;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bulk Import Pipeline")
+class BulkImportPipelineTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR", "0000"};
+
+    private final MappedToolCheckoutHandler checkoutHandler = new MappedToolCheckoutHandler(new MappedToolRepository(),
+            new DefaultRentalAgreementCalculator());
+
+    private final StreamingRentalAgreementTextRenderer renderer = new StreamingRentalAgreementTextRenderer();
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("imports");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should write agreements and rejects in input order, across several batches")
+    void run_1() throws Exception {
+        var lines = new ArrayList<String>();
+        lines.add("toolCode,dayCount,discountPercentage,checkoutDate");
+        var expectedAgreements = new StringBuilder();
+        var expectedRejectLines = new ArrayList<Long>();
+        for (int i = 0; i < 1_000; i++) {
+            var request = CheckinRequest.builder()
+                    .toolCode(TOOL_CODES[i % TOOL_CODES.length])
+                    .dayCount(i % 7 == 0 ? 0 : i % 30)
+                    .discountPercentage(i % 11 == 0 ? 101 : i % 100)
+                    .checkoutDate(LocalDate.of(2020, 7, 2).plusDays(i))
+                    .build();
+            lines.add("%s,%d,%d,%s".formatted(request.getToolCode(), request.getDayCount(), request.getDiscountPercentage(), request.getCheckoutDate()));
+            try {
+                expectedAgreements.append(renderer.render(checkoutHandler.handle(request))).append('\n');
+            } catch (Exception e) {
+                expectedRejectLines.add((long) lines.size());
+            }
+        }
+        lines.add("");
+        lines.add("not,a,valid,row");
+        expectedRejectLines.add((long) lines.size());
+
+        var input = directory.resolve("requests.csv");
+        Files.write(input, lines);
+        var agreements = directory.resolve("agreements.txt");
+        var rejects = directory.resolve("rejects.tsv");
+
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var report = new BulkImportPipeline(checkoutHandler, renderer, executor, 3, 64, 1024).run(input, agreements, rejects);
+
+            var rejectLines = Files.readAllLines(rejects).stream()
+                    .map(line -> Long.parseLong(line.substring(0, line.indexOf('\t'))))
+                    .toList();
+            assertAll(
+                    () -> assertEquals(1_001, report.getRows(), "rows"),
+                    () -> assertEquals(expectedRejectLines.size(), report.getRejected(), "rejected"),
+                    () -> assertEquals(1_001 - expectedRejectLines.size(), report.getAgreements(), "agreements"),
+                    () -> assertTrue(report.getRowsPerSecond() > 0, "rows per second"),
+                    () -> assertEquals(expectedAgreements.toString(), Files.readString(agreements)),
+                    () -> assertEquals(expectedRejectLines, rejectLines)
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("should import JSON lines, rejecting over-long lines and reporting the reason")
+    void run_2() throws Exception {
+        var input = directory.resolve("requests.jsonl");
+        Files.writeString(input, """
+                {"toolCode":"JAKR","dayCount":5,"discountPercentage":101,"checkoutDate":"2015-09-03"}
+                {"toolCode":"LADW","dayCount":3,"discountPercentage":10,"checkoutDate":"2020-07-02"}\r
+                {"toolCode":"LADW","dayCount":3,"note":"%s","checkoutDate":"2020-07-02"}
+                {"toolCode":"JAKR","dayCount":4,"discountPercentage":50,"checkoutDate":"2020-07-02"}""".formatted("x".repeat(300)));
+        var agreements = directory.resolve("agreements.txt");
+        var rejects = directory.resolve("rejects.tsv");
+
+        var report = new BulkImportPipeline(checkoutHandler, renderer, Executors.newSingleThreadExecutor(), 1, 2, 200)
+                .run(input, agreements, rejects);
+
+        var rejectLines = Files.readAllLines(rejects, StandardCharsets.UTF_8);
+        assertAll(
+                () -> assertEquals(4, report.getRows(), "rows"),
+                () -> assertEquals(2, report.getAgreements(), "agreements"),
+                () -> assertEquals(2, report.getRejected(), "rejected"),
+                () -> assertEquals(2, rejectLines.size()),
+                () -> assertTrue(rejectLines.get(0).startsWith("1\tDiscount must be between 0 and 100: <101>\t"), rejectLines.get(0)),
+                () -> assertTrue(rejectLines.get(1).startsWith("3\tLine longer than 200 bytes\t"), rejectLines.get(1)),
+                () -> assertTrue(Files.readString(agreements).contains("Tool code: LADW"), "LADW agreement"),
+                () -> assertTrue(Files.readString(agreements).contains("Rental days: 4"), "final JAKR agreement")
+        );
+    }
+}
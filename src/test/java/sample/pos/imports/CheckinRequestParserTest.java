@@ -0,0 +1,98 @@
+package sample.pos.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckinRequest Parsers")
+class CheckinRequestParserTest {
+
+    private static final CheckinRequest EXPECTED = CheckinRequest.builder()
+            .toolCode("JAKR")
+            .dayCount(5)
+            .discountPercentage(101)
+            .checkoutDate(LocalDate.of(2015, 9, 3))
+            .build();
+
+    private static CheckinRequest parse(CheckinRequestParser parser, String line) {
+        // surround the record with other bytes, as it would be in a read buffer
+        var bytes = ("xx" + line + "yy").getBytes(StandardCharsets.UTF_8);
+        return parser.parse(bytes, 2, bytes.length - 2);
+    }
+
+    private static boolean isHeader(CheckinRequestParser parser, String line) {
+        var bytes = line.getBytes(StandardCharsets.UTF_8);
+        return parser.isHeader(bytes, 0, bytes.length);
+    }
+
+    @Test
+    @DisplayName("CSV parser should parse ISO and M/d/yy dates, with optional whitespace and quotes")
+    void csv_1() {
+        var parser = new CsvCheckinRequestParser();
+        assertAll(
+                () -> assertEquals(EXPECTED, parse(parser, "JAKR,5,101,2015-09-03")),
+                () -> assertEquals(EXPECTED, parse(parser, " \"JAKR\" , 5 ,101, 9/3/15 ")),
+                () -> assertEquals(EXPECTED, parse(parser, "JAKR,5,101,09/03/2015")),
+                () -> assertEquals(0, parse(parser, "JAKR,5,,2015-09-03").getDiscountPercentage(), "empty discount"),
+                () -> assertEquals(-3, parse(parser, "JAKR,-3,0,2015-09-03").getDayCount(), "negative day count")
+        );
+    }
+
+    @Test
+    @DisplayName("CSV parser should reject malformed records, and recognize a header")
+    void csv_2() {
+        var parser = new CsvCheckinRequestParser();
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,5,101")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,5,101,2015-09-03,extra")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,five,101,2015-09-03")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,99999999999,0,2015-09-03")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,5,0,2015-02-30")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,5,0,3/2015")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, ",5,0,2015-09-03")),
+                () -> assertTrue(isHeader(parser, "toolCode,dayCount,discountPercentage,checkoutDate")),
+                () -> assertTrue(isHeader(parser, "\"TOOLCODE\",dayCount")),
+                () -> assertFalse(isHeader(parser, "JAKR,5,101,2015-09-03"))
+        );
+    }
+
+    @Test
+    @DisplayName("CSV parser should reuse tool code Strings across records")
+    void csv_3() {
+        var parser = new CsvCheckinRequestParser();
+        assertSame(parse(parser, "LADW,3,10,7/2/20").getToolCode(), parse(parser, "LADW,4,0,7/3/20").getToolCode());
+    }
+
+    @Test
+    @DisplayName("JSON lines parser should parse objects in any key order, skipping unknown keys")
+    void jsonl_1() {
+        var parser = new JsonLinesCheckinRequestParser();
+        assertAll(
+                () -> assertEquals(EXPECTED, parse(parser, "{\"toolCode\":\"JAKR\",\"dayCount\":5,\"discountPercentage\":101,\"checkoutDate\":\"2015-09-03\"}")),
+                () -> assertEquals(EXPECTED, parse(parser, " { \"checkoutDate\" : \"9/3/15\", \"note\": \"x\", \"discountPercentage\": 101, \"rush\": true,"
+                        + " \"dayCount\": 5, \"clerk\": null, \"toolCode\": \"JAKR\" } ")),
+                () -> assertEquals(0, parse(parser, "{\"toolCode\":\"JAKR\",\"dayCount\":5,\"checkoutDate\":\"2015-09-03\"}").getDiscountPercentage(),
+                        "missing discount")
+        );
+    }
+
+    @Test
+    @DisplayName("JSON lines parser should reject malformed records")
+    void jsonl_2() {
+        var parser = new JsonLinesCheckinRequestParser();
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "{\"toolCode\":\"JAKR\",\"dayCount\":5}")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "{\"toolCode\":\"JAKR\",\"dayCount\":\"5\",\"checkoutDate\":\"2015-09-03\"}")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "{\"toolCode\":\"JAKR\",\"dayCount\":5,\"checkoutDate\":\"2015-09-03\"")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "{\"toolCode\":\"JA\\\"KR\",\"dayCount\":5,\"checkoutDate\":\"2015-09-03\"}")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "{\"tags\":[1],\"toolCode\":\"JAKR\",\"dayCount\":5,\"checkoutDate\":\"2015-09-03\"}")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "{\"toolCode\":\"JAKR\",\"dayCount\":5,\"checkoutDate\":\"2015-09-03\"} {}")),
+                () -> assertThrows(IllegalArgumentException.class, () -> parse(parser, "JAKR,5,101,2015-09-03"))
+        );
+    }
+}
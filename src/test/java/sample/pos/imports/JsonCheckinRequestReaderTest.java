@@ -0,0 +1,192 @@
+package sample.pos.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.renderers.RentalAgreementJsonRenderer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JSON Checkin Request Reader")
+class JsonCheckinRequestReaderTest {
+
+    private static final String DOCUMENT = """
+            [
+              {"toolCode":"JAKR","dayCount":5,"discountPercentage":10,"checkoutDate":"2015-09-03"},
+              {"toolCode": "LADW", "dayCount": 3, "checkoutDate": "2020-07-02"} ,
+              { "checkoutDate":"2020-07-02", "dayCount":4, "toolCode":"CHNS", "note":"leave at door" }
+            ]
+            """;
+
+    private static final List<CheckinRequest> EXPECTED = List.of(
+            request("JAKR", 5, 10, LocalDate.of(2015, 9, 3)),
+            request("LADW", 3, 0, LocalDate.of(2020, 7, 2)),
+            request("CHNS", 4, 0, LocalDate.of(2020, 7, 2)));
+
+    @Test
+    @DisplayName("should stream requests out of an array, whatever the chunk and buffer sizes")
+    void next_1() throws Exception {
+        for (int chunkSize : new int[]{1, 7, 64, 4096}) {
+            for (int maxObjectLength : new int[]{100, JsonCheckinRequestReader.DEFAULT_MAX_OBJECT_LENGTH}) {
+                assertEquals(EXPECTED, readAll(DOCUMENT, chunkSize, maxObjectLength), "chunk %d, max %d".formatted(chunkSize, maxObjectLength));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should read objects one after another, and empty documents")
+    void next_2() throws Exception {
+        var lines = """
+                {"toolCode":"JAKR","dayCount":5,"discountPercentage":10,"checkoutDate":"2015-09-03"}
+                {"toolCode":"LADW","dayCount":3,"checkoutDate":"2020-07-02"}{"toolCode":"CHNS","dayCount":4,"checkoutDate":"2020-07-02"}
+                """;
+
+        assertAll(
+                () -> assertEquals(EXPECTED, readAll(lines, 16, 100)),
+                () -> assertEquals(List.of(), readAll("", 16, 100)),
+                () -> assertEquals(List.of(), readAll(" [ ] ", 16, 100))
+        );
+    }
+
+    @Test
+    @DisplayName("should carry on after an invalid request, and reject malformed documents")
+    void next_3() throws Exception {
+        try (var reader = reader("[{\"toolCode\":\"JAKR\"},{\"toolCode\":\"LADW\",\"dayCount\":3,\"checkoutDate\":\"2020-07-02\"}]", 5, 100)) {
+            assertThrows(IllegalArgumentException.class, reader::next, "missing fields");
+            assertEquals(EXPECTED.get(1), reader.next());
+            assertNull(reader.next());
+        }
+
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> readAll("[{\"toolCode\":\"JAKR\"", 5, 100), "unterminated"),
+                () -> assertThrows(IllegalArgumentException.class, () -> readAll("[\"JAKR\"]", 5, 100), "not an object"),
+                () -> assertThrows(IllegalArgumentException.class, () -> readAll(DOCUMENT, 5, 50), "too long"),
+                () -> assertThrows(IllegalArgumentException.class, () -> readAll("{\"toolCode\":\"JA\\\"KR\"}", 5, 100), "escape")
+        );
+    }
+
+    @Test
+    @DisplayName("should carry on after each kind of rejected object, as documented")
+    void next_5() throws Exception {
+        var valid = "{\"toolCode\":\"LADW\",\"dayCount\":3,\"checkoutDate\":\"2020-07-02\"}";
+        var document = String.join(",\n",
+                valid,
+                "{\"toolCode\":\"JA\\\"KR\",\"dayCount\":3,\"checkoutDate\":\"2020-07-02\"}",
+                "\"JAKR\"",
+                "{\"toolCode\":\"JAKR\",\"note\":\"" + "x".repeat(200) + "\"}",
+                "{\"toolCode\":\"JAKR\"}",
+                valid,
+                "{\"toolCode\":\"JAKR\"");
+
+        for (var chunkSize : new int[]{1, 5, 64}) {
+            var requests = new ArrayList<CheckinRequest>();
+            var errors = new ArrayList<String>();
+            try (var reader = reader("[" + document, chunkSize, 100)) {
+                // bounded, so a reader that stops advancing fails rather than hangs
+                for (int calls = 0; calls < 20; calls++) {
+                    try {
+                        var request = reader.next();
+                        if (request == null) {
+                            break;
+                        }
+                        requests.add(request);
+                    } catch (IllegalArgumentException e) {
+                        errors.add(e.getMessage());
+                    }
+                }
+            }
+
+            assertAll("chunk size " + chunkSize,
+                    () -> assertEquals(List.of(EXPECTED.get(1), EXPECTED.get(1)), requests),
+                    () -> assertEquals(5, errors.size(), errors::toString),
+                    () -> assertEquals("Escape sequences are not supported", errors.get(0)),
+                    () -> assertEquals("Expected '{'", errors.get(1)),
+                    () -> assertEquals("Object longer than 100 bytes", errors.get(2)),
+                    () -> assertEquals("Unterminated object", errors.get(4))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should read back the fields shared with rendered agreements")
+    void next_4() throws Exception {
+        var agreement = RentalAgreement.builder()
+                .toolCode("LADW")
+                .toolType("Ladder")
+                .toolBrand("Werner")
+                .rentalDays(3)
+                .checkoutDate(LocalDate.of(2020, 7, 2))
+                .dueDate(LocalDate.of(2020, 7, 5))
+                .discountPercent(10)
+                .build();
+        var json = new RentalAgreementJsonRenderer().render(agreement)
+                .replace("rentalDays", "dayCount")
+                .replace("discountPercent", "discountPercentage");
+
+        assertEquals(List.of(request("LADW", 3, 10, LocalDate.of(2020, 7, 2))), readAll(json, 32, 1024));
+    }
+
+    private static List<CheckinRequest> readAll(String document, int chunkSize, int maxObjectLength) throws IOException {
+        var requests = new ArrayList<CheckinRequest>();
+        try (var reader = reader(document, chunkSize, maxObjectLength)) {
+            CheckinRequest request;
+            while ((request = reader.next()) != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    private static JsonCheckinRequestReader reader(String document, int chunkSize, int maxObjectLength) {
+        return new JsonCheckinRequestReader(chunked(document.getBytes(StandardCharsets.UTF_8), chunkSize), maxObjectLength);
+    }
+
+    /**
+     * Channel returning at most chunkSize bytes per read
+     */
+    private static ReadableByteChannel chunked(byte[] bytes, int chunkSize) {
+        var delegate = Channels.newChannel(new ByteArrayInputStream(bytes));
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                var limit = dst.limit();
+                dst.limit(Math.min(limit, dst.position() + chunkSize));
+                try {
+                    return delegate.read(dst);
+                } finally {
+                    dst.limit(limit);
+                }
+            }
+
+            @Override
+            public boolean isOpen() {
+                return delegate.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+        };
+    }
+
+    private static CheckinRequest request(String toolCode, int dayCount, int discountPercentage, LocalDate checkoutDate) {
+        return CheckinRequest.builder()
+                .toolCode(toolCode)
+                .dayCount(dayCount)
+                .discountPercentage(discountPercentage)
+                .checkoutDate(checkoutDate)
+                .build();
+    }
+}
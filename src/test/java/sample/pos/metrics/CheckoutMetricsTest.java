@@ -0,0 +1,80 @@
+package sample.pos.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.renderers.RentalAgreementTextRenderer;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Checkout Metrics")
+class CheckoutMetricsTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR"};
+
+    @Test
+    @DisplayName("decorators should record each stage, and count rejections by exception type")
+    void decorators_1() throws Exception {
+        var metrics = new CheckoutMetrics();
+        var calculator = new TimedRentalAgreementCalculator(new DefaultRentalAgreementCalculator(), metrics);
+        var handler = new TimedHandler<>(new MappedToolCheckoutHandler(new MappedToolRepository(), calculator), metrics);
+        var renderer = new TimedRenderer<>(new RentalAgreementTextRenderer(), metrics);
+        var processor = new TimedProcessor<RentalAgreement>(agreement -> renderer.render(agreement), metrics);
+
+        // every 10 requests: one bad day count, one bad discount, one bad tool code and 7 accepted
+        for (int i = 0; i < 100; i++) {
+            var request = CheckinRequest.builder()
+                    .toolCode(i % 10 == 2 ? "0000" : TOOL_CODES[i % TOOL_CODES.length])
+                    .dayCount(i % 10 == 0 ? 0 : 1 + i % 30)
+                    .discountPercentage(i % 10 == 1 ? 101 : i % 100)
+                    .checkoutDate(LocalDate.of(2020, 7, 2).plusDays(i))
+                    .build();
+            try {
+                processor.process(handler.handle(request));
+            } catch (Exception e) {
+                // counted by the handler decorator
+            }
+        }
+
+        var snapshot = metrics.snapshot();
+        var rejections = snapshot.rejections();
+        assertAll(
+                () -> assertEquals(100, snapshot.stages().get(CheckoutMetrics.HANDLER_STAGE).getCount(), "handler"),
+                () -> assertEquals(70, snapshot.stages().get(CheckoutMetrics.CALCULATOR_STAGE).getCount(), "calculator"),
+                () -> assertEquals(70, snapshot.stages().get(CheckoutMetrics.PROCESSOR_STAGE).getCount(), "processor"),
+                () -> assertEquals(70, snapshot.stages().get(CheckoutMetrics.RENDERER_STAGE).getCount(), "renderer"),
+                () -> assertEquals(10, rejections.get("InvalidDayCountException").longValue(), "day count"),
+                () -> assertEquals(10, rejections.get("InvalidDiscountException").longValue(), "discount"),
+                () -> assertEquals(10, rejections.get("InvalidToolCodeException").longValue(), "tool code")
+        );
+    }
+
+    @Test
+    @DisplayName("should render snapshots as text, periodically")
+    void dump_1() throws Exception {
+        var metrics = new CheckoutMetrics();
+        metrics.histogram(CheckoutMetrics.HANDLER_STAGE).record(2_500);
+
+        var dumps = new ArrayBlockingQueue<String>(16);
+        try (var ignored = new PeriodicMetricsDump(metrics, Duration.ofMillis(10), dumps::offer)) {
+            var dump = dumps.poll(5, TimeUnit.SECONDS);
+
+            assertNotNull(dump, "no dump within 5 seconds");
+            var lines = dump.lines().toList();
+            assertAll(
+                    () -> assertTrue(lines.get(0).startsWith("stage"), lines.get(0)),
+                    () -> assertTrue(lines.get(1).matches("handler\\s+1\\s+2\\.5\\s+.*"), lines.get(1)),
+                    () -> assertEquals("rejections: InvalidDayCountException=0 InvalidDiscountException=0 InvalidToolCodeException=0", lines.get(2))
+            );
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package sample.pos.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Latency Histogram")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("buckets should cover every value, within 12.5% of their lower bound")
+    void bucket_1() {
+        long previousUpperBound = -1;
+        for (int index = 0; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            var lower = previousUpperBound + 1;
+            var upper = LatencyHistogram.bucketUpperBound(index);
+
+            assertEquals(index, LatencyHistogram.bucketIndex(lower), "lower bound of " + index);
+            assertEquals(index, LatencyHistogram.bucketIndex(upper), "upper bound of " + index);
+            assertTrue(upper - lower <= Math.max(0, lower / 8), "width of " + index);
+            previousUpperBound = upper;
+        }
+        assertEquals(Long.MAX_VALUE, previousUpperBound);
+    }
+
+    @Test
+    @DisplayName("should report count, mean, max and percentiles")
+    void snapshot_1() {
+        var histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        var snapshot = histogram.snapshot();
+        assertAll(
+                () -> assertEquals(1_000, snapshot.getCount()),
+                () -> assertEquals(500_500, snapshot.getMeanNanos(), 0.001),
+                () -> assertEquals(1_000_000, snapshot.getMaxNanos()),
+                () -> assertEquals(500_000, snapshot.getPercentileNanos(50), 500_000 / 8.0),
+                () -> assertEquals(990_000, snapshot.getPercentileNanos(99), 990_000 / 8.0),
+                () -> assertEquals(1_000_000, snapshot.getPercentileNanos(100)),
+                () -> assertEquals(0, new LatencyHistogram().snapshot().getPercentileNanos(99), "empty")
+        );
+    }
+
+    @Test
+    @DisplayName("should count every value recorded concurrently")
+    void record_1() throws Exception {
+        var histogram = new LatencyHistogram();
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        histogram.record(i);
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400_000, histogram.snapshot().getCount());
+    }
+
+    @Test
+    @DisplayName("recording should not allocate")
+    void record_2() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var histogram = new LatencyHistogram();
+        // warm up, so the recording path is compiled
+        for (int i = 0; i < 100_000; i++) {
+            histogram.record(i);
+        }
+
+        var before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            histogram.record(i);
+        }
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // allow for incidental allocation by the measurement itself
+        assertTrue(allocated < 1_000, "allocated " + allocated + " bytes");
+    }
+}
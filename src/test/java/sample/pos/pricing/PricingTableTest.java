@@ -0,0 +1,99 @@
+package sample.pos.pricing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.calendar.HolidayCalendars;
+import sample.pos.domain.ToolType;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.ClosedFormRentalAgreementCalculator;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pricing Table")
+class PricingTableTest {
+
+    private static final String REPRICED = """
+            # ladders now cost more, and chainsaws are charged on weekends
+            LADDER, 2.49, true, true, false
+            CHAINSAW,1.49,true,true,true
+            JACK_HAMMER,2.99,TRUE,false,false
+            """;
+
+    @Test
+    @DisplayName("default table and bundled pricing file should match the ToolType enum")
+    void load_1() throws Exception {
+        PricingTable bundled;
+        try (var reader = new BufferedReader(new InputStreamReader(
+                PricingTable.class.getResourceAsStream("pricing.csv"), StandardCharsets.UTF_8))) {
+            bundled = PricingTable.load(reader);
+        }
+
+        for (var toolType : ToolType.values()) {
+            for (var table : new PricingTable[]{PricingTable.DEFAULT, bundled}) {
+                assertAll(toolType.name(),
+                        () -> assertEquals(toolType.getDailyChargeCents(), table.getDailyChargeCents(toolType)),
+                        () -> assertEquals(toolType.isChargeOnWeekdays(), table.isChargeOnWeekdays(toolType)),
+                        () -> assertEquals(toolType.isChargeOnWeekends(), table.isChargeOnWeekends(toolType)),
+                        () -> assertEquals(toolType.isChargeOnHolidays(), table.isChargeOnHolidays(toolType))
+                );
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should load prices and rules, skipping comments and blank lines")
+    void load_2() throws Exception {
+        var table = PricingTable.load(new BufferedReader(new StringReader(REPRICED)));
+
+        assertAll(
+                () -> assertEquals(249, table.getDailyChargeCents(ToolType.LADDER)),
+                () -> assertTrue(table.isChargeOnWeekends(ToolType.CHAINSAW)),
+                () -> assertTrue(table.isChargeOnWeekdays(ToolType.JACK_HAMMER)),
+                () -> assertFalse(table.isChargeOnHolidays(ToolType.JACK_HAMMER))
+        );
+    }
+
+    @Test
+    @DisplayName("should reject malformed lines and missing tool types")
+    void load_3() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> load("LADDER,1.99,true,true")),
+                () -> assertThrows(IllegalArgumentException.class, () -> load("HAMMER,1.99,true,true,false")),
+                () -> assertThrows(IllegalArgumentException.class, () -> load("LADDER,cheap,true,true,false")),
+                () -> assertThrows(IllegalArgumentException.class, () -> load("LADDER,-1.99,true,true,false")),
+                () -> assertThrows(IllegalArgumentException.class, () -> load("LADDER,1.99,yes,true,false")),
+                () -> assertEquals("No pricing for tool type: <CHAINSAW>",
+                        assertThrows(IllegalArgumentException.class, () -> load("LADDER,1.99,true,true,false")).getMessage())
+        );
+    }
+
+    @Test
+    @DisplayName("calculator should use a published table from its next calculation")
+    void publish_1() throws Exception {
+        var pricing = new PricingTableHolder();
+        var calculator = new ClosedFormRentalAgreementCalculator(HolidayCalendars.DEFAULT, pricing);
+        var chainsaw = new MappedToolRepository().findByToolCode("CHNS").orElseThrow();
+        // Fri 2015-07-03 (observed holiday) through Mon 2015-07-06
+        var checkoutDate = LocalDate.of(2015, 7, 2);
+
+        var before = calculator.calculate(chainsaw, 4, 0, checkoutDate);
+        pricing.publish(PricingTable.load(new BufferedReader(new StringReader(REPRICED))));
+        var after = calculator.calculate(chainsaw, 4, 0, checkoutDate);
+
+        assertAll(
+                () -> assertEquals(2, before.getChargeDays(), "holiday and monday"),
+                () -> assertEquals(4, after.getChargeDays(), "holiday, weekend and monday"),
+                () -> assertEquals(149, after.getDailyRentalChargeCents())
+        );
+    }
+
+    private static PricingTable load(String lines) throws Exception {
+        return PricingTable.load(new BufferedReader(new StringReader(lines)));
+    }
+}
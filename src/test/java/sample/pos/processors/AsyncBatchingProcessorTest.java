@@ -0,0 +1,125 @@
+package sample.pos.processors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.renderers.StreamingRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Async Batching Processor")
+class AsyncBatchingProcessorTest {
+
+    private static final StreamingRenderer<Integer> RENDERER = new StreamingRenderer<>() {
+        @Override
+        public <A extends Appendable> A renderTo(Integer value, A out) throws IOException {
+            out.append("item ").append(Integer.toString(value));
+            return out;
+        }
+    };
+
+    @Test
+    @DisplayName("should write every item, in order, by the time close returns")
+    void process_1() throws Exception {
+        var output = new ByteArrayOutputStream();
+        var processor = new AsyncBatchingProcessor<>(RENDERER, Channels.newChannel(output), true,
+                64, 16, AsyncBatchingProcessor.OverflowPolicy.BLOCK);
+
+        var expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            processor.process(i);
+            expected.append("item ").append(i).append(System.lineSeparator());
+        }
+        processor.close();
+
+        assertAll(
+                () -> assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8)),
+                () -> assertEquals(0, processor.getDroppedCount()),
+                () -> assertThrows(IllegalStateException.class, () -> processor.process(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should drop items when the queue is full under the DROP policy, and flush what was queued on close")
+    void process_2() throws Exception {
+        var writeStarted = new CountDownLatch(1);
+        var releaseWriter = new CountDownLatch(1);
+        var output = new ByteArrayOutputStream();
+        var delegate = Channels.newChannel(output);
+
+        // channel that stalls on its first write, so the queue backs up behind it
+        WritableByteChannel stallingChannel = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                writeStarted.countDown();
+                try {
+                    releaseWriter.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return delegate.write(src);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        var processor = new AsyncBatchingProcessor<>(RENDERER, stallingChannel, false,
+                4, 1, AsyncBatchingProcessor.OverflowPolicy.DROP);
+
+        processor.process(0);
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        // writer is stuck on item 0; 4 items fit in the queue, the remaining 6 are dropped
+        for (int i = 1; i <= 10; i++) {
+            processor.process(i);
+        }
+        releaseWriter.countDown();
+        processor.close();
+
+        var lines = output.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertAll(
+                () -> assertEquals(6, processor.getDroppedCount()),
+                () -> assertArrayEquals(new String[]{"item 0", "item 1", "item 2", "item 3", "item 4"}, lines)
+        );
+    }
+
+    @Test
+    @DisplayName("should accept items from many threads concurrently without losing any")
+    void process_3() throws Exception {
+        var output = new ByteArrayOutputStream();
+        var processor = new AsyncBatchingProcessor<>(RENDERER, Channels.newChannel(output), true,
+                128, 32, AsyncBatchingProcessor.OverflowPolicy.BLOCK);
+
+        var executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            var offset = thread * 1_000;
+            executor.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    processor.process(offset + i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        processor.close();
+
+        var lines = output.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(8_000, lines.length);
+    }
+}
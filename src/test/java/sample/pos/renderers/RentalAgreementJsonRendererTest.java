@@ -0,0 +1,76 @@
+package sample.pos.renderers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rental Agreement JSON Renderer")
+class RentalAgreementJsonRendererTest {
+
+    private final RentalAgreementJsonRenderer renderer = new RentalAgreementJsonRenderer();
+
+    private static RentalAgreement agreement(String toolBrand, LocalDate checkoutDate, long finalChargeCents) {
+        return RentalAgreement.builder()
+                .toolCode("LADW")
+                .toolType("Ladder")
+                .toolBrand(toolBrand)
+                .rentalDays(3)
+                .checkoutDate(checkoutDate)
+                .dueDate(checkoutDate.plusDays(3))
+                .dailyRentalChargeCents(199)
+                .chargeDays(2)
+                .preDiscountChargeCents(398)
+                .discountPercent(10)
+                .discountAmountCents(40)
+                .finalChargeCents(finalChargeCents)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should render every field, with ISO dates and two-place decimal amounts")
+    void render_1() {
+        assertEquals("""
+                {"toolCode":"LADW","toolType":"Ladder","toolBrand":"Werner","rentalDays":3,\
+                "checkoutDate":"2020-07-02","dueDate":"2020-07-05","dailyRentalCharge":1.99,"chargeDays":2,\
+                "preDiscountCharge":3.98,"discountPercent":10,"discountAmount":0.40,"finalCharge":3.58}""",
+                renderer.render(agreement("Werner", LocalDate.of(2020, 7, 2), 358)));
+    }
+
+    @Test
+    @DisplayName("should escape strings, and write amounts and dates at their extremes")
+    void render_2() {
+        var rendered = renderer.render(agreement("Sa\"w\\z\n\u0001 Ök", LocalDate.of(-1, 12, 30), -5));
+
+        assertAll(
+                () -> assertTrue(rendered.contains("\"toolBrand\":\"Sa\\\"w\\\\z\\n\\u0001 Ök\""), rendered),
+                () -> assertTrue(rendered.contains("\"checkoutDate\":\"-0001-12-30\""), rendered),
+                () -> assertTrue(rendered.contains("\"dueDate\":\"0000-01-02\""), rendered),
+                () -> assertTrue(rendered.contains("\"finalCharge\":-0.05}"), rendered),
+                () -> assertTrue(renderer.render(agreement(null, LocalDate.of(2020, 7, 2), Long.MAX_VALUE))
+                        .contains("\"toolBrand\":null,") , "null"),
+                () -> assertTrue(renderer.render(agreement("Werner", LocalDate.of(2020, 7, 2), Long.MAX_VALUE))
+                        .contains("\"finalCharge\":92233720368547758.07}"), "max")
+        );
+    }
+
+    @Test
+    @DisplayName("should render the same UTF-8 into a reused ByteBuffer")
+    void renderTo_1() {
+        var buffer = ByteBuffer.allocateDirect(StreamingRenderer.DEFAULT_CAPACITY);
+        for (var brand : new String[]{"Werner", "Ridgid \"Pro\"", "Makita Électrique"}) {
+            var agreement = agreement(brand, LocalDate.of(2015, 9, 3), 1_234_567);
+
+            renderer.renderTo(agreement, buffer.clear()).flip();
+
+            var bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            assertEquals(renderer.render(agreement), new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
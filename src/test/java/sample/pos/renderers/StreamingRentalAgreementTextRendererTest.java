@@ -0,0 +1,65 @@
+package sample.pos.renderers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Streaming Rental Agreement Text Renderer")
+class StreamingRentalAgreementTextRendererTest {
+
+    private final RentalAgreementTextRenderer textRenderer = new RentalAgreementTextRenderer();
+    private final StreamingRentalAgreementTextRenderer streamingRenderer = new StreamingRentalAgreementTextRenderer();
+
+    private static RentalAgreement agreement(String toolBrand, LocalDate checkoutDate, long finalChargeCents) {
+        return RentalAgreement.builder()
+                .toolCode("LADW")
+                .toolType("Ladder")
+                .toolBrand(toolBrand)
+                .rentalDays(3)
+                .checkoutDate(checkoutDate)
+                .dueDate(checkoutDate.plusDays(3))
+                .dailyRentalChargeCents(199)
+                .chargeDays(2)
+                .preDiscountChargeCents(finalChargeCents + 40)
+                .discountPercent(10)
+                .discountAmountCents(40)
+                .finalChargeCents(finalChargeCents)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should render the same text as the String-based renderer, into a String, StringBuilder and ByteBuffer")
+    void renderTo_1() {
+        long[] amounts = {0, 5, 99, 100, 358, 99_999, 100_000, 123_456_789, Long.MAX_VALUE - 40, -5, -123_456};
+        LocalDate[] dates = {LocalDate.of(2020, 7, 2), LocalDate.of(1999, 12, 31), LocalDate.of(2100, 1, 9)};
+        String[] brands = {"Werner", "Über Tools", "Ladder 🪜 Co", null};
+
+        var reusedBuilder = new StringBuilder();
+        var reusedBuffer = ByteBuffer.allocate(1024);
+
+        for (var amount : amounts) {
+            for (var date : dates) {
+                for (var brand : brands) {
+                    var rentalAgreement = agreement(brand, date, amount);
+                    var expected = textRenderer.render(rentalAgreement);
+
+                    reusedBuilder.setLength(0);
+                    streamingRenderer.renderTo(rentalAgreement, reusedBuffer.clear()).flip();
+                    var bytes = new byte[reusedBuffer.remaining()];
+                    reusedBuffer.get(bytes);
+
+                    assertEquals(expected, streamingRenderer.render(rentalAgreement));
+                    assertEquals(expected, assertDoesNotThrow(() -> streamingRenderer.renderTo(rentalAgreement, reusedBuilder)).toString());
+                    assertTrue(Arrays.equals(expected.getBytes(StandardCharsets.UTF_8), bytes), "UTF-8 bytes differ for " + expected);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package sample.pos.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Concurrent Tool Repository")
+class ConcurrentToolRepositoryTest {
+
+    private static Tool tool(String code, String brand, ToolType type) {
+        return Tool.builder()
+                .code(code)
+                .brand(brand)
+                .type(type)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should upsert, look up case-insensitively, and remove tools")
+    void upsert_1() {
+        var repository = new ConcurrentToolRepository(List.of(tool("CHNS", "Stihl", ToolType.CHAINSAW)));
+
+        repository.upsert(tool("ladw", "Werner", ToolType.LADDER));
+        repository.upsert(tool("CHNS", "Husqvarna", ToolType.CHAINSAW));
+
+        assertAll(
+                () -> assertEquals("Werner", repository.findByToolCode("LADW").orElseThrow().getBrand()),
+                () -> assertEquals("Husqvarna", repository.findByToolCode("chns").orElseThrow().getBrand()),
+                () -> assertEquals(2, repository.findAll().size())
+        );
+
+        repository.remove(tool("Ladw", "Werner", ToolType.LADDER));
+
+        assertAll(
+                () -> assertTrue(repository.findByToolCode("LADW").isEmpty()),
+                () -> assertEquals(1, repository.findAll().size())
+        );
+    }
+
+    @Test
+    @DisplayName("findAll should return a snapshot that is unaffected by later writes")
+    void findAll_1() {
+        var repository = new ConcurrentToolRepository();
+        repository.upsert(tool("JAKD", "DeWalt", ToolType.JACK_HAMMER));
+
+        var snapshot = repository.findAll();
+        repository.upsert(tool("JAKR", "Ridgid", ToolType.JACK_HAMMER));
+        repository.remove(tool("JAKD", "DeWalt", ToolType.JACK_HAMMER));
+
+        assertAll(
+                () -> assertEquals(List.of(tool("JAKD", "DeWalt", ToolType.JACK_HAMMER)), snapshot),
+                () -> assertThrows(UnsupportedOperationException.class, () -> snapshot.add(tool("X", "Y", ToolType.LADDER))),
+                () -> assertEquals(List.of(tool("JAKR", "Ridgid", ToolType.JACK_HAMMER)), repository.findAll())
+        );
+    }
+
+    @Test
+    @DisplayName("lookups running alongside writers should always find the tools that are never removed")
+    void findByToolCode_1() throws Exception {
+        var repository = new ConcurrentToolRepository(List.of(tool("CHNS", "Stihl", ToolType.CHAINSAW)));
+        var running = new AtomicBoolean(true);
+        var failure = new AtomicReference<String>();
+
+        var reader = new Thread(() -> {
+            while (running.get()) {
+                if (repository.findByToolCode("CHNS").isEmpty()) {
+                    failure.set("CHNS missing during concurrent writes");
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 2_000; i++) {
+            var code = "T%03d".formatted(i % 100);
+            repository.upsert(tool(code, "Brand", ToolType.LADDER));
+            if (i % 3 == 0) {
+                repository.remove(tool(code, "Brand", ToolType.LADDER));
+            }
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,290 @@
+package sample.pos.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Memory-Mapped Rental Agreement Repository")
+class MappedFileRentalAgreementRepositoryTest {
+
+    private static final int SMALL_SEGMENT_SIZE = 1024;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("agreements");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static RentalAgreement agreement(int dayCount) {
+        var tool = Tool.builder()
+                .code("JAKR")
+                .type(ToolType.JACK_HAMMER)
+                .brand("Ridgid")
+                .build();
+        return new DefaultRentalAgreementCalculator().calculate(tool, dayCount, 10, LocalDate.of(2020, 7, 2));
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.max(Comparator.naturalOrder()).orElseThrow();
+        }
+    }
+
+    @Test
+    @DisplayName("should assign sequential ids and find agreements by id")
+    void save_1() throws IOException {
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            var first = repository.save(agreement(4));
+            var second = repository.save(agreement(9));
+
+            assertAll(
+                    () -> assertEquals(1, first, "first id"),
+                    () -> assertEquals(2, second, "second id"),
+                    () -> assertEquals(2, repository.count(), "count"),
+                    () -> assertEquals(agreement(4), repository.findById(first).orElseThrow()),
+                    () -> assertEquals(agreement(9), repository.findById(second).orElseThrow()),
+                    () -> assertTrue(repository.findById(0).isEmpty(), "id 0"),
+                    () -> assertTrue(repository.findById(3).isEmpty(), "unknown id")
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should roll to new segments, and recover every agreement after reopening")
+    void open_1() throws IOException {
+        try (var repository = MappedFileRentalAgreementRepository.open(directory, SMALL_SEGMENT_SIZE)) {
+            for (int dayCount = 1; dayCount <= 50; dayCount++) {
+                repository.save(agreement(dayCount));
+            }
+        }
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            assertTrue(paths.count() > 1, "expected several segments");
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory, SMALL_SEGMENT_SIZE)) {
+            assertEquals(50, repository.count());
+            for (int dayCount = 1; dayCount <= 50; dayCount++) {
+                assertEquals(agreement(dayCount), repository.findById(dayCount).orElseThrow(), "id " + dayCount);
+            }
+            assertEquals(51, repository.save(agreement(51)), "next id");
+        }
+    }
+
+    @Test
+    @DisplayName("should discard a torn record at the tail of the last segment on recovery")
+    void open_2() throws IOException {
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            repository.save(agreement(4));
+            repository.save(agreement(5));
+        }
+
+        // corrupt the payload of the second record, as if the process died part way through writing it
+        try (var channel = FileChannel.open(lastSegment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 8);
+            var secondRecord = 8 + 8 + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xFF}), secondRecord + 8 + 12);
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            assertAll(
+                    () -> assertEquals(1, repository.count(), "count"),
+                    () -> assertEquals(agreement(4), repository.findById(1).orElseThrow()),
+                    () -> assertTrue(repository.findById(2).isEmpty(), "torn record")
+            );
+            assertEquals(2, repository.save(agreement(6)), "torn record's id is reused");
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            assertAll(
+                    () -> assertEquals(2, repository.count(), "count"),
+                    () -> assertEquals(agreement(6), repository.findById(2).orElseThrow())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should treat a zero-filled last segment as empty on recovery")
+    void open_3() throws IOException {
+        try (var repository = MappedFileRentalAgreementRepository.open(directory, SMALL_SEGMENT_SIZE)) {
+            for (int dayCount = 1; dayCount <= 20; dayCount++) {
+                repository.save(agreement(dayCount));
+            }
+        }
+
+        // a segment mapped (so extended) but not yet given its header, as if the process died while rolling to it
+        long segmentCount;
+        try (Stream<Path> paths = Files.list(directory)) {
+            segmentCount = paths.count();
+        }
+        var zeroFilled = directory.resolve("agreements-%010d.seg".formatted(segmentCount));
+        Files.write(zeroFilled, new byte[SMALL_SEGMENT_SIZE]);
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory, SMALL_SEGMENT_SIZE)) {
+            assertAll(
+                    () -> assertEquals(20, repository.count(), "count"),
+                    () -> assertEquals(agreement(20), repository.findById(20).orElseThrow())
+            );
+            assertEquals(21, repository.save(agreement(21)), "next id");
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory, SMALL_SEGMENT_SIZE)) {
+            assertAll(
+                    () -> assertEquals(21, repository.count(), "count"),
+                    () -> assertEquals(agreement(21), repository.findById(21).orElseThrow()),
+                    () -> assertEquals(zeroFilled, lastSegment(), "saved into the recovered segment")
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should read records with and without the trailing charge rules byte")
+    void open_4() throws IOException {
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            repository.save(agreement(4));
+        }
+
+        // rewrite the record as one written before charge rules were captured: one byte shorter, with its CRC
+        try (var channel = FileChannel.open(lastSegment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 8);
+            var length = header.flip().getInt() - Byte.BYTES;
+            var payload = ByteBuffer.allocate(length);
+            channel.read(payload, 16);
+            var crc = new CRC32C();
+            crc.update(payload.array());
+            channel.write(ByteBuffer.allocate(2 * Integer.BYTES).putInt(length).putInt((int) crc.getValue()).flip(), 8);
+            channel.write(ByteBuffer.allocate(Byte.BYTES), 16 + length);
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            var older = repository.findById(1).orElseThrow();
+            assertAll(
+                    () -> assertEquals(1, repository.count(), "count"),
+                    () -> assertNull(older.getChargeRules(), "older charge rules"),
+                    () -> assertEquals(agreement(4).getFinalChargeCents(), older.getFinalChargeCents())
+            );
+            assertEquals(2, repository.save(agreement(5)), "next id");
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            assertAll(
+                    () -> assertNull(repository.findById(1).orElseThrow().getChargeRules(), "older charge rules"),
+                    () -> assertNotNull(agreement(5).getChargeRules()),
+                    () -> assertEquals(agreement(5), repository.findById(2).orElseThrow())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should save concurrently, giving every agreement a unique id")
+    void save_2() throws Exception {
+        var threads = 8;
+        var perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (var repository = MappedFileRentalAgreementRepository.open(directory, 16 * 1024)) {
+            var ids = ConcurrentHashMap.<Long>newKeySet();
+            var futures = IntStream.range(0, threads)
+                    .mapToObj(thread -> executor.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            var dayCount = thread * perThread + i + 1;
+                            var id = repository.save(agreement(dayCount));
+                            assertEquals(agreement(dayCount), repository.findById(id).orElseThrow());
+                            ids.add(id);
+                        }
+                        return null;
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            assertAll(
+                    () -> assertEquals(threads * perThread, ids.size(), "unique ids"),
+                    () -> assertEquals(threads * perThread, repository.count(), "count")
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("should mark returns once, and recover them after reopening")
+    void markReturned_1() throws IOException {
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            repository.save(agreement(4));
+            repository.save(agreement(5));
+            repository.save(agreement(6));
+
+            assertAll(
+                    () -> assertEquals(LocalDate.of(2020, 7, 5), repository.markReturned(1, LocalDate.of(2020, 7, 5))),
+                    () -> assertEquals(LocalDate.of(2020, 7, 5), repository.markReturned(1, LocalDate.of(2020, 7, 9)), "already marked"),
+                    () -> assertEquals(LocalDate.of(2020, 7, 8), repository.markReturned(3, LocalDate.of(2020, 7, 8))),
+                    () -> assertTrue(repository.findReturnDate(2).isEmpty(), "not returned"),
+                    () -> assertThrows(IllegalArgumentException.class, () -> repository.markReturned(4, LocalDate.of(2020, 7, 8)))
+            );
+        }
+
+        // a torn mark at the tail, as if the process died part way through writing it
+        try (var channel = FileChannel.open(directory.resolve("returns.log"), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 0, 0, 0, 0, 2, 0}));
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            assertAll(
+                    () -> assertEquals(Optional.of(LocalDate.of(2020, 7, 5)), repository.findReturnDate(1)),
+                    () -> assertTrue(repository.findReturnDate(2).isEmpty()),
+                    () -> assertEquals(Optional.of(LocalDate.of(2020, 7, 8)), repository.findReturnDate(3))
+            );
+            assertEquals(LocalDate.of(2020, 7, 6), repository.markReturned(2, LocalDate.of(2020, 7, 6)), "after the torn mark");
+        }
+
+        try (var repository = MappedFileRentalAgreementRepository.open(directory)) {
+            assertEquals(Optional.of(LocalDate.of(2020, 7, 6)), repository.findReturnDate(2));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject saves after closing")
+    void close_1() throws IOException {
+        var repository = MappedFileRentalAgreementRepository.open(directory);
+        repository.close();
+
+        assertThrows(IllegalStateException.class, () -> repository.save(agreement(4)));
+    }
+}
@@ -0,0 +1,88 @@
+package sample.pos.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Packed Tool Catalog")
+class PackedToolCatalogTest {
+
+    @Test
+    @DisplayName("should load tools from a flat file and look them up case-insensitively")
+    void load_1() throws Exception {
+        var file = Files.createTempFile("catalog", ".csv");
+        try {
+            Files.writeString(file, """
+                    # code,type,brand
+                    CHNS,CHAINSAW,Stihl
+                    LADW,LADDER,Werner
+
+                    JAKD, JACK_HAMMER, DeWalt
+                    jakr,JACK_HAMMER,Ridgid
+                    JAKD,JACK_HAMMER,Makita
+                    """);
+
+            var catalog = PackedToolCatalog.load(file);
+
+            assertAll(
+                    () -> assertEquals(4, catalog.size()),
+                    () -> assertEquals(4, catalog.findAll().size()),
+                    () -> assertEquals("Stihl", catalog.findByToolCode("chns").orElseThrow().getBrand()),
+                    () -> assertEquals("Makita", catalog.findByToolCode("JAKD").orElseThrow().getBrand(), "later lines replace earlier ones"),
+                    () -> assertEquals(ToolType.JACK_HAMMER, catalog.findByToolCode("JaKr").orElseThrow().getType()),
+                    () -> assertTrue(catalog.findByToolCode("0000").isEmpty()),
+                    () -> assertTrue(catalog.findByToolCode("LAD").isEmpty()),
+                    () -> assertTrue(catalog.findByToolCode("LADWX").isEmpty()),
+                    () -> assertTrue(catalog.findByToolCode("").isEmpty())
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject malformed lines and codes that are not 4 printable ASCII characters")
+    void load_2() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> PackedToolCatalog.load(new BufferedReader(new StringReader("CHNS,CHAINSAW")))),
+                () -> assertThrows(IllegalArgumentException.class, () -> PackedToolCatalog.load(new BufferedReader(new StringReader("CHNS,SAW,Stihl")))),
+                () -> assertThrows(IllegalArgumentException.class, () -> PackedToolCatalog.load(new BufferedReader(new StringReader("CH S,CHAINSAW,Stihl")))),
+                () -> assertThrows(IllegalArgumentException.class, () -> PackedToolCatalog.load(new BufferedReader(new StringReader("CHÑS,CHAINSAW,Stihl"))))
+        );
+    }
+
+    @Test
+    @DisplayName("should find every one of several hundred thousand tools, and no others")
+    void findByPackedCode_1() {
+        var tools = new ArrayList<Tool>();
+        var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        for (int i = 0; i < 300_000; i++) {
+            var code = new StringBuilder();
+            for (int n = i, c = 0; c < 4; c++, n /= alphabet.length()) {
+                code.append(alphabet.charAt(n % alphabet.length()));
+            }
+            tools.add(Tool.builder()
+                    .code(code.toString())
+                    .type(ToolType.values()[i % ToolType.values().length])
+                    .brand("Brand")
+                    .build());
+        }
+
+        var catalog = new PackedToolCatalog(tools);
+
+        assertEquals(tools.size(), catalog.size());
+        for (var tool : tools) {
+            assertSame(tool, catalog.findByPackedCode(PackedToolCatalog.pack(tool.getCode().toLowerCase())));
+        }
+        // 36^4 = 1,679,616 possible codes; the ones past 300,000 are absent
+        assertNull(catalog.findByToolCode("9999").orElse(null));
+    }
+}
@@ -0,0 +1,161 @@
+package sample.pos.reservations;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.exceptions.ToolUnavailableException;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reservation Index")
+class ReservationIndexTest {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2024, 7, 1);
+
+    private static CheckinRequest request(LocalDate checkoutDate) {
+        return CheckinRequest.builder()
+                .toolCode("JAKD")
+                .dayCount(5)
+                .discountPercentage(0)
+                .checkoutDate(checkoutDate)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should refuse overlapping windows, and allow back-to-back windows")
+    void reserve_1() {
+        var index = new ReservationIndex();
+
+        assertTrue(index.tryReserve("LADW", JULY_1.plusDays(10), JULY_1.plusDays(15)).isPresent());
+        assertTrue(index.tryReserve("LADW", JULY_1, JULY_1.plusDays(5)).isPresent());
+
+        assertAll(
+                () -> assertTrue(index.tryReserve("LADW", JULY_1.plusDays(4), JULY_1.plusDays(6)).isEmpty(), "overlaps start"),
+                () -> assertTrue(index.tryReserve("LADW", JULY_1.plusDays(14), JULY_1.plusDays(20)).isEmpty(), "overlaps end"),
+                () -> assertTrue(index.tryReserve("LADW", JULY_1.plusDays(11), JULY_1.plusDays(12)).isEmpty(), "inside"),
+                () -> assertTrue(index.tryReserve("LADW", JULY_1.minusDays(1), JULY_1.plusDays(30)).isEmpty(), "covers all"),
+                () -> assertTrue(index.isAvailable("CHNS", JULY_1, JULY_1.plusDays(30)), "other tool"),
+                () -> assertTrue(index.isAvailable("LADW", JULY_1.plusDays(5), JULY_1.plusDays(10)), "gap"),
+                () -> assertFalse(index.isAvailable("LADW", JULY_1.plusDays(5), JULY_1.plusDays(11)), "gap and more"),
+                () -> assertThrows(IllegalArgumentException.class, () -> index.isAvailable("LADW", JULY_1, JULY_1))
+        );
+
+        assertTrue(index.tryReserve("LADW", JULY_1.plusDays(5), JULY_1.plusDays(10)).isPresent(), "due date is free for checkout");
+        assertEquals(List.of(JULY_1, JULY_1.plusDays(5), JULY_1.plusDays(10)),
+                index.findReservations("LADW").stream().map(reservation -> reservation.getCheckoutDate()).toList());
+    }
+
+    @Test
+    @DisplayName("should release reservations, freeing their windows")
+    void release_1() {
+        var index = new ReservationIndex();
+        var reservation = index.tryReserve("JAKR", JULY_1, JULY_1.plusDays(3)).orElseThrow();
+
+        assertAll(
+                () -> assertTrue(index.release(reservation)),
+                () -> assertFalse(index.release(reservation), "already released"),
+                () -> assertTrue(index.isAvailable("JAKR", JULY_1, JULY_1.plusDays(3))),
+                () -> assertTrue(index.findReservations("JAKR").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("should shorten reservations, freeing the rest of their windows")
+    void shorten_1() {
+        var index = new ReservationIndex();
+        var reservation = index.tryReserve("JAKR", JULY_1, JULY_1.plusDays(5)).orElseThrow();
+        var other = index.tryReserve("JAKR", JULY_1.plusDays(10), JULY_1.plusDays(12)).orElseThrow();
+
+        assertAll(
+                () -> assertFalse(index.shorten(reservation, JULY_1.plusDays(5)), "not earlier"),
+                () -> assertTrue(index.shorten(reservation, JULY_1.plusDays(2))),
+                () -> assertFalse(index.shorten(reservation, JULY_1.plusDays(1)), "no longer the reservation"),
+                () -> assertTrue(index.isAvailable("JAKR", JULY_1.plusDays(2), JULY_1.plusDays(10))),
+                () -> assertFalse(index.isAvailable("JAKR", JULY_1.plusDays(1), JULY_1.plusDays(3))),
+                () -> assertTrue(index.shorten(other, JULY_1.plusDays(10)), "ends on its checkout date"),
+                () -> assertEquals(List.of(JULY_1.plusDays(2)),
+                        index.findReservations("JAKR").stream().map(found -> found.getDueDate()).toList())
+        );
+    }
+
+    @Test
+    @DisplayName("should prune reservations that have ended, keeping current and future ones")
+    void prune_1() {
+        var index = new ReservationIndex();
+        for (int week = 0; week < 10; week++) {
+            index.tryReserve("LADW", JULY_1.plusWeeks(week), JULY_1.plusWeeks(week).plusDays(3)).orElseThrow();
+        }
+        index.tryReserve("CHNS", JULY_1, JULY_1.plusDays(30)).orElseThrow();
+
+        // week 4 runs from the 29th to (not including) August 1
+        var pruned = index.prune(JULY_1.plusWeeks(4).plusDays(1));
+
+        assertAll(
+                () -> assertEquals(4, pruned),
+                () -> assertEquals(JULY_1.plusWeeks(4), index.findReservations("LADW").get(0).getCheckoutDate()),
+                () -> assertEquals(6, index.findReservations("LADW").size()),
+                () -> assertEquals(1, index.findReservations("CHNS").size(), "still out"),
+                () -> assertFalse(index.isAvailable("LADW", JULY_1.plusWeeks(4), JULY_1.plusWeeks(4).plusDays(1)), "current"),
+                () -> assertTrue(index.tryReserve("LADW", JULY_1.plusWeeks(4).plusDays(3), JULY_1.plusWeeks(5)).isPresent()),
+                () -> assertEquals(0, index.prune(JULY_1.plusWeeks(4).plusDays(1)), "nothing more to drop"),
+                () -> assertEquals(8, index.prune(JULY_1.plusYears(1)))
+        );
+    }
+
+    @Test
+    @DisplayName("should grant exactly one of many concurrent, overlapping reservations")
+    void reserve_2() throws Exception {
+        var index = new ReservationIndex();
+        var granted = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    // every window overlaps its neighbours, so at most every other window is granted
+                    for (int day = 0; day < 1_000; day++) {
+                        if (index.tryReserve("CHNS", JULY_1.plusDays(day), JULY_1.plusDays(day + 2)).isPresent()) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var reservations = index.findReservations("CHNS");
+        assertEquals(granted.get(), reservations.size());
+        for (int i = 1; i < reservations.size(); i++) {
+            assertFalse(reservations.get(i).getCheckoutDate().isBefore(reservations.get(i - 1).getDueDate()), "overlap at " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("checkout handler should refuse double bookings of a tool")
+    void handle_1() throws Exception {
+        var index = new ReservationIndex();
+        var handler = new MappedToolCheckoutHandler(new MappedToolRepository(), new DefaultRentalAgreementCalculator(), index);
+        handler.handle(request(JULY_1));
+        var exception = assertThrows(ToolUnavailableException.class, () -> handler.handle(request(JULY_1.plusDays(4))));
+
+        assertAll(
+                () -> assertEquals("Tool is already reserved: <JAKD> from <2024-07-05> to <2024-07-10>", exception.getMessage()),
+                () -> assertDoesNotThrow(() -> handler.handle(request(JULY_1.plusDays(5)))),
+                () -> assertEquals(2, index.findReservations("JAKD").size())
+        );
+    }
+}
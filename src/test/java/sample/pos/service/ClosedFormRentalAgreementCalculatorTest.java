@@ -0,0 +1,97 @@
+package sample.pos.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.calendar.HolidayCalendars;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Closed-Form Rental Agreement Calculator")
+class ClosedFormRentalAgreementCalculatorTest {
+
+    private final DefaultRentalAgreementCalculator streamingCalculator = new DefaultRentalAgreementCalculator();
+    private final ClosedFormRentalAgreementCalculator calculator = new ClosedFormRentalAgreementCalculator();
+
+    @Test
+    @DisplayName("should match the streaming calculator's charge days for every weekday/weekend/holiday flag combination")
+    void getChargeDays_1() {
+        // every checkout date from mid-2019 through 2021 covers all July 4th/Labor Day placements nearby,
+        // with day counts that start/end on every day of the week
+        var firstCheckout = LocalDate.of(2019, Month.JUNE, 1);
+        int[] dayCounts = {1, 2, 3, 4, 5, 6, 7, 8, 13, 30, 64, 90, 365, 366, 730};
+
+        assertChargeDaysMatch(streamingCalculator, calculator, firstCheckout, dayCounts);
+    }
+
+    @Test
+    @DisplayName("should match the streaming calculator's charge days when using the US federal holiday calendar")
+    void getChargeDays_2() {
+        var firstCheckout = LocalDate.of(2020, Month.DECEMBER, 1);
+        int[] dayCounts = {1, 3, 5, 7, 31, 90, 400};
+
+        assertChargeDaysMatch(new DefaultRentalAgreementCalculator(HolidayCalendars.US_FEDERAL),
+                new ClosedFormRentalAgreementCalculator(HolidayCalendars.US_FEDERAL), firstCheckout, dayCounts);
+    }
+
+    private static void assertChargeDaysMatch(DefaultRentalAgreementCalculator streamingCalculator,
+                                              DefaultRentalAgreementCalculator calculator,
+                                              LocalDate firstCheckout, int[] dayCounts) {
+        for (int mask = 0; mask < 8; mask++) {
+            var includeWeekdays = (mask & 1) != 0;
+            var includeWeekends = (mask & 2) != 0;
+            var includeHolidays = (mask & 4) != 0;
+
+            for (int offset = 0; offset < 900; offset += 3) {
+                var checkoutDate = firstCheckout.plusDays(offset);
+                for (var dayCount : dayCounts) {
+                    var expected = streamingCalculator.getChargeDays(checkoutDate, dayCount, includeWeekdays, includeWeekends, includeHolidays);
+                    var actual = calculator.getChargeDays(checkoutDate, dayCount, includeWeekdays, includeWeekends, includeHolidays);
+                    if (expected != actual) {
+                        fail("charge days mismatch for %s + %d days, mask %d: expected <%d> but was <%d>"
+                                .formatted(checkoutDate, dayCount, mask, expected, actual));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should produce the same rental agreement as the streaming calculator for every ToolType")
+    void calculate_1() {
+        var checkoutDate = LocalDate.of(2015, Month.JULY, 2);
+
+        for (var toolType : ToolType.values()) {
+            var tool = Tool.builder()
+                    .code("TEST")
+                    .brand("Test")
+                    .type(toolType)
+                    .build();
+
+            for (var dayCount : new int[]{1, 9, 90, 730}) {
+                assertEquals(streamingCalculator.calculate(tool, dayCount, 15, checkoutDate),
+                        calculator.calculate(tool, dayCount, 15, checkoutDate),
+                        "agreement mismatch for %s over %d days".formatted(toolType, dayCount));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should calculate charge days for a two year Jackhammer rental, excluding weekends and holidays")
+    void calculate_2() {
+        var tool = Tool.builder()
+                .code("JAKD")
+                .brand("DeWalt")
+                .type(ToolType.JACK_HAMMER)
+                .build();
+
+        // 2023-01-01 (Sunday) -> 2025-01-01 (Wednesday); 731 days, 523 weekdays, 4 holidays
+        var results = calculator.calculate(tool, 731, 0, LocalDate.of(2023, Month.JANUARY, 1));
+
+        assertEquals(519, results.getChargeDays(), "charge days computed incorrectly");
+    }
+}
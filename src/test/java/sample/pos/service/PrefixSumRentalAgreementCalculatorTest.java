@@ -0,0 +1,59 @@
+package sample.pos.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.calendar.HolidayCalendars;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Prefix-Sum Rental Agreement Calculator")
+class PrefixSumRentalAgreementCalculatorTest {
+
+    private final DefaultRentalAgreementCalculator streamingCalculator = new DefaultRentalAgreementCalculator();
+
+    // small horizon, so the test can cross both edges
+    private final PrefixSumRentalAgreementCalculator calculator = new PrefixSumRentalAgreementCalculator(HolidayCalendars.DEFAULT,
+            LocalDate.of(2015, Month.JANUARY, 1), LocalDate.of(2018, Month.DECEMBER, 31));
+
+    @Test
+    @DisplayName("should match the streaming calculator inside, across and outside the horizon for every charge mask")
+    void getChargeDays_1() {
+        int[] dayCounts = {1, 2, 5, 7, 9, 30, 90, 365, 730};
+
+        for (int mask = 0; mask < ChargeDayIndex.MASK_COUNT; mask++) {
+            var includeWeekdays = (mask & ChargeDayIndex.WEEKDAYS) != 0;
+            var includeWeekends = (mask & ChargeDayIndex.WEEKENDS) != 0;
+            var includeHolidays = (mask & ChargeDayIndex.HOLIDAYS) != 0;
+
+            for (var checkoutDate = LocalDate.of(2014, Month.JUNE, 1); checkoutDate.getYear() < 2019; checkoutDate = checkoutDate.plusDays(5)) {
+                for (var dayCount : dayCounts) {
+                    var expected = streamingCalculator.getChargeDays(checkoutDate, dayCount, includeWeekdays, includeWeekends, includeHolidays);
+                    var actual = calculator.getChargeDays(checkoutDate, dayCount, includeWeekdays, includeWeekends, includeHolidays);
+                    if (expected != actual) {
+                        fail("charge days mismatch for %s + %d days, mask %d: expected <%d> but was <%d>"
+                                .formatted(checkoutDate, dayCount, mask, expected, actual));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should report memory footprint per charge mask, with no arrays backing masks that charge nothing")
+    void footprintReport_1() {
+        var index = calculator.getChargeDayIndex();
+
+        // 1,461 days in horizon + 1 leading entry, 4 bytes each, 16 byte header
+        var expectedBytes = 16 + 4 * 1462;
+
+        assertAll(
+                () -> assertEquals(0, index.footprintBytes(0)),
+                () -> assertEquals(0, index.footprintBytes(ChargeDayIndex.HOLIDAYS)),
+                () -> assertEquals(expectedBytes, index.footprintBytes(ChargeDayIndex.WEEKDAYS)),
+                () -> assertTrue(index.footprintReport().contains("total: %,d bytes".formatted(6 * expectedBytes)))
+        );
+    }
+}
@@ -0,0 +1,157 @@
+package sample.pos.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.calendar.HolidayCalendars;
+import sample.pos.domain.ChargeRules;
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.ReturnPolicy;
+import sample.pos.domain.Tool;
+import sample.pos.domain.ToolType;
+import sample.pos.pricing.PricingTable;
+import sample.pos.pricing.PricingTableHolder;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Return Calculator")
+class ReturnCalculatorTest {
+
+    private final DefaultRentalAgreementCalculator checkoutCalculator = new DefaultRentalAgreementCalculator();
+
+    private final ReturnCalculator returnCalculator = new ReturnCalculator();
+
+    private static Tool tool(String code, String brand, ToolType type) {
+        return Tool.builder()
+                .code(code)
+                .brand(brand)
+                .type(type)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should charge late days at the daily rate, plus the late fee")
+    void calculate_1() {
+        // 2 charge days (07/03 observed holiday excluded), $3.98 - 10% = $3.58
+        var agreement = checkoutCalculator.calculate(tool("LADW", "Werner", ToolType.LADDER), 3, 10, LocalDate.of(2020, 7, 2));
+
+        var receipt = returnCalculator.calculate(agreement, LocalDate.of(2020, 7, 8));
+
+        assertAll(
+                () -> assertEquals(3, receipt.getDaysLate(), "days late"),
+                () -> assertEquals(3, receipt.getLateChargeDays(), "late charge days"),
+                () -> assertEquals(597, receipt.getLateChargeCents(), "late charge"),
+                () -> assertEquals(60, receipt.getLateFeeCents(), "late fee"),
+                () -> assertEquals(0, receipt.getEarlyReturnCreditCents(), "credit"),
+                () -> assertEquals(358 + 597 + 60, receipt.getFinalChargeCents(), "final charge"),
+                () -> assertEquals("10.15", receipt.getFinalCharge().toPlainString())
+        );
+    }
+
+    @Test
+    @DisplayName("should credit unused charge days on early return")
+    void calculate_2() {
+        // 3 charge days (weekend and Labor Day excluded), $8.97
+        var agreement = checkoutCalculator.calculate(tool("JAKR", "Ridgid", ToolType.JACK_HAMMER), 6, 0, LocalDate.of(2015, 9, 3));
+
+        var receipt = returnCalculator.calculate(agreement, LocalDate.of(2015, 9, 4));
+
+        assertAll(
+                () -> assertEquals(5, receipt.getDaysEarly(), "days early"),
+                () -> assertEquals(2, receipt.getUnusedChargeDays(), "unused charge days"),
+                () -> assertEquals(598, receipt.getEarlyReturnCreditCents(), "credit"),
+                () -> assertEquals(0, receipt.getLateChargeCents(), "late charge"),
+                () -> assertEquals(299, receipt.getFinalChargeCents(), "final charge")
+        );
+    }
+
+    @Test
+    @DisplayName("should apply the agreement discount and policy credit percentage to early return credits")
+    void calculate_3() {
+        var halfCredit = new ReturnCalculator(new ClosedFormRentalAgreementCalculator(), ReturnPolicy.builder()
+                .lateFeePercent(0)
+                .earlyReturnCreditPercent(50)
+                .build());
+        // 5 weekday charge days at $2.99, less 25%
+        var agreement = checkoutCalculator.calculate(tool("JAKD", "DeWalt", ToolType.JACK_HAMMER), 7, 25, LocalDate.of(2024, 3, 1));
+
+        var receipt = halfCredit.calculate(agreement, LocalDate.of(2024, 3, 6));
+
+        // 2 unused weekdays (03/07, 03/08): 598 less 25% (150) = 448, half credited = 224
+        assertAll(
+                () -> assertEquals(2, receipt.getUnusedChargeDays(), "unused charge days"),
+                () -> assertEquals(224, receipt.getEarlyReturnCreditCents(), "credit"),
+                () -> assertEquals(agreement.getFinalChargeCents() - 224, receipt.getFinalChargeCents(), "final charge")
+        );
+    }
+
+    @Test
+    @DisplayName("should leave on-time returns unchanged, and reject returns before checkout")
+    void calculate_4() {
+        var agreement = checkoutCalculator.calculate(tool("CHNS", "Stihl", ToolType.CHAINSAW), 5, 25, LocalDate.of(2015, 7, 2));
+
+        var receipt = returnCalculator.calculate(agreement, agreement.getDueDate());
+
+        assertAll(
+                () -> assertEquals(agreement.getFinalChargeCents(), receipt.getFinalChargeCents()),
+                () -> assertEquals(0, receipt.getDaysLate()),
+                () -> assertEquals(0, receipt.getDaysEarly()),
+                () -> assertEquals(receipt, returnCalculator.calculate(agreement, agreement.getDueDate()), "same return, same receipt"),
+                () -> assertThrows(IllegalArgumentException.class, () -> returnCalculator.calculate(agreement, LocalDate.of(2015, 7, 1)))
+        );
+    }
+
+    @Test
+    @DisplayName("delta charge days should match re-pricing the whole window")
+    void calculate_5() {
+        var tools = new Tool[]{tool("LADW", "Werner", ToolType.LADDER), tool("CHNS", "Stihl", ToolType.CHAINSAW),
+                tool("JAKR", "Ridgid", ToolType.JACK_HAMMER)};
+        var checkoutDate = LocalDate.of(2019, 12, 20);
+        for (var tool : tools) {
+            for (int dayCount = 1; dayCount <= 40; dayCount += 3) {
+                RentalAgreement agreement = checkoutCalculator.calculate(tool, dayCount, 0, checkoutDate);
+                for (int actualDays = 0; actualDays <= 60; actualDays += 7) {
+                    var receipt = returnCalculator.calculate(agreement, checkoutDate.plusDays(actualDays));
+                    var repriced = checkoutCalculator.calculate(tool, actualDays, 0, checkoutDate);
+                    var expectedDelta = repriced.getChargeDays() - agreement.getChargeDays();
+
+                    assertEquals(expectedDelta, receipt.getLateChargeDays() - receipt.getUnusedChargeDays(),
+                            "%s, %d days, returned after %d".formatted(tool.getCode(), dayCount, actualDays));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should count return days by the rules captured at checkout, not a republished table")
+    void calculate_6() throws Exception {
+        var pricing = new PricingTableHolder();
+        var calculator = new ClosedFormRentalAgreementCalculator(HolidayCalendars.DEFAULT, pricing);
+        var returns = new ReturnCalculator(calculator, ReturnPolicy.DEFAULT);
+        // 2020-07-06 (Monday), due 2020-07-09; chainsaws are not charged on weekends
+        var agreement = calculator.calculate(tool("CHNS", "Stihl", ToolType.CHAINSAW), 3, 0, LocalDate.of(2020, 7, 6));
+
+        pricing.publish(PricingTable.load(new BufferedReader(new StringReader("""
+                LADDER,1.99,true,true,false
+                CHAINSAW,1.49,true,true,true
+                JACK_HAMMER,2.99,true,false,false
+                """))));
+        // late through the weekend: 07/10 (Friday) and 07/13 (Monday) are charged, 07/11-12 are not
+        var receipt = returns.calculate(agreement, LocalDate.of(2020, 7, 13));
+
+        assertAll(
+                () -> assertEquals(ChargeRules.of(true, false, true), agreement.getChargeRules()),
+                () -> assertEquals(4, receipt.getDaysLate(), "days late"),
+                () -> assertEquals(2, receipt.getLateChargeDays(), "late charge days, by the checkout rules"),
+                () -> assertEquals(4, returns.calculate(RentalAgreement.builder()
+                        .toolType(agreement.getToolType())
+                        .checkoutDate(agreement.getCheckoutDate())
+                        .dueDate(agreement.getDueDate())
+                        .dailyRentalChargeCents(agreement.getDailyRentalChargeCents())
+                        .build(), LocalDate.of(2020, 7, 13)).getLateChargeDays(), "no captured rules: current table")
+        );
+    }
+}
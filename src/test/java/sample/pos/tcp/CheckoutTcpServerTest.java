@@ -0,0 +1,188 @@
+package sample.pos.tcp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.pos.domain.CheckinRequest;
+import sample.pos.handlers.MappedToolCheckoutHandler;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.DefaultRentalAgreementCalculator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Checkout TCP Server")
+class CheckoutTcpServerTest {
+
+    private static final String[] TOOL_CODES = {"CHNS", "LADW", "JAKD", "JAKR", "0000"};
+
+    private final MappedToolCheckoutHandler checkoutHandler = new MappedToolCheckoutHandler(new MappedToolRepository(),
+            new DefaultRentalAgreementCalculator());
+
+    private CheckoutTcpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = CheckoutTcpServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), checkoutHandler, 2,
+                CheckoutTcpServer.DEFAULT_BUFFER_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    private static List<CheckinRequest> requests(int count) {
+        var requests = new ArrayList<CheckinRequest>();
+        for (int i = 0; i < count; i++) {
+            requests.add(CheckinRequest.builder()
+                    .toolCode(TOOL_CODES[i % TOOL_CODES.length])
+                    .dayCount(i % 7 == 0 ? 0 : i % 30)
+                    .discountPercentage(i % 11 == 0 ? 101 : i % 100)
+                    .checkoutDate(LocalDate.of(2020, 7, 2).plusDays(i))
+                    .build());
+        }
+        return requests;
+    }
+
+    /**
+     * Reads responses until {@code count} have been decoded
+     */
+    private static List<CheckoutResponse> readResponses(SocketChannel channel, int count) throws IOException {
+        var responses = new ArrayList<CheckoutResponse>();
+        var buffer = ByteBuffer.allocate(64 * 1024);
+        while (responses.size() < count) {
+            assertTrue(channel.read(buffer) >= 0, "connection closed early");
+            buffer.flip();
+            while (CheckoutFrames.completeFrameLength(buffer) >= 0) {
+                responses.add(CheckoutFrames.decodeResponse(buffer));
+            }
+            buffer.compact();
+        }
+        return responses;
+    }
+
+    @Test
+    @DisplayName("should answer pipelined requests in order, with agreements and domain errors")
+    void pipeline_1() throws Exception {
+        var requests = requests(500);
+        try (var channel = SocketChannel.open(server.getAddress())) {
+            var out = ByteBuffer.allocate(64 * 1024);
+            for (int i = 0; i < requests.size(); i++) {
+                CheckoutFrames.encodeRequest(out, 1_000 + i, requests.get(i));
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+
+            var responses = readResponses(channel, requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                var request = requests.get(i);
+                var response = responses.get(i);
+                assertEquals(1_000 + i, response.getCorrelationId());
+
+                if (request.getDayCount() <= 0) {
+                    assertEquals(CheckoutError.INVALID_DAY_COUNT, response.getError(), "request " + i);
+                } else if (request.getDiscountPercentage() > 100) {
+                    assertEquals(CheckoutError.INVALID_DISCOUNT, response.getError(), "request " + i);
+                } else if (request.getToolCode().equals("0000")) {
+                    assertEquals(CheckoutError.INVALID_TOOL_CODE, response.getError(), "request " + i);
+                    assertEquals("Unable to find tool with given code: <0000>", response.getErrorMessage());
+                } else {
+                    assertTrue(response.isSuccess(), "request " + i);
+                    assertEquals(checkoutHandler.handle(request), response.getAgreement(), "request " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should cut long error messages at a character boundary")
+    void encodeError_1() {
+        // 2- and 3-byte characters, neither of which ends exactly on the 1024 byte limit
+        var accented = "x" + "é".repeat(600);
+        var euros = "€".repeat(400);
+        var out = ByteBuffer.allocate(4 * 1024);
+        CheckoutFrames.encodeError(out, 1, CheckoutError.INVALID_TOOL_CODE, accented);
+        CheckoutFrames.encodeError(out, 2, CheckoutError.INVALID_TOOL_CODE, euros);
+        out.flip();
+
+        var first = CheckoutFrames.decodeResponse(out);
+        var second = CheckoutFrames.decodeResponse(out);
+        assertAll(
+                () -> assertEquals(accented.substring(0, 512), first.getErrorMessage()),
+                () -> assertEquals(euros.substring(0, 341), second.getErrorMessage())
+        );
+    }
+
+    @Test
+    @DisplayName("agreement frames should decode with and without the trailing charge rules byte")
+    void decodeResponse_1() {
+        var tool = new MappedToolRepository().findByToolCode("LADW").orElseThrow();
+        var agreement = new DefaultRentalAgreementCalculator().calculate(tool, 3, 10, LocalDate.of(2020, 7, 2));
+        var out = ByteBuffer.allocate(1024);
+
+        // an older server's frame, without the charge rules byte, pipelined ahead of a current one
+        CheckoutFrames.encodeAgreement(out, 1, agreement);
+        out.position(out.position() - Byte.BYTES);
+        out.putInt(0, out.position() - CheckoutFrames.LENGTH_PREFIX);
+        CheckoutFrames.encodeAgreement(out, 2, agreement);
+        out.flip();
+
+        var older = CheckoutFrames.decodeResponse(out);
+        var current = CheckoutFrames.decodeResponse(out);
+        assertAll(
+                () -> assertEquals(1, older.getCorrelationId()),
+                () -> assertNull(older.getAgreement().getChargeRules(), "older charge rules"),
+                () -> assertEquals(agreement.getFinalChargeCents(), older.getAgreement().getFinalChargeCents()),
+                () -> assertEquals(2, current.getCorrelationId()),
+                () -> assertEquals(agreement, current.getAgreement()),
+                () -> assertFalse(out.hasRemaining())
+        );
+    }
+
+    @Test
+    @DisplayName("should report malformed requests, and close connections sending invalid frame lengths")
+    void malformed_1() throws Exception {
+        try (var channel = SocketChannel.open(server.getAddress())) {
+            var out = ByteBuffer.allocate(64);
+            out.putInt(CheckoutFrames.HEADER_LENGTH + 2).put(CheckoutFrames.CHECKOUT_REQUEST).putInt(7).putShort((short) 40);
+            out.putInt(CheckoutFrames.HEADER_LENGTH).put((byte) 9).putInt(8);
+            out.flip();
+            channel.write(out);
+
+            var responses = readResponses(channel, 2);
+            assertAll(
+                    () -> assertEquals(7, responses.get(0).getCorrelationId()),
+                    () -> assertEquals(CheckoutError.MALFORMED_REQUEST, responses.get(0).getError()),
+                    () -> assertEquals(8, responses.get(1).getCorrelationId()),
+                    () -> assertEquals(CheckoutError.MALFORMED_REQUEST, responses.get(1).getError())
+            );
+
+            channel.write(ByteBuffer.allocate(4).putInt(0, CheckoutFrames.MAX_FRAME_LENGTH + 1));
+            assertEquals(-1, channel.read(ByteBuffer.allocate(16)), "connection should be closed");
+        }
+    }
+
+    @Test
+    @DisplayName("load client should complete every request across pipelined connections")
+    void load_1() throws Exception {
+        var report = new CheckoutLoadClient(server.getAddress(), 4, 32).run(requests(100), 2_000);
+
+        assertAll(
+                () -> assertEquals(8_000, report.getResponses()),
+                () -> assertTrue(report.getErrors() > 0, "errors"),
+                () -> assertTrue(report.getRequestsPerSecond() > 0, "requests per second")
+        );
+    }
+}
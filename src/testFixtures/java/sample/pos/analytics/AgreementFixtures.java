@@ -0,0 +1,38 @@
+package sample.pos.analytics;
+
+import sample.pos.domain.RentalAgreement;
+import sample.pos.domain.Tool;
+import sample.pos.repository.MappedToolRepository;
+import sample.pos.service.ClosedFormRentalAgreementCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Agreements for the analytics tests and benchmarks: every tool in turn, 1 to 30 days, 0% to 100% discount,
+ * checked out over the 1,000 days from the first checkout.
+ */
+public final class AgreementFixtures {
+
+    private AgreementFixtures() {
+    }
+
+    /**
+     * @param count         number of agreements
+     * @param firstCheckout checkout date of the first agreement
+     * @return the agreements, in a deterministic order
+     */
+    public static List<RentalAgreement> agreements(int count, LocalDate firstCheckout) {
+        var calculator = new ClosedFormRentalAgreementCalculator();
+        List<Tool> tools = Stream.of("CHNS", "LADW", "JAKD", "JAKR")
+                .map(code -> new MappedToolRepository().findByToolCode(code).orElseThrow())
+                .toList();
+        var agreements = new ArrayList<RentalAgreement>(count);
+        for (int i = 0; i < count; i++) {
+            agreements.add(calculator.calculate(tools.get(i % tools.size()), 1 + i % 30, i % 101, firstCheckout.plusDays(i % 1_000)));
+        }
+        return agreements;
+    }
+}